@@ -0,0 +1,155 @@
+import benchmarks.Cenario;
+
+import java.io.IOException;
+
+/**
+ * Implementação de benchmarks.Cenario sobre o GrafoColetaReciclaveis.
+ * Fica no pacote padrão, junto com o sistema, para poder usar as suas classes
+ * (ver a documentação de Cenario).
+ */
+public class CenarioGrafo implements Cenario {
+    // Grafo do cenário; trocado a cada carga
+    private GrafoColetaReciclaveis grafo = new GrafoColetaReciclaveis();
+
+    @Override
+    public long gerarArquivos(String topologia, int numPontos, int grauMedio, long semente,
+                              String arquivoPontos, String arquivoConexoes) throws IOException {
+        return GeradorRede.gerar(TopologiaRede.valueOf(topologia), numPontos, grauMedio, semente,
+                arquivoPontos, arquivoConexoes);
+    }
+
+    @Override
+    public Object carregarArquivos(String arquivoPontos, String arquivoConexoes) throws IOException {
+        grafo = new GrafoColetaReciclaveis();
+        grafo.carregarPontosDeColeta(arquivoPontos);
+        grafo.carregarConexoes(arquivoConexoes);
+        return grafo;
+    }
+
+    @Override
+    public void salvarSnapshot(String arquivoSnapshot) throws IOException {
+        grafo.salvarSnapshot(arquivoSnapshot);
+    }
+
+    @Override
+    public Object carregarSnapshot(String arquivoSnapshot, String arquivoPontos, String arquivoConexoes)
+            throws IOException {
+        grafo = new GrafoColetaReciclaveis();
+        if (!grafo.carregarSnapshot(arquivoSnapshot, arquivoPontos, arquivoConexoes)) {
+            throw new IOException("Snapshot ausente ou desatualizado: " + arquivoSnapshot);
+        }
+        return grafo;
+    }
+
+    @Override
+    public void prepararHeuristicaMarcos(int numMarcos) {
+        grafo.usarHeuristicaMarcos(numMarcos);
+        // A primeira busca A* calcula os marcos, fora da medição
+        grafo.encontrarCaminho(1, 1, EstrategiaBusca.A_ESTRELA);
+    }
+
+    @Override
+    public int numPontos() {
+        return grafo.pontos.size();
+    }
+
+    @Override
+    public int numConexoes() {
+        return grafo.conexoes.size();
+    }
+
+    @Override
+    public String nome(int id) {
+        PontoColeta ponto = grafo.pontos.get(id);
+        return ponto != null ? ponto.nome : null;
+    }
+
+    @Override
+    public Object buscarCaminho(int origem, int destino, String estrategia) {
+        return grafo.encontrarCaminho(origem, destino, EstrategiaBusca.valueOf(estrategia));
+    }
+
+    @Override
+    public Object buscarPorNome(String nome) {
+        return grafo.bst.buscar(nome);
+    }
+
+    @Override
+    public Object buscarPorPrefixo(String prefixo) {
+        return grafo.trie.buscarPorPrefixo(prefixo);
+    }
+
+    @Override
+    public Object buscarPorPrefixo(String prefixo, int limite, String ordem) {
+        return grafo.buscarPorPrefixo(prefixo, limite, OrdemPrefixo.valueOf(ordem));
+    }
+
+    @Override
+    public Object construirTrie(String implementacao) {
+        if (implementacao.equals("MAPA")) {
+            ArvoreTrieMapa trie = new ArvoreTrieMapa();
+            for (PontoColeta p : grafo.pontos.values()) trie.inserir(p);
+            return trie;
+        }
+        ArvoreTrie trie = new ArvoreTrie();
+        for (PontoColeta p : grafo.pontos.values()) trie.inserir(p);
+        return trie;
+    }
+
+    @Override
+    public Object buscarPorPrefixo(Object trie, String prefixo) {
+        return trie instanceof ArvoreTrieMapa ? ((ArvoreTrieMapa) trie).buscarPorPrefixo(prefixo)
+                : ((ArvoreTrie) trie).buscarPorPrefixo(prefixo);
+    }
+
+    @Override
+    public long estimarMemoriaTrie(Object trie) {
+        return trie instanceof ArvoreTrieMapa ? ((ArvoreTrieMapa) trie).estimarMemoriaBytes()
+                : ((ArvoreTrie) trie).estimarMemoriaBytes();
+    }
+
+    @Override
+    public Object gerarMatrizAdjacencia() {
+        return grafo.gerarMatrizAdjacencia();
+    }
+
+    @Override
+    public Object gerarMatrizAdjacenciaEsparsa() {
+        return grafo.gerarMatrizAdjacenciaEsparsa();
+    }
+
+    @Override
+    public Object gerarMatrizIncidencia() {
+        return grafo.gerarMatrizIncidencia();
+    }
+
+    @Override
+    public Object gerarMatrizIncidenciaEsparsa() {
+        return grafo.gerarMatrizIncidenciaEsparsa();
+    }
+
+    @Override
+    public void adicionarPonto(String nome) {
+        grafo.adicionarPonto(nome);
+    }
+
+    @Override
+    public void editarPonto(int id, String novoNome) {
+        grafo.editarPonto(id, novoNome);
+    }
+
+    @Override
+    public void excluirPonto(int id) {
+        grafo.excluirPonto(id);
+    }
+
+    @Override
+    public void adicionarConexao(int origem, int destino, int distancia) {
+        grafo.adicionarConexao(origem, destino, distancia);
+    }
+
+    @Override
+    public void excluirConexao(int indice) {
+        grafo.excluirConexao(indice);
+    }
+}
@@ -0,0 +1,77 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Buscas por nome: exata na BST (nomes existentes e inexistentes) e por prefixo na
+ * Trie, tanto a lista completa quanto as primeiras sugestões (type-ahead).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BuscaNomeBenchmark extends RedeBenchmark {
+    // Quantidade de sugestões da busca por prefixo limitada
+    private static final int LIMITE_SUGESTOES = 10;
+    // Tamanho dos prefixos sorteados: "Ecoponto Rua Sa" já separa tipo e logradouro
+    private static final int TAMANHO_PREFIXO = 15;
+
+    @Param({"1000", "10000", "100000"})
+    public int numPontos;
+
+    private String[] nomes;
+    private String[] ausentes;
+    private String[] prefixos;
+
+    @Setup
+    public void preparar() throws IOException {
+        prepararRede(numPontos);
+        int[] ids = sortearIds();
+        nomes = new String[ids.length];
+        ausentes = new String[ids.length];
+        prefixos = new String[ids.length];
+        for (int i = 0; i < ids.length; i++) {
+            nomes[i] = cenario.nome(ids[i]).toLowerCase();
+            // Mesmo nome com dígitos a mais no número: um ID que não existe na rede
+            ausentes[i] = nomes[i] + "0000000";
+            prefixos[i] = nomes[i].substring(0, Math.min(TAMANHO_PREFIXO, nomes[i].length()));
+        }
+    }
+
+    @Benchmark
+    public Object buscarNomeExistenteBST() {
+        return cenario.buscarPorNome(nomes[proximaConsulta()]);
+    }
+
+    @Benchmark
+    public Object buscarNomeAusenteBST() {
+        return cenario.buscarPorNome(ausentes[proximaConsulta()]);
+    }
+
+    @Benchmark
+    public Object buscarPrefixoCompletoTrie() {
+        return cenario.buscarPorPrefixo(prefixos[proximaConsulta()]);
+    }
+
+    @Benchmark
+    public Object buscarPrefixoAlfabeticoTrie() {
+        return cenario.buscarPorPrefixo(prefixos[proximaConsulta()], LIMITE_SUGESTOES, "ALFABETICA");
+    }
+
+    @Benchmark
+    public Object buscarPrefixoPorPontuacaoTrie() {
+        return cenario.buscarPorPrefixo(prefixos[proximaConsulta()], LIMITE_SUGESTOES, "PONTUACAO");
+    }
+}
@@ -0,0 +1,52 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Consultas de caminho entre pares de pontos sorteados, por topologia e estratégia de busca.
+ * A estratégia BFS mede também encontrarCaminhoBFS, que delega a ela; os marcos do A* são
+ * calculados no @Setup, fora da medição.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CaminhoBenchmark extends RedeBenchmark {
+    @Param({"1000", "10000", "100000"})
+    public int numPontos;
+
+    @Param({"GRADE", "GEOMETRICA", "LIVRE_DE_ESCALA"})
+    public String topologia;
+
+    @Param({"BFS", "DIJKSTRA", "DIJKSTRA_BIDIRECIONAL", "A_ESTRELA"})
+    public String estrategia;
+
+    private int[] origens;
+    private int[] destinos;
+
+    @Setup
+    public void preparar() throws IOException {
+        prepararRede(numPontos, topologia);
+        origens = sortearIds();
+        destinos = sortearIds();
+        if (estrategia.equals("A_ESTRELA")) cenario.prepararHeuristicaMarcos(8);
+    }
+
+    @Benchmark
+    public Object encontrarCaminho() {
+        int i = proximaConsulta();
+        return cenario.buscarCaminho(origens[i], destinos[i], estrategia);
+    }
+}
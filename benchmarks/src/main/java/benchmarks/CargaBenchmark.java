@@ -0,0 +1,47 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Carga da rede: leitura dos arquivos de texto (com a construção da adjacência, da BST
+ * e da Trie) e leitura do snapshot binário equivalente.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CargaBenchmark extends RedeBenchmark {
+    @Param({"1000", "10000", "100000"})
+    public int numPontos;
+
+    private String arquivoSnapshot;
+
+    @Setup
+    public void preparar() throws IOException {
+        prepararRede(numPontos);
+        arquivoSnapshot = diretorio.resolve("grafo.snap").toString();
+        cenario.salvarSnapshot(arquivoSnapshot);
+    }
+
+    @Benchmark
+    public Object carregarArquivosTexto() throws IOException {
+        return cenario.carregarArquivos(arquivoPontos, arquivoConexoes);
+    }
+
+    @Benchmark
+    public Object carregarSnapshot() throws IOException {
+        return cenario.carregarSnapshot(arquivoSnapshot, arquivoPontos, arquivoConexoes);
+    }
+}
@@ -0,0 +1,144 @@
+package benchmarks;
+
+import java.io.IOException;
+
+/**
+ * Operações do sistema medidas pelos benchmarks, sobre um grafo sintético.
+ *
+ * O JMH exige que as classes de benchmark estejam em um pacote nomeado, e classes de
+ * pacotes nomeados não podem importar as do pacote padrão, onde está todo o sistema.
+ * Por isso os benchmarks falam com o grafo por esta interface, implementada por
+ * CenarioGrafo (no pacote padrão). A implementação é obtida por reflexão só uma vez,
+ * no @Setup; as chamadas medidas são chamadas de interface comuns.
+ */
+public interface Cenario {
+
+    /**
+     * Cria um cenário novo, com um grafo vazio.
+     * @return A implementação do pacote padrão.
+     */
+    static Cenario novo() {
+        try {
+            return (Cenario) Class.forName("CenarioGrafo").getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("CenarioGrafo não encontrado no classpath", e);
+        }
+    }
+
+    /**
+     * Grava uma rede sintética nos formatos de texto do sistema, pelo GeradorRede.
+     * Os IDs vão de 1 a numPontos.
+     * @param topologia O nome de uma constante de TopologiaRede.
+     * @param numPontos A quantidade de pontos.
+     * @param grauMedio A quantidade média de conexões de saída por ponto.
+     * @param semente A semente do gerador (mesma semente, mesma rede).
+     * @param arquivoPontos O arquivo de pontos a gravar (ID;Nome).
+     * @param arquivoConexoes O arquivo de conexões a gravar (OrigemID;DestinoID;Distancia).
+     * @return A quantidade de conexões gravadas.
+     * @throws IOException Se houver erro de escrita.
+     */
+    long gerarArquivos(String topologia, int numPontos, int grauMedio, long semente,
+                       String arquivoPontos, String arquivoConexoes) throws IOException;
+
+    /**
+     * Carrega os arquivos de texto em um grafo novo, que passa a ser o grafo do cenário.
+     * @return O grafo carregado (para o Blackhole).
+     * @throws IOException Se houver erro de leitura.
+     */
+    Object carregarArquivos(String arquivoPontos, String arquivoConexoes) throws IOException;
+
+    /**
+     * Grava o snapshot binário do grafo do cenário.
+     * @throws IOException Se houver erro de escrita.
+     */
+    void salvarSnapshot(String arquivoSnapshot) throws IOException;
+
+    /**
+     * Carrega o snapshot binário em um grafo novo, que passa a ser o grafo do cenário.
+     * @return O grafo carregado.
+     * @throws IOException Se houver erro de leitura ou se o snapshot estiver desatualizado.
+     */
+    Object carregarSnapshot(String arquivoSnapshot, String arquivoPontos, String arquivoConexoes) throws IOException;
+
+    /**
+     * Configura o A* com a heurística de marcos e calcula os marcos.
+     * @param numMarcos A quantidade de marcos.
+     */
+    void prepararHeuristicaMarcos(int numMarcos);
+
+    /**
+     * @return A quantidade de pontos do grafo do cenário.
+     */
+    int numPontos();
+
+    /**
+     * @return A quantidade de conexões do grafo do cenário.
+     */
+    int numConexoes();
+
+    /**
+     * @param id O ID do ponto.
+     * @return O nome do ponto, ou null se ele não existir.
+     */
+    String nome(int id);
+
+    /**
+     * @param estrategia O nome de uma constante de EstrategiaBusca.
+     * @return O resultado de encontrarCaminho.
+     */
+    Object buscarCaminho(int origem, int destino, String estrategia);
+
+    /** @return O ponto encontrado pela BST, ou null. */
+    Object buscarPorNome(String nome);
+
+    /** @return Todos os pontos com o prefixo, pela Trie. */
+    Object buscarPorPrefixo(String prefixo);
+
+    /**
+     * @param ordem O nome de uma constante de OrdemPrefixo.
+     * @return Os primeiros 'limite' pontos com o prefixo, pela Trie.
+     */
+    Object buscarPorPrefixo(String prefixo, int limite, String ordem);
+
+    /**
+     * Monta uma Trie avulsa com os nomes dos pontos do cenário.
+     * @param implementacao "RADIX" (ArvoreTrie) ou "MAPA" (ArvoreTrieMapa, a Trie original de HashMap).
+     * @return A Trie montada.
+     */
+    Object construirTrie(String implementacao);
+
+    /** @return Todos os pontos com o prefixo, na Trie montada por construirTrie. */
+    Object buscarPorPrefixo(Object trie, String prefixo);
+
+    /** @return A memória estimada, em bytes, da Trie montada por construirTrie. */
+    long estimarMemoriaTrie(Object trie);
+
+    /** @return A matriz de adjacência densa. */
+    Object gerarMatrizAdjacencia();
+
+    /** @return A matriz de adjacência esparsa. */
+    Object gerarMatrizAdjacenciaEsparsa();
+
+    /** @return A matriz de incidência densa. */
+    Object gerarMatrizIncidencia();
+
+    /** @return A matriz de incidência esparsa. */
+    Object gerarMatrizIncidenciaEsparsa();
+
+    /**
+     * Adiciona um ponto ao grafo do cenário; ele recebe o maior ID + 1.
+     */
+    void adicionarPonto(String nome);
+
+    /** Renomeia um ponto (editarPonto do grafo). */
+    void editarPonto(int id, String novoNome);
+
+    /** Exclui um ponto e as suas conexões (excluirPonto do grafo). */
+    void excluirPonto(int id);
+
+    /** Adiciona uma conexão ao final da lista de conexões. */
+    void adicionarConexao(int origem, int destino, int distancia);
+
+    /** Exclui a conexão na posição informada da lista de conexões. */
+    void excluirConexao(int indice);
+}
@@ -0,0 +1,43 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Geração das matrizes esparsas (adjacência e incidência), em todos os tamanhos.
+ * As formas densas ficam em MatrizDensaBenchmark, que usa redes menores.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MatrizBenchmark extends RedeBenchmark {
+    @Param({"1000", "10000", "100000"})
+    public int numPontos;
+
+    @Setup
+    public void preparar() throws IOException {
+        prepararRede(numPontos);
+    }
+
+    @Benchmark
+    public Object gerarMatrizAdjacenciaEsparsa() {
+        return cenario.gerarMatrizAdjacenciaEsparsa();
+    }
+
+    @Benchmark
+    public Object gerarMatrizIncidenciaEsparsa() {
+        return cenario.gerarMatrizIncidenciaEsparsa();
+    }
+}
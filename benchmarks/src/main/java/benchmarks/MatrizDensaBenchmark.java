@@ -0,0 +1,43 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Geração das matrizes densas exibidas na interface. Os tamanhos respeitam o limite
+ * de células do grafo (LIMITE_MATRIZ_DENSA): a incidência tem uma coluna por conexão.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MatrizDensaBenchmark extends RedeBenchmark {
+    @Param({"250", "1000", "2000"})
+    public int numPontos;
+
+    @Setup
+    public void preparar() throws IOException {
+        prepararRede(numPontos);
+    }
+
+    @Benchmark
+    public Object gerarMatrizAdjacencia() {
+        return cenario.gerarMatrizAdjacencia();
+    }
+
+    @Benchmark
+    public Object gerarMatrizIncidencia() {
+        return cenario.gerarMatrizIncidencia();
+    }
+}
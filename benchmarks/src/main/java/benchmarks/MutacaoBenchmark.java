@@ -0,0 +1,62 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Vazão das alterações feitas pela interface. Cada operação desfaz a anterior
+ * (inclui e exclui, renomeia e volta), para que a rede mantenha o tamanho medido.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MutacaoBenchmark extends RedeBenchmark {
+    @Param({"1000", "10000", "100000"})
+    public int numPontos;
+
+    private int[] origens;
+    private int[] destinos;
+    private String[] nomesOriginais;
+
+    @Setup
+    public void preparar() throws IOException {
+        prepararRede(numPontos);
+        origens = sortearIds();
+        destinos = sortearIds();
+        nomesOriginais = new String[origens.length];
+        for (int i = 0; i < origens.length; i++) nomesOriginais[i] = cenario.nome(origens[i]);
+    }
+
+    @Benchmark
+    public void adicionarEExcluirPonto() {
+        // O novo ponto recebe o maior ID + 1, e a rede tem IDs de 1 a numPontos
+        cenario.adicionarPonto("Ecoponto Temporário");
+        cenario.excluirPonto(numPontos + 1);
+    }
+
+    @Benchmark
+    public void editarPonto() {
+        int i = proximaConsulta();
+        cenario.editarPonto(origens[i], "Ponto Renomeado " + i);
+        cenario.editarPonto(origens[i], nomesOriginais[i]);
+    }
+
+    @Benchmark
+    public void adicionarEExcluirConexao() {
+        int i = proximaConsulta();
+        cenario.adicionarConexao(origens[i], destinos[i], 500);
+        cenario.excluirConexao(cenario.numConexoes() - 1);
+    }
+}
@@ -0,0 +1,89 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.Random;
+import java.util.stream.Stream;
+
+/**
+ * Base dos benchmarks: gera uma rede sintética (GeradorRede) em um diretório temporário,
+ * carrega-a pelo caminho normal do sistema (arquivos de texto) e sorteia as consultas.
+ * Cada subclasse declara o seu próprio @Param de tamanhos, porque nem toda operação
+ * cabe em todos os tamanhos (ex.: as matrizes densas).
+ */
+@State(Scope.Benchmark)
+public abstract class RedeBenchmark {
+    // Conexões de saída por ponto, em média; abaixo de ~5 a rede geométrica se fragmenta
+    protected static final int GRAU_MEDIO = 6;
+    // Topologia usada quando o benchmark não varia a topologia
+    protected static final String TOPOLOGIA_PADRAO = "GEOMETRICA";
+    // Semente fixa: execuções diferentes medem exatamente a mesma rede
+    protected static final long SEMENTE = 42;
+    // Quantidade de consultas sorteadas (potência de 2, percorridas em ciclo)
+    protected static final int NUM_CONSULTAS = 1024;
+
+    protected Cenario cenario;
+    protected Path diretorio;
+    protected String arquivoPontos;
+    protected String arquivoConexoes;
+    protected Random aleatorio;
+    // Posição da próxima consulta no ciclo
+    private int proxima;
+
+    /**
+     * Gera os arquivos de uma rede geométrica e os carrega no cenário.
+     * @param numPontos A quantidade de pontos da rede.
+     * @throws IOException Se houver erro nos arquivos temporários.
+     */
+    protected void prepararRede(int numPontos) throws IOException {
+        prepararRede(numPontos, TOPOLOGIA_PADRAO);
+    }
+
+    /**
+     * Gera os arquivos da rede e os carrega no cenário.
+     * @param numPontos A quantidade de pontos da rede.
+     * @param topologia O nome de uma constante de TopologiaRede.
+     * @throws IOException Se houver erro nos arquivos temporários.
+     */
+    protected void prepararRede(int numPontos, String topologia) throws IOException {
+        diretorio = Files.createTempDirectory("reciclaveis-bench");
+        arquivoPontos = diretorio.resolve("pontos.txt").toString();
+        arquivoConexoes = diretorio.resolve("conexoes.txt").toString();
+        cenario = Cenario.novo();
+        cenario.gerarArquivos(topologia, numPontos, GRAU_MEDIO, SEMENTE, arquivoPontos, arquivoConexoes);
+        cenario.carregarArquivos(arquivoPontos, arquivoConexoes);
+        aleatorio = new Random(SEMENTE);
+    }
+
+    /**
+     * @return Os IDs de 'NUM_CONSULTAS' pontos sorteados da rede (IDs de 1 a numPontos).
+     */
+    protected int[] sortearIds() {
+        int[] ids = new int[NUM_CONSULTAS];
+        for (int i = 0; i < ids.length; i++) ids[i] = 1 + aleatorio.nextInt(cenario.numPontos());
+        return ids;
+    }
+
+    /**
+     * @return A posição da próxima consulta, de 0 a NUM_CONSULTAS - 1, em ciclo.
+     */
+    protected int proximaConsulta() {
+        return proxima++ & (NUM_CONSULTAS - 1);
+    }
+
+    @TearDown
+    public void apagarArquivos() throws IOException {
+        if (diretorio == null) return;
+        try (Stream<Path> arquivos = Files.walk(diretorio)) {
+            for (Path p : (Iterable<Path>) arquivos.sorted(Comparator.reverseOrder())::iterator) {
+                Files.deleteIfExists(p);
+            }
+        }
+    }
+}
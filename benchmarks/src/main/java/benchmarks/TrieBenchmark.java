@@ -0,0 +1,68 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Trie radix (ArvoreTrie) contra a Trie original de HashMap (ArvoreTrieMapa), montadas
+ * com os nomes da rede: construção completa e busca por prefixos de 1 a 6 caracteres.
+ * A memória estimada de cada uma é impressa no fim de cada tamanho de rede.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TrieBenchmark extends RedeBenchmark {
+    // Maior tamanho dos prefixos sorteados
+    private static final int TAMANHO_MAXIMO_PREFIXO = 6;
+
+    @Param({"1000", "10000", "100000"})
+    public int numPontos;
+
+    @Param({"RADIX", "MAPA"})
+    public String implementacao;
+
+    private Object trie;
+    private String[] prefixos;
+
+    @Setup
+    public void preparar() throws IOException {
+        prepararRede(numPontos);
+        trie = cenario.construirTrie(implementacao);
+        int[] ids = sortearIds();
+        prefixos = new String[ids.length];
+        for (int i = 0; i < ids.length; i++) {
+            String nome = cenario.nome(ids[i]);
+            prefixos[i] = nome.substring(0, Math.min(nome.length(), 1 + aleatorio.nextInt(TAMANHO_MAXIMO_PREFIXO)));
+        }
+    }
+
+    @TearDown
+    public void mostrarMemoria() {
+        System.out.printf("%n%s com %d pontos: memória estimada de %d bytes%n",
+                implementacao, numPontos, cenario.estimarMemoriaTrie(trie));
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public Object construir() {
+        return cenario.construirTrie(implementacao);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public Object buscarPrefixo() {
+        return cenario.buscarPorPrefixo(trie, prefixos[proximaConsulta()]);
+    }
+}
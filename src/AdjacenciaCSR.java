@@ -0,0 +1,368 @@
+import java.util.*;
+
+/**
+ * Núcleo de adjacência do grafo no formato CSR (Compressed Sparse Row) com folga.
+ * Cada ponto recebe um índice denso (0 a n-1). As arestas são mantidas nos dois
+ * sentidos: 'saida' (sucessores de cada vértice) e 'entrada' (predecessores),
+ * ambos em vetores primitivos contíguos, sem boxing.
+ * As mutações são aplicadas como deltas nos dois sentidos (ver SegmentosAdjacencia).
+ */
+public class AdjacenciaCSR {
+    // Capacidade mínima dos vetores por vértice
+    private static final int CAPACIDADE_MINIMA = 4;
+
+    // Índice denso -> ID do ponto (na ordem de inserção; uma exclusão move o último para a vaga)
+    int[] ids;
+    // ID do ponto -> índice denso
+    final MapaIdIndice indicePorId;
+    // Quantidade de vértices (índices densos em uso)
+    private int numVertices;
+    // Contador de mutações; estruturas derivadas (ex.: heurísticas) o usam para detectar alterações
+    private long versao;
+
+    // Arestas de saída (vizinhos = destinos) e de entrada (vizinhos = origens)
+    final SegmentosAdjacencia saida;
+    final SegmentosAdjacencia entrada;
+
+    private AdjacenciaCSR(int[] ids, MapaIdIndice indicePorId, int numVertices,
+                          SegmentosAdjacencia saida, SegmentosAdjacencia entrada) {
+        this.ids = ids;
+        this.indicePorId = indicePorId;
+        this.numVertices = numVertices;
+        this.saida = saida;
+        this.entrada = entrada;
+    }
+
+    /**
+     * Constrói a estrutura CSR em O(V + E) a partir dos pontos e da lista de arestas.
+     * Conexões cuja origem ou destino não é um ponto conhecido são ignoradas.
+     * A ordem das arestas de cada vértice segue a ordem da lista de conexões.
+     * @param idsPontos Os IDs dos pontos, na ordem que define os índices densos.
+     * @param lista A lista de conexões (arestas).
+     * @return A adjacência construída.
+     */
+    public static AdjacenciaCSR construir(Collection<Integer> idsPontos, List<Conexao> lista) {
+        int[] ids = new int[idsPontos.size()];
+        int i = 0;
+        for (int id : idsPontos) ids[i++] = id;
+
+        // Converte as conexões para vetores primitivos de extremos (IDs) e pesos
+        int m = lista.size();
+        int[] origens = new int[m];
+        int[] destinos = new int[m];
+        int[] pesos = new int[m];
+        Conexao[] refs = lista.toArray(new Conexao[0]);
+        for (int k = 0; k < m; k++) {
+            origens[k] = refs[k].origem;
+            destinos[k] = refs[k].destino;
+            pesos[k] = refs[k].distancia;
+        }
+        return construir(ids, ids.length, origens, destinos, pesos, refs, m);
+    }
+
+    /**
+     * Constrói a estrutura CSR em O(V + E) diretamente de vetores primitivos (usado
+     * pela carga de arquivos). Os vetores de arestas são reaproveitados: os IDs de
+     * origem e destino são substituídos pelos índices densos, e as arestas com um
+     * extremo desconhecido são descartadas no próprio vetor.
+     * @param idsPontos Os IDs dos pontos, na ordem que define os índices densos.
+     * @param n A quantidade de pontos em 'idsPontos'.
+     * @param origens O ID de origem de cada aresta (sobrescrito).
+     * @param destinos O ID de destino de cada aresta (sobrescrito).
+     * @param pesos A distância de cada aresta (sobrescrito).
+     * @param conexoes A conexão de cada aresta (sobrescrito).
+     * @param m A quantidade de arestas.
+     * @return A adjacência construída.
+     */
+    public static AdjacenciaCSR construir(int[] idsPontos, int n, int[] origens, int[] destinos,
+                                          int[] pesos, Conexao[] conexoes, int m) {
+        int[] ids = Arrays.copyOf(idsPontos, Math.max(CAPACIDADE_MINIMA, n));
+        MapaIdIndice indicePorId = new MapaIdIndice(n);
+        for (int i = 0; i < n; i++) indicePorId.colocar(ids[i], i);
+
+        // Troca IDs por índices, compactando as arestas válidas no início dos vetores
+        int validas = 0;
+        for (int k = 0; k < m; k++) {
+            int o = indicePorId.obter(origens[k]);
+            int d = indicePorId.obter(destinos[k]);
+            if (o < 0 || d < 0) continue;
+            origens[validas] = o;
+            destinos[validas] = d;
+            pesos[validas] = pesos[k];
+            conexoes[validas++] = conexoes[k];
+        }
+        return construirPorIndices(ids, indicePorId, n, origens, destinos, pesos, conexoes, validas);
+    }
+
+    /**
+     * Constrói a estrutura CSR a partir de arestas já expressas em índices densos
+     * (usado pelo snapshot binário, que grava os índices e não os IDs).
+     * @param ids O vetor de IDs por índice (com capacidade >= n), adotado sem cópia.
+     * @param indicePorId O mapa de ID para índice já preenchido.
+     * @param n A quantidade de vértices.
+     * @param origens O índice de origem de cada aresta.
+     * @param destinos O índice de destino de cada aresta.
+     * @param pesos A distância de cada aresta.
+     * @param conexoes A conexão de cada aresta.
+     * @param m A quantidade de arestas.
+     * @return A adjacência construída.
+     */
+    static AdjacenciaCSR construirPorIndices(int[] ids, MapaIdIndice indicePorId, int n, int[] origens,
+                                             int[] destinos, int[] pesos, Conexao[] conexoes, int m) {
+        if (ids.length < CAPACIDADE_MINIMA) ids = Arrays.copyOf(ids, CAPACIDADE_MINIMA);
+        SegmentosAdjacencia saida = new SegmentosAdjacencia(n, ids.length, m, origens, destinos, pesos, conexoes);
+        SegmentosAdjacencia entrada = new SegmentosAdjacencia(n, ids.length, m, destinos, origens, pesos, conexoes);
+        return new AdjacenciaCSR(ids, indicePorId, n, saida, entrada);
+    }
+
+    /**
+     * @return O número de vértices.
+     */
+    public int numVertices() {
+        return numVertices;
+    }
+
+    /**
+     * @return O número de arestas válidas (com ambos os extremos conhecidos).
+     */
+    public int numArestas() {
+        return saida.numArestas();
+    }
+
+    /**
+     * @return O contador de mutações aplicadas a esta adjacência.
+     */
+    public long versao() {
+        return versao;
+    }
+
+    /**
+     * @param id O ID de um ponto.
+     * @return O índice denso do ponto, ou -1 se não existir.
+     */
+    public int indice(int id) {
+        return indicePorId.obter(id);
+    }
+
+    /**
+     * @param indice O índice denso de um vértice.
+     * @return O ID do ponto correspondente.
+     */
+    public int id(int indice) {
+        return ids[indice];
+    }
+
+    // ==================== MUTAÇÕES INCREMENTAIS ====================
+
+    /**
+     * Acrescenta um vértice sem arestas ao final dos índices densos. Custo O(1) amortizado.
+     * @param id O ID do novo ponto.
+     * @return O índice denso atribuído.
+     */
+    public int adicionarVertice(int id) {
+        int v = indicePorId.obter(id);
+        if (v >= 0) return v;
+        if (numVertices == ids.length) {
+            int novo = ids.length * 2;
+            ids = Arrays.copyOf(ids, novo);
+            saida.garantirVertices(novo);
+            entrada.garantirVertices(novo);
+        }
+        v = numVertices++;
+        ids[v] = id;
+        // Segmentos vazios: serão alocados na primeira inserção de aresta
+        saida.iniciarVertice(v);
+        entrada.iniciarVertice(v);
+        indicePorId.colocar(id, v);
+        versao++;
+        return v;
+    }
+
+    /**
+     * Insere a aresta de uma conexão nos dois sentidos. Custo O(1) amortizado.
+     * @param c A conexão a inserir.
+     * @return true se a aresta foi inserida; false se um dos extremos não é um ponto conhecido.
+     */
+    public boolean adicionarAresta(Conexao c) {
+        int o = indicePorId.obter(c.origem);
+        int d = indicePorId.obter(c.destino);
+        if (o < 0 || d < 0) return false;
+        saida.adicionar(o, d, c.distancia, c, numVertices);
+        entrada.adicionar(d, o, c.distancia, c, numVertices);
+        versao++;
+        return true;
+    }
+
+    /**
+     * Remove a aresta de uma conexão (identificada por referência) dos dois sentidos.
+     * As demais arestas mantêm a ordem relativa. Custo O(grau).
+     * @param c A conexão a remover, com os valores de origem ainda inalterados.
+     * @return true se a aresta estava na adjacência e foi removida.
+     */
+    public boolean removerAresta(Conexao c) {
+        int o = indicePorId.obter(c.origem);
+        if (o < 0) return false;
+        int k = saida.posicaoDe(o, c);
+        if (k < 0) return false;
+        int d = saida.vizinhos[k];
+        saida.removerPosicao(o, k);
+        entrada.remover(d, c);
+        versao++;
+        return true;
+    }
+
+    /**
+     * Atualiza destino e peso de uma aresta já presente no segmento de origem. Custo O(grau).
+     * A origem da conexão não pode ter mudado (nesse caso use remover + adicionar).
+     * @param c A conexão já com os novos valores de destino e distância.
+     * @return true se a aresta foi atualizada; false se ela não está na adjacência
+     *         ou se o novo destino não é um ponto conhecido.
+     */
+    public boolean atualizarAresta(Conexao c) {
+        int o = indicePorId.obter(c.origem);
+        int d = indicePorId.obter(c.destino);
+        if (o < 0 || d < 0) return false;
+        int k = saida.posicaoDe(o, c);
+        if (k < 0) return false;
+        int destinoAntigo = saida.vizinhos[k];
+        saida.vizinhos[k] = d;
+        saida.pesos[k] = c.distancia;
+        if (destinoAntigo != d) {
+            // O predecessor muda de segmento no sentido de entrada
+            entrada.remover(destinoAntigo, c);
+            entrada.adicionar(d, o, c.distancia, c, numVertices);
+        } else {
+            entrada.pesos[entrada.posicaoDe(d, c)] = c.distancia;
+        }
+        versao++;
+        return true;
+    }
+
+    /**
+     * Remove um vértice e todas as suas arestas. Para manter os índices densos contíguos,
+     * o último vértice passa a ocupar o índice removido, e as referências a ele nos
+     * segmentos dos vizinhos são corrigidas. Custo proporcional à soma dos graus dos
+     * vizinhos do vértice removido e do último vértice, sem percorrer o grafo.
+     * @param id O ID do ponto a remover.
+     * @return As conexões removidas (cada uma uma única vez), ou uma lista vazia se o ID não existir.
+     */
+    public List<Conexao> removerVertice(int id) {
+        int v = indicePorId.obter(id);
+        if (v < 0) return Collections.emptyList();
+        List<Conexao> removidas = new ArrayList<>(saida.grau[v] + entrada.grau[v]);
+        // Arestas de saída: retira cada uma do segmento de entrada do destino
+        for (int k = saida.inicio[v], f = k + saida.grau[v]; k < f; k++) {
+            int d = saida.vizinhos[k];
+            if (d != v) entrada.remover(d, saida.conexoes[k]);
+            removidas.add(saida.conexoes[k]);
+        }
+        // Arestas de entrada: retira cada uma do segmento de saída da origem (laços já contados)
+        for (int k = entrada.inicio[v], f = k + entrada.grau[v]; k < f; k++) {
+            int o = entrada.vizinhos[k];
+            if (o == v) continue;
+            saida.remover(o, entrada.conexoes[k]);
+            removidas.add(entrada.conexoes[k]);
+        }
+        saida.esvaziar(v);
+        entrada.esvaziar(v);
+
+        // O último vértice ocupa o índice liberado
+        int u = numVertices - 1;
+        if (u != v) {
+            for (int k = saida.inicio[u], f = k + saida.grau[u]; k < f; k++) {
+                int d = saida.vizinhos[k];
+                if (d == u) saida.vizinhos[k] = v;
+                else entrada.vizinhos[entrada.posicaoDe(d, saida.conexoes[k])] = v;
+            }
+            for (int k = entrada.inicio[u], f = k + entrada.grau[u]; k < f; k++) {
+                int o = entrada.vizinhos[k];
+                if (o == u) entrada.vizinhos[k] = v;
+                else saida.vizinhos[saida.posicaoDe(o, entrada.conexoes[k])] = v;
+            }
+            saida.moverVertice(u, v);
+            entrada.moverVertice(u, v);
+            ids[v] = ids[u];
+            indicePorId.colocar(ids[v], v);
+        }
+        indicePorId.remover(id);
+        numVertices--;
+        versao++;
+        return removidas;
+    }
+
+    // ==================== CONSULTAS ====================
+
+    /**
+     * Calcula o grau (entrada + saída) de cada vértice.
+     * @return Um vetor indexado pelo índice denso com o grau de cada vértice.
+     */
+    public int[] graus() {
+        int[] graus = new int[numVertices];
+        for (int v = 0; v < numVertices; v++) graus[v] = saida.grau[v] + entrada.grau[v];
+        return graus;
+    }
+
+    /**
+     * Cria uma visão somente leitura no formato da antiga Lista de Sucessores
+     * (ID do ponto -> conexões de saída), apoiada diretamente nos vetores CSR.
+     * @return Um Map que não copia as arestas.
+     */
+    public Map<Integer, List<Conexao>> visaoSucessores() {
+        return new AbstractMap<Integer, List<Conexao>>() {
+            @Override
+            public List<Conexao> get(Object chave) {
+                if (!(chave instanceof Integer)) return null;
+                int v = indice((Integer) chave);
+                return v < 0 ? null : sucessores(v);
+            }
+
+            @Override
+            public boolean containsKey(Object chave) {
+                return chave instanceof Integer && indice((Integer) chave) >= 0;
+            }
+
+            @Override
+            public int size() {
+                return numVertices;
+            }
+
+            @Override
+            public Set<Entry<Integer, List<Conexao>>> entrySet() {
+                return new AbstractSet<Entry<Integer, List<Conexao>>>() {
+                    @Override
+                    public Iterator<Entry<Integer, List<Conexao>>> iterator() {
+                        return new Iterator<Entry<Integer, List<Conexao>>>() {
+                            int v = 0;
+
+                            @Override
+                            public boolean hasNext() {
+                                return v < numVertices;
+                            }
+
+                            @Override
+                            public Entry<Integer, List<Conexao>> next() {
+                                if (v >= numVertices) throw new NoSuchElementException();
+                                int atual = v++;
+                                return new AbstractMap.SimpleImmutableEntry<>(ids[atual], sucessores(atual));
+                            }
+                        };
+                    }
+
+                    @Override
+                    public int size() {
+                        return numVertices;
+                    }
+                };
+            }
+        };
+    }
+
+    /**
+     * @param v O índice denso do vértice.
+     * @return As conexões de saída do vértice, como lista somente leitura.
+     */
+    private List<Conexao> sucessores(int v) {
+        int k = saida.inicio[v];
+        return Collections.unmodifiableList(Arrays.asList(saida.conexoes).subList(k, k + saida.grau[v]));
+    }
+}
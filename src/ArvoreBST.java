@@ -1,73 +1,343 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.UnaryOperator;
+
 /**
- * Implementa a estrutura de dados de Árvore Binária de Busca (BST).
+ * Implementa a estrutura de dados de Árvore Binária de Busca (BST) balanceada (AVL).
  * É usada para indexar os Pontos de Coleta e permitir buscas eficientes
  * pelo NOME, utilizando a ordenação alfabética.
+ *
+ * As alturas das sub-árvores de cada nó diferem em no máximo 1, então a altura fica
+ * em O(log n) mesmo quando os nomes chegam já ordenados. Todas as operações são
+ * iterativas (o caminho percorrido fica em uma pilha explícita), sem risco de
+ * StackOverflowError.
  */
 public class ArvoreBST {
+    // Altura máxima de uma AVL com até 2^31 nós (1,44 * log2(n)), com folga
+    private static final int ALTURA_MAXIMA = 64;
+
     // Raiz da Árvore
     NoBST raiz;
+    // Quantidade de pontos indexados
+    int tamanho;
+    // Métricas das operações (null = desligadas, sem custo de medição)
+    MetricasGrafo metricas;
+
+    /**
+     * Liga ou desliga a medição de buscas, inserções e remoções.
+     * @param metricas As métricas onde registrar, ou null para desligar.
+     */
+    public void definirMetricas(MetricasGrafo metricas) {
+        this.metricas = metricas;
+    }
 
     /**
-     * Insere um novo PontoColeta na BST.
+     * Insere um novo PontoColeta na BST e rebalanceia o caminho até a raiz.
+     * A ordenação é feita pelo nome do PontoColeta (case-insensitive).
+     * Se já existir um ponto com o mesmo nome, nada é alterado (não permite duplicatas).
      * * @param ponto O PontoColeta a ser inserido.
      */
     public void inserir(PontoColeta ponto) {
-        raiz = inserirRecursivo(raiz, ponto);
+        MetricasGrafo m = metricas;
+        long inicio = MetricasGrafo.iniciar(m);
+        inserirNaArvore(ponto);
+        if (m != null) m.registrar(OperacaoGrafo.BST_INSERIR, inicio);
+    }
+
+    private void inserirNaArvore(PontoColeta ponto) {
+        if (raiz == null) {
+            raiz = new NoBST(ponto);
+            tamanho++;
+            return;
+        }
+        // Desce até a posição de inserção, guardando o caminho
+        NoBST[] caminho = new NoBST[ALTURA_MAXIMA];
+        int profundidade = 0;
+        NoBST atual = raiz;
+        while (atual != null) {
+            int comparacao = ponto.nome.compareToIgnoreCase(atual.ponto.nome);
+            if (comparacao == 0) return;
+            caminho[profundidade++] = atual;
+            atual = comparacao < 0 ? atual.esquerda : atual.direita;
+        }
+        NoBST pai = caminho[profundidade - 1];
+        if (ponto.nome.compareToIgnoreCase(pai.ponto.nome) < 0) pai.esquerda = new NoBST(ponto);
+        else pai.direita = new NoBST(ponto);
+        tamanho++;
+        rebalancearCaminho(caminho, profundidade);
     }
 
     /**
-     * Método auxiliar recursivo para inserir um ponto na BST.
-     * A ordenação é feita pelo nome do PontoColeta (case-insensitive).
-     * * @param raiz O nó raiz do sub-árvore atual.
-     * @param ponto O PontoColeta a ser inserido.
-     * @return O nó raiz da sub-árvore atualizada.
+     * Busca um PontoColeta na BST com base no nome. Custo O(log n).
+     * * @param nome O nome do ponto a ser buscado.
+     * @return O PontoColeta encontrado, ou null se não for encontrado.
      */
-    private NoBST inserirRecursivo(NoBST raiz, PontoColeta ponto) {
-        // Se a raiz for nula, o novo ponto se torna a raiz desta sub-árvore
-        if (raiz == null) return new NoBST(ponto);
+    public PontoColeta buscar(String nome) {
+        MetricasGrafo m = metricas;
+        if (m == null) return buscarNaArvore(nome);
+        long inicio = System.nanoTime();
+        PontoColeta encontrado = buscarNaArvore(nome);
+        m.registrar(OperacaoGrafo.BST_BUSCAR, inicio);
+        return encontrado;
+    }
 
-        // Compara o nome do novo ponto com o nome do ponto no nó atual
-        int comparacao = ponto.nome.compareToIgnoreCase(raiz.ponto.nome);
+    private PontoColeta buscarNaArvore(String nome) {
+        NoBST atual = raiz;
+        while (atual != null) {
+            // Compara o nome buscado com o nome do ponto no nó atual
+            int comp = nome.compareToIgnoreCase(atual.ponto.nome);
+            if (comp == 0) return atual.ponto;
+            // Se for menor, busca na esquerda, senão, busca na direita
+            atual = comp < 0 ? atual.esquerda : atual.direita;
+        }
+        return null;
+    }
 
-        if (comparacao < 0)
-            // Se o nome for menor, insere na sub-árvore esquerda
-            raiz.esquerda = inserirRecursivo(raiz.esquerda, ponto);
-        else if (comparacao > 0)
-            // Se o nome for maior, insere na sub-árvore direita
-            raiz.direita = inserirRecursivo(raiz.direita, ponto);
+    /**
+     * Remove o ponto com o nome informado, rebalanceando o caminho até a raiz. Custo O(log n).
+     * @param nome O nome do ponto a ser removido (case-insensitive).
+     * @return O PontoColeta removido, ou null se nenhum ponto tinha esse nome.
+     */
+    public PontoColeta remover(String nome) {
+        MetricasGrafo m = metricas;
+        long inicio = MetricasGrafo.iniciar(m);
+        PontoColeta removido = removerDaArvore(nome);
+        if (m != null) m.registrar(OperacaoGrafo.BST_REMOVER, inicio);
+        return removido;
+    }
 
-        // Se a comparação for 0 (nomes iguais), não faz nada (não permite duplicatas)
+    private PontoColeta removerDaArvore(String nome) {
+        NoBST[] caminho = new NoBST[ALTURA_MAXIMA];
+        int profundidade = 0;
+        NoBST alvo = raiz;
+        while (alvo != null) {
+            int comp = nome.compareToIgnoreCase(alvo.ponto.nome);
+            if (comp == 0) break;
+            caminho[profundidade++] = alvo;
+            alvo = comp < 0 ? alvo.esquerda : alvo.direita;
+        }
+        if (alvo == null) return null;
+        PontoColeta removido = alvo.ponto;
 
-        return raiz;
+        if (alvo.esquerda != null && alvo.direita != null) {
+            // Dois filhos: o sucessor (menor nome da sub-árvore direita) ocupa o lugar do alvo
+            caminho[profundidade++] = alvo;
+            NoBST sucessor = alvo.direita;
+            while (sucessor.esquerda != null) {
+                caminho[profundidade++] = sucessor;
+                sucessor = sucessor.esquerda;
+            }
+            alvo.ponto = sucessor.ponto;
+            substituirFilho(caminho[profundidade - 1], sucessor, sucessor.direita);
+        } else {
+            // Zero ou um filho: o filho (ou null) sobe para o lugar do alvo
+            NoBST filho = alvo.esquerda != null ? alvo.esquerda : alvo.direita;
+            if (profundidade == 0) raiz = filho;
+            else substituirFilho(caminho[profundidade - 1], alvo, filho);
+        }
+        tamanho--;
+        rebalancearCaminho(caminho, profundidade);
+        return removido;
     }
 
     /**
-     * Busca um PontoColeta na BST com base no nome.
-     * * @param nome O nome do ponto a ser buscado.
-     * @return O PontoColeta encontrado, ou null se não for encontrado.
+     * Lista, em ordem alfabética, os pontos cujo nome está entre 'de' e 'ate' (inclusive,
+     * case-insensitive). Só visita os nós do intervalo e o caminho até eles: O(log n + k).
+     * @param de O menor nome do intervalo.
+     * @param ate O maior nome do intervalo.
+     * @return Os pontos do intervalo, em ordem de nome.
      */
-    public PontoColeta buscar(String nome) {
-        return buscarRecursivo(raiz, nome);
+    public List<PontoColeta> buscarIntervalo(String de, String ate) {
+        List<PontoColeta> resultados = new ArrayList<>();
+        NoBST[] pilha = new NoBST[ALTURA_MAXIMA];
+        int topo = 0;
+        NoBST atual = raiz;
+        while (atual != null || topo > 0) {
+            // Desce pela esquerda apenas enquanto ainda pode haver nomes >= 'de'
+            while (atual != null) {
+                if (atual.ponto.nome.compareToIgnoreCase(de) < 0) {
+                    atual = atual.direita;
+                } else {
+                    pilha[topo++] = atual;
+                    atual = atual.esquerda;
+                }
+            }
+            if (topo == 0) break;
+            NoBST no = pilha[--topo];
+            if (no.ponto.nome.compareToIgnoreCase(ate) > 0) break;
+            resultados.add(no.ponto);
+            atual = no.direita;
+        }
+        return resultados;
     }
 
     /**
-     * Método auxiliar recursivo para buscar um ponto na BST.
-     * * @param raiz O nó raiz do sub-árvore atual.
-     * @param nome O nome a ser buscado.
-     * @return O PontoColeta encontrado ou null.
+     * Substitui o conteúdo da árvore por uma árvore perfeitamente balanceada, construída
+     * em O(n) a partir de pontos já ordenados pelo nome (case-insensitive).
+     * Nomes repetidos mantêm só o primeiro ponto, como em inserir().
+     * @param ordenados Os pontos em ordem alfabética de nome.
+     * @throws IllegalArgumentException Se a lista não estiver ordenada.
      */
-    private PontoColeta buscarRecursivo(NoBST raiz, String nome) {
-        // Se a raiz for nula, o ponto não foi encontrado
-        if (raiz == null) return null;
+    public void construirBalanceado(List<PontoColeta> ordenados) {
+        List<PontoColeta> unicos = new ArrayList<>(ordenados.size());
+        for (PontoColeta p : ordenados) {
+            if (!unicos.isEmpty()) {
+                int comp = p.nome.compareToIgnoreCase(unicos.get(unicos.size() - 1).nome);
+                if (comp < 0) throw new IllegalArgumentException("Pontos fora de ordem alfabética: " + p.nome);
+                if (comp == 0) continue;
+            }
+            unicos.add(p);
+        }
+        raiz = construirFaixa(unicos, 0, unicos.size() - 1);
+        tamanho = unicos.size();
+    }
 
-        // Compara o nome buscado com o nome do ponto no nó atual
-        int comp = nome.compareToIgnoreCase(raiz.ponto.nome);
+    /**
+     * Constrói a sub-árvore da faixa [inicio, fim] com o elemento do meio na raiz.
+     * A recursão tem profundidade O(log n).
+     */
+    private NoBST construirFaixa(List<PontoColeta> pontos, int inicio, int fim) {
+        if (inicio > fim) return null;
+        int meio = (inicio + fim) >>> 1;
+        NoBST no = new NoBST(pontos.get(meio));
+        no.esquerda = construirFaixa(pontos, inicio, meio - 1);
+        no.direita = construirFaixa(pontos, meio + 1, fim);
+        atualizarAltura(no);
+        return no;
+    }
 
-        if (comp == 0)
-            // Se a comparação for 0, o ponto foi encontrado
-            return raiz.ponto;
+    /**
+     * Copia a árvore nó a nó, com a mesma forma e as mesmas alturas, em O(n).
+     * @param pontoDaCopia Converte cada ponto no ponto correspondente da cópia.
+     * @return A cópia, independente da original.
+     */
+    public ArvoreBST copiar(UnaryOperator<PontoColeta> pontoDaCopia) {
+        ArvoreBST copia = new ArvoreBST();
+        copia.tamanho = tamanho;
+        if (raiz == null) return copia;
+        copia.raiz = copiarNo(raiz, pontoDaCopia);
+        // Pilha de pares (original, cópia) cujos filhos ainda não foram copiados
+        List<NoBST> pilha = new ArrayList<>();
+        pilha.add(raiz);
+        pilha.add(copia.raiz);
+        while (!pilha.isEmpty()) {
+            NoBST novo = pilha.remove(pilha.size() - 1);
+            NoBST original = pilha.remove(pilha.size() - 1);
+            if (original.esquerda != null) {
+                novo.esquerda = copiarNo(original.esquerda, pontoDaCopia);
+                pilha.add(original.esquerda);
+                pilha.add(novo.esquerda);
+            }
+            if (original.direita != null) {
+                novo.direita = copiarNo(original.direita, pontoDaCopia);
+                pilha.add(original.direita);
+                pilha.add(novo.direita);
+            }
+        }
+        return copia;
+    }
 
-        // Se for menor, busca na esquerda, senão, busca na direita
-        return comp < 0 ? buscarRecursivo(raiz.esquerda, nome) : buscarRecursivo(raiz.direita, nome);
+    private static NoBST copiarNo(NoBST no, UnaryOperator<PontoColeta> pontoDaCopia) {
+        NoBST copia = new NoBST(pontoDaCopia.apply(no.ponto));
+        copia.altura = no.altura;
+        return copia;
+    }
+
+    /**
+     * @return A quantidade de pontos indexados.
+     */
+    public int tamanho() {
+        return tamanho;
+    }
+
+    /**
+     * Estima a memória ocupada pelos nós da BST (JVM de 64 bits com referências
+     * comprimidas): cabeçalho de 12 bytes + 3 referências + int, alinhado em 8.
+     * Custo O(1), sem percorrer a árvore.
+     * @return O total estimado, em bytes.
+     */
+    public long estimarMemoriaBytes() {
+        return 32L * tamanho;
+    }
+
+    /**
+     * @return A altura da árvore (0 se vazia).
+     */
+    public int altura() {
+        return altura(raiz);
+    }
+
+    // ==================== BALANCEAMENTO (AVL) ====================
+
+    /**
+     * Atualiza as alturas e aplica as rotações necessárias do nó mais profundo do
+     * caminho até a raiz, religando cada sub-árvore rebalanceada ao seu pai.
+     * @param caminho Os nós visitados, da raiz para baixo.
+     * @param profundidade A quantidade de nós do caminho.
+     */
+    private void rebalancearCaminho(NoBST[] caminho, int profundidade) {
+        for (int k = profundidade - 1; k >= 0; k--) {
+            NoBST no = caminho[k];
+            NoBST novo = rebalancear(no);
+            if (novo != no) {
+                if (k == 0) raiz = novo;
+                else substituirFilho(caminho[k - 1], no, novo);
+            }
+        }
+    }
+
+    /**
+     * Recalcula a altura do nó e, se ele estiver desbalanceado, aplica a rotação
+     * simples ou dupla adequada.
+     * @return A nova raiz da sub-árvore.
+     */
+    private NoBST rebalancear(NoBST no) {
+        atualizarAltura(no);
+        int fator = altura(no.esquerda) - altura(no.direita);
+        if (fator > 1) {
+            // Pesado à esquerda; caso esquerda-direita exige rotação dupla
+            if (altura(no.esquerda.esquerda) < altura(no.esquerda.direita)) no.esquerda = girarEsquerda(no.esquerda);
+            return girarDireita(no);
+        }
+        if (fator < -1) {
+            // Pesado à direita; caso direita-esquerda exige rotação dupla
+            if (altura(no.direita.direita) < altura(no.direita.esquerda)) no.direita = girarDireita(no.direita);
+            return girarEsquerda(no);
+        }
+        return no;
+    }
+
+    private NoBST girarDireita(NoBST no) {
+        NoBST novo = no.esquerda;
+        no.esquerda = novo.direita;
+        novo.direita = no;
+        atualizarAltura(no);
+        atualizarAltura(novo);
+        return novo;
+    }
+
+    private NoBST girarEsquerda(NoBST no) {
+        NoBST novo = no.direita;
+        no.direita = novo.esquerda;
+        novo.esquerda = no;
+        atualizarAltura(no);
+        atualizarAltura(novo);
+        return novo;
+    }
+
+    private static int altura(NoBST no) {
+        return no == null ? 0 : no.altura;
+    }
+
+    private static void atualizarAltura(NoBST no) {
+        no.altura = 1 + Math.max(altura(no.esquerda), altura(no.direita));
+    }
+
+    /**
+     * Troca o filho 'antigo' do nó 'pai' por 'novo'.
+     */
+    private static void substituirFilho(NoBST pai, NoBST antigo, NoBST novo) {
+        if (pai.esquerda == antigo) pai.esquerda = novo;
+        else pai.direita = novo;
     }
-}
\ No newline at end of file
+}
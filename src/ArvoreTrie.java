@@ -1,67 +1,630 @@
-import java.util.ArrayList;
-import java.util.List;
+import java.text.Normalizer;
+import java.util.*;
+import java.util.function.ToIntFunction;
+import java.util.function.UnaryOperator;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
- * Implementa a estrutura de dados de Árvore Trie (Prefix Tree).
+ * Implementa a estrutura de dados de Árvore Trie (Prefix Tree) na forma radix (Patricia).
  * É usada para indexar os Pontos de Coleta e permitir a busca eficiente
  * por um determinado prefixo (funcionalidade de 'autocomplete').
+ *
+ * Cada aresta guarda uma sequência de caracteres em vez de um só, e os filhos de cada
+ * nó ficam em vetores ordenados (char[] + NoTrie[]), sem HashMap nem Character boxing.
+ * Os resultados de buscarPorPrefixo saem em ordem alfabética (dos nomes em minúsculas).
+ *
+ * Cada nó também guarda a pontuação do seu ponto e um limite superior das pontuações
+ * da sua sub-árvore, o que permite buscar os k pontos de maior pontuação com um
+ * prefixo sem percorrer toda a sub-árvore (busca pelo melhor primeiro).
  */
 public class ArvoreTrie {
+    // Caractere base de cada caractere latino (até o bloco Latim Estendido-B), pela decomposição NFD
+    private static final char[] SEM_ACENTO = new char[0x250];
+
+    static {
+        for (char c = 0; c < SEM_ACENTO.length; c++) {
+            String decomposto = Normalizer.normalize(String.valueOf(c), Normalizer.Form.NFD);
+            SEM_ACENTO[c] = decomposto.charAt(0);
+        }
+    }
+
     // Raiz da Árvore Trie
     NoTrie raiz = new NoTrie();
+    // Métricas das operações (null = desligadas, sem custo de medição)
+    MetricasGrafo metricas;
 
     /**
-     * Insere um PontoColeta na Trie, decompondo seu nome em caracteres.
+     * Liga ou desliga a medição de inserções, remoções e buscas.
+     * @param metricas As métricas onde registrar, ou null para desligar.
+     */
+    public void definirMetricas(MetricasGrafo metricas) {
+        this.metricas = metricas;
+    }
+
+    /**
+     * Insere um PontoColeta na Trie, com pontuação 0.
      * * @param ponto O PontoColeta a ser inserido.
      */
     public void inserir(PontoColeta ponto) {
+        inserir(ponto, 0);
+    }
+
+    /**
+     * Insere um PontoColeta na Trie. Se o nome divergir no meio do rótulo de uma aresta,
+     * a aresta é dividida em um nó intermediário com o trecho em comum.
+     * * @param ponto O PontoColeta a ser inserido.
+     * @param pontuacao A pontuação do ponto na busca por relevância.
+     */
+    public void inserir(PontoColeta ponto, int pontuacao) {
+        MetricasGrafo m = metricas;
+        long inicio = MetricasGrafo.iniciar(m);
+        inserirNaArvore(ponto, pontuacao);
+        if (m != null) m.registrar(OperacaoGrafo.TRIE_INSERIR, inicio);
+    }
+
+    private void inserirNaArvore(PontoColeta ponto, int pontuacao) {
+        String chave = ponto.nome.toLowerCase();
         NoTrie atual = raiz;
-        // Percorre cada caractere do nome em minúsculas
-        for (char c : ponto.nome.toLowerCase().toCharArray()) {
-            // Se o filho para o caractere 'c' não existe, ele é criado
-            atual.filhos.putIfAbsent(c, new NoTrie());
-            // Move para o próximo nó
-            atual = atual.filhos.get(c);
+        int i = 0;
+        while (i < chave.length()) {
+            atual.maiorPontuacao = Math.max(atual.maiorPontuacao, pontuacao);
+            int k = atual.indiceFilho(chave.charAt(i));
+            if (k < 0) {
+                // Nenhum filho começa com este caractere: o resto do nome vira uma folha
+                NoTrie folha = new NoTrie(chave.substring(i).toCharArray());
+                atual.inserirFilho(-k - 1, folha);
+                atual = folha;
+                break;
+            }
+            NoTrie filho = atual.filhos[k];
+            char[] rotulo = filho.rotulo;
+            // Tamanho do trecho comum entre o rótulo e o restante do nome
+            int comum = 1;
+            while (comum < rotulo.length && i + comum < chave.length() && rotulo[comum] == chave.charAt(i + comum)) {
+                comum++;
+            }
+            if (comum < rotulo.length) {
+                // Divide a aresta: o nó intermediário fica com o trecho comum
+                NoTrie meio = new NoTrie(Arrays.copyOf(rotulo, comum));
+                meio.maiorPontuacao = filho.maiorPontuacao;
+                filho.rotulo = Arrays.copyOfRange(rotulo, comum, rotulo.length);
+                meio.chaves = new char[]{filho.rotulo[0]};
+                meio.filhos = new NoTrie[]{filho};
+                atual.filhos[k] = meio;
+                filho = meio;
+            }
+            atual = filho;
+            i += comum;
         }
         // Marca o nó final como o fim de uma palavra e armazena o ponto
         atual.fimPalavra = true;
         atual.ponto = ponto;
+        atual.pontuacao = pontuacao;
+        atual.maiorPontuacao = Math.max(atual.maiorPontuacao, pontuacao);
+    }
+
+    /**
+     * Remove um PontoColeta da Trie. Custo O(tamanho do nome + filhos dos nós do caminho).
+     * Depois de desmarcar o nó do nome, os nós que ficaram sem função são eliminados:
+     * folhas sem ponto saem do pai, e um nó sem ponto com um único filho é fundido a
+     * ele (os rótulos são concatenados), mantendo a árvore na forma radix.
+     * Os limites de pontuação dos ancestrais não são reduzidos; continuam válidos como
+     * limites superiores até o próximo definirPontuacoes.
+     * @param ponto O ponto a remover.
+     * @return true se o ponto estava na Trie; false se o nome não existe ou pertence a outro ponto.
+     */
+    public boolean remover(PontoColeta ponto) {
+        MetricasGrafo m = metricas;
+        long inicio = MetricasGrafo.iniciar(m);
+        boolean removido = removerDaArvore(ponto);
+        if (m != null) m.registrar(OperacaoGrafo.TRIE_REMOVER, inicio);
+        return removido;
+    }
+
+    private boolean removerDaArvore(PontoColeta ponto) {
+        // Caminho da raiz até o nó do nome, com a posição de cada nó no vetor do pai
+        List<NoTrie> caminho = new ArrayList<>();
+        List<Integer> posicoes = new ArrayList<>();
+        NoTrie atual = localizar(ponto, caminho, posicoes);
+        if (atual == null) return false;
+        atual.fimPalavra = false;
+        atual.ponto = null;
+        atual.pontuacao = 0;
+
+        // Poda de baixo para cima (a raiz nunca é removida nem fundida)
+        for (int nivel = caminho.size() - 1; nivel >= 0 && !atual.fimPalavra; nivel--) {
+            NoTrie pai = caminho.get(nivel);
+            int k = posicoes.get(nivel);
+            if (atual.filhos.length == 0) {
+                // Folha sem ponto: sai do pai, que pode ter ficado sem função também
+                pai.removerFilho(k);
+                atual = pai;
+            } else {
+                if (atual.filhos.length == 1) {
+                    // Nó sem ponto com um único filho: o filho absorve o rótulo dele
+                    NoTrie filho = atual.filhos[0];
+                    char[] rotulo = Arrays.copyOf(atual.rotulo, atual.rotulo.length + filho.rotulo.length);
+                    System.arraycopy(filho.rotulo, 0, rotulo, atual.rotulo.length, filho.rotulo.length);
+                    filho.rotulo = rotulo;
+                    pai.filhos[k] = filho;
+                }
+                break;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Desce da raiz até o nó do nome do ponto.
+     * @param caminho Recebe os nós do caminho, da raiz ao pai do nó do nome.
+     * @param posicoes Recebe a posição de cada nó seguinte no vetor do pai (ou null).
+     * @return O nó do nome, ou null se o nome não existe ou pertence a outro ponto.
+     */
+    private NoTrie localizar(PontoColeta ponto, List<NoTrie> caminho, List<Integer> posicoes) {
+        String chave = ponto.nome.toLowerCase();
+        NoTrie atual = raiz;
+        int i = 0;
+        while (i < chave.length()) {
+            int k = atual.indiceFilho(chave.charAt(i));
+            if (k < 0) return null;
+            caminho.add(atual);
+            if (posicoes != null) posicoes.add(k);
+            atual = atual.filhos[k];
+            char[] rotulo = atual.rotulo;
+            if (rotulo.length > chave.length() - i) return null;
+            for (int j = 0; j < rotulo.length; j++, i++) {
+                if (rotulo[j] != chave.charAt(i)) return null;
+            }
+        }
+        return atual.fimPalavra && atual.ponto == ponto ? atual : null;
+    }
+
+    /**
+     * Copia a Trie nó a nó, com os mesmos rótulos e pontuações, em O(nós). Os vetores de
+     * caracteres são compartilhados, pois a Trie nunca os altera depois de criados.
+     * @param pontoDaCopia Converte cada ponto no ponto correspondente da cópia.
+     * @return A cópia, independente da original.
+     */
+    public ArvoreTrie copiar(UnaryOperator<PontoColeta> pontoDaCopia) {
+        ArvoreTrie copia = new ArvoreTrie();
+        // Pilha de pares (original, cópia) cujos filhos ainda não foram copiados
+        List<NoTrie> pilha = new ArrayList<>();
+        pilha.add(raiz);
+        pilha.add(copia.raiz);
+        while (!pilha.isEmpty()) {
+            NoTrie novo = pilha.remove(pilha.size() - 1);
+            NoTrie original = pilha.remove(pilha.size() - 1);
+            novo.fimPalavra = original.fimPalavra;
+            novo.ponto = original.ponto == null ? null : pontoDaCopia.apply(original.ponto);
+            novo.pontuacao = original.pontuacao;
+            novo.maiorPontuacao = original.maiorPontuacao;
+            novo.chaves = original.chaves;
+            novo.filhos = original.filhos.length == 0 ? NoTrie.SEM_FILHOS : new NoTrie[original.filhos.length];
+            for (int k = 0; k < original.filhos.length; k++) {
+                novo.filhos[k] = new NoTrie(original.filhos[k].rotulo);
+                pilha.add(original.filhos[k]);
+                pilha.add(novo.filhos[k]);
+            }
+        }
+        return copia;
+    }
+
+    /**
+     * Recalcula a pontuação de todos os pontos e os limites de cada sub-árvore. Custo O(nós).
+     * @param funcao A pontuação de cada ponto (ex.: o grau no grafo).
+     */
+    public void definirPontuacoes(ToIntFunction<PontoColeta> funcao) {
+        // Em pré-ordem, cada pai vem antes dos filhos; de trás para frente, os filhos vêm antes
+        List<NoTrie> preOrdem = new ArrayList<>();
+        preOrdem.add(raiz);
+        for (int p = 0; p < preOrdem.size(); p++) preOrdem.addAll(Arrays.asList(preOrdem.get(p).filhos));
+        for (int p = preOrdem.size() - 1; p >= 0; p--) {
+            NoTrie no = preOrdem.get(p);
+            int maior = Integer.MIN_VALUE;
+            if (no.fimPalavra) {
+                no.pontuacao = funcao.applyAsInt(no.ponto);
+                maior = no.pontuacao;
+            }
+            for (NoTrie filho : no.filhos) maior = Math.max(maior, filho.maiorPontuacao);
+            no.maiorPontuacao = maior;
+        }
+    }
+
+    /**
+     * Troca a pontuação de um único ponto e corrige os limites dos nós do caminho até
+     * ele, de baixo para cima. Custo O(tamanho do nome + filhos dos nós do caminho), em
+     * vez do O(nós) de definirPontuacoes.
+     * @param ponto O ponto indexado.
+     * @param pontuacao A nova pontuação.
+     * @return true se o ponto estava na Trie; false se o nome não existe ou pertence a outro ponto.
+     */
+    public boolean atualizarPontuacao(PontoColeta ponto, int pontuacao) {
+        List<NoTrie> caminho = new ArrayList<>();
+        NoTrie atual = localizar(ponto, caminho, null);
+        if (atual == null) return false;
+        atual.pontuacao = pontuacao;
+        caminho.add(atual);
+        for (int nivel = caminho.size() - 1; nivel >= 0; nivel--) {
+            NoTrie no = caminho.get(nivel);
+            int maior = no.fimPalavra ? no.pontuacao : Integer.MIN_VALUE;
+            for (NoTrie filho : no.filhos) maior = Math.max(maior, filho.maiorPontuacao);
+            no.maiorPontuacao = maior;
+        }
+        return true;
     }
 
     /**
      * Busca todos os Pontos de Coleta cujo nome começa com o prefixo fornecido.
      * * @param prefixo O prefixo de busca.
-     * @return Uma lista de PontosColeta que correspondem ao prefixo.
+     * @return Uma lista de PontosColeta que correspondem ao prefixo, em ordem alfabética.
      */
     public List<PontoColeta> buscarPorPrefixo(String prefixo) {
+        MetricasGrafo m = metricas;
+        long inicio = MetricasGrafo.iniciar(m);
         List<PontoColeta> resultados = new ArrayList<>();
+        NoTrie no = localizar(prefixo.toLowerCase());
+        // A partir do nó final do prefixo, coleta todos os Pontos de Coleta
+        if (no != null) coletarTodosPontos(no, resultados);
+        if (m != null) m.registrar(OperacaoGrafo.TRIE_PREFIXO, inicio);
+        return resultados;
+    }
+
+    /**
+     * Busca até 'limite' pontos com o prefixo, na ordem pedida. A busca para assim que
+     * encontra os 'limite' primeiros, sem coletar o restante da sub-árvore.
+     * @param prefixo O prefixo de busca.
+     * @param limite A quantidade máxima de resultados.
+     * @param ordem A ordem dos resultados.
+     * @return Os primeiros pontos com o prefixo, na ordem pedida.
+     */
+    public List<PontoColeta> buscarPorPrefixo(String prefixo, int limite, OrdemPrefixo ordem) {
+        MetricasGrafo m = metricas;
+        long inicio = MetricasGrafo.iniciar(m);
+        List<PontoColeta> resultados = new ArrayList<>(Math.min(limite, 64));
+        Iterator<PontoColeta> it = iterarPorPrefixo(prefixo, ordem);
+        while (resultados.size() < limite && it.hasNext()) resultados.add(it.next());
+        if (m != null) m.registrar(OperacaoGrafo.TRIE_PREFIXO, inicio);
+        return resultados;
+    }
+
+    /**
+     * Cria um iterador preguiçoso dos pontos com o prefixo: cada chamada a next()
+     * avança só o necessário para encontrar o próximo resultado.
+     * @param prefixo O prefixo de busca.
+     * @param ordem ALFABETICA (percurso em pré-ordem) ou PONTUACAO (maior pontuação primeiro,
+     *              empates em ordem alfabética).
+     * @return O iterador dos resultados.
+     */
+    public Iterator<PontoColeta> iterarPorPrefixo(String prefixo, OrdemPrefixo ordem) {
+        StringBuilder caminho = new StringBuilder();
+        NoTrie no = localizar(prefixo.toLowerCase(), caminho);
+        if (no == null) return Collections.emptyIterator();
+        return ordem == OrdemPrefixo.PONTUACAO
+                ? new IteradorPorPontuacao(no, caminho.toString())
+                : new IteradorAlfabetico(no);
+    }
+
+    /**
+     * Versão em Stream de iterarPorPrefixo, também preguiçosa (ex.: limit(k) para cedo).
+     * @param prefixo O prefixo de busca.
+     * @param ordem A ordem dos resultados.
+     * @return Um Stream sequencial e ordenado dos pontos com o prefixo.
+     */
+    public Stream<PontoColeta> streamPorPrefixo(String prefixo, OrdemPrefixo ordem) {
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterarPorPrefixo(prefixo, ordem),
+                Spliterator.ORDERED | Spliterator.NONNULL), false);
+    }
+
+    /**
+     * Busca aproximada: os pontos cujo nome está a no máximo 'distanciaMaxima' edições
+     * (inserção, remoção ou troca de um caractere) do nome informado, ignorando acentos
+     * e maiúsculas. Os resultados vêm por distância crescente, depois por pontuação
+     * decrescente e por nome.
+     *
+     * A distância de Levenshtein é calculada linha a linha durante o percurso: cada
+     * caractere de rótulo acrescenta uma linha da tabela de programação dinâmica, e os
+     * nós da mesma sub-árvore compartilham as linhas do prefixo comum. Um ramo é
+     * abandonado quando o menor valor da linha passa do limite, pois nenhum nome abaixo
+     * dele pode ficar mais próximo. Quando já há 'limite' resultados, o limite cai para a
+     * pior distância entre eles. Assim o custo acompanha o número de nós próximos do nome
+     * buscado, e não o tamanho do índice.
+     * @param nome O nome digitado (possivelmente com erros).
+     * @param distanciaMaxima A maior distância de edição aceita.
+     * @param limite A quantidade máxima de resultados.
+     * @return Os pontos mais próximos, do melhor para o pior.
+     */
+    public List<ResultadoAproximado> buscarAproximado(String nome, int distanciaMaxima, int limite) {
+        MetricasGrafo m = metricas;
+        if (m == null) return buscarAproximadoNaArvore(nome, distanciaMaxima, limite);
+        long inicio = System.nanoTime();
+        List<ResultadoAproximado> resultados = buscarAproximadoNaArvore(nome, distanciaMaxima, limite);
+        m.registrar(OperacaoGrafo.TRIE_APROXIMADO, inicio);
+        return resultados;
+    }
+
+    private List<ResultadoAproximado> buscarAproximadoNaArvore(String nome, int distanciaMaxima, int limite) {
+        if (limite <= 0 || distanciaMaxima < 0) return new ArrayList<>();
+        String dobrado = nome.toLowerCase();
+        int m = dobrado.length();
+        char[] consulta = new char[m];
+        for (int j = 0; j < m; j++) consulta[j] = semAcento(dobrado.charAt(j));
+
+        // Heap com o pior candidato no topo, para descartá-lo quando surgir um melhor
+        PriorityQueue<Candidato> melhores = new PriorityQueue<>(Candidato.ORDEM.reversed());
+        int limiteAtual = distanciaMaxima;
+
+        // Pilha de nós com a última linha da tabela (distâncias do prefixo até o nó)
+        List<NoTrie> pilhaNos = new ArrayList<>();
+        List<int[]> pilhaLinhas = new ArrayList<>();
+        int[] primeira = new int[m + 1];
+        for (int j = 0; j <= m; j++) primeira[j] = j;
+        pilhaNos.add(raiz);
+        pilhaLinhas.add(primeira);
+        while (!pilhaNos.isEmpty()) {
+            NoTrie no = pilhaNos.remove(pilhaNos.size() - 1);
+            int[] linhaPai = pilhaLinhas.remove(pilhaLinhas.size() - 1);
+            if (minimo(linhaPai) > limiteAtual) continue; // O limite pode ter caído desde o empilhamento
+            for (NoTrie filho : no.filhos) {
+                int[] linha = linhaPai;
+                boolean podado = false;
+                for (char c : filho.rotulo) {
+                    linha = proximaLinha(linha, consulta, semAcento(c));
+                    if (minimo(linha) > limiteAtual) {
+                        podado = true;
+                        break;
+                    }
+                }
+                if (podado) continue;
+                if (filho.fimPalavra && linha[m] <= limiteAtual) {
+                    melhores.add(new Candidato(filho, linha[m]));
+                    if (melhores.size() > limite) melhores.poll();
+                    if (melhores.size() == limite) limiteAtual = Math.min(limiteAtual, melhores.peek().distancia);
+                }
+                pilhaNos.add(filho);
+                pilhaLinhas.add(linha);
+            }
+        }
+        List<Candidato> ordenados = new ArrayList<>(melhores);
+        ordenados.sort(Candidato.ORDEM);
+        List<ResultadoAproximado> resultados = new ArrayList<>(ordenados.size());
+        for (Candidato c : ordenados) resultados.add(new ResultadoAproximado(c.no.ponto, c.distancia));
+        return resultados;
+    }
+
+    /**
+     * Ponto encontrado pela busca aproximada, com o necessário para ordená-lo.
+     */
+    private static final class Candidato {
+        private static final Comparator<Candidato> ORDEM = ((Comparator<Candidato>) (a, b) -> Integer.compare(a.distancia, b.distancia))
+                .thenComparing((a, b) -> Integer.compare(b.no.pontuacao, a.no.pontuacao))
+                .thenComparing(c -> c.chave);
+
+        final NoTrie no;
+        final int distancia;
+        final String chave;
+
+        Candidato(NoTrie no, int distancia) {
+            this.no = no;
+            this.distancia = distancia;
+            this.chave = no.ponto.nome.toLowerCase();
+        }
+    }
+
+    /**
+     * Calcula a linha seguinte da tabela de Levenshtein ao acrescentar o caractere 'c'.
+     * @param anterior A linha do prefixo atual (distâncias até cada prefixo da consulta).
+     * @param consulta Os caracteres da consulta, já sem acento.
+     * @param c O caractere acrescentado, já sem acento.
+     * @return A nova linha.
+     */
+    private static int[] proximaLinha(int[] anterior, char[] consulta, char c) {
+        int[] linha = new int[anterior.length];
+        linha[0] = anterior[0] + 1;
+        for (int j = 1; j < linha.length; j++) {
+            int troca = anterior[j - 1] + (consulta[j - 1] == c ? 0 : 1);
+            linha[j] = Math.min(troca, Math.min(anterior[j], linha[j - 1]) + 1);
+        }
+        return linha;
+    }
+
+    /**
+     * @return O menor valor de uma linha da tabela (a menor distância possível abaixo do nó).
+     */
+    private static int minimo(int[] linha) {
+        int menor = linha[0];
+        for (int v : linha) menor = Math.min(menor, v);
+        return menor;
+    }
+
+    /**
+     * Remove o acento de um caractere latino ('ã' -> 'a', 'ç' -> 'c'); os demais não mudam.
+     * @param c O caractere, já em minúsculas.
+     * @return O caractere base.
+     */
+    static char semAcento(char c) {
+        return c < SEM_ACENTO.length ? SEM_ACENTO[c] : c;
+    }
+
+    /**
+     * Percorre a árvore até o fim do prefixo. Se o prefixo terminar no meio do rótulo
+     * de uma aresta, o nó abaixo dessa aresta representa o prefixo.
+     * @param chave O prefixo, já em minúsculas.
+     * @return O nó cuja sub-árvore contém os nomes com o prefixo, ou null se não houver.
+     */
+    NoTrie localizar(String chave) {
+        return localizar(chave, null);
+    }
+
+    /**
+     * Igual a localizar(chave), acumulando em 'caminho' (se não for null) os rótulos
+     * completos até o nó encontrado.
+     */
+    private NoTrie localizar(String chave, StringBuilder caminho) {
         NoTrie atual = raiz;
+        int i = 0;
+        while (i < chave.length()) {
+            int k = atual.indiceFilho(chave.charAt(i));
+            // Se um caractere do prefixo não for encontrado, não há resultados
+            if (k < 0) return null;
+            atual = atual.filhos[k];
+            for (int j = 0; j < atual.rotulo.length && i < chave.length(); j++, i++) {
+                if (atual.rotulo[j] != chave.charAt(i)) return null;
+            }
+            if (caminho != null) caminho.append(atual.rotulo);
+        }
+        return atual;
+    }
 
-        // 1. Percorre a árvore até o final do prefixo
-        for (char c : prefixo.toLowerCase().toCharArray()) {
-            if (!atual.filhos.containsKey(c))
-                // Se um caractere do prefixo não for encontrado, não há resultados
-                return resultados;
-            atual = atual.filhos.get(c);
+    /**
+     * Percurso em pré-ordem com pilha explícita, com os filhos em ordem crescente.
+     */
+    private static final class IteradorAlfabetico implements Iterator<PontoColeta> {
+        private final List<NoTrie> pilha = new ArrayList<>();
+        private NoTrie proximo;
+
+        IteradorAlfabetico(NoTrie inicio) {
+            pilha.add(inicio);
+            avancar();
         }
 
-        // 2. A partir do nó final do prefixo, coleta todos os Pontos de Coleta
-        coletarTodosPontos(atual, resultados);
-        return resultados;
+        /**
+         * Desempilha nós até encontrar o próximo que marca o fim de um nome.
+         */
+        private void avancar() {
+            proximo = null;
+            while (proximo == null && !pilha.isEmpty()) {
+                NoTrie atual = pilha.remove(pilha.size() - 1);
+                for (int k = atual.filhos.length - 1; k >= 0; k--) pilha.add(atual.filhos[k]);
+                if (atual.fimPalavra) proximo = atual;
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return proximo != null;
+        }
+
+        @Override
+        public PontoColeta next() {
+            if (proximo == null) throw new NoSuchElementException();
+            PontoColeta ponto = proximo.ponto;
+            avancar();
+            return ponto;
+        }
     }
 
     /**
-     * Método auxiliar recursivo que percorre todas as sub-árvores a partir de um nó
+     * Busca pelo melhor primeiro: a fila de prioridade guarda sub-árvores (com o limite
+     * superior das suas pontuações) e pontos (com a pontuação exata), ordenados por
+     * pontuação decrescente e, no empate, pelo nome. Como o nome de uma sub-árvore é
+     * prefixo de todos os nomes dela, um ponto só sai da fila quando nenhuma sub-árvore
+     * pendente pode conter um ponto que deva vir antes dele.
+     */
+    private static final class IteradorPorPontuacao implements Iterator<PontoColeta> {
+        /**
+         * Item da fila: uma sub-árvore ainda não expandida ou um ponto pronto para sair.
+         */
+        private static final class Item {
+            final NoTrie no;
+            final String chave;
+            final int pontuacao;
+            final boolean ehPonto;
+
+            Item(NoTrie no, String chave, int pontuacao, boolean ehPonto) {
+                this.no = no;
+                this.chave = chave;
+                this.pontuacao = pontuacao;
+                this.ehPonto = ehPonto;
+            }
+        }
+
+        private static final Comparator<Item> ORDEM = ((Comparator<Item>) (a, b) -> Integer.compare(b.pontuacao, a.pontuacao))
+                .thenComparing(i -> i.chave)
+                .thenComparing(i -> !i.ehPonto);
+
+        private final PriorityQueue<Item> fila = new PriorityQueue<>(ORDEM);
+
+        IteradorPorPontuacao(NoTrie inicio, String chave) {
+            fila.add(new Item(inicio, chave, inicio.maiorPontuacao, false));
+        }
+
+        @Override
+        public boolean hasNext() {
+            // Expande sub-árvores até que o primeiro da fila seja um ponto
+            while (!fila.isEmpty() && !fila.peek().ehPonto) {
+                Item item = fila.poll();
+                NoTrie no = item.no;
+                if (no.fimPalavra) fila.add(new Item(no, item.chave, no.pontuacao, true));
+                for (NoTrie filho : no.filhos) {
+                    fila.add(new Item(filho, item.chave + new String(filho.rotulo), filho.maiorPontuacao, false));
+                }
+            }
+            return !fila.isEmpty();
+        }
+
+        @Override
+        public PontoColeta next() {
+            if (!hasNext()) throw new NoSuchElementException();
+            return fila.poll().no.ponto;
+        }
+    }
+
+    /**
+     * Percorre a sub-árvore a partir de um nó em pré-ordem (com uma pilha explícita)
      * e coleta todos os PontosColeta que encontra (onde fimPalavra é true).
      * * @param no O nó a partir do qual a coleta começa.
      * @param resultados A lista para adicionar os pontos encontrados.
      */
     private void coletarTodosPontos(NoTrie no, List<PontoColeta> resultados) {
-        // Se o nó atual marca o fim de uma palavra, adiciona o ponto à lista
-        if (no.fimPalavra) resultados.add(no.ponto);
+        List<NoTrie> pilha = new ArrayList<>();
+        pilha.add(no);
+        while (!pilha.isEmpty()) {
+            NoTrie atual = pilha.remove(pilha.size() - 1);
+            if (atual.fimPalavra) resultados.add(atual.ponto);
+            // Empilha os filhos em ordem inversa para visitá-los em ordem crescente
+            for (int k = atual.filhos.length - 1; k >= 0; k--) pilha.add(atual.filhos[k]);
+        }
+    }
+
+    /**
+     * @return A quantidade de nós da árvore (incluindo a raiz).
+     */
+    public int contarNos() {
+        int total = 0;
+        List<NoTrie> pilha = new ArrayList<>();
+        pilha.add(raiz);
+        while (!pilha.isEmpty()) {
+            NoTrie no = pilha.remove(pilha.size() - 1);
+            total++;
+            pilha.addAll(Arrays.asList(no.filhos));
+        }
+        return total;
+    }
+
+    /**
+     * Estima a memória ocupada pela Trie (JVM de 64 bits com referências comprimidas):
+     * cada nó e seus vetores de rótulo, chaves e filhos. Vetores vazios são compartilhados.
+     * @return O total estimado, em bytes.
+     */
+    public long estimarMemoriaBytes() {
+        long total = 0;
+        List<NoTrie> pilha = new ArrayList<>();
+        pilha.add(raiz);
+        while (!pilha.isEmpty()) {
+            NoTrie no = pilha.remove(pilha.size() - 1);
+            // Nó: cabeçalho de 12 bytes + 4 referências + boolean, alinhado em 8
+            total += 32;
+            if (no.rotulo.length > 0) total += alinhar(16 + 2L * no.rotulo.length);
+            if (no.filhos.length > 0) {
+                total += alinhar(16 + 2L * no.chaves.length) + alinhar(16 + 4L * no.filhos.length);
+                pilha.addAll(Arrays.asList(no.filhos));
+            }
+        }
+        return total;
+    }
 
-        // Recursivamente, visita todos os nós filhos
-        for (NoTrie filho : no.filhos.values())
-            coletarTodosPontos(filho, resultados);
+    private static long alinhar(long bytes) {
+        return (bytes + 7) & ~7L;
     }
-}
\ No newline at end of file
+}
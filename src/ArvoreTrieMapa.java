@@ -0,0 +1,109 @@
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Implementação original da Árvore Trie, com um nó por caractere e os filhos em um
+ * HashMap<Character, NoTrieMapa>. Foi substituída pela Trie radix (ArvoreTrie) e é
+ * mantida apenas como referência: os testes conferem as buscas da radix contra ela, e o
+ * TrieBenchmark (módulo benchmarks) compara o tempo e a memória das duas.
+ */
+public class ArvoreTrieMapa {
+    /**
+     * Nó da Trie original: um caractere por nível.
+     */
+    static class NoTrieMapa {
+        // Mapa que armazena os nós filhos, onde a chave é o próximo caractere
+        Map<Character, NoTrieMapa> filhos = new HashMap<>();
+        // Referência ao PontoColeta, armazenado SOMENTE se este nó marcar o fim de uma palavra
+        PontoColeta ponto;
+        // Flag que indica se o caminho até este nó forma um nome completo de PontoColeta
+        boolean fimPalavra;
+    }
+
+    // Raiz da Árvore Trie
+    NoTrieMapa raiz = new NoTrieMapa();
+
+    /**
+     * Insere um PontoColeta na Trie, decompondo seu nome em caracteres.
+     * * @param ponto O PontoColeta a ser inserido.
+     */
+    public void inserir(PontoColeta ponto) {
+        NoTrieMapa atual = raiz;
+        // Percorre cada caractere do nome em minúsculas
+        for (char c : ponto.nome.toLowerCase().toCharArray()) {
+            // Se o filho para o caractere 'c' não existe, ele é criado
+            atual.filhos.putIfAbsent(c, new NoTrieMapa());
+            // Move para o próximo nó
+            atual = atual.filhos.get(c);
+        }
+        // Marca o nó final como o fim de uma palavra e armazena o ponto
+        atual.fimPalavra = true;
+        atual.ponto = ponto;
+    }
+
+    /**
+     * Busca todos os Pontos de Coleta cujo nome começa com o prefixo fornecido.
+     * * @param prefixo O prefixo de busca.
+     * @return Uma lista de PontosColeta que correspondem ao prefixo.
+     */
+    public List<PontoColeta> buscarPorPrefixo(String prefixo) {
+        List<PontoColeta> resultados = new ArrayList<>();
+        NoTrieMapa atual = raiz;
+
+        // 1. Percorre a árvore até o final do prefixo
+        for (char c : prefixo.toLowerCase().toCharArray()) {
+            if (!atual.filhos.containsKey(c))
+                // Se um caractere do prefixo não for encontrado, não há resultados
+                return resultados;
+            atual = atual.filhos.get(c);
+        }
+
+        // 2. A partir do nó final do prefixo, coleta todos os Pontos de Coleta
+        coletarTodosPontos(atual, resultados);
+        return resultados;
+    }
+
+    /**
+     * Método auxiliar recursivo que percorre todas as sub-árvores a partir de um nó
+     * e coleta todos os PontosColeta que encontra (onde fimPalavra é true).
+     * * @param no O nó a partir do qual a coleta começa.
+     * @param resultados A lista para adicionar os pontos encontrados.
+     */
+    private void coletarTodosPontos(NoTrieMapa no, List<PontoColeta> resultados) {
+        // Se o nó atual marca o fim de uma palavra, adiciona o ponto à lista
+        if (no.fimPalavra) resultados.add(no.ponto);
+
+        // Recursivamente, visita todos os nós filhos
+        for (NoTrieMapa filho : no.filhos.values())
+            coletarTodosPontos(filho, resultados);
+    }
+
+    /**
+     * Estima a memória ocupada pela Trie (JVM de 64 bits com referências comprimidas):
+     * cada nó, seu HashMap, a tabela de buckets, as entradas e os Character fora do cache.
+     * @return O total estimado, em bytes.
+     */
+    public long estimarMemoriaBytes() {
+        long total = 0;
+        List<NoTrieMapa> pilha = new ArrayList<>();
+        pilha.add(raiz);
+        while (!pilha.isEmpty()) {
+            NoTrieMapa no = pilha.remove(pilha.size() - 1);
+            // Nó (cabeçalho + 2 referências + boolean) e HashMap vazio
+            total += 24 + 48;
+            if (!no.filhos.isEmpty()) {
+                // Tabela de buckets (capacidade mínima 16, fator de carga 0,75)
+                int capacidade = Math.max(16, Integer.highestOneBit(Math.max(1, (int) (no.filhos.size() / 0.75f))) << 1);
+                total += 16 + 4L * capacidade;
+            }
+            for (Map.Entry<Character, NoTrieMapa> e : no.filhos.entrySet()) {
+                // Entrada HashMap.Node e, acima de 127, o Character que não vem do cache
+                total += 32 + (e.getKey() > 127 ? 16 : 0);
+                pilha.add(e.getValue());
+            }
+        }
+        return total;
+    }
+}
@@ -0,0 +1,155 @@
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Teste de carga do ServicoConsultas em localhost: gera uma rede sintética (GeradorRede),
+ * sobe o serviço em uma porta livre e dispara requisições de vários clientes ao mesmo
+ * tempo durante o tempo informado (depois de um aquecimento), medindo a latência de
+ * cada recurso do ponto de vista do cliente (inclui HTTP e JSON) em um HistogramaLatencia.
+ *
+ * A mistura de requisições imita o uso esperado: 60% caminhos (Dijkstra bidirecional),
+ * 20% buscas por prefixo (10 resultados) e 20% buscas por nome exato. No final, compara
+ * 100 caminhos em um único /lote com os mesmos 100 em requisições avulsas.
+ *
+ * Uso: java BenchmarkServico [clientes] [segundos] [numPontos] [topologia]
+ * Ex.: java BenchmarkServico 32 20 100000 GEOMETRICA
+ */
+public class BenchmarkServico {
+    private static final String[] RECURSOS = {"caminho", "prefixo", "nome"};
+    // Aquecimento antes das medições (JIT e conexões), em segundos
+    private static final int AQUECIMENTO_S = 3;
+    private static final int TAMANHO_LOTE = 100;
+
+    public static void main(String[] args) throws Exception {
+        int clientes = args.length > 0 ? Integer.parseInt(args[0]) : 16;
+        int segundos = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+        int numPontos = args.length > 2 ? Integer.parseInt(args[2]) : 100_000;
+        TopologiaRede topologia = args.length > 3 ? TopologiaRede.valueOf(args[3].toUpperCase()) : TopologiaRede.GEOMETRICA;
+
+        Path diretorio = Files.createTempDirectory("reciclaveis-servico");
+        String arquivoPontos = diretorio.resolve("pontos.txt").toString();
+        String arquivoConexoes = diretorio.resolve("conexoes.txt").toString();
+        GeradorRede.gerar(topologia, numPontos, 6, 42, arquivoPontos, arquivoConexoes);
+        GrafoColetaReciclaveis grafo = new GrafoColetaReciclaveis();
+        grafo.carregarPontosDeColeta(arquivoPontos);
+        grafo.carregarConexoes(arquivoConexoes);
+        // Nomes existentes, para as buscas por nome e por prefixo
+        List<String> nomes = new ArrayList<>();
+        for (PontoColeta p : grafo.pontos.values()) nomes.add(p.nome);
+        Files.delete(Path.of(arquivoPontos));
+        Files.delete(Path.of(arquivoConexoes));
+        Files.delete(diretorio);
+
+        try (ServicoConsultas servico = new ServicoConsultas(grafo)) {
+            InetSocketAddress endereco = servico.iniciar(0);
+            String base = "http://" + endereco.getHostString() + ":" + endereco.getPort();
+            HttpClient cliente = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+            System.out.printf("Rede %s com %d pontos | %d clientes por %d s | %s%n%n", topologia, numPontos,
+                    clientes, segundos, servico.usaThreadsVirtuais() ? "threads virtuais" : "pool de threads");
+
+            HistogramaLatencia[] latencias = new HistogramaLatencia[RECURSOS.length];
+            for (int r = 0; r < RECURSOS.length; r++) latencias[r] = new HistogramaLatencia();
+            AtomicLong falhas = new AtomicLong();
+            long inicioMedicao = System.nanoTime() + AQUECIMENTO_S * 1_000_000_000L;
+            long fim = inicioMedicao + segundos * 1_000_000_000L;
+            List<Thread> threads = new ArrayList<>();
+            for (int c = 0; c < clientes; c++) {
+                SplittableRandom aleatorio = new SplittableRandom(1000 + c);
+                Thread t = new Thread(() -> {
+                    while (System.nanoTime() < fim) {
+                        double sorteio = aleatorio.nextDouble();
+                        int recurso = sorteio < 0.6 ? 0 : sorteio < 0.8 ? 1 : 2;
+                        String caminho = requisicao(recurso, aleatorio, numPontos, nomes);
+                        long inicio = System.nanoTime();
+                        try {
+                            HttpResponse<String> resposta = cliente.send(
+                                    HttpRequest.newBuilder(URI.create(base + caminho)).build(),
+                                    HttpResponse.BodyHandlers.ofString());
+                            if (resposta.statusCode() != 200) falhas.incrementAndGet();
+                        } catch (IOException e) {
+                            falhas.incrementAndGet();
+                            continue;
+                        } catch (InterruptedException e) {
+                            return;
+                        }
+                        if (inicio >= inicioMedicao) latencias[recurso].registrar(System.nanoTime() - inicio);
+                    }
+                }, "cliente-" + c);
+                threads.add(t);
+                t.start();
+            }
+            for (Thread t : threads) t.join();
+
+            System.out.printf("%-10s %10s %10s %10s %10s %10s %10s%n", "Recurso", "Req/s", "p50 (ms)", "p90 (ms)",
+                    "p99 (ms)", "p99,9 (ms)", "máx (ms)");
+            long total = 0;
+            for (int r = 0; r < RECURSOS.length; r++) {
+                // Histograma fora das MetricasGrafo: a operação do resumo não se aplica
+                ResumoLatencia resumo = latencias[r].resumir(null);
+                total += resumo.getContagem();
+                System.out.printf("%-10s %10.0f %10.2f %10.2f %10.2f %10.2f %10.2f%n", RECURSOS[r],
+                        resumo.getContagem() / (double) segundos, resumo.getP50Nanos() / 1e6, resumo.getP90Nanos() / 1e6,
+                        resumo.getP99Nanos() / 1e6, resumo.getP999Nanos() / 1e6, resumo.getMaximoNanos() / 1e6);
+            }
+            System.out.printf("%nTotal: %d requisições medidas (%.0f/s), %d falhas%n%n", total,
+                    total / (double) segundos, falhas.get());
+
+            compararLote(cliente, base, numPontos);
+        }
+    }
+
+    /**
+     * Mede 100 caminhos em um único /lote e os mesmos 100 em requisições avulsas sequenciais.
+     */
+    private static void compararLote(HttpClient cliente, String base, int numPontos) throws Exception {
+        SplittableRandom aleatorio = new SplittableRandom(7);
+        StringBuilder corpo = new StringBuilder();
+        List<String> caminhos = new ArrayList<>();
+        for (int i = 0; i < TAMANHO_LOTE; i++) {
+            String caminho = requisicao(0, aleatorio, numPontos, null);
+            caminhos.add(caminho);
+            corpo.append(caminho).append('\n');
+        }
+        long inicio = System.nanoTime();
+        HttpResponse<String> resposta = cliente.send(HttpRequest.newBuilder(URI.create(base + "/lote"))
+                .POST(HttpRequest.BodyPublishers.ofString(corpo.toString())).build(), HttpResponse.BodyHandlers.ofString());
+        double msLote = (System.nanoTime() - inicio) / 1e6;
+        inicio = System.nanoTime();
+        for (String caminho : caminhos) {
+            cliente.send(HttpRequest.newBuilder(URI.create(base + caminho)).build(), HttpResponse.BodyHandlers.ofString());
+        }
+        double msAvulsas = (System.nanoTime() - inicio) / 1e6;
+        System.out.printf("%d caminhos: lote em %.1f ms (status %d, %d bytes) | avulsos em %.1f ms%n",
+                TAMANHO_LOTE, msLote, resposta.statusCode(), resposta.body().length(), msAvulsas);
+    }
+
+    /**
+     * @return O caminho e os parâmetros de uma requisição sorteada do recurso.
+     */
+    private static String requisicao(int recurso, SplittableRandom aleatorio, int numPontos, List<String> nomes) {
+        switch (RECURSOS[recurso]) {
+            case "caminho":
+                return "/caminho?origem=" + (1 + aleatorio.nextInt(numPontos)) + "&destino="
+                        + (1 + aleatorio.nextInt(numPontos)) + "&estrategia=DIJKSTRA_BIDIRECIONAL";
+            case "prefixo": {
+                String nome = nomes.get(aleatorio.nextInt(nomes.size()));
+                String prefixo = nome.substring(0, Math.min(nome.length(), 3 + aleatorio.nextInt(10)));
+                return "/prefixo?limite=10&prefixo=" + URLEncoder.encode(prefixo, StandardCharsets.UTF_8);
+            }
+            default:
+                return "/nome?nome=" + URLEncoder.encode(nomes.get(aleatorio.nextInt(nomes.size())), StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,381 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Algoritmos de caminho entre dois pontos sobre a adjacência CSR: BFS, Dijkstra,
+ * Dijkstra bidirecional e A*. Os vetores de trabalho (distâncias, predecessores
+ * e heap) ficam em espaços reaproveitados por thread, de modo que buscas
+ * repetidas não alocam memória proporcional ao tamanho do grafo.
+ * Todas as buscas contam os vértices assentados, para comparar o trabalho de cada uma.
+ */
+public final class BuscaCaminhos {
+    // Distância de vértices ainda não alcançados
+    static final int INFINITO = Integer.MAX_VALUE;
+
+    // Espaços de trabalho de cada thread, reaproveitados entre buscas.
+    // O segundo é usado pela metade reversa da busca bidirecional.
+    private static final ThreadLocal<EspacoBusca> ESPACO = ThreadLocal.withInitial(EspacoBusca::new);
+    private static final ThreadLocal<EspacoBusca> ESPACO_REVERSO = ThreadLocal.withInitial(EspacoBusca::new);
+
+    private BuscaCaminhos() {
+    }
+
+    /**
+     * Vetores de trabalho de uma busca. Em vez de limpar 'dist' a cada busca, cada
+     * posição carrega o carimbo da busca que a escreveu; posições com carimbo
+     * antigo valem INFINITO. Assim, preparar uma nova busca custa O(1).
+     */
+    static final class EspacoBusca {
+        int[] dist = new int[0];
+        int[] pred = new int[0];
+        int[] marca = new int[0];
+        int[] fila = new int[0];
+        int carimbo;
+        final HeapBinarioIndexado heap = new HeapBinarioIndexado(0);
+
+        /**
+         * Prepara o espaço para uma nova busca em um grafo com 'n' vértices.
+         * @param n O número de vértices.
+         */
+        void preparar(int n) {
+            if (dist.length < n) {
+                dist = new int[n];
+                pred = new int[n];
+                marca = new int[n];
+                fila = new int[n];
+                carimbo = 0;
+            }
+            // Ao dar a volta no contador, zera as marcas para não confundir buscas antigas
+            if (++carimbo == 0) {
+                Arrays.fill(marca, 0);
+                carimbo = 1;
+            }
+            heap.garantirCapacidade(n);
+            heap.limpar();
+        }
+
+        /**
+         * @param v O índice do vértice.
+         * @return A distância provisória do vértice nesta busca, ou INFINITO.
+         */
+        int distancia(int v) {
+            return marca[v] == carimbo ? dist[v] : INFINITO;
+        }
+
+        /**
+         * Registra distância e predecessor de um vértice nesta busca.
+         */
+        void definir(int v, int d, int p) {
+            marca[v] = carimbo;
+            dist[v] = d;
+            pred[v] = p;
+        }
+    }
+
+    /**
+     * @return O espaço de trabalho da thread atual.
+     */
+    static EspacoBusca espaco() {
+        return ESPACO.get();
+    }
+
+    /**
+     * Executa a busca escolhida entre dois vértices.
+     * @param adj A adjacência do grafo.
+     * @param s O índice do vértice de origem.
+     * @param t O índice do vértice de destino.
+     * @param estrategia A estratégia de busca.
+     * @param heuristica A heurística usada pelo A* (ignorada pelas demais).
+     * @return O caminho encontrado, ou null se o destino for inalcançável.
+     */
+    public static ResultadoCaminho buscar(AdjacenciaCSR adj, int s, int t,
+                                          EstrategiaBusca estrategia, Heuristica heuristica) {
+        switch (estrategia) {
+            case BFS: return bfs(adj, s, t);
+            case DIJKSTRA_BIDIRECIONAL: return dijkstraBidirecional(adj, s, t);
+            case A_ESTRELA: return aEstrela(adj, s, t, heuristica);
+            default: return dijkstra(adj, s, t);
+        }
+    }
+
+    /**
+     * Busca em largura: menor número de conexões. A distância retornada é a soma
+     * dos pesos das conexões usadas no caminho encontrado.
+     */
+    public static ResultadoCaminho bfs(AdjacenciaCSR adj, int s, int t) {
+        EspacoBusca e = espaco();
+        e.preparar(adj.numVertices());
+        SegmentosAdjacencia saida = adj.saida;
+        // Cada vértice entra na fila no máximo uma vez, então ela não precisa ser circular
+        int[] fila = e.fila;
+        int inicio = 0, fim = 0, assentados = 0;
+
+        e.definir(s, 0, s);
+        fila[fim++] = s;
+        while (inicio < fim) {
+            int u = fila[inicio++];
+            assentados++;
+            if (u == t) return reconstruir(adj, e, s, t, assentados);
+            int du = e.dist[u];
+            for (int k = saida.inicio[u], f = k + saida.grau[u]; k < f; k++) {
+                int w = saida.vizinhos[k];
+                if (e.marca[w] != e.carimbo) {
+                    e.definir(w, du + saida.pesos[k], u);
+                    fila[fim++] = w;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Algoritmo de Dijkstra com heap binário indexado. Encerra assim que o destino
+     * é assentado e devolve o caminho junto com a distância total.
+     * As distâncias das conexões devem ser não negativas.
+     * @param adj A adjacência do grafo.
+     * @param s O índice do vértice de origem.
+     * @param t O índice do vértice de destino.
+     * @return O caminho mínimo em metros, ou null se o destino for inalcançável.
+     */
+    public static ResultadoCaminho dijkstra(AdjacenciaCSR adj, int s, int t) {
+        return aEstrela(adj, s, t, Heuristica.NULA);
+    }
+
+    /**
+     * A* com heurística admissível: a prioridade de cada vértice é a distância já
+     * percorrida mais a estimativa até o destino. Um vértice pode ser reaberto se
+     * a heurística não for consistente, o que mantém o resultado ótimo.
+     * Com a heurística nula, equivale ao Dijkstra.
+     */
+    public static ResultadoCaminho aEstrela(AdjacenciaCSR adj, int s, int t, Heuristica heuristica) {
+        EspacoBusca e = espaco();
+        e.preparar(adj.numVertices());
+        HeapBinarioIndexado heap = e.heap;
+        SegmentosAdjacencia saida = adj.saida;
+        boolean semHeuristica = heuristica == Heuristica.NULA;
+        int assentados = 0;
+
+        e.definir(s, 0, s);
+        heap.inserirOuDiminuir(s, 0);
+        while (!heap.vazio()) {
+            int u = heap.removerMinimo(); // Vértice assentado: sua distância é definitiva
+            assentados++;
+            if (u == t) return reconstruir(adj, e, s, t, assentados);
+            int du = e.dist[u];
+
+            // Relaxa as arestas de saída, contíguas no CSR
+            for (int k = saida.inicio[u], f = k + saida.grau[u]; k < f; k++) {
+                int w = saida.vizinhos[k];
+                int nd = du + saida.pesos[k];
+                if (nd < 0) continue; // Estouro de int: distância inalcançável na prática
+                if (nd < e.distancia(w)) {
+                    e.definir(w, nd, u);
+                    int prioridade = semHeuristica ? nd
+                            : (int) Math.min(INFINITO - 1L, (long) nd + heuristica.estimar(adj, w, t));
+                    heap.inserirOuDiminuir(w, prioridade);
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Dijkstra bidirecional: expande alternadamente a partir da origem (arestas de
+     * saída) e do destino (arestas de entrada), sempre pelo lado com a fronteira
+     * menor. Para quando a soma dos mínimos das duas filas atinge o melhor caminho
+     * já encontrado pelo encontro das duas buscas.
+     */
+    public static ResultadoCaminho dijkstraBidirecional(AdjacenciaCSR adj, int s, int t) {
+        if (s == t) return dijkstra(adj, s, t);
+        int n = adj.numVertices();
+        EspacoBusca frente = espaco();
+        EspacoBusca tras = ESPACO_REVERSO.get();
+        frente.preparar(n);
+        tras.preparar(n);
+        frente.definir(s, 0, s);
+        frente.heap.inserirOuDiminuir(s, 0);
+        tras.definir(t, 0, t);
+        tras.heap.inserirOuDiminuir(t, 0);
+
+        long melhor = INFINITO;
+        int encontro = -1;
+        int assentados = 0;
+        while (!frente.heap.vazio() && !tras.heap.vazio()) {
+            if ((long) frente.heap.prioridadeMinima() + tras.heap.prioridadeMinima() >= melhor) break;
+
+            boolean ladoFrente = frente.heap.tamanho() <= tras.heap.tamanho();
+            EspacoBusca e = ladoFrente ? frente : tras;
+            EspacoBusca outro = ladoFrente ? tras : frente;
+            SegmentosAdjacencia seg = ladoFrente ? adj.saida : adj.entrada;
+
+            int u = e.heap.removerMinimo();
+            assentados++;
+            int du = e.dist[u];
+            for (int k = seg.inicio[u], f = k + seg.grau[u]; k < f; k++) {
+                int w = seg.vizinhos[k];
+                int nd = du + seg.pesos[k];
+                if (nd < 0) continue;
+                if (nd < e.distancia(w)) {
+                    e.definir(w, nd, u);
+                    e.heap.inserirOuDiminuir(w, nd);
+                }
+                // Verifica se as duas buscas se encontram em 'w'
+                int dOutro = outro.distancia(w);
+                if (dOutro != INFINITO) {
+                    long total = (long) e.dist[w] + dOutro;
+                    if (total < melhor) {
+                        melhor = total;
+                        encontro = w;
+                    }
+                }
+            }
+        }
+        if (encontro < 0) return null;
+
+        // Metade da origem até o encontro (predecessores da busca direta)
+        List<Integer> caminho = new ArrayList<>();
+        for (int v = encontro; ; v = frente.pred[v]) {
+            caminho.add(adj.id(v));
+            if (v == s) break;
+        }
+        Collections.reverse(caminho);
+        // Metade do encontro até o destino (na busca reversa, 'pred' aponta para o próximo vértice)
+        for (int v = encontro; v != t; ) {
+            v = tras.pred[v];
+            caminho.add(adj.id(v));
+        }
+        return new ResultadoCaminho(caminho, (int) melhor, assentados);
+    }
+
+    /**
+     * Calcula a menor distância de um vértice para todos os outros (ou de todos
+     * para ele, no sentido reverso) com Dijkstra completo.
+     * @param adj A adjacência do grafo.
+     * @param s O índice do vértice de partida.
+     * @param reverso Se true, percorre as arestas de entrada (distâncias até 's').
+     * @param dist Vetor de saída com pelo menos numVertices posições.
+     */
+    public static void distanciasAPartirDe(AdjacenciaCSR adj, int s, boolean reverso, int[] dist) {
+        distanciasAPartirDe(adj, s, reverso, dist, 0);
+    }
+
+    /**
+     * Variante que grava as distâncias a partir de uma posição do vetor de saída,
+     * para preencher diretamente uma linha de uma matriz plana.
+     * @param deslocamento Posição de 'dist' correspondente ao vértice 0.
+     */
+    public static void distanciasAPartirDe(AdjacenciaCSR adj, int s, boolean reverso, int[] dist, int deslocamento) {
+        int n = adj.numVertices();
+        EspacoBusca e = espaco();
+        e.preparar(n);
+        HeapBinarioIndexado heap = e.heap;
+        SegmentosAdjacencia seg = reverso ? adj.entrada : adj.saida;
+        Arrays.fill(dist, deslocamento, deslocamento + n, INFINITO);
+
+        e.definir(s, 0, s);
+        heap.inserirOuDiminuir(s, 0);
+        while (!heap.vazio()) {
+            int u = heap.removerMinimo();
+            int du = e.dist[u];
+            dist[deslocamento + u] = du;
+            for (int k = seg.inicio[u], f = k + seg.grau[u]; k < f; k++) {
+                int w = seg.vizinhos[k];
+                int nd = du + seg.pesos[k];
+                if (nd >= 0 && nd < e.distancia(w)) {
+                    e.definir(w, nd, u);
+                    heap.inserirOuDiminuir(w, nd);
+                }
+            }
+        }
+    }
+
+    /**
+     * Dijkstra de um vértice até um conjunto de alvos, parando assim que o último alvo
+     * alcançável é assentado. Usado pela tabela de distâncias muitos-para-muitos: cada
+     * alvo assentado grava sua distância em 'saida[deslocamento + posicao * passo]'.
+     * @param adj A adjacência do grafo.
+     * @param s O índice do vértice de partida.
+     * @param reverso Se true, percorre as arestas de entrada (distâncias até 's').
+     * @param posicaoAlvo Para cada vértice, a posição dele entre os alvos, ou -1.
+     * @param numAlvos A quantidade de vértices com posição >= 0 em 'posicaoAlvo'.
+     * @param saida O vetor de saída (as posições dos alvos inalcançáveis não são tocadas).
+     * @param deslocamento A posição de 'saida' do alvo 0.
+     * @param passo A distância, em 'saida', entre as posições de dois alvos consecutivos.
+     * @return A quantidade de vértices assentados.
+     */
+    static int distanciasAteAlvos(AdjacenciaCSR adj, int s, boolean reverso, int[] posicaoAlvo, int numAlvos,
+                                  int[] saida, int deslocamento, int passo) {
+        EspacoBusca e = espaco();
+        e.preparar(adj.numVertices());
+        HeapBinarioIndexado heap = e.heap;
+        SegmentosAdjacencia seg = reverso ? adj.entrada : adj.saida;
+        int restantes = numAlvos;
+        int assentados = 0;
+
+        e.definir(s, 0, s);
+        heap.inserirOuDiminuir(s, 0);
+        while (restantes > 0 && !heap.vazio()) {
+            int u = heap.removerMinimo();
+            assentados++;
+            int du = e.dist[u];
+            int posicao = posicaoAlvo[u];
+            if (posicao >= 0) {
+                saida[deslocamento + posicao * passo] = du;
+                if (--restantes == 0) break; // Último alvo: não precisa relaxar as arestas dele
+            }
+            for (int k = seg.inicio[u], f = k + seg.grau[u]; k < f; k++) {
+                int w = seg.vizinhos[k];
+                int nd = du + seg.pesos[k];
+                if (nd >= 0 && nd < e.distancia(w)) {
+                    e.definir(w, nd, u);
+                    heap.inserirOuDiminuir(w, nd);
+                }
+            }
+        }
+        return assentados;
+    }
+
+    /**
+     * Reconstrói o caminho seguindo os predecessores do destino até a origem.
+     * @return O caminho (IDs) e a distância do destino registrada no espaço.
+     */
+    static ResultadoCaminho reconstruir(AdjacenciaCSR adj, EspacoBusca e, int s, int t, int assentados) {
+        // Conta os vértices para preencher a lista já na ordem correta
+        int tamanho = 1;
+        for (int v = t; v != s; v = e.pred[v]) tamanho++;
+        Integer[] ids = new Integer[tamanho];
+        int i = tamanho;
+        for (int v = t; ; v = e.pred[v]) {
+            ids[--i] = adj.id(v);
+            if (v == s) break;
+        }
+        return new ResultadoCaminho(new ArrayList<>(Arrays.asList(ids)), e.dist[t], assentados);
+    }
+
+    /**
+     * Soma as distâncias de um caminho dado por IDs, usando a conexão mais curta
+     * entre cada par consecutivo. Custo O(soma dos graus dos pontos do caminho).
+     * @param adj A adjacência do grafo.
+     * @param caminho Os IDs do caminho.
+     * @return A distância total em metros, ou -1 se algum trecho não existir.
+     */
+    public static long distanciaDoCaminho(AdjacenciaCSR adj, List<Integer> caminho) {
+        SegmentosAdjacencia saida = adj.saida;
+        // Em long: um caminho longo em uma rede grande pode passar de Integer.MAX_VALUE metros
+        long total = 0;
+        for (int i = 0; i + 1 < caminho.size(); i++) {
+            int u = adj.indice(caminho.get(i));
+            int w = adj.indice(caminho.get(i + 1));
+            if (u < 0 || w < 0) return -1;
+            int melhor = INFINITO;
+            for (int k = saida.inicio[u], f = k + saida.grau[u]; k < f; k++) {
+                if (saida.vizinhos[k] == w) melhor = Math.min(melhor, saida.pesos[k]);
+            }
+            if (melhor == INFINITO) return -1;
+            total += melhor;
+        }
+        return total;
+    }
+}
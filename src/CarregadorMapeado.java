@@ -0,0 +1,399 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Leitor dos arquivos de dados (pontos_coleta.txt e rotas_coletas.txt) por mapeamento
+ * de memória (NIO FileChannel). O arquivo é dividido em blocos que começam sempre no
+ * início de uma linha, e os blocos são analisados em paralelo.
+ * Os inteiros separados por ';' são convertidos direto dos bytes, sem criar uma String
+ * por linha; só os nomes dos pontos viram Strings. Linhas mal formadas não interrompem
+ * a carga: são registradas no RelatorioCarga com o número da linha.
+ */
+public final class CarregadorMapeado {
+    // Tamanho nominal de cada bloco analisado por uma tarefa paralela
+    static final int TAMANHO_BLOCO = 8 << 20;
+    // Marca de falha na conversão de um inteiro
+    private static final long FALHA = Long.MIN_VALUE;
+
+    private CarregadorMapeado() {
+    }
+
+    /**
+     * Pontos lidos de um arquivo ID;Nome, na ordem do arquivo.
+     */
+    public static final class PontosLidos {
+        public final int[] ids;
+        public final String[] nomes;
+        public final int quantidade;
+        public final RelatorioCarga relatorio;
+
+        PontosLidos(int[] ids, String[] nomes, int quantidade, RelatorioCarga relatorio) {
+            this.ids = ids;
+            this.nomes = nomes;
+            this.quantidade = quantidade;
+            this.relatorio = relatorio;
+        }
+    }
+
+    /**
+     * Conexões lidas de um arquivo Origem;Destino;Distancia, em vetores primitivos paralelos.
+     */
+    public static final class ConexoesLidas {
+        public final int[] origens;
+        public final int[] destinos;
+        public final int[] distancias;
+        public final int quantidade;
+        public final RelatorioCarga relatorio;
+
+        ConexoesLidas(int[] origens, int[] destinos, int[] distancias, int quantidade, RelatorioCarga relatorio) {
+            this.origens = origens;
+            this.destinos = destinos;
+            this.distancias = distancias;
+            this.quantidade = quantidade;
+            this.relatorio = relatorio;
+        }
+    }
+
+    /**
+     * Lê um arquivo de pontos no formato ID;Nome. IDs negativos são rejeitados.
+     * @param arquivo O caminho do arquivo.
+     * @return Os pontos válidos e o relatório da leitura.
+     * @throws IOException Se o arquivo não puder ser aberto ou mapeado.
+     */
+    public static PontosLidos lerPontos(String arquivo) throws IOException {
+        LeitorBloco[] blocos = analisar(arquivo, true);
+        int total = 0;
+        for (LeitorBloco b : blocos) total += b.quantidade;
+        int[] ids = new int[total];
+        String[] nomes = new String[total];
+        int pos = 0;
+        for (LeitorBloco b : blocos) {
+            System.arraycopy(b.a, 0, ids, pos, b.quantidade);
+            System.arraycopy(b.nomes, 0, nomes, pos, b.quantidade);
+            pos += b.quantidade;
+        }
+        return new PontosLidos(ids, nomes, total, relatorio(arquivo, blocos));
+    }
+
+    /**
+     * Lê um arquivo de conexões no formato OrigemID;DestinoID;Distancia. IDs e distâncias
+     * negativos são rejeitados: as buscas de caminho supõem pesos não negativos.
+     * @param arquivo O caminho do arquivo.
+     * @return As conexões válidas (vetores primitivos) e o relatório da leitura.
+     * @throws IOException Se o arquivo não puder ser aberto ou mapeado.
+     */
+    public static ConexoesLidas lerConexoes(String arquivo) throws IOException {
+        LeitorBloco[] blocos = analisar(arquivo, false);
+        int total = 0;
+        for (LeitorBloco b : blocos) total += b.quantidade;
+        int[] origens = new int[total];
+        int[] destinos = new int[total];
+        int[] distancias = new int[total];
+        int pos = 0;
+        for (LeitorBloco b : blocos) {
+            System.arraycopy(b.a, 0, origens, pos, b.quantidade);
+            System.arraycopy(b.b, 0, destinos, pos, b.quantidade);
+            System.arraycopy(b.c, 0, distancias, pos, b.quantidade);
+            pos += b.quantidade;
+        }
+        return new ConexoesLidas(origens, destinos, distancias, total, relatorio(arquivo, blocos));
+    }
+
+    /**
+     * Divide o arquivo em blocos alinhados a linhas e analisa cada um em paralelo.
+     */
+    private static LeitorBloco[] analisar(String arquivo, boolean pontos) throws IOException {
+        try (FileChannel canal = FileChannel.open(Paths.get(arquivo), StandardOpenOption.READ)) {
+            long[] limites = dividirEmBlocos(canal);
+            int numBlocos = limites.length - 1;
+            LeitorBloco[] blocos = new LeitorBloco[numBlocos];
+            IOException[] falha = new IOException[1];
+            IntStream.range(0, numBlocos).parallel().forEach(i -> {
+                try {
+                    MappedByteBuffer buf = canal.map(FileChannel.MapMode.READ_ONLY, limites[i], limites[i + 1] - limites[i]);
+                    LeitorBloco leitor = new LeitorBloco(buf, i == 0);
+                    if (pontos) leitor.analisarPontos();
+                    else leitor.analisarConexoes();
+                    blocos[i] = leitor;
+                } catch (IOException e) {
+                    synchronized (falha) {
+                        falha[0] = e;
+                    }
+                }
+            });
+            if (falha[0] != null) throw falha[0];
+            return blocos;
+        }
+    }
+
+    /**
+     * Calcula os limites dos blocos: cada limite (exceto 0 e o tamanho do arquivo) fica
+     * logo após um '\n', de modo que nenhuma linha é dividida entre dois blocos.
+     * @return As posições de início de cada bloco, seguidas do tamanho do arquivo.
+     */
+    private static long[] dividirEmBlocos(FileChannel canal) throws IOException {
+        long tamanho = canal.size();
+        List<Long> limites = new ArrayList<>();
+        limites.add(0L);
+        ByteBuffer janela = ByteBuffer.allocate(4096);
+        long inicio = 0;
+        while (inicio + TAMANHO_BLOCO < tamanho) {
+            // Procura o próximo '\n' a partir do fim nominal do bloco
+            long pos = inicio + TAMANHO_BLOCO;
+            long limite = -1;
+            while (limite < 0 && pos < tamanho) {
+                janela.clear();
+                int lidos = canal.read(janela, pos);
+                if (lidos <= 0) break;
+                for (int k = 0; k < lidos; k++) {
+                    if (janela.get(k) == '\n') {
+                        limite = pos + k + 1;
+                        break;
+                    }
+                }
+                pos += lidos;
+            }
+            if (limite < 0 || limite >= tamanho) break;
+            limites.add(limite);
+            inicio = limite;
+        }
+        limites.add(tamanho);
+        long[] resultado = new long[limites.size()];
+        for (int i = 0; i < resultado.length; i++) resultado[i] = limites.get(i);
+        return resultado;
+    }
+
+    /**
+     * Junta os contadores e os erros dos blocos, convertendo os números de linha
+     * locais de cada bloco em números de linha do arquivo.
+     */
+    private static RelatorioCarga relatorio(String arquivo, LeitorBloco[] blocos) {
+        long linhasAntes = 0, lidas = 0, aceitas = 0, totalErros = 0;
+        List<RelatorioCarga.ErroLinha> erros = new ArrayList<>();
+        for (LeitorBloco b : blocos) {
+            for (int k = 0; k < b.numErros && erros.size() < RelatorioCarga.MAXIMO_ERROS_DETALHADOS; k++) {
+                erros.add(new RelatorioCarga.ErroLinha(linhasAntes + b.linhaErro[k], b.mensagemErro[k]));
+            }
+            linhasAntes += b.linhas;
+            lidas += b.linhasNaoVazias;
+            aceitas += b.quantidade;
+            totalErros += b.totalErros;
+        }
+        return new RelatorioCarga(arquivo, lidas, aceitas, totalErros, erros);
+    }
+
+    /**
+     * Analisa um bloco mapeado, lendo os bytes diretamente do buffer.
+     * Os resultados ficam em vetores primitivos que crescem por duplicação.
+     */
+    private static final class LeitorBloco {
+        private final ByteBuffer buf;
+        private final int limite;
+        private int pos;
+
+        // Linhas do bloco (incluindo vazias) e linhas com conteúdo
+        long linhas;
+        long linhasNaoVazias;
+        // Valores lidos: (id) para pontos ou (origem, destino, distância) para conexões
+        int[] a = new int[1024];
+        int[] b;
+        int[] c;
+        String[] nomes;
+        int quantidade;
+        // Erros do bloco, com o número de linha relativo ao início do bloco
+        long totalErros;
+        int numErros;
+        long[] linhaErro = new long[8];
+        String[] mensagemErro = new String[8];
+        // Área reaproveitada para decodificar os nomes
+        private byte[] bytesNome = new byte[128];
+
+        LeitorBloco(ByteBuffer buf, boolean primeiroBloco) {
+            this.buf = buf;
+            this.limite = buf.limit();
+            // Ignora a marca BOM do UTF-8 no início do arquivo
+            if (primeiroBloco && limite >= 3 && (buf.get(0) & 0xFF) == 0xEF
+                    && (buf.get(1) & 0xFF) == 0xBB && (buf.get(2) & 0xFF) == 0xBF) {
+                pos = 3;
+            }
+        }
+
+        void analisarPontos() {
+            nomes = new String[a.length];
+            while (pos < limite) {
+                int fim = proximaLinha();
+                if (fim < 0) continue;
+                long id = lerInteiro(fim);
+                if (id == FALHA || !consumirSeparador(fim)) {
+                    erro("ID inválido");
+                } else if (id < 0) {
+                    erro("ID negativo");
+                } else {
+                    String nome = lerNome(fim);
+                    if (nome.isEmpty()) erro("nome ausente");
+                    else adicionarPonto((int) id, nome);
+                }
+                pos = fim + 1;
+            }
+        }
+
+        void analisarConexoes() {
+            b = new int[a.length];
+            c = new int[a.length];
+            while (pos < limite) {
+                int fim = proximaLinha();
+                if (fim < 0) continue;
+                long origem = lerInteiro(fim);
+                if (origem == FALHA || !consumirSeparador(fim)) {
+                    erro("origem inválida");
+                } else if (origem < 0) {
+                    erro("origem negativa");
+                } else {
+                    long destino = lerInteiro(fim);
+                    if (destino == FALHA) {
+                        erro("destino inválido");
+                    } else if (!consumirSeparador(fim)) {
+                        erro(pos == fim ? "distância ausente" : "destino inválido");
+                    } else if (destino < 0) {
+                        erro("destino negativo");
+                    } else {
+                        long distancia = lerInteiro(fim);
+                        // Campos extras após a distância são ignorados, como no formato original
+                        if (distancia == FALHA || (pos < fim && buf.get(pos) != ';')) erro("distância inválida");
+                        // Um peso negativo deixaria Dijkstra, A*, ALT e Floyd-Warshall incorretos
+                        else if (distancia < 0) erro("distância negativa");
+                        else adicionarConexao((int) origem, (int) destino, (int) distancia);
+                    }
+                }
+                pos = fim + 1;
+            }
+        }
+
+        /**
+         * Conta a linha que começa em 'pos' e encontra seu fim.
+         * @return A posição do '\n' (ou o limite do bloco), ou -1 se a linha estava
+         *         em branco (nesse caso 'pos' já aponta para a linha seguinte).
+         */
+        private int proximaLinha() {
+            linhas++;
+            int fim = pos;
+            boolean vazia = true;
+            while (fim < limite) {
+                byte x = buf.get(fim);
+                if (x == '\n') break;
+                if (x > ' ') vazia = false;
+                fim++;
+            }
+            if (vazia) {
+                pos = fim + 1;
+                return -1;
+            }
+            linhasNaoVazias++;
+            return fim;
+        }
+
+        /**
+         * Converte um inteiro com sinal opcional, ignorando espaços ao redor.
+         * @param fim O fim da linha atual.
+         * @return O valor, ou FALHA se não houver dígitos ou o valor não couber em um int.
+         */
+        private long lerInteiro(int fim) {
+            pularEspacos(fim);
+            boolean negativo = false;
+            if (pos < fim && buf.get(pos) == '-') {
+                negativo = true;
+                pos++;
+            }
+            long valor = 0;
+            int digitos = 0;
+            while (pos < fim) {
+                int d = buf.get(pos) - '0';
+                if (d < 0 || d > 9) break;
+                valor = valor * 10 + d;
+                if (valor > 2147483648L) return FALHA;
+                digitos++;
+                pos++;
+            }
+            if (digitos == 0) return FALHA;
+            pularEspacos(fim);
+            if (negativo) valor = -valor;
+            return valor > Integer.MAX_VALUE || valor < Integer.MIN_VALUE ? FALHA : valor;
+        }
+
+        /**
+         * Consome o separador ';' na posição atual.
+         * @return true se havia um separador.
+         */
+        private boolean consumirSeparador(int fim) {
+            if (pos < fim && buf.get(pos) == ';') {
+                pos++;
+                return true;
+            }
+            return false;
+        }
+
+        /**
+         * Lê o nome até o próximo ';' ou o fim da linha, sem espaços nas pontas.
+         */
+        private String lerNome(int fim) {
+            int ini = pos;
+            int f = ini;
+            while (f < fim && buf.get(f) != ';') f++;
+            // Remove espaços e o '\r' das quebras de linha do Windows (como String.trim)
+            while (ini < f && (buf.get(ini) & 0xFF) <= ' ') ini++;
+            while (f > ini && (buf.get(f - 1) & 0xFF) <= ' ') f--;
+            int tamanho = f - ini;
+            if (tamanho > bytesNome.length) bytesNome = new byte[Math.max(tamanho, bytesNome.length * 2)];
+            for (int k = 0; k < tamanho; k++) bytesNome[k] = buf.get(ini + k);
+            return new String(bytesNome, 0, tamanho, StandardCharsets.UTF_8);
+        }
+
+        private void pularEspacos(int fim) {
+            while (pos < fim) {
+                byte x = buf.get(pos);
+                if (x != ' ' && x != '\t' && x != '\r') break;
+                pos++;
+            }
+        }
+
+        private void adicionarPonto(int id, String nome) {
+            if (quantidade == a.length) {
+                a = Arrays.copyOf(a, a.length * 2);
+                nomes = Arrays.copyOf(nomes, a.length);
+            }
+            a[quantidade] = id;
+            nomes[quantidade++] = nome;
+        }
+
+        private void adicionarConexao(int origem, int destino, int distancia) {
+            if (quantidade == a.length) {
+                a = Arrays.copyOf(a, a.length * 2);
+                b = Arrays.copyOf(b, a.length);
+                c = Arrays.copyOf(c, a.length);
+            }
+            a[quantidade] = origem;
+            b[quantidade] = destino;
+            c[quantidade++] = distancia;
+        }
+
+        private void erro(String mensagem) {
+            totalErros++;
+            if (numErros == RelatorioCarga.MAXIMO_ERROS_DETALHADOS) return;
+            if (numErros == linhaErro.length) {
+                linhaErro = Arrays.copyOf(linhaErro, numErros * 2);
+                mensagemErro = Arrays.copyOf(mensagemErro, numErros * 2);
+            }
+            linhaErro[numErros] = linhas;
+            mensagemErro[numErros++] = mensagem;
+        }
+    }
+}
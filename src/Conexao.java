@@ -6,6 +6,7 @@ public class Conexao {
     int origem; // ID do ponto de coleta de partida (origem da rota)
     int destino; // ID do ponto de coleta de chegada (destino da rota)
     int distancia; // Peso da aresta: distância ou custo da rota em metros
+    int posicao = -1; // Índice na lista 'conexoes' do grafo (mantido pelo GrafoColetaReciclaveis)
 
     /**
      * Construtor para criar uma instância de Conexao.
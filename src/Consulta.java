@@ -0,0 +1,101 @@
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Uma linha de um arquivo de consultas: o tipo e os argumentos, no mesmo formato
+ * dos arquivos de dados (campos separados por ';'). Ex.: "CAMINHO;1;500;A_ESTRELA".
+ * Linhas vazias e as iniciadas por '#' são comentários.
+ */
+public class Consulta {
+    // Número da linha no arquivo de consultas (1-based), repetido em cada resultado
+    final long linha;
+    final TipoConsulta tipo;
+    // Campos depois do tipo, sem espaços nas pontas
+    final String[] argumentos;
+
+    /**
+     * Construtor para criar uma instância de Consulta.
+     * @param linha O número da linha no arquivo de consultas.
+     * @param tipo O tipo da consulta.
+     * @param argumentos Os argumentos, na ordem da sintaxe do tipo.
+     */
+    public Consulta(long linha, TipoConsulta tipo, String... argumentos) {
+        this.linha = linha;
+        this.tipo = tipo;
+        this.argumentos = argumentos;
+    }
+
+    /**
+     * Interpreta uma linha do arquivo de consultas.
+     * @param linha O número da linha.
+     * @param texto O conteúdo da linha.
+     * @return A consulta, ou null se a linha for vazia ou comentário.
+     * @throws IllegalArgumentException Se o tipo for desconhecido ou a quantidade de argumentos não bater.
+     */
+    public static Consulta interpretar(long linha, String texto) {
+        String conteudo = texto.strip();
+        if (conteudo.isEmpty() || conteudo.startsWith("#")) return null;
+        String[] campos = conteudo.split(";", -1);
+        TipoConsulta tipo;
+        try {
+            tipo = TipoConsulta.valueOf(campos[0].strip().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Tipo de consulta desconhecido: '" + campos[0].strip() + "'");
+        }
+        String[] argumentos = new String[campos.length - 1];
+        for (int i = 0; i < argumentos.length; i++) argumentos[i] = campos[i + 1].strip();
+        if (argumentos.length < tipo.minimoArgumentos || argumentos.length > tipo.maximoArgumentos) {
+            throw new IllegalArgumentException("Formato esperado: " + tipo.getSintaxe());
+        }
+        return new Consulta(linha, tipo, argumentos);
+    }
+
+    /**
+     * Converte uma lista de IDs separados por vírgula (ex.: "3, 17,42"). Itens vazios são ignorados.
+     * @param lista O texto com os IDs.
+     * @return Os IDs, na ordem do texto.
+     * @throws NumberFormatException Se algum item não for um número inteiro.
+     */
+    public static List<Integer> lerIds(String lista) {
+        List<Integer> ids = new ArrayList<>();
+        for (String parte : lista.split(",")) {
+            if (!parte.isBlank()) ids.add(Integer.parseInt(parte.strip()));
+        }
+        return ids;
+    }
+
+    /**
+     * @param i A posição do argumento.
+     * @return true se o argumento foi informado e não está vazio.
+     */
+    boolean temArgumento(int i) {
+        return i < argumentos.length && !argumentos[i].isEmpty();
+    }
+
+    /**
+     * @param i A posição do argumento.
+     * @param nome O nome do argumento, para a mensagem de erro.
+     * @return O argumento convertido para int.
+     * @throws IllegalArgumentException Se o argumento não for um número inteiro.
+     */
+    int inteiro(int i, String nome) {
+        try {
+            return Integer.parseInt(argumentos[i]);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(nome + " inválido: '" + argumentos[i] + "'");
+        }
+    }
+
+    public long getLinha() {
+        return linha;
+    }
+
+    public TipoConsulta getTipo() {
+        return tipo;
+    }
+
+    @Override
+    public String toString() {
+        return argumentos.length == 0 ? tipo.name() : tipo.name() + ";" + String.join(";", argumentos);
+    }
+}
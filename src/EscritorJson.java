@@ -0,0 +1,156 @@
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Arrays;
+
+/**
+ * Escritor de JSON em fluxo: cada valor vai direto para o Writer, sem montar a
+ * resposta inteira em memória (ex.: uma tabela de distâncias grande é enviada linha
+ * a linha). Cuida das vírgulas e do escape das strings; a ordem das chamadas é
+ * responsabilidade de quem escreve (nome antes de cada valor dentro de objetos).
+ *
+ * Ex.: json.iniciarObjeto().nome("id").valor(3).nome("nome").valor("Ecoponto").fimObjeto();
+ */
+public class EscritorJson {
+    private final Writer saida;
+    // Para cada nível aberto, se já recebeu algum elemento (para saber se vem vírgula)
+    private boolean[] temElemento = new boolean[16];
+    private int nivel;
+    // Acabou de escrever um nome: o próximo valor não leva vírgula
+    private boolean aposNome;
+
+    /**
+     * Construtor para criar uma instância de EscritorJson.
+     * @param saida O destino do texto JSON.
+     */
+    public EscritorJson(Writer saida) {
+        this.saida = saida;
+    }
+
+    public EscritorJson iniciarObjeto() throws IOException {
+        return abrir('{');
+    }
+
+    public EscritorJson fimObjeto() throws IOException {
+        return fechar('}');
+    }
+
+    public EscritorJson iniciarLista() throws IOException {
+        return abrir('[');
+    }
+
+    public EscritorJson fimLista() throws IOException {
+        return fechar(']');
+    }
+
+    /**
+     * Escreve o nome do próximo membro de um objeto.
+     * @param nome O nome do membro.
+     * @return Este escritor.
+     * @throws IOException Se houver erro de escrita.
+     */
+    public EscritorJson nome(String nome) throws IOException {
+        separar();
+        escreverString(nome);
+        saida.write(':');
+        aposNome = true;
+        return this;
+    }
+
+    public EscritorJson valor(String valor) throws IOException {
+        separar();
+        if (valor == null) saida.write("null");
+        else escreverString(valor);
+        return this;
+    }
+
+    public EscritorJson valor(long valor) throws IOException {
+        separar();
+        saida.write(Long.toString(valor));
+        return this;
+    }
+
+    public EscritorJson valor(double valor) throws IOException {
+        separar();
+        // NaN e infinito não existem em JSON
+        saida.write(Double.isFinite(valor) ? Double.toString(valor) : "null");
+        return this;
+    }
+
+    public EscritorJson valor(boolean valor) throws IOException {
+        separar();
+        saida.write(valor ? "true" : "false");
+        return this;
+    }
+
+    public EscritorJson valorNulo() throws IOException {
+        separar();
+        saida.write("null");
+        return this;
+    }
+
+    /**
+     * Escreve um texto que já é JSON válido (ex.: a resposta de outra consulta).
+     * @param json O valor JSON completo.
+     * @return Este escritor.
+     * @throws IOException Se houver erro de escrita.
+     */
+    public EscritorJson valorBruto(String json) throws IOException {
+        separar();
+        saida.write(json);
+        return this;
+    }
+
+    /**
+     * Envia ao destino o que estiver no buffer do Writer (ex.: para o cliente HTTP ver
+     * os primeiros resultados antes do fim da resposta).
+     * @throws IOException Se houver erro de escrita.
+     */
+    public void descarregar() throws IOException {
+        saida.flush();
+    }
+
+    private EscritorJson abrir(char c) throws IOException {
+        separar();
+        saida.write(c);
+        if (++nivel == temElemento.length) temElemento = Arrays.copyOf(temElemento, nivel * 2);
+        temElemento[nivel] = false;
+        return this;
+    }
+
+    private EscritorJson fechar(char c) throws IOException {
+        if (nivel == 0) throw new IllegalStateException("Nenhum objeto ou lista aberto");
+        nivel--;
+        saida.write(c);
+        return this;
+    }
+
+    /**
+     * Escreve a vírgula antes de um elemento que não é o primeiro do seu nível.
+     */
+    private void separar() throws IOException {
+        if (aposNome) {
+            aposNome = false;
+            return;
+        }
+        if (temElemento[nivel]) saida.write(',');
+        temElemento[nivel] = true;
+    }
+
+    private void escreverString(String s) throws IOException {
+        saida.write('"');
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            switch (c) {
+                case '"': saida.write("\\\""); break;
+                case '\\': saida.write("\\\\"); break;
+                case '\n': saida.write("\\n"); break;
+                case '\r': saida.write("\\r"); break;
+                case '\t': saida.write("\\t"); break;
+                default:
+                    if (c < 0x20) saida.write(String.format("\\u%04x", (int) c));
+                    else saida.write(c);
+            }
+        }
+        saida.write('"');
+    }
+}
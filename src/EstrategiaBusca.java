@@ -0,0 +1,25 @@
+/**
+ * Estratégias disponíveis para a busca de caminho entre dois pontos.
+ */
+public enum EstrategiaBusca {
+    // Busca em largura: menor número de conexões, ignora as distâncias
+    BFS("Busca em Largura (BFS)"),
+    // Dijkstra unidirecional: menor distância em metros
+    DIJKSTRA("Dijkstra"),
+    // Dijkstra a partir da origem e do destino ao mesmo tempo (usa a adjacência reversa)
+    DIJKSTRA_BIDIRECIONAL("Dijkstra Bidirecional"),
+    // A* guiado pela heurística admissível configurada no grafo
+    A_ESTRELA("A*");
+
+    // Nome legível da estratégia, usado na interface
+    private final String descricao;
+
+    EstrategiaBusca(String descricao) {
+        this.descricao = descricao;
+    }
+
+    @Override
+    public String toString() {
+        return descricao;
+    }
+}
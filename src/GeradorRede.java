@@ -0,0 +1,359 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Gerador de redes sintéticas grandes, para testes de escala e de carga.
+ * Grava os arquivos nos mesmos formatos lidos pelo sistema (ID;Nome e
+ * Origem;Destino;Distancia), com IDs de 1 a numPontos.
+ *
+ * A rede é escrita em fluxo: nenhuma topologia guarda os pontos ou as conexões em
+ * memória. O que precisa ser consultado de novo (comprimento de um quarteirão,
+ * posição de um ponto no plano) é recalculado a partir da semente por uma função de
+ * espalhamento, então a memória usada é constante e a mesma semente gera sempre os
+ * mesmos arquivos, com dezenas de milhões de conexões se for preciso.
+ *
+ * Os nomes seguem o padrão dos nossos (tipo + logradouro + nome + número), com os
+ * tipos, logradouros e nomes sorteados por uma distribuição de Zipf: poucos prefixos
+ * muito frequentes ("Ecoponto Rua ...") e uma cauda longa, como nas cidades reais.
+ *
+ * Uso: java GeradorRede topologia numPontos grauMedio semente [arquivoPontos] [arquivoConexoes]
+ * Ex.: java GeradorRede GEOMETRICA 1000000 6 42 pontos_1m.txt rotas_1m.txt
+ */
+public final class GeradorRede {
+    private static final String[] TIPOS = {"Ecoponto", "Ponto de Entrega", "Cooperativa", "Posto de Coleta",
+            "Galpão de Triagem", "Ponto Verde", "Centro de Reciclagem", "Associação de Catadores"};
+    private static final String[] LOGRADOUROS = {"Rua", "Avenida", "Praça", "Travessa", "Estrada", "Alameda"};
+    private static final String[] NOMES = {"das Flores", "São João", "Brasil", "Ipiranga", "Paraná", "Tiradentes",
+            "Sete de Setembro", "Santos Dumont", "Getúlio Vargas", "da Liberdade", "do Comércio", "XV de Novembro",
+            "Dom Pedro II", "Marechal Deodoro", "Rui Barbosa", "Castro Alves", "Duque de Caxias", "da Saudade",
+            "Santa Catarina", "Bahia", "Amazonas", "Goiás", "Pernambuco", "Rio Branco", "Barão do Rio Branco",
+            "Floriano Peixoto", "José Bonifácio", "Princesa Isabel", "dos Andradas", "da Matriz"};
+    // Expoente da distribuição de Zipf dos nomes (1 = frequência inversamente proporcional à posição)
+    private static final double EXPOENTE_ZIPF = 1.0;
+
+    // Comprimento dos quarteirões da grade, em metros
+    private static final int QUARTEIRAO_MINIMO = 80;
+    private static final int QUARTEIRAO_MAXIMO = 250;
+    // Lado de uma célula da rede geométrica, em metros; é também o raio das conexões
+    private static final int LADO_CELULA = 400;
+    // Quanto o trajeto pelas ruas é maior que a linha reta entre dois pontos
+    private static final double SINUOSIDADE = 1.3;
+    // Expoente da lei de potência dos graus na rede livre de escala (P(grau k) ~ k^-EXPOENTE)
+    private static final double EXPOENTE_GRAUS = 2.5;
+    // Distâncias das conexões da rede livre de escala, em metros
+    private static final int DISTANCIA_MINIMA = 100;
+    private static final int DISTANCIA_MAXIMA = 3000;
+
+    // Tamanho do buffer de escrita, em bytes
+    private static final int TAMANHO_BUFFER = 1 << 16;
+
+    private GeradorRede() {
+    }
+
+    /**
+     * Gera uma rede e grava os dois arquivos.
+     * @param topologia O formato da rede.
+     * @param numPontos A quantidade de pontos (IDs de 1 a numPontos).
+     * @param grauMedio A quantidade média de conexões de saída por ponto (na GRADE é sempre cerca de 4).
+     * @param semente A semente dos sorteios; a mesma semente gera os mesmos arquivos.
+     * @param arquivoPontos O arquivo de pontos a gravar (ID;Nome).
+     * @param arquivoConexoes O arquivo de conexões a gravar (Origem;Destino;Distancia).
+     * @return A quantidade de conexões gravadas.
+     * @throws IOException Se houver erro de escrita.
+     * @throws IllegalArgumentException Se numPontos ou grauMedio não forem positivos.
+     */
+    public static long gerar(TopologiaRede topologia, int numPontos, int grauMedio, long semente,
+                             String arquivoPontos, String arquivoConexoes) throws IOException {
+        if (numPontos < 1) throw new IllegalArgumentException("A rede precisa de ao menos um ponto: " + numPontos);
+        if (grauMedio < 1) throw new IllegalArgumentException("O grau médio precisa ser positivo: " + grauMedio);
+
+        gerarPontos(numPontos, semente, arquivoPontos);
+        try (Saida saida = new Saida(arquivoConexoes)) {
+            switch (topologia) {
+                case GRADE: gerarGrade(numPontos, semente, saida); break;
+                case GEOMETRICA: gerarGeometrica(numPontos, grauMedio, semente, saida); break;
+                case LIVRE_DE_ESCALA: gerarLivreDeEscala(numPontos, grauMedio, semente, saida); break;
+            }
+            return saida.linhas;
+        }
+    }
+
+    /**
+     * Grava os pontos. Os números no fim dos nomes são contados por combinação de tipo,
+     * logradouro e nome, então os nomes são únicos e os mais comuns têm milhares de
+     * irmãos com o mesmo prefixo.
+     */
+    private static void gerarPontos(int numPontos, long semente, String arquivo) throws IOException {
+        SplittableRandom aleatorio = new SplittableRandom(semente);
+        byte[][] tipos = emBytes(TIPOS), logradouros = emBytes(LOGRADOUROS), nomes = emBytes(NOMES);
+        double[] zipfTipos = acumuladaZipf(TIPOS.length);
+        double[] zipfLogradouros = acumuladaZipf(LOGRADOUROS.length);
+        double[] zipfNomes = acumuladaZipf(NOMES.length);
+        int[] contadores = new int[TIPOS.length * LOGRADOUROS.length * NOMES.length];
+
+        try (Saida saida = new Saida(arquivo)) {
+            for (int id = 1; id <= numPontos; id++) {
+                int t = sortearZipf(zipfTipos, aleatorio);
+                int l = sortearZipf(zipfLogradouros, aleatorio);
+                int n = sortearZipf(zipfNomes, aleatorio);
+                saida.inteiro(id);
+                saida.escrever((byte) ';');
+                saida.escrever(tipos[t]);
+                saida.escrever((byte) ' ');
+                saida.escrever(logradouros[l]);
+                saida.escrever((byte) ' ');
+                saida.escrever(nomes[n]);
+                saida.escrever((byte) ' ');
+                saida.inteiro(++contadores[(t * LOGRADOUROS.length + l) * NOMES.length + n]);
+                saida.novaLinha();
+            }
+        }
+    }
+
+    /**
+     * Grade de ruas: os pontos ocupam as esquinas de uma grade quase quadrada, linha por
+     * linha. As ruas verticais são de mão dupla; entre as horizontais, algumas são de mão
+     * única, alternando o sentido (a rede continua fortemente conexa pelas verticais).
+     * O comprimento de cada quarteirão é o mesmo nos dois sentidos.
+     */
+    private static void gerarGrade(int numPontos, long semente, Saida saida) throws IOException {
+        int lado = (int) Math.ceil(Math.sqrt(numPontos));
+        for (int i = 0; i < numPontos; i++) {
+            int linha = i / lado, coluna = i % lado;
+            // Linhas 1, 5, 9... são mão única para a direita; 3, 7, 11... para a esquerda
+            boolean paraDireita = linha % 4 != 3;
+            boolean paraEsquerda = linha % 4 != 1;
+            if (coluna + 1 < lado && i + 1 < numPontos && paraDireita) quarteirao(saida, i, i + 1, numPontos, semente);
+            if (coluna > 0 && paraEsquerda) quarteirao(saida, i, i - 1, numPontos, semente);
+            if (linha > 0) quarteirao(saida, i, i - lado, numPontos, semente);
+            if (i + lado < numPontos) quarteirao(saida, i, i + lado, numPontos, semente);
+        }
+    }
+
+    private static void quarteirao(Saida saida, int de, int para, int numPontos, long semente) throws IOException {
+        // A chave do quarteirão não depende do sentido
+        long chave = (long) Math.min(de, para) * numPontos + Math.max(de, para);
+        int comprimento = QUARTEIRAO_MINIMO
+                + (int) (uniforme(semente, chave) * (QUARTEIRAO_MAXIMO - QUARTEIRAO_MINIMO + 1));
+        saida.conexao(de + 1, para + 1, comprimento);
+    }
+
+    /**
+     * Geométrica aleatória: o plano é dividido em células quadradas de LADO_CELULA metros,
+     * e os pontos de cada célula são IDs consecutivos, em posições sorteadas dentro dela.
+     * Cada ponto se liga, nos dois sentidos, a todos os pontos a até LADO_CELULA metros;
+     * basta olhar as 9 células ao redor. O número de pontos por célula é escolhido para
+     * que o grau médio fique próximo do pedido (grau = pi * pontos por célula).
+     */
+    private static void gerarGeometrica(int numPontos, int grauMedio, long semente, Saida saida) throws IOException {
+        int lado = (int) Math.max(1, Math.round(Math.sqrt(numPontos * Math.PI / grauMedio)));
+        long numCelulas = (long) lado * lado;
+        double raio2 = (double) LADO_CELULA * LADO_CELULA;
+
+        for (int cy = 0; cy < lado; cy++) {
+            for (int cx = 0; cx < lado; cx++) {
+                long celula = (long) cy * lado + cx;
+                int inicio = inicioCelula(celula, numCelulas, numPontos);
+                int fim = inicioCelula(celula + 1, numCelulas, numPontos);
+                for (int i = inicio; i < fim; i++) {
+                    double xi = (cx + uniforme(semente, 2L * i)) * LADO_CELULA;
+                    double yi = (cy + uniforme(semente, 2L * i + 1)) * LADO_CELULA;
+                    // Vizinhos nas 9 células ao redor (incluindo a própria)
+                    for (int vy = Math.max(0, cy - 1); vy <= Math.min(lado - 1, cy + 1); vy++) {
+                        for (int vx = Math.max(0, cx - 1); vx <= Math.min(lado - 1, cx + 1); vx++) {
+                            long vizinha = (long) vy * lado + vx;
+                            int fimVizinha = inicioCelula(vizinha + 1, numCelulas, numPontos);
+                            for (int j = inicioCelula(vizinha, numCelulas, numPontos); j < fimVizinha; j++) {
+                                if (j == i) continue;
+                                double dx = (vx + uniforme(semente, 2L * j)) * LADO_CELULA - xi;
+                                double dy = (vy + uniforme(semente, 2L * j + 1)) * LADO_CELULA - yi;
+                                double d2 = dx * dx + dy * dy;
+                                if (d2 <= raio2) {
+                                    saida.conexao(i + 1, j + 1, (int) Math.max(1, Math.round(Math.sqrt(d2) * SINUOSIDADE)));
+                                }
+                            }
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * @return O índice do primeiro ponto da célula (os pontos são repartidos igualmente entre as células).
+     */
+    private static int inicioCelula(long celula, long numCelulas, int numPontos) {
+        return (int) (celula * numPontos / numCelulas);
+    }
+
+    /**
+     * Livre de escala: cada ponto sorteia grauMedio / 2 parceiros com probabilidade
+     * proporcional a um peso que segue uma lei de potência (modelo de Chung-Lu), e se liga
+     * a eles nos dois sentidos. Os parceiros são sorteados pela inversa da distribuição,
+     * sem guardar graus. Os pontos de maior peso (os hubs) são espalhados pelos IDs por
+     * uma permutação afim, para não ficarem todos no início do arquivo.
+     */
+    private static void gerarLivreDeEscala(int numPontos, int grauMedio, long semente, Saida saida) throws IOException {
+        SplittableRandom aleatorio = new SplittableRandom(semente);
+        int parceiros = Math.max(1, grauMedio / 2);
+        // Peso da posição r (1..n) proporcional a r^-beta, com beta = 1 / (expoente - 1)
+        double umMenosBeta = 1 - 1 / (EXPOENTE_GRAUS - 1);
+        double maximo = Math.pow(numPontos + 1, umMenosBeta) - 1;
+        // Permutação afim posição -> índice: o multiplicador precisa ser primo com n
+        long multiplicador = 1 + (misturar(semente) >>> 1) % numPontos;
+        while (mdc(multiplicador, numPontos) != 1) multiplicador++;
+        long deslocamento = (misturar(semente + 1) >>> 1) % numPontos;
+
+        for (int r = 0; r < numPontos; r++) {
+            int origem = (int) ((multiplicador * r + deslocamento) % numPontos) + 1;
+            for (int k = 0; k < parceiros; k++) {
+                int s = (int) Math.pow(1 + aleatorio.nextDouble() * maximo, 1 / umMenosBeta) - 1;
+                s = Math.min(numPontos - 1, Math.max(0, s));
+                if (s == r) continue;
+                int destino = (int) ((multiplicador * s + deslocamento) % numPontos) + 1;
+                int distancia = aleatorio.nextInt(DISTANCIA_MINIMA, DISTANCIA_MAXIMA + 1);
+                saida.conexao(origem, destino, distancia);
+                saida.conexao(destino, origem, distancia);
+            }
+        }
+    }
+
+    private static long mdc(long a, long b) {
+        while (b != 0) {
+            long t = a % b;
+            a = b;
+            b = t;
+        }
+        return a;
+    }
+
+    /**
+     * Função de espalhamento do SplitMix64: bits bem distribuídos a partir de uma chave.
+     */
+    private static long misturar(long x) {
+        x = (x ^ (x >>> 30)) * 0xBF58476D1CE4E5B9L;
+        x = (x ^ (x >>> 27)) * 0x94D049BB133111EBL;
+        return x ^ (x >>> 31);
+    }
+
+    /**
+     * @return Um número em [0, 1) que depende só da semente e da chave (o mesmo a cada chamada).
+     */
+    private static double uniforme(long semente, long chave) {
+        return (misturar(semente + chave * 0x9E3779B97F4A7C15L) >>> 11) * 0x1.0p-53;
+    }
+
+    /**
+     * @return A distribuição acumulada (normalizada) de Zipf para 'n' posições.
+     */
+    private static double[] acumuladaZipf(int n) {
+        double[] acumulada = new double[n];
+        double soma = 0;
+        for (int k = 0; k < n; k++) {
+            soma += 1 / Math.pow(k + 1, EXPOENTE_ZIPF);
+            acumulada[k] = soma;
+        }
+        for (int k = 0; k < n; k++) acumulada[k] /= soma;
+        return acumulada;
+    }
+
+    private static int sortearZipf(double[] acumulada, SplittableRandom aleatorio) {
+        int posicao = Arrays.binarySearch(acumulada, aleatorio.nextDouble());
+        // Sem correspondência exata, binarySearch devolve -(ponto de inserção) - 1
+        return Math.min(acumulada.length - 1, posicao >= 0 ? posicao : -posicao - 1);
+    }
+
+    private static byte[][] emBytes(String[] textos) {
+        byte[][] bytes = new byte[textos.length][];
+        for (int i = 0; i < textos.length; i++) bytes[i] = textos[i].getBytes(StandardCharsets.UTF_8);
+        return bytes;
+    }
+
+    /**
+     * Escrita bufferizada de linhas em UTF-8, com os inteiros convertidos direto para
+     * bytes (sem criar uma String por linha).
+     */
+    private static final class Saida implements Closeable {
+        private final OutputStream destino;
+        private final byte[] buffer = new byte[TAMANHO_BUFFER];
+        private final byte[] digitos = new byte[20];
+        private int usados;
+        // Quantidade de linhas escritas
+        long linhas;
+
+        Saida(String arquivo) throws IOException {
+            destino = Files.newOutputStream(Paths.get(arquivo));
+        }
+
+        void conexao(int origem, int destino, int distancia) throws IOException {
+            inteiro(origem);
+            escrever((byte) ';');
+            inteiro(destino);
+            escrever((byte) ';');
+            inteiro(distancia);
+            novaLinha();
+        }
+
+        void inteiro(long valor) throws IOException {
+            // Só valores não negativos: IDs e distâncias
+            int n = 0;
+            do {
+                digitos[n++] = (byte) ('0' + valor % 10);
+                valor /= 10;
+            } while (valor > 0);
+            while (n > 0) escrever(digitos[--n]);
+        }
+
+        void escrever(byte[] bytes) throws IOException {
+            if (usados + bytes.length > buffer.length) descarregar();
+            System.arraycopy(bytes, 0, buffer, usados, bytes.length);
+            usados += bytes.length;
+        }
+
+        void escrever(byte b) throws IOException {
+            if (usados == buffer.length) descarregar();
+            buffer[usados++] = b;
+        }
+
+        void novaLinha() throws IOException {
+            escrever((byte) '\n');
+            linhas++;
+        }
+
+        private void descarregar() throws IOException {
+            destino.write(buffer, 0, usados);
+            usados = 0;
+        }
+
+        @Override
+        public void close() throws IOException {
+            descarregar();
+            destino.close();
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 4) {
+            System.err.println("Uso: java GeradorRede topologia numPontos grauMedio semente [arquivoPontos] [arquivoConexoes]");
+            for (TopologiaRede t : TopologiaRede.values()) System.err.println("  " + t.name() + " - " + t);
+            System.exit(1);
+        }
+        TopologiaRede topologia = TopologiaRede.valueOf(args[0].toUpperCase());
+        int numPontos = Integer.parseInt(args[1]);
+        int grauMedio = Integer.parseInt(args[2]);
+        long semente = Long.parseLong(args[3]);
+        String arquivoPontos = args.length > 4 ? args[4] : "pontos_gerados.txt";
+        String arquivoConexoes = args.length > 5 ? args[5] : "rotas_geradas.txt";
+
+        long inicio = System.nanoTime();
+        long conexoes = gerar(topologia, numPontos, grauMedio, semente, arquivoPontos, arquivoConexoes);
+        System.out.printf("%s: %d pontos em %s, %d conexões em %s (%.1f s)%n", topologia, numPontos, arquivoPontos,
+                conexoes, arquivoConexoes, (System.nanoTime() - inicio) / 1e9);
+    }
+}
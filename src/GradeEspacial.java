@@ -0,0 +1,246 @@
+import java.util.Arrays;
+
+/**
+ * Índice espacial do PainelGrafo: responde quais pontos e quais conexões estão em um
+ * retângulo (a área visível) sem percorrer o grafo inteiro, e qual ponto está mais
+ * perto de uma posição (clique do mouse).
+ *
+ * Os pontos ficam em uma grade uniforme com ~1 ponto por célula. As conexões ficam em
+ * uma grade hierárquica: o nível 0 é a grade dos pontos e cada nível seguinte tem
+ * células com o dobro do lado; cada conexão vai para o nível mais fino em que a sua
+ * caixa envolvente cobre no máximo 2 x 2 células, e entra em cada uma dessas células.
+ * Assim uma conexão longa ocupa poucas células de um nível grosso em vez de milhares
+ * do nível 0, e a consulta de uma área pequena visita poucas células em cada nível.
+ *
+ * Cada grade é guardada como listas compactas (CSR): os itens da célula c ficam em
+ * itens[inicio[c] .. inicio[c + 1]). O índice não muda depois de montado; as consultas
+ * usam um vetor de marcas para não repetir conexões e não são thread-safe.
+ */
+class GradeEspacial {
+    // Células por lado do nível 0 no máximo (a grade tem no máximo este valor ao quadrado)
+    private static final int LADO_MAXIMO = 1024;
+
+    // Posições dos pontos e pontas das conexões (compartilhadas com o painel, não alteradas)
+    private final double[] x, y;
+    private final int[] origens, destinos;
+    private final int numConexoes;
+
+    // Área coberta e lado de uma célula do nível 0
+    private final double minX, minY, lado;
+    // Células por lado de cada nível
+    private final int[] resolucao;
+    // Pontos por célula do nível 0
+    private final int[] inicioPontos, pontos;
+    // Conexões por célula, por nível
+    private final int[][] inicioConexoes, conexoes;
+    // Marcas das conexões já devolvidas na consulta atual
+    private final int[] marca;
+    private int consulta;
+
+    /**
+     * Monta o índice.
+     * @param x As coordenadas X dos pontos.
+     * @param y As coordenadas Y dos pontos.
+     * @param origens Os índices das origens das conexões.
+     * @param destinos Os índices dos destinos das conexões.
+     * @param numConexoes A quantidade de conexões (as primeiras dos vetores).
+     */
+    GradeEspacial(double[] x, double[] y, int[] origens, int[] destinos, int numConexoes) {
+        this.x = x;
+        this.y = y;
+        this.origens = origens;
+        this.destinos = destinos;
+        this.numConexoes = numConexoes;
+        int n = x.length;
+
+        double x0 = Double.POSITIVE_INFINITY, y0 = Double.POSITIVE_INFINITY;
+        double x1 = Double.NEGATIVE_INFINITY, y1 = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < n; i++) {
+            x0 = Math.min(x0, x[i]);
+            x1 = Math.max(x1, x[i]);
+            y0 = Math.min(y0, y[i]);
+            y1 = Math.max(y1, y[i]);
+        }
+        if (n == 0) x0 = y0 = x1 = y1 = 0;
+        int r0 = Math.max(1, Math.min(LADO_MAXIMO, (int) Math.ceil(Math.sqrt(n))));
+        minX = x0;
+        minY = y0;
+        // Um pouco maior que a área, para o ponto mais à direita/abaixo cair dentro da última célula
+        lado = Math.max(Math.max(x1 - x0, y1 - y0), 1e-9) * 1.0001 / r0;
+
+        int niveis = 1;
+        while ((r0 - 1) >> (niveis - 1) > 0) niveis++;
+        resolucao = new int[niveis];
+        for (int l = 0; l < niveis; l++) resolucao[l] = Math.max(1, (r0 + (1 << l) - 1) >> l);
+
+        // Pontos no nível 0
+        inicioPontos = new int[r0 * r0 + 1];
+        int[] celulaPonto = new int[n];
+        for (int i = 0; i < n; i++) {
+            celulaPonto[i] = celula(0, x[i], y[i]);
+            inicioPontos[celulaPonto[i] + 1]++;
+        }
+        for (int c = 0; c < r0 * r0; c++) inicioPontos[c + 1] += inicioPontos[c];
+        pontos = new int[n];
+        int[] proximo = Arrays.copyOf(inicioPontos, r0 * r0);
+        for (int i = 0; i < n; i++) pontos[proximo[celulaPonto[i]]++] = i;
+
+        // Conexões: nível de cada uma e depois as células, em duas passadas por nível
+        int[] nivelConexao = new int[numConexoes];
+        for (int k = 0; k < numConexoes; k++) nivelConexao[k] = nivel(k);
+        inicioConexoes = new int[niveis][];
+        conexoes = new int[niveis][];
+        for (int l = 0; l < niveis; l++) {
+            int r = resolucao[l];
+            int[] inicio = new int[r * r + 1];
+            for (int k = 0; k < numConexoes; k++) {
+                if (nivelConexao[k] == l) percorrerCelulas(k, l, inicio, null);
+            }
+            for (int c = 0; c < r * r; c++) inicio[c + 1] += inicio[c];
+            int[] itens = new int[inicio[r * r]];
+            int[] prox = Arrays.copyOf(inicio, r * r);
+            for (int k = 0; k < numConexoes; k++) {
+                if (nivelConexao[k] == l) percorrerCelulas(k, l, prox, itens);
+            }
+            inicioConexoes[l] = inicio;
+            conexoes[l] = itens;
+        }
+        marca = new int[numConexoes];
+    }
+
+    /**
+     * @return A célula (linha * resolução + coluna) do nível que contém a posição, limitada à grade.
+     */
+    private int celula(int nivel, double px, double py) {
+        int r = resolucao[nivel];
+        return linhaOuColuna(nivel, py - minY) * r + linhaOuColuna(nivel, px - minX);
+    }
+
+    private int linhaOuColuna(int nivel, double deslocamento) {
+        int c = (int) Math.floor(deslocamento / (lado * (1 << nivel)));
+        return Math.max(0, Math.min(resolucao[nivel] - 1, c));
+    }
+
+    /**
+     * @return O nível mais fino em que a caixa da conexão cobre no máximo 2 x 2 células.
+     */
+    private int nivel(int k) {
+        int o = origens[k], d = destinos[k];
+        double extensao = Math.max(Math.abs(x[o] - x[d]), Math.abs(y[o] - y[d]));
+        int l = 0;
+        // Uma extensão de até um lado de célula cobre no máximo 2 células por eixo
+        while (l < resolucao.length - 1 && extensao > lado * (1 << l)) l++;
+        return l;
+    }
+
+    /**
+     * Visita as células do nível cobertas pela caixa da conexão: sem 'itens', conta a
+     * conexão em contagem[c + 1]; com 'itens', grava a conexão na posição contagem[c]++.
+     */
+    private void percorrerCelulas(int k, int nivel, int[] contagem, int[] itens) {
+        int o = origens[k], d = destinos[k];
+        int r = resolucao[nivel];
+        int c0 = linhaOuColuna(nivel, Math.min(x[o], x[d]) - minX);
+        int c1 = linhaOuColuna(nivel, Math.max(x[o], x[d]) - minX);
+        int l0 = linhaOuColuna(nivel, Math.min(y[o], y[d]) - minY);
+        int l1 = linhaOuColuna(nivel, Math.max(y[o], y[d]) - minY);
+        for (int lin = l0; lin <= l1; lin++) {
+            for (int col = c0; col <= c1; col++) {
+                int c = lin * r + col;
+                if (itens == null) contagem[c + 1]++;
+                else itens[contagem[c]++] = k;
+            }
+        }
+    }
+
+    /**
+     * Lista os pontos dentro do retângulo.
+     * @param saida Recebe os índices dos pontos (cresce se preciso).
+     * @param quantidade Recebe a quantidade em quantidade[0].
+     * @return O vetor com os resultados (o próprio 'saida' ou um maior).
+     */
+    int[] pontosNoRetangulo(double x0, double y0, double x1, double y1, int[] saida, int[] quantidade) {
+        int q = 0;
+        int r = resolucao[0];
+        int c0 = linhaOuColuna(0, x0 - minX), c1 = linhaOuColuna(0, x1 - minX);
+        int l0 = linhaOuColuna(0, y0 - minY), l1 = linhaOuColuna(0, y1 - minY);
+        for (int lin = l0; lin <= l1; lin++) {
+            for (int col = c0; col <= c1; col++) {
+                int c = lin * r + col;
+                for (int p = inicioPontos[c]; p < inicioPontos[c + 1]; p++) {
+                    int i = pontos[p];
+                    if (x[i] < x0 || x[i] > x1 || y[i] < y0 || y[i] > y1) continue;
+                    if (q == saida.length) saida = Arrays.copyOf(saida, Math.max(16, q * 2));
+                    saida[q++] = i;
+                }
+            }
+        }
+        quantidade[0] = q;
+        return saida;
+    }
+
+    /**
+     * Lista as conexões cuja caixa envolvente cruza o retângulo (cada uma uma vez só).
+     * @param saida Recebe os índices das conexões (cresce se preciso).
+     * @param quantidade Recebe a quantidade em quantidade[0].
+     * @return O vetor com os resultados (o próprio 'saida' ou um maior).
+     */
+    int[] conexoesNoRetangulo(double x0, double y0, double x1, double y1, int[] saida, int[] quantidade) {
+        if (++consulta == 0) {
+            // O contador deu a volta: limpa as marcas antigas
+            Arrays.fill(marca, 0);
+            consulta = 1;
+        }
+        int q = 0;
+        for (int l = 0; l < resolucao.length; l++) {
+            int[] inicio = inicioConexoes[l], itens = conexoes[l];
+            if (itens.length == 0) continue;
+            int r = resolucao[l];
+            int c0 = linhaOuColuna(l, x0 - minX), c1 = linhaOuColuna(l, x1 - minX);
+            int l0 = linhaOuColuna(l, y0 - minY), l1 = linhaOuColuna(l, y1 - minY);
+            for (int lin = l0; lin <= l1; lin++) {
+                for (int col = c0; col <= c1; col++) {
+                    int c = lin * r + col;
+                    for (int p = inicio[c]; p < inicio[c + 1]; p++) {
+                        int k = itens[p];
+                        if (marca[k] == consulta) continue;
+                        marca[k] = consulta;
+                        int o = origens[k], d = destinos[k];
+                        if (Math.max(x[o], x[d]) < x0 || Math.min(x[o], x[d]) > x1
+                                || Math.max(y[o], y[d]) < y0 || Math.min(y[o], y[d]) > y1) continue;
+                        if (q == saida.length) saida = Arrays.copyOf(saida, Math.max(16, q * 2));
+                        saida[q++] = k;
+                    }
+                }
+            }
+        }
+        quantidade[0] = q;
+        return saida;
+    }
+
+    /**
+     * @return O índice do ponto mais perto da posição, a no máximo 'raio', ou -1 se não houver.
+     */
+    int pontoMaisProximo(double px, double py, double raio) {
+        int r = resolucao[0];
+        int c0 = linhaOuColuna(0, px - raio - minX), c1 = linhaOuColuna(0, px + raio - minX);
+        int l0 = linhaOuColuna(0, py - raio - minY), l1 = linhaOuColuna(0, py + raio - minY);
+        int melhor = -1;
+        double melhorD2 = raio * raio;
+        for (int lin = l0; lin <= l1; lin++) {
+            for (int col = c0; col <= c1; col++) {
+                int c = lin * r + col;
+                for (int p = inicioPontos[c]; p < inicioPontos[c + 1]; p++) {
+                    int i = pontos[p];
+                    double dx = x[i] - px, dy = y[i] - py;
+                    double d2 = dx * dx + dy * dy;
+                    if (d2 <= melhorD2) {
+                        melhorD2 = d2;
+                        melhor = i;
+                    }
+                }
+            }
+        }
+        return melhor;
+    }
+}
@@ -1,94 +1,492 @@
 import java.io.*;
 import java.util.*;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.UnaryOperator;
 import java.util.List;
+import java.util.stream.Stream;
 
 /**
  * Classe principal que gerencia o Grafo de Pontos de Coleta de Recicláveis.
  * Contém a lista de nós (pontos), arestas (conexões) e as estruturas de busca (BST, Trie).
+ * Não é thread-safe: para consultas em várias threads durante alterações, use GrafoConcorrente.
  */
 public class GrafoColetaReciclaveis {
+    // Maior número de células aceito pelas matrizes densas (25 milhões de ints = 100 MB)
+    public static final long LIMITE_MATRIZ_DENSA = 25_000_000L;
+
     // Map para armazenar os PontosColeta. A chave é o ID, garantindo acesso rápido.
     // LinkedHashMap mantém a ordem de inserção.
     public Map<Integer, PontoColeta> pontos = new LinkedHashMap<>();
     // Lista de Arestas: Lista para armazenar as Conexões (arestas) entre os pontos.
+    // A ordem de inserção é mantida: editarConexao e excluirConexao (e a lista numerada
+    // da interface) usam os índices dela. Cada conexão guarda a própria posição (Conexao.posicao).
     public List<Conexao> conexoes = new ArrayList<>();
     // Estrutura para busca rápida de pontos por nome.
     public ArvoreBST bst = new ArvoreBST();
     // Estrutura para busca de pontos por prefixo (autocomplete).
     public ArvoreTrie trie = new ArvoreTrie();
+    // Nomes (em minúsculas) compartilhados por mais de um ponto, com os pontos na ordem
+    // em que foram indexados. A BST guarda o primeiro de cada lista e a Trie, o último.
+    // O valor null indica que o mapa precisa ser recalculado a partir dos pontos.
+    private Map<String, List<PontoColeta>> homonimos;
+
+    // Núcleo de adjacência no formato CSR (índices densos e vetores primitivos).
+    // A Lista de Sucessores é exposta como uma visão construída sobre ele.
+    // O valor null indica que a adjacência precisa ser reconstruída por completo.
+    private AdjacenciaCSR adjacencia;
+    // Quantidade de conexões da lista que não estão na adjacência (extremos desconhecidos)
+    private int arestasPendentes;
+    // Profundidade de lotes de mutação abertos (ver iniciarLote/confirmarLote)
+    private int profundidadeLote;
+    // Heurística das buscas A* e, se maior que 0, quantidade de marcos da heurística ALT
+    private Heuristica heuristica = Heuristica.NULA;
+    private int numMarcos;
 
-    // Lista de Sucessores (ou Lista de Adjacência):
-    // Map onde a chave é o ID do ponto e o valor é uma lista das conexões (arestas)
-    // que saem desse ponto.
-    private Map<Integer, List<Conexao>> listaSucessores = new HashMap<>();
+    // Versão do grafo: incrementada a cada mutação, invalida resultados em cache
+    private long versao;
+    // Matriz de menores distâncias entre todos os pares (null = precisa ser recalculada)
+    private MatrizDistancias matrizDistancias;
+    // Trie cujas pontuações (graus) estão em dia com a adjacência; null = recalcular todas
+    private ArvoreTrie triePontuada;
+    // Arquivos de texto de onde os pontos e as conexões foram carregados (null = dados manuais)
+    private String arquivoPontos;
+    private String arquivoConexoes;
+    // Métricas das operações (null = desligadas, ver ativarMetricas)
+    private MetricasGrafo metricas;
+    // Valores dos medidores, escritos pela thread que altera o grafo e lidos pela que
+    // publica as métricas (a leitura nunca toca as estruturas do grafo)
+    private volatile long medidaVertices;
+    private volatile long medidaArestas;
+    private volatile long medidaVersao;
+    private volatile long medidaMemoriaIndices;
 
     /**
-     * Atualiza a Lista de Sucessores a partir da Lista de Arestas (conexoes).
+     * Retorna a adjacência CSR, reconstruindo-a a partir dos pontos e da Lista de
+     * Arestas (conexoes) apenas quando ela foi invalidada.
      * Essa estrutura é crucial para operações eficientes como o BFS.
+     * @return A adjacência atualizada.
+     */
+    private AdjacenciaCSR adjacencia() {
+        if (adjacencia == null) {
+            MetricasGrafo m = metricas;
+            long inicio = MetricasGrafo.iniciar(m);
+            adjacencia = AdjacenciaCSR.construir(pontos.keySet(), conexoes);
+            arestasPendentes = conexoes.size() - adjacencia.numArestas();
+            if (m != null) m.registrar(OperacaoGrafo.CONSTRUIR_ADJACENCIA, inicio);
+        }
+        return adjacencia;
+    }
+
+    /**
+     * Descarta a adjacência atual; ela será reconstruída na próxima consulta.
      */
     private void atualizarListaSucessores() {
-        listaSucessores.clear();
-        // Inicializa uma lista vazia para cada ponto (vértice)
-        for (int id : pontos.keySet()) {
-            listaSucessores.put(id, new ArrayList<>());
+        adjacencia = null;
+        // Os graus serão outros: as pontuações da Trie são recalculadas na próxima busca
+        triePontuada = null;
+    }
+
+    /**
+     * Registra uma mutação: avança a versão do grafo e descarta resultados em cache.
+     */
+    private void registrarMutacao() {
+        versao++;
+        matrizDistancias = null;
+    }
+
+    /**
+     * @return A versão atual do grafo, que muda a cada alteração de pontos ou conexões.
+     */
+    public long getVersao() {
+        return versao;
+    }
+
+    /**
+     * Liga a medição das operações do grafo, da BST e da Trie, e define os medidores
+     * "vertices", "arestas", "versao" e "memoria_indices_bytes" (memória estimada da BST
+     * e da Trie). As contagens são atualizadas a cada alteração; a memória dos índices, a
+     * cada carga, lote confirmado ou nova chamada deste método, porque estimá-la percorre
+     * a Trie inteira.
+     * Deve ser chamado pela thread que altera o grafo; as métricas podem ser publicadas
+     * de qualquer outra.
+     * @param metricas As métricas onde registrar.
+     */
+    public void ativarMetricas(MetricasGrafo metricas) {
+        this.metricas = metricas;
+        bst.definirMetricas(metricas);
+        trie.definirMetricas(metricas);
+        atualizarMedidores(true);
+        metricas.definirMedidor("vertices", () -> medidaVertices);
+        metricas.definirMedidor("arestas", () -> medidaArestas);
+        metricas.definirMedidor("versao", () -> medidaVersao);
+        metricas.definirMedidor("memoria_indices_bytes", () -> medidaMemoriaIndices);
+    }
+
+    /**
+     * Desliga a medição. Os valores já registrados continuam nas métricas.
+     */
+    public void desativarMetricas() {
+        metricas = null;
+        bst.definirMetricas(null);
+        trie.definirMetricas(null);
+    }
+
+    /**
+     * @return As métricas ativas, ou null se a medição está desligada.
+     */
+    public MetricasGrafo getMetricas() {
+        return metricas;
+    }
+
+    /**
+     * Atualiza os valores lidos pelos medidores. Só é chamado com as métricas ligadas.
+     * @param memoria true para também reestimar a memória dos índices, em O(nós da Trie).
+     */
+    private void atualizarMedidores(boolean memoria) {
+        medidaVertices = pontos.size();
+        medidaArestas = conexoes.size();
+        medidaVersao = versao;
+        if (memoria) medidaMemoriaIndices = bst.estimarMemoriaBytes() + trie.estimarMemoriaBytes();
+    }
+
+    /**
+     * Registra uma alteração nas métricas e atualiza as contagens dos medidores.
+     * @param m As métricas ativas no início da alteração.
+     * @param operacao A alteração executada.
+     * @param inicio O início da medição.
+     */
+    private void concluirAlteracao(MetricasGrafo m, OperacaoGrafo operacao, long inicio) {
+        m.registrar(operacao, inicio);
+        atualizarMedidores(false);
+    }
+
+    /**
+     * Indica se as mutações podem ser aplicadas como deltas na adjacência atual.
+     * Dentro de um lote, ou com a adjacência já invalidada, elas só afetam as listas.
+     * @return true se a adjacência deve ser atualizada incrementalmente.
+     */
+    private boolean atualizarIncrementalmente() {
+        if (profundidadeLote > 0) {
+            atualizarListaSucessores();
+            return false;
         }
+        return adjacencia != null;
+    }
 
-        // Preenche as listas de sucessores
-        for (Conexao c : conexoes) {
-            // Se a origem da conexão existe no mapa de pontos, adiciona a conexão à lista de sucessores
-            if (listaSucessores.containsKey(c.origem)) {
-                listaSucessores.get(c.origem).add(c);
-            }
+    /**
+     * Abre um lote de mutações. Até o confirmarLote() correspondente, adicionar,
+     * editar e excluir pontos ou conexões alteram apenas as listas do grafo, e a
+     * adjacência é reconstruída uma única vez no final. Lotes podem ser aninhados.
+     */
+    public void iniciarLote() {
+        profundidadeLote++;
+    }
+
+    /**
+     * Fecha um lote de mutações aberto com iniciarLote(). Ao fechar o lote mais
+     * externo, a adjacência é reconstruída uma única vez, em O(V + E).
+     */
+    public void confirmarLote() {
+        if (profundidadeLote == 0) throw new IllegalStateException("Nenhum lote de mutações aberto");
+        if (--profundidadeLote == 0) {
+            if (adjacencia == null) adjacencia();
+            if (metricas != null) atualizarMedidores(true);
         }
     }
 
     /**
      * Carrega os Pontos de Coleta a partir de um arquivo de texto.
      * O arquivo deve ter o formato: ID;Nome
+     * A leitura é feita por mapeamento de memória (ver CarregadorMapeado); linhas mal
+     * formadas são ignoradas e registradas no relatório, em vez de abortar a carga.
      * @param arquivo O caminho do arquivo de pontos.
+     * @return O relatório da carga, com as linhas rejeitadas e seus números.
      * @throws IOException Se houver erro de leitura do arquivo.
      */
-    public void carregarPontosDeColeta(String arquivo) throws IOException {
+    public RelatorioCarga carregarPontosDeColeta(String arquivo) throws IOException {
+        MetricasGrafo m = metricas;
+        long inicio = MetricasGrafo.iniciar(m);
+        CarregadorMapeado.PontosLidos lidos = CarregadorMapeado.lerPontos(arquivo);
+        registrarMutacao();
+        arquivoPontos = arquivo;
         pontos.clear(); // Limpa dados existentes
-        // Usa try-with-resources para fechar o BufferedReader automaticamente
-        try (BufferedReader br = new BufferedReader(new FileReader(arquivo))) {
-            String linha;
-            // Lê linha por linha
-            while ((linha = br.readLine()) != null) {
-                String[] partes = linha.split(";");
-                int id = Integer.parseInt(partes[0].trim()); // ID do ponto
-                String nome = partes[1].trim(); // Nome do ponto
-                PontoColeta ponto = new PontoColeta(id, nome);
-                pontos.put(id, ponto);
-                // Insere nas estruturas de busca
-                bst.inserir(ponto);
-                trie.inserir(ponto);
-            }
+        for (int i = 0; i < lidos.quantidade; i++) {
+            PontoColeta ponto = new PontoColeta(lidos.ids[i], lidos.nomes[i]);
+            pontos.put(ponto.id, ponto);
+        }
+        // Recria as estruturas de busca de uma vez
+        reconstruirIndicesDeNome();
+        // Os índices densos dependem do conjunto de pontos
+        atualizarListaSucessores();
+        if (m != null) {
+            m.registrar(OperacaoGrafo.CARREGAR_PONTOS, inicio);
+            atualizarMedidores(true);
         }
+        return lidos.relatorio;
     }
 
     /**
      * Carrega as Conexões (rotas) a partir de um arquivo de texto.
      * O arquivo deve ter o formato: OrigemID;DestinoID;Distancia
+     * Os vetores primitivos lidos do arquivo são usados diretamente na construção da
+     * adjacência CSR; linhas mal formadas são registradas no relatório.
      * @param arquivo O caminho do arquivo de conexões.
+     * @return O relatório da carga, com as linhas rejeitadas e seus números.
      * @throws IOException Se houver erro de leitura do arquivo.
      */
-    public void carregarConexoes(String arquivo) throws IOException {
+    public RelatorioCarga carregarConexoes(String arquivo) throws IOException {
+        MetricasGrafo metricas = this.metricas;
+        long inicio = MetricasGrafo.iniciar(metricas);
+        CarregadorMapeado.ConexoesLidas lidas = CarregadorMapeado.lerConexoes(arquivo);
+        registrarMutacao();
+        arquivoConexoes = arquivo;
+        int m = lidas.quantidade;
+        Conexao[] refs = new Conexao[m];
+        for (int k = 0; k < m; k++) refs[k] = new Conexao(lidas.origens[k], lidas.destinos[k], lidas.distancias[k]);
         conexoes.clear(); // Limpa dados existentes
-        // Usa try-with-resources para fechar o BufferedReader automaticamente
-        try (BufferedReader br = new BufferedReader(new FileReader(arquivo))) {
-            String linha;
-            // Lê linha por linha
-            while ((linha = br.readLine()) != null) {
-                String[] partes = linha.split(";");
-                int origem = Integer.parseInt(partes[0].trim());
-                int destino = Integer.parseInt(partes[1].trim());
-                int distancia = Integer.parseInt(partes[2].trim());
-                conexoes.add(new Conexao(origem, destino, distancia)); // Adiciona a conexão
+        conexoes.addAll(Arrays.asList(refs));
+        numerarConexoes(0);
+
+        // Constrói a adjacência direto dos vetores lidos, sem percorrer a lista de novo
+        int[] ids = new int[pontos.size()];
+        int i = 0;
+        for (int id : pontos.keySet()) ids[i++] = id;
+        adjacencia = AdjacenciaCSR.construir(ids, ids.length, lidas.origens, lidas.destinos, lidas.distancias, refs, m);
+        arestasPendentes = m - adjacencia.numArestas();
+        triePontuada = null;
+        if (metricas != null) concluirAlteracao(metricas, OperacaoGrafo.CARREGAR_CONEXOES, inicio);
+        return lidas.relatorio;
+    }
+
+    /**
+     * Recria a BST e a Trie a partir dos pontos atuais. A BST é montada já balanceada,
+     * em O(n) após ordenar os pontos por nome.
+     */
+    private void reconstruirIndicesDeNome() {
+        List<PontoColeta> porNome = new ArrayList<>(pontos.values());
+        // Ordenação estável: entre nomes iguais fica o primeiro ponto, como no inserir() da BST
+        porNome.sort((a, b) -> a.nome.compareToIgnoreCase(b.nome));
+        bst = new ArvoreBST();
+        bst.construirBalanceado(porNome);
+        trie = new ArvoreTrie();
+        for (PontoColeta p : pontos.values()) trie.inserir(p);
+        // Os índices novos só passam a ser medidos depois de montados
+        bst.definirMetricas(metricas);
+        trie.definirMetricas(metricas);
+        homonimos = null;
+    }
+
+    /**
+     * Retorna o mapa de homônimos, recalculando-o em O(n) se ele foi descartado.
+     * Agrupa os pontos na ordem de 'pontos', a mesma usada para montar a BST e a Trie.
+     * @return O mapa de nomes repetidos.
+     */
+    private Map<String, List<PontoColeta>> homonimos() {
+        if (homonimos == null) {
+            Map<String, List<PontoColeta>> grupos = new HashMap<>();
+            for (PontoColeta p : pontos.values()) {
+                grupos.computeIfAbsent(p.nome.toLowerCase(), k -> new ArrayList<>(1)).add(p);
             }
+            grupos.values().removeIf(lista -> lista.size() < 2);
+            homonimos = grupos;
         }
-        // Recria a lista de sucessores após carregar as conexões
-        atualizarListaSucessores();
+        return homonimos;
+    }
+
+    /**
+     * Indexa um ponto na BST e na Trie. Custo O(log n + tamanho do nome).
+     * Se o nome já existe, o ponto entra no fim da lista de homônimos: a BST continua
+     * com o ponto anterior e a Trie passa a apontar para o novo.
+     * @param ponto O ponto a indexar, que ainda não pode constar no mapa de homônimos
+     *              (um ponto novo é indexado antes de entrar em 'pontos').
+     */
+    private void indexarNome(PontoColeta ponto) {
+        PontoColeta existente = bst.buscar(ponto.nome);
+        if (existente != null) {
+            List<PontoColeta> lista = homonimos().computeIfAbsent(ponto.nome.toLowerCase(), k -> {
+                List<PontoColeta> nova = new ArrayList<>(2);
+                nova.add(existente);
+                return nova;
+            });
+            lista.add(ponto);
+        }
+        bst.inserir(ponto);
+        trie.inserir(ponto, pontuacaoTrie(ponto));
+    }
+
+    /**
+     * Retira um ponto da BST e da Trie, promovendo o homônimo seguinte quando o ponto
+     * era o indexado. Custo O(log n + tamanho do nome + homônimos do nome).
+     * @param ponto O ponto a retirar, com o nome ainda inalterado.
+     */
+    private void desindexarNome(PontoColeta ponto) {
+        String chave = ponto.nome.toLowerCase();
+        List<PontoColeta> lista = homonimos().get(chave);
+        if (lista != null && lista.remove(ponto)) {
+            if (bst.buscar(ponto.nome) == ponto) {
+                bst.remover(ponto.nome);
+                bst.inserir(lista.get(0));
+            }
+            if (trie.remover(ponto)) {
+                PontoColeta ultimo = lista.get(lista.size() - 1);
+                trie.inserir(ultimo, pontuacaoTrie(ultimo));
+            }
+            if (lista.size() < 2) homonimos.remove(chave);
+            return;
+        }
+        if (bst.buscar(ponto.nome) == ponto) bst.remover(ponto.nome);
+        trie.remover(ponto);
+    }
+
+    /**
+     * Carrega o grafo a partir do snapshot binário, se ele estiver atualizado, ou dos
+     * arquivos de texto. No segundo caso, um novo snapshot é gravado para a próxima carga.
+     * @param arquivoSnapshot O caminho do snapshot binário.
+     * @param arquivoPontos O arquivo de texto dos pontos (ID;Nome).
+     * @param arquivoConexoes O arquivo de texto das conexões (OrigemID;DestinoID;Distancia).
+     * @return Os relatórios da leitura dos arquivos de texto, ou uma lista vazia se o snapshot foi usado.
+     * @throws IOException Se houver erro de leitura dos arquivos de texto.
+     */
+    public List<RelatorioCarga> carregarArquivos(String arquivoSnapshot, String arquivoPontos,
+                                                 String arquivoConexoes) throws IOException {
+        try {
+            if (carregarSnapshot(arquivoSnapshot, arquivoPontos, arquivoConexoes)) return Collections.emptyList();
+        } catch (IOException e) {
+            // Snapshot ilegível: os arquivos de texto continuam sendo a fonte dos dados
+        }
+        List<RelatorioCarga> relatorios = Arrays.asList(
+                carregarPontosDeColeta(arquivoPontos), carregarConexoes(arquivoConexoes));
+        try {
+            salvarSnapshot(arquivoSnapshot);
+        } catch (IOException e) {
+            // O snapshot é só uma otimização; sem ele a próxima carga lê os textos de novo
+        }
+        return relatorios;
+    }
+
+    /**
+     * Grava o grafo atual (pontos, arestas em CSR, BST e Trie) em um snapshot binário.
+     * O snapshot registra o tamanho e a data dos arquivos de texto carregados, para que
+     * uma alteração neles seja detectada na próxima carga.
+     * @param arquivo O caminho do snapshot.
+     * @throws IOException Se houver erro de escrita.
+     */
+    public void salvarSnapshot(String arquivo) throws IOException {
+        AdjacenciaCSR adj = adjacencia();
+        MetricasGrafo m = metricas;
+        long inicio = MetricasGrafo.iniciar(m);
+        // Conexões com extremo desconhecido não estão no CSR e são gravadas à parte
+        List<Conexao> pendentes = new ArrayList<>(arestasPendentes);
+        if (arestasPendentes > 0) {
+            for (Conexao c : conexoes) {
+                if (adj.indice(c.origem) < 0 || adj.indice(c.destino) < 0) pendentes.add(c);
+            }
+        }
+        SnapshotGrafo.gravar(arquivo, arquivoPontos, arquivoConexoes, adj, pontos, pendentes, bst, trie);
+        if (m != null) m.registrar(OperacaoGrafo.SALVAR_SNAPSHOT, inicio);
+    }
+
+    /**
+     * Carrega o grafo de um snapshot binário por mapeamento de memória, sem reconstruir
+     * a adjacência pela lista de conexões nem reinserir os nomes na BST e na Trie.
+     * As conexões ficam agrupadas por origem, na ordem do CSR.
+     * @param arquivo O caminho do snapshot.
+     * @param arquivoPontos O arquivo de texto dos pontos que o snapshot deve refletir.
+     * @param arquivoConexoes O arquivo de texto das conexões que o snapshot deve refletir.
+     * @return true se o snapshot foi carregado; false se ele está ausente, desatualizado
+     *         ou corrompido (nesse caso o grafo não é alterado).
+     * @throws IOException Se houver erro de leitura do snapshot.
+     */
+    public boolean carregarSnapshot(String arquivo, String arquivoPontos, String arquivoConexoes) throws IOException {
+        MetricasGrafo m = metricas;
+        long inicio = MetricasGrafo.iniciar(m);
+        SnapshotGrafo.Conteudo conteudo = SnapshotGrafo.ler(arquivo, arquivoPontos, arquivoConexoes);
+        if (conteudo == null) return false;
+        registrarMutacao();
+        pontos = conteudo.pontos;
+        conexoes = conteudo.conexoes;
+        numerarConexoes(0);
+        bst = conteudo.bst;
+        trie = conteudo.trie;
+        homonimos = null;
+        adjacencia = conteudo.adjacencia;
+        arestasPendentes = conteudo.arestasPendentes;
+        this.arquivoPontos = arquivoPontos;
+        this.arquivoConexoes = arquivoConexoes;
+        if (m != null) {
+            bst.definirMetricas(m);
+            trie.definirMetricas(m);
+            m.registrar(OperacaoGrafo.CARREGAR_SNAPSHOT, inicio);
+            atualizarMedidores(true);
+        }
+        return true;
+    }
+
+    /**
+     * Cria uma cópia independente do grafo: pontos, conexões, adjacência, BST e Trie são
+     * duplicados, e nenhuma alteração em uma das cópias aparece na outra. Custo O(V + E),
+     * sem reordenar os nomes: a BST e a Trie são copiadas nó a nó. A adjacência da cópia
+     * mantém a ordem dos índices densos do original (ver getIdsDosVertices), já compactada.
+     * @return A cópia do grafo.
+     */
+    public GrafoColetaReciclaveis copiar() {
+        GrafoColetaReciclaveis copia = new GrafoColetaReciclaveis();
+        for (PontoColeta p : pontos.values()) copia.pontos.put(p.id, new PontoColeta(p.id, p.nome));
+        int m = conexoes.size();
+        Conexao[] refs = new Conexao[m];
+        int[] origens = new int[m];
+        int[] destinos = new int[m];
+        int[] pesos = new int[m];
+        for (int k = 0; k < m; k++) {
+            Conexao c = conexoes.get(k);
+            refs[k] = new Conexao(c.origem, c.destino, c.distancia);
+            refs[k].posicao = k;
+            origens[k] = c.origem;
+            destinos[k] = c.destino;
+            pesos[k] = c.distancia;
+        }
+        copia.conexoes.addAll(Arrays.asList(refs));
+
+        AdjacenciaCSR adj = adjacencia();
+        int n = adj.numVertices();
+        int[] ids = new int[n];
+        for (int i = 0; i < n; i++) ids[i] = adj.id(i);
+        copia.adjacencia = AdjacenciaCSR.construir(ids, n, origens, destinos, pesos, refs, m);
+        copia.arestasPendentes = m - copia.adjacencia.numArestas();
+
+        UnaryOperator<PontoColeta> pontoDaCopia = p -> copia.pontos.get(p.id);
+        copia.bst = bst.copiar(pontoDaCopia);
+        copia.trie = trie.copiar(pontoDaCopia);
+        // Os marcos do ALT pertencem à adjacência original e são recalculados na cópia
+        copia.heuristica = heuristica instanceof HeuristicaMarcos ? Heuristica.NULA : heuristica;
+        copia.numMarcos = numMarcos;
+        copia.versao = versao;
+        // A Trie copiada traz as pontuações, que continuam valendo para a adjacência copiada
+        copia.triePontuada = triePontuada == trie ? copia.trie : null;
+        copia.arquivoPontos = arquivoPontos;
+        copia.arquivoConexoes = arquivoConexoes;
+        // A cópia registra nas mesmas métricas, mas os medidores continuam lendo o original
+        copia.metricas = metricas;
+        copia.bst.definirMetricas(metricas);
+        copia.trie.definirMetricas(metricas);
+        return copia;
+    }
+
+    /**
+     * Calcula de antemão tudo o que as consultas calculariam sob demanda (adjacência e
+     * pontuações da Trie), para que elas passem a só ler o grafo. Usado por VersaoGrafo.
+     */
+    void prepararSomenteLeitura() {
+        adjacencia();
+        atualizarPontuacoesTrie();
+    }
+
+    /**
+     * Constrói, se necessário, a heurística do A* (os marcos do ALT). Usado por VersaoGrafo.
+     */
+    void prepararHeuristica() {
+        heuristicaAtual(adjacencia());
     }
 
     /**
@@ -96,16 +494,23 @@ public class GrafoColetaReciclaveis {
      * @param nome O nome do novo ponto.
      */
     public void adicionarPonto(String nome) {
+        MetricasGrafo m = metricas;
+        long inicio = MetricasGrafo.iniciar(m);
         // Gera um novo ID: 1 se a lista estiver vazia, ou o maior ID + 1
         int novoId = pontos.isEmpty() ? 1 : Collections.max(pontos.keySet()) + 1;
         PontoColeta ponto = new PontoColeta(novoId, nome);
+        // Atualiza as estruturas de busca (antes do put, ver indexarNome)
+        indexarNome(ponto);
         pontos.put(novoId, ponto);
-        // Atualiza as estruturas de busca
-        bst.inserir(ponto);
-        trie.inserir(ponto);
+        registrarMutacao();
 
-        // Adiciona o novo ponto na lista de sucessores (com lista vazia)
-        listaSucessores.put(novoId, new ArrayList<>());
+        // O novo ponto recebe o próximo índice denso. Se houver conexões pendentes,
+        // alguma delas pode apontar para este ID e a adjacência precisa ser refeita.
+        if (atualizarIncrementalmente()) {
+            if (arestasPendentes > 0) atualizarListaSucessores();
+            else adjacencia.adicionarVertice(novoId);
+        }
+        if (m != null) concluirAlteracao(m, OperacaoGrafo.ADICIONAR_PONTO, inicio);
     }
 
     /**
@@ -114,36 +519,89 @@ public class GrafoColetaReciclaveis {
      * @param novoNome O novo nome para o ponto.
      */
     public void editarPonto(int id, String novoNome) {
-        if (pontos.containsKey(id)) {
-            // Atualiza o nome no Map
-            pontos.get(id).nome = novoNome;
-            // É necessário reconstruir a BST e a Trie, pois a chave de ordenação/estrutura (o nome) mudou.
-            bst = new ArvoreBST();
-            trie = new ArvoreTrie();
-            for (PontoColeta p : pontos.values()) {
-                bst.inserir(p);
-                trie.inserir(p);
-            }
+        MetricasGrafo m = metricas;
+        long inicio = MetricasGrafo.iniciar(m);
+        PontoColeta ponto = pontos.get(id);
+        if (ponto != null) {
+            registrarMutacao();
+            // O nome é a chave da BST e da Trie: o ponto sai dos índices com o nome
+            // antigo e volta com o novo, sem reconstruí-los. Custo O(log n + tamanho do nome).
+            desindexarNome(ponto);
+            ponto.nome = novoNome;
+            indexarNome(ponto);
         }
+        if (m != null) concluirAlteracao(m, OperacaoGrafo.EDITAR_PONTO, inicio);
     }
 
     /**
-     * Exclui um Ponto de Coleta e todas as conexões associadas a ele.
+     * Exclui um Ponto de Coleta e todas as conexões associadas a ele. Com a adjacência
+     * atualizada, as conexões incidentes são achadas em O(log n + grau) e a lista 'conexoes'
+     * é compactada numa única passada, sem mudar a ordem (nem os índices) das demais.
      * @param id O ID do ponto a ser excluído.
      */
     public void excluirPonto(int id) {
-        pontos.remove(id); // Remove o ponto do Map
-        // Remove todas as conexões que têm o ponto como origem ou destino
-        conexoes.removeIf(c -> c.origem == id || c.destino == id);
-        // Reconstruir BST e Trie, pois um elemento foi removido.
-        bst = new ArvoreBST();
-        trie = new ArvoreTrie();
-        for (PontoColeta p : pontos.values()) {
-            bst.inserir(p);
-            trie.inserir(p);
+        MetricasGrafo m = metricas;
+        long inicio = MetricasGrafo.iniciar(m);
+        PontoColeta ponto = pontos.remove(id); // Remove o ponto do Map
+        if (ponto != null && arestasPendentes == 0 && atualizarIncrementalmente()) {
+            registrarMutacao();
+            // As conexões incidentes vêm dos segmentos de entrada e saída do vértice,
+            // em O(grau), e a adjacência é corrigida no lugar
+            List<Conexao> removidas = adjacencia.removerVertice(id);
+            removerConexoes(removidas);
+            // Os vizinhos perderam grau (o ponto excluído já saiu de 'pontos')
+            for (Conexao c : removidas) atualizarPontuacoesExtremos(c);
+        } else {
+            // Remove todas as conexões que têm o ponto como origem ou destino
+            // (mesmo sem o ponto, pode haver conexões pendentes com esse ID)
+            boolean removeu = conexoes.removeIf(c -> c.origem == id || c.destino == id);
+            if (ponto != null || removeu) {
+                registrarMutacao();
+                numerarConexoes(0);
+                // Recria a lista de sucessores
+                atualizarListaSucessores();
+            }
         }
-        // Recria a lista de sucessores
-        atualizarListaSucessores();
+        // Retira o ponto da BST e da Trie, sem reconstruí-las
+        if (ponto != null) desindexarNome(ponto);
+        if (m != null) concluirAlteracao(m, OperacaoGrafo.EXCLUIR_PONTO, inicio);
+    }
+
+    /**
+     * Retira conexões da lista 'conexoes' numa única passada estável, O(E) por chamada:
+     * a compactação começa na menor posição removida, e as conexões seguintes só andam
+     * para trás, mantendo a ordem e os índices vistos na interface.
+     * @param removidas As conexões a retirar (cada uma uma única vez).
+     */
+    private void removerConexoes(List<Conexao> removidas) {
+        if (removidas.isEmpty()) return;
+        Set<Conexao> conjunto = Collections.newSetFromMap(new IdentityHashMap<>(removidas.size() * 2));
+        int primeira = conexoes.size();
+        for (Conexao c : removidas) {
+            conjunto.add(c);
+            int p = c.posicao;
+            // Posição desatualizada (a lista pública foi alterada por fora): compacta desde o início
+            if (p < 0 || p >= conexoes.size() || conexoes.get(p) != c) p = 0;
+            primeira = Math.min(primeira, p);
+        }
+        int livre = primeira;
+        for (int k = primeira; k < conexoes.size(); k++) {
+            Conexao c = conexoes.get(k);
+            if (conjunto.contains(c)) {
+                c.posicao = -1;
+            } else {
+                c.posicao = livre;
+                conexoes.set(livre++, c);
+            }
+        }
+        conexoes.subList(livre, conexoes.size()).clear();
+    }
+
+    /**
+     * Grava em cada conexão, a partir do índice 'inicio', a sua posição na lista 'conexoes'.
+     */
+    private void numerarConexoes(int inicio) {
+        for (int k = inicio; k < conexoes.size(); k++) conexoes.get(k).posicao = k;
     }
 
     /**
@@ -153,9 +611,18 @@ public class GrafoColetaReciclaveis {
      * @param distancia A distância (peso) da conexão.
      */
     public void adicionarConexao(int origem, int destino, int distancia) {
-        conexoes.add(new Conexao(origem, destino, distancia));
-        // Atualiza a lista de sucessores
-        atualizarListaSucessores();
+        MetricasGrafo m = metricas;
+        long inicio = MetricasGrafo.iniciar(m);
+        Conexao c = new Conexao(origem, destino, distancia);
+        c.posicao = conexoes.size();
+        conexoes.add(c);
+        registrarMutacao();
+        // Insere a aresta no segmento da origem, em O(1) amortizado
+        if (atualizarIncrementalmente()) {
+            if (adjacencia.adicionarAresta(c)) atualizarPontuacoesExtremos(c);
+            else arestasPendentes++;
+        }
+        if (m != null) concluirAlteracao(m, OperacaoGrafo.ADICIONAR_CONEXAO, inicio);
     }
 
     /**
@@ -166,14 +633,42 @@ public class GrafoColetaReciclaveis {
      * @param distancia A nova distância.
      */
     public void editarConexao(int index, int origem, int destino, int distancia) {
+        MetricasGrafo m = metricas;
+        long inicio = MetricasGrafo.iniciar(m);
         if (index >= 0 && index < conexoes.size()) {
+            registrarMutacao();
             Conexao c = conexoes.get(index);
-            c.origem = origem;
-            c.destino = destino;
-            c.distancia = distancia;
-            // Atualiza a lista de sucessores
-            atualizarListaSucessores();
+            boolean incremental = atualizarIncrementalmente();
+            int destinoAntigo = c.destino;
+            if (incremental && c.origem == origem) {
+                // Mesma origem: atualiza destino e peso no próprio segmento, em O(grau)
+                c.destino = destino;
+                c.distancia = distancia;
+                if (adjacencia.atualizarAresta(c)) {
+                    atualizarPontuacaoTrie(destinoAntigo);
+                    atualizarPontuacaoTrie(destino);
+                } else {
+                    // A aresta entrou ou saiu da adjacência (extremo desconhecido)
+                    atualizarListaSucessores();
+                }
+            } else {
+                // Origem diferente: remove do segmento antigo antes de alterar a conexão
+                int origemAntiga = c.origem;
+                boolean estava = incremental && adjacencia.removerAresta(c);
+                c.origem = origem;
+                c.destino = destino;
+                c.distancia = distancia;
+                if (incremental) {
+                    boolean entrou = adjacencia.adicionarAresta(c);
+                    if (!estava) arestasPendentes--;
+                    if (!entrou) arestasPendentes++;
+                    atualizarPontuacaoTrie(origemAntiga);
+                    atualizarPontuacaoTrie(destinoAntigo);
+                    atualizarPontuacoesExtremos(c);
+                }
+            }
         }
+        if (m != null) concluirAlteracao(m, OperacaoGrafo.EDITAR_CONEXAO, inicio);
     }
 
     /**
@@ -181,11 +676,20 @@ public class GrafoColetaReciclaveis {
      * @param index O índice da conexão a ser excluída (0-based).
      */
     public void excluirConexao(int index) {
+        MetricasGrafo m = metricas;
+        long inicio = MetricasGrafo.iniciar(m);
         if (index >= 0 && index < conexoes.size()) {
-            conexoes.remove(index);
-            // Atualiza a lista de sucessores
-            atualizarListaSucessores();
+            registrarMutacao();
+            Conexao c = conexoes.remove(index);
+            // As conexões seguintes andaram uma posição (a lista mantém a ordem aqui)
+            numerarConexoes(index);
+            // Remove a aresta apenas do segmento da origem, em O(grau)
+            if (atualizarIncrementalmente()) {
+                if (adjacencia.removerAresta(c)) atualizarPontuacoesExtremos(c);
+                else arestasPendentes--;
+            }
         }
+        if (m != null) concluirAlteracao(m, OperacaoGrafo.EXCLUIR_CONEXAO, inicio);
     }
 
     /**
@@ -194,67 +698,125 @@ public class GrafoColetaReciclaveis {
      * Valores: -1 se a aresta INCIDE (entra) no vértice.
      * 1 se a aresta SAI (origem) do vértice.
      * 0 se não há incidência.
+     * A forma densa só é gerada para grafos pequenos; use gerarMatrizIncidenciaEsparsa() nos demais.
      * @return Uma matriz de inteiros representando a Matriz de Incidência.
+     * @throws IllegalStateException Se a matriz tiver mais que LIMITE_MATRIZ_DENSA células.
      */
     public int[][] gerarMatrizIncidencia() {
-        int numPontos = pontos.size();
-        int numConexoes = conexoes.size();
-        int[][] matriz = new int[numPontos][numConexoes];
+        return gerarMatrizIncidenciaEsparsa().paraDensa(LIMITE_MATRIZ_DENSA);
+    }
 
-        // Mapeia o ID do ponto para o índice da linha (0 a numPontos-1)
-        List<Integer> ids = new ArrayList<>(pontos.keySet());
+    /**
+     * REPRESENTAÇÃO: Matriz de Incidência esparsa (no máximo 2 células não nulas por coluna).
+     * Construída em O(V + E), com as linhas na ordem de getIdsDosVertices() e as colunas na ordem de 'conexoes'.
+     * @return A Matriz de Incidência no formato CSR.
+     */
+    public MatrizEsparsa gerarMatrizIncidenciaEsparsa() {
+        // O índice denso da adjacência é a linha da matriz (ver getIdsDosVertices)
+        AdjacenciaCSR adj = adjacencia();
+        MetricasGrafo m = metricas;
+        long inicio = MetricasGrafo.iniciar(m);
+        int numConexoes = conexoes.size();
+        int[] linhas = new int[2 * numConexoes];
+        int[] colunas = new int[2 * numConexoes];
+        int[] valores = new int[2 * numConexoes];
+        int nnz = 0;
 
         // Itera sobre as conexões (colunas da matriz)
         for (int j = 0; j < numConexoes; j++) {
             Conexao c = conexoes.get(j);
-
-            // Encontra o índice da linha de origem e destino
-            int iOrigem = ids.indexOf(c.origem);
-            int iDestino = ids.indexOf(c.destino);
+            // Encontra o índice da linha de origem e destino em O(1)
+            int iOrigem = adj.indice(c.origem);
+            int iDestino = adj.indice(c.destino);
 
             // 1 indica que a aresta sai do vértice (origem)
             if (iOrigem >= 0) {
-                matriz[iOrigem][j] = 1;
+                linhas[nnz] = iOrigem;
+                colunas[nnz] = j;
+                valores[nnz++] = 1;
             }
-
-            // -1 indica que a aresta entra no vértice (destino)
+            // -1 indica que a aresta entra no vértice (destino); num laço, prevalece o -1
             if (iDestino >= 0) {
-                matriz[iDestino][j] = -1;
+                linhas[nnz] = iDestino;
+                colunas[nnz] = j;
+                valores[nnz++] = -1;
             }
         }
+        MatrizEsparsa matriz = MatrizEsparsa.deCoordenadas(adj.numVertices(), numConexoes, linhas, colunas, valores, nnz);
+        if (m != null) m.registrar(OperacaoGrafo.GERAR_MATRIZ, inicio);
         return matriz;
     }
 
+    /**
+     * Retorna os IDs dos pontos na ordem dos índices densos, que é a ordem das linhas
+     * (e colunas) das matrizes. Coincide com a ordem de 'pontos' até a primeira exclusão
+     * incremental, que move o último vértice para a vaga do excluído.
+     * @return Os IDs, do índice 0 ao n-1.
+     */
+    public List<Integer> getIdsDosVertices() {
+        AdjacenciaCSR adj = adjacencia();
+        List<Integer> ids = new ArrayList<>(adj.numVertices());
+        for (int i = 0; i < adj.numVertices(); i++) ids.add(adj.id(i));
+        return ids;
+    }
+
+    /**
+     * ID de um ponto pelo índice denso, sem montar a lista de getIdsDosVertices()
+     * (ex.: para rotular só as linhas visíveis de uma matriz).
+     * @param indice O índice denso (linha das matrizes).
+     * @return O ID do ponto.
+     */
+    public int idDoVertice(int indice) {
+        return adjacencia().id(indice);
+    }
+
     /**
      * REPRESENTAÇÃO: Lista de Sucessores (Lista de Adjacência).
-     * Retorna a estrutura interna que armazena os vizinhos de cada ponto.
+     * Retorna uma visão somente leitura construída sobre a adjacência CSR.
      * @return Um Map com o ID do Ponto e a lista de suas Conexões de saída.
      */
     public Map<Integer, List<Conexao>> getListaSucessores() {
-        return listaSucessores;
+        return adjacencia().visaoSucessores();
     }
 
     /**
      * Gera uma Matriz de Adjacência para representar o grafo.
      * A posição [i][j] armazena a distância (peso) da conexão do ponto 'i' para o ponto 'j'.
+     * A forma densa só é gerada para grafos pequenos; use gerarMatrizAdjacenciaEsparsa() nos demais.
      * @return Uma matriz de inteiros.
+     * @throws IllegalStateException Se a matriz tiver mais que LIMITE_MATRIZ_DENSA células.
      */
     public int[][] gerarMatrizAdjacencia() {
-        int n = pontos.size();
-        int[][] matriz = new int[n][n];
-        // Cria uma lista de IDs para mapear o ID real para o índice da matriz (0 a n-1)
-        List<Integer> ids = new ArrayList<>(pontos.keySet());
+        return gerarMatrizAdjacenciaEsparsa().paraDensa(LIMITE_MATRIZ_DENSA);
+    }
 
-        // Preenche a matriz
-        for (Conexao c : conexoes) {
-            // Obtém o índice da matriz correspondente ao ID de origem e destino
-            int i = ids.indexOf(c.origem);
-            int j = ids.indexOf(c.destino);
-            // Se ambos os pontos existirem no grafo (tiverem índices válidos)
-            if (i >= 0 && j >= 0) {
-                matriz[i][j] = c.distancia; // Preenche com a distância
+    /**
+     * Gera a Matriz de Adjacência esparsa, construída em O(V + E) a partir do CSR.
+     * Com conexões repetidas entre o mesmo par, prevalece a última (como na forma densa).
+     * @return A Matriz de Adjacência no formato CSR.
+     */
+    public MatrizEsparsa gerarMatrizAdjacenciaEsparsa() {
+        AdjacenciaCSR adj = adjacencia();
+        MetricasGrafo metricas = this.metricas;
+        long inicio = MetricasGrafo.iniciar(metricas);
+        int n = adj.numVertices();
+        int m = adj.numArestas();
+        int[] linhas = new int[m];
+        int[] colunas = new int[m];
+        int[] valores = new int[m];
+        int nnz = 0;
+
+        // Percorre as arestas de saída de cada linha no CSR
+        SegmentosAdjacencia saida = adj.saida;
+        for (int i = 0; i < n; i++) {
+            for (int k = saida.inicio[i], f = k + saida.grau[i]; k < f; k++) {
+                linhas[nnz] = i;
+                colunas[nnz] = saida.vizinhos[k];
+                valores[nnz++] = saida.pesos[k]; // A célula guarda a distância
             }
         }
+        MatrizEsparsa matriz = MatrizEsparsa.deCoordenadas(n, n, linhas, colunas, valores, nnz);
+        if (metricas != null) metricas.registrar(OperacaoGrafo.GERAR_MATRIZ, inicio);
         return matriz;
     }
 
@@ -264,18 +826,96 @@ public class GrafoColetaReciclaveis {
      * @return Um Map onde a chave é o ID do ponto e o valor é o seu grau.
      */
     public Map<Integer, Integer> calcularGraus() {
-        Map<Integer, Integer> graus = new HashMap<>();
-        // Inicializa o grau de todos os pontos para 0
-        for (int id : pontos.keySet()) graus.put(id, 0);
-
-        // Percorre todas as conexões e incrementa o grau da origem e do destino
-        for (Conexao c : conexoes) {
-            graus.put(c.origem, graus.get(c.origem) + 1);
-            graus.put(c.destino, graus.get(c.destino) + 1);
-        }
+        AdjacenciaCSR adj = adjacencia();
+        // Os graus são contados em um vetor primitivo e só então convertidos para o Map
+        int[] grausPorIndice = adj.graus();
+        Map<Integer, Integer> graus = new LinkedHashMap<>();
+        for (int v = 0; v < grausPorIndice.length; v++) graus.put(adj.id(v), grausPorIndice[v]);
         return graus;
     }
 
+    /**
+     * Busca por prefixo limitada (type-ahead): retorna só os 'limite' primeiros pontos,
+     * em ordem alfabética ou por relevância (grau do ponto, maior primeiro).
+     * @param prefixo O prefixo do nome.
+     * @param limite A quantidade máxima de resultados.
+     * @param ordem A ordem dos resultados.
+     * @return Os primeiros pontos com o prefixo.
+     */
+    public List<PontoColeta> buscarPorPrefixo(String prefixo, int limite, OrdemPrefixo ordem) {
+        if (ordem == OrdemPrefixo.PONTUACAO) atualizarPontuacoesTrie();
+        return trie.buscarPorPrefixo(prefixo, limite, ordem);
+    }
+
+    /**
+     * Stream preguiçoso dos pontos com o prefixo, na ordem pedida.
+     * @param prefixo O prefixo do nome.
+     * @param ordem A ordem dos resultados.
+     * @return Um Stream que só percorre a Trie conforme os elementos são consumidos.
+     */
+    public Stream<PontoColeta> streamPorPrefixo(String prefixo, OrdemPrefixo ordem) {
+        if (ordem == OrdemPrefixo.PONTUACAO) atualizarPontuacoesTrie();
+        return trie.streamPorPrefixo(prefixo, ordem);
+    }
+
+    /**
+     * Busca tolerante a erros de digitação: os pontos com nome a até 'distanciaMaxima'
+     * edições do nome digitado, ignorando acentos e maiúsculas. Entre resultados à
+     * mesma distância, os de maior grau vêm primeiro.
+     * @param nome O nome digitado.
+     * @param distanciaMaxima A maior distância de edição (Levenshtein) aceita.
+     * @param limite A quantidade máxima de resultados.
+     * @return Os pontos mais próximos, com a distância de cada um.
+     */
+    public List<ResultadoAproximado> buscarAproximado(String nome, int distanciaMaxima, int limite) {
+        atualizarPontuacoesTrie();
+        return trie.buscarAproximado(nome, distanciaMaxima, limite);
+    }
+
+    /**
+     * Usa o grau de cada ponto como pontuação da Trie. Todas são recalculadas, em
+     * O(nós da Trie), só quando a Trie ou a adjacência foram refeitas; as alterações
+     * incrementais corrigem apenas os pontos cujo grau mudou (atualizarPontuacaoTrie).
+     */
+    private void atualizarPontuacoesTrie() {
+        if (triePontuada == trie) return;
+        AdjacenciaCSR adj = adjacencia();
+        trie.definirPontuacoes(p -> grau(adj, p.id));
+        triePontuada = trie;
+    }
+
+    /**
+     * Corrige na Trie a pontuação de um ponto cujo grau mudou, em O(tamanho do nome).
+     * Sem pontuações em dia não há o que corrigir: elas serão recalculadas na próxima busca.
+     * @param id O ID do ponto (ignorado se ele não existir).
+     */
+    private void atualizarPontuacaoTrie(int id) {
+        if (triePontuada != trie) return;
+        PontoColeta p = pontos.get(id);
+        if (p != null) trie.atualizarPontuacao(p, grau(adjacencia, id));
+    }
+
+    private void atualizarPontuacoesExtremos(Conexao c) {
+        atualizarPontuacaoTrie(c.origem);
+        atualizarPontuacaoTrie(c.destino);
+    }
+
+    /**
+     * @return A pontuação com que o ponto entra na Trie: o grau, se as pontuações estão
+     *         em dia (a adjacência existe), ou 0, se elas ainda serão recalculadas.
+     */
+    private int pontuacaoTrie(PontoColeta ponto) {
+        return triePontuada == trie ? grau(adjacencia, ponto.id) : 0;
+    }
+
+    /**
+     * @return O grau (entradas + saídas) do ponto na adjacência, ou 0 se ele não estiver nela.
+     */
+    private static int grau(AdjacenciaCSR adj, int id) {
+        int v = adj.indice(id);
+        return v < 0 ? 0 : adj.saida.grau[v] + adj.entrada.grau[v];
+    }
+
     /**
      * Encontra o caminho mais curto (em número de conexões) entre dois pontos
      * usando o algoritmo Breadth-First Search (BFS).
@@ -284,45 +924,186 @@ public class GrafoColetaReciclaveis {
      * @return Uma lista de IDs representando o caminho da origem ao destino, ou null se não houver caminho.
      */
     public List<Integer> encontrarCaminhoBFS(int origem, int destino) {
-        // Verifica se os pontos existem no grafo
-        if (!pontos.containsKey(origem) || !pontos.containsKey(destino)) return null;
-
-        Map<Integer, Integer> predecessor = new HashMap<>();
-        Queue<Integer> fila = new LinkedList<>();
-        Set<Integer> visitados = new HashSet<>();
-
-        // Inicia o BFS no ponto de origem
-        fila.add(origem);
-        visitados.add(origem);
-        predecessor.put(origem, null); // A origem não tem predecessor
-
-        // Loop principal da BFS
-        while (!fila.isEmpty()) {
-            int atual = fila.poll(); // Pega o próximo nó a ser visitado
-            if (atual == destino) break; // Chegou ao destino
-
-            // Encontra vizinhos usando a Lista de Sucessores para eficiência
-            List<Conexao> sucessores = listaSucessores.getOrDefault(atual, Collections.emptyList());
-            for (Conexao c : sucessores) {
-                if (!visitados.contains(c.destino)) {
-                    fila.add(c.destino);
-                    visitados.add(c.destino);
-                    predecessor.put(c.destino, atual); // Define o predecessor
-                }
-            }
+        ResultadoCaminho resultado = encontrarCaminho(origem, destino, EstrategiaBusca.BFS);
+        return resultado == null ? null : resultado.getCaminho();
+    }
+
+    /**
+     * Encontra o caminho de menor distância total (em metros) entre dois pontos
+     * usando o algoritmo de Dijkstra com heap binário indexado.
+     * @param origem O ID do ponto de origem.
+     * @param destino O ID do ponto de destino.
+     * @return O caminho com sua distância total, ou null se não houver caminho ou os IDs forem inválidos.
+     */
+    public ResultadoCaminho encontrarCaminhoMinimo(int origem, int destino) {
+        return encontrarCaminho(origem, destino, EstrategiaBusca.DIJKSTRA);
+    }
+
+    /**
+     * Encontra um caminho entre dois pontos usando a estratégia escolhida.
+     * Dijkstra, Dijkstra bidirecional e A* retornam o caminho de menor distância em metros;
+     * o BFS retorna o de menor número de conexões. O resultado informa quantos
+     * vértices cada estratégia precisou assentar.
+     * @param origem O ID do ponto de origem.
+     * @param destino O ID do ponto de destino.
+     * @param estrategia A estratégia de busca.
+     * @return O caminho com sua distância total, ou null se não houver caminho ou os IDs forem inválidos.
+     */
+    public ResultadoCaminho encontrarCaminho(int origem, int destino, EstrategiaBusca estrategia) {
+        MetricasGrafo m = metricas;
+        if (m == null) return buscarCaminho(origem, destino, estrategia);
+        long inicio = System.nanoTime();
+        ResultadoCaminho resultado = buscarCaminho(origem, destino, estrategia);
+        m.registrar(OperacaoGrafo.caminho(estrategia), inicio);
+        return resultado;
+    }
+
+    private ResultadoCaminho buscarCaminho(int origem, int destino, EstrategiaBusca estrategia) {
+        AdjacenciaCSR adj = adjacencia();
+        int s = adj.indice(origem);
+        int t = adj.indice(destino);
+        if (s < 0 || t < 0) return null;
+        Heuristica h = estrategia == EstrategiaBusca.A_ESTRELA ? heuristicaAtual(adj) : Heuristica.NULA;
+        return BuscaCaminhos.buscar(adj, s, t, estrategia, h);
+    }
+
+    /**
+     * Define a heurística admissível usada pelas buscas A*.
+     * @param heuristica A heurística (ou Heuristica.NULA para desativá-la).
+     */
+    public void definirHeuristica(Heuristica heuristica) {
+        this.heuristica = heuristica;
+        this.numMarcos = 0;
+    }
+
+    /**
+     * Faz o A* usar a heurística de marcos (ALT), que é recalculada automaticamente,
+     * na primeira busca A* seguinte, sempre que o grafo for alterado.
+     * @param numMarcos A quantidade de marcos (tipicamente entre 4 e 16).
+     */
+    public void usarHeuristicaMarcos(int numMarcos) {
+        this.numMarcos = numMarcos;
+        this.heuristica = Heuristica.NULA;
+    }
+
+    /**
+     * @param adj A adjacência atual.
+     * @return A heurística do A*, recalculando os marcos se estiverem desatualizados.
+     */
+    private Heuristica heuristicaAtual(AdjacenciaCSR adj) {
+        if (numMarcos > 0 && !(heuristica instanceof HeuristicaMarcos && ((HeuristicaMarcos) heuristica).valida(adj))) {
+            heuristica = HeuristicaMarcos.construir(adj, numMarcos);
+        }
+        return heuristica;
+    }
+
+    /**
+     * Calcula a distância total de um caminho (por exemplo, o retornado pelo BFS)
+     * consultando apenas as conexões de saída de cada ponto do caminho.
+     * @param caminho Os IDs dos pontos do caminho.
+     * @return A distância total em metros, ou -1 se algum trecho não for uma conexão.
+     */
+    public long calcularDistanciaCaminho(List<Integer> caminho) {
+        return BuscaCaminhos.distanciaDoCaminho(adjacencia(), caminho);
+    }
+
+    /**
+     * Calcula (ou reaproveita do cache) a matriz de menores distâncias entre todos os
+     * pares de pontos, escolhendo o algoritmo pela densidade do grafo.
+     * O resultado fica em cache até a próxima alteração do grafo.
+     * @return A matriz de distâncias, com linhas e colunas na ordem de getIdsDosVertices().
+     * @throws IllegalStateException Se a matriz tiver mais que LIMITE_MATRIZ_DENSA células.
+     */
+    public MatrizDistancias calcularDistanciasTodosPares() {
+        return calcularDistanciasTodosPares(MotorDistancias.AUTOMATICO);
+    }
+
+    /**
+     * Calcula (ou reaproveita do cache) a matriz de menores distâncias entre todos os
+     * pares de pontos com o algoritmo indicado, em paralelo no pool comum do ForkJoin.
+     * @param motor O algoritmo (Floyd-Warshall em blocos ou Dijkstra por origem).
+     * @return A matriz de distâncias, com linhas e colunas na ordem de getIdsDosVertices().
+     * @throws IllegalStateException Se a matriz tiver mais que LIMITE_MATRIZ_DENSA células.
+     */
+    public MatrizDistancias calcularDistanciasTodosPares(MotorDistancias motor) {
+        // O resultado é o mesmo para qualquer motor, então o cache serve a todos
+        if (matrizDistancias == null) {
+            AdjacenciaCSR adj = adjacencia();
+            MetricasGrafo m = metricas;
+            long inicio = MetricasGrafo.iniciar(m);
+            matrizDistancias = MatrizDistancias.calcular(adj, motor, ForkJoinPool.commonPool());
+            if (m != null) m.registrar(OperacaoGrafo.DISTANCIAS_TODOS_PARES, inicio);
         }
+        return matrizDistancias;
+    }
 
-        // Se o destino não foi encontrado, não há caminho
-        if (!predecessor.containsKey(destino)) return null;
+    /**
+     * Calcula a tabela de menores distâncias de cada origem para cada destino
+     * (muitos-para-muitos), com as buscas em paralelo no pool comum do ForkJoin.
+     * @param origens Os IDs das origens (ex.: pátios de caminhões).
+     * @param destinos Os IDs dos destinos (ex.: pontos com coleta no dia).
+     * @return A tabela de distâncias, com uma linha por origem e uma coluna por destino.
+     */
+    public TabelaDistancias calcularDistancias(Collection<Integer> origens, Collection<Integer> destinos) {
+        return calcularDistancias(origens, destinos, ForkJoinPool.commonPool());
+    }
 
-        // Reconstrói o caminho a partir dos predecessores (do destino para a origem)
-        List<Integer> caminho = new ArrayList<>();
-        Integer atual = destino;
-        while (atual != null) {
-            caminho.add(0, atual); // Adiciona no início para inverter a ordem
-            atual = predecessor.get(atual);
+    /**
+     * Calcula a tabela de menores distâncias de cada origem para cada destino, rodando
+     * as buscas no executor informado. Há uma busca por ponto do conjunto menor, que
+     * para assim que todos os pontos do outro conjunto foram alcançados.
+     * O grafo não pode ser alterado durante o cálculo.
+     * @param origens Os IDs das origens.
+     * @param destinos Os IDs dos destinos.
+     * @param executor O executor das buscas.
+     * @return A tabela de distâncias.
+     */
+    public TabelaDistancias calcularDistancias(Collection<Integer> origens, Collection<Integer> destinos,
+                                               Executor executor) {
+        AdjacenciaCSR adj = adjacencia();
+        MetricasGrafo m = metricas;
+        long inicio = MetricasGrafo.iniciar(m);
+        TabelaDistancias tabela = TabelaDistancias.calcular(adj, origens, destinos, executor);
+        if (m != null) m.registrar(OperacaoGrafo.TABELA_DISTANCIAS, inicio);
+        return tabela;
+    }
+
+    /**
+     * Planeja a rota de um caminhão pelas paradas informadas, usando todos os núcleos
+     * do pool comum do ForkJoin.
+     * @param paradas Os IDs das paradas; a primeira é o depósito, onde a rota começa e termina.
+     * @param tempoLimiteMs O tempo total disponível, em milissegundos.
+     * @return A rota otimizada, ou null se não houver paradas ou algum ID for inválido.
+     */
+    public ResultadoRota otimizarRota(List<Integer> paradas, long tempoLimiteMs) {
+        ForkJoinPool pool = ForkJoinPool.commonPool();
+        return otimizarRota(paradas, tempoLimiteMs, pool, pool.getParallelism());
+    }
+
+    /**
+     * Planeja a rota de um caminhão pelas paradas informadas (ver OtimizadorRota):
+     * calcula a tabela de menores distâncias entre elas, monta uma rota gulosa e a
+     * melhora com 2-opt/Or-opt em buscas paralelas até o prazo.
+     * O prazo conta desde a chamada; a tabela e a rota inicial são sempre concluídas.
+     * @param paradas Os IDs das paradas; a primeira é o depósito. IDs repetidos contam uma vez.
+     * @param tempoLimiteMs O tempo total disponível, em milissegundos.
+     * @param executor O executor da tabela de distâncias e das buscas.
+     * @param numBuscas A quantidade de buscas locais independentes (tipicamente, o número de núcleos).
+     * @return A rota otimizada, ou null se não houver paradas ou algum ID for inválido.
+     */
+    public ResultadoRota otimizarRota(List<Integer> paradas, long tempoLimiteMs, Executor executor, int numBuscas) {
+        long prazo = System.nanoTime() + tempoLimiteMs * 1_000_000L;
+        if (paradas.isEmpty()) return null;
+        AdjacenciaCSR adj = adjacencia();
+        for (int id : paradas) {
+            if (adj.indice(id) < 0) return null;
         }
-        return caminho;
+        MetricasGrafo m = metricas;
+        long inicio = MetricasGrafo.iniciar(m);
+        TabelaDistancias tabela = TabelaDistancias.calcular(adj, paradas, paradas, executor);
+        ResultadoRota rota = OtimizadorRota.otimizar(tabela, prazo, executor, numBuscas, versao);
+        if (m != null) m.registrar(OperacaoGrafo.OTIMIZAR_ROTA, inicio);
+        return rota;
     }
 
     /**
@@ -331,7 +1112,9 @@ public class GrafoColetaReciclaveis {
      * @return Uma string formatada com todas as estatísticas.
      */
     public String calcularEstatisticas() {
-        int distTotal = 0, distMin = Integer.MAX_VALUE, distMax = 0;
+        // A soma fica em long: com milhões de conexões ela passa de Integer.MAX_VALUE
+        long distTotal = 0;
+        int distMin = Integer.MAX_VALUE, distMax = 0;
 
         // Calcula a soma, o mínimo e o máximo das distâncias
         for (Conexao c : conexoes) {
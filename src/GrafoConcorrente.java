@@ -0,0 +1,80 @@
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * Grafo para uso concorrente, com leitura por versões imutáveis (cópia na escrita).
+ *
+ * Leitores chamam versaoAtual() e consultam a VersaoGrafo obtida, sem travas: ela nunca
+ * muda, então todas as consultas feitas sobre ela enxergam o mesmo estado do grafo.
+ * Escritores agrupam as alterações em alterar(...): elas são aplicadas, em lote, a um
+ * grafo de trabalho privado, e ao final uma cópia dele é publicada atomicamente como a
+ * nova versão. Escritores são serializados entre si, mas nunca bloqueiam os leitores.
+ *
+ * Publicar custa O(V + E) (a cópia do grafo), então vale agrupar muitas alterações
+ * em uma única chamada a alterar(...).
+ */
+public class GrafoConcorrente {
+    // Serializa os escritores; os leitores nunca a usam
+    private final ReentrantLock travaEscrita = new ReentrantLock();
+    // Grafo de trabalho dos escritores (acessado apenas com a trava de escrita)
+    private GrafoColetaReciclaveis grafoEscrita;
+    // Última versão publicada; a troca da referência é o ponto de publicação
+    private final AtomicReference<VersaoGrafo> publicada = new AtomicReference<>();
+
+    /**
+     * Cria um grafo concorrente vazio.
+     */
+    public GrafoConcorrente() {
+        this(new GrafoColetaReciclaveis());
+    }
+
+    /**
+     * Cria um grafo concorrente a partir de um grafo já carregado, que passa a ser o
+     * grafo de trabalho dos escritores e não deve mais ser usado diretamente.
+     * @param inicial O grafo inicial.
+     */
+    public GrafoConcorrente(GrafoColetaReciclaveis inicial) {
+        grafoEscrita = inicial;
+        publicada.set(new VersaoGrafo(1, inicial.copiar()));
+    }
+
+    /**
+     * Retorna a versão publicada mais recente. Não bloqueia.
+     * @return A versão atual, imutável.
+     */
+    public VersaoGrafo versaoAtual() {
+        return publicada.get();
+    }
+
+    /**
+     * Aplica um lote de alterações e publica uma nova versão com todas elas.
+     * As alterações rodam dentro de iniciarLote()/confirmarLote(), então a adjacência é
+     * refeita no máximo uma vez. Se o lote lançar uma exceção, nada é publicado e o grafo
+     * de trabalho volta ao estado da versão atual, descartando as alterações parciais.
+     * @param alteracoes As operações de escrita sobre o grafo de trabalho (não guarde a referência).
+     * @return A versão publicada com as alterações.
+     */
+    public VersaoGrafo alterar(Consumer<GrafoColetaReciclaveis> alteracoes) {
+        travaEscrita.lock();
+        try {
+            VersaoGrafo anterior = publicada.get();
+            try {
+                grafoEscrita.iniciarLote();
+                alteracoes.accept(grafoEscrita);
+                grafoEscrita.confirmarLote();
+            } catch (RuntimeException | Error e) {
+                MetricasGrafo metricas = grafoEscrita.getMetricas();
+                grafoEscrita = anterior.copiarGrafo();
+                // Os medidores passam a ler o grafo restaurado
+                if (metricas != null) grafoEscrita.ativarMetricas(metricas);
+                throw e;
+            }
+            VersaoGrafo nova = new VersaoGrafo(anterior.getNumero() + 1, grafoEscrita.copiar());
+            publicada.set(nova);
+            return nova;
+        } finally {
+            travaEscrita.unlock();
+        }
+    }
+}
@@ -0,0 +1,134 @@
+import java.util.Arrays;
+
+/**
+ * Heap binário mínimo indexado por vértice, com prioridades primitivas (int).
+ * Cada vértice aparece no máximo uma vez; 'posicao[v]' guarda onde ele está no heap,
+ * o que permite diminuir a prioridade em O(log n) sem inserir duplicatas.
+ * É usado pelo Dijkstra e reaproveitado entre buscas para não alocar memória.
+ */
+public class HeapBinarioIndexado {
+    // Vértices organizados como heap (posição 0 é o mínimo)
+    private int[] vertices;
+    // Prioridade de cada posição do heap (paralelo a 'vertices')
+    private int[] prioridades;
+    // Posição de cada vértice no heap, ou -1 se ele não estiver no heap
+    private int[] posicao;
+    // Quantidade de elementos no heap
+    private int tamanho;
+
+    /**
+     * Cria um heap capaz de indexar 'capacidade' vértices.
+     * @param capacidade O número de vértices do grafo.
+     */
+    public HeapBinarioIndexado(int capacidade) {
+        vertices = new int[capacidade];
+        prioridades = new int[capacidade];
+        posicao = new int[capacidade];
+        Arrays.fill(posicao, -1);
+    }
+
+    /**
+     * Garante capacidade para 'capacidade' vértices, preservando o estado vazio.
+     * @param capacidade O número de vértices do grafo.
+     */
+    public void garantirCapacidade(int capacidade) {
+        if (capacidade <= posicao.length) return;
+        int antiga = posicao.length;
+        vertices = Arrays.copyOf(vertices, capacidade);
+        prioridades = Arrays.copyOf(prioridades, capacidade);
+        posicao = Arrays.copyOf(posicao, capacidade);
+        Arrays.fill(posicao, antiga, capacidade, -1);
+    }
+
+    /**
+     * @return true se o heap não tem elementos.
+     */
+    public boolean vazio() {
+        return tamanho == 0;
+    }
+
+    /**
+     * @return A quantidade de elementos no heap.
+     */
+    public int tamanho() {
+        return tamanho;
+    }
+
+    /**
+     * @return A prioridade do elemento mínimo (o heap não pode estar vazio).
+     */
+    public int prioridadeMinima() {
+        return prioridades[0];
+    }
+
+    /**
+     * Insere um vértice ou diminui sua prioridade, se ele já estiver no heap com
+     * prioridade maior.
+     * @param v O índice do vértice.
+     * @param prioridade A nova prioridade.
+     */
+    public void inserirOuDiminuir(int v, int prioridade) {
+        int i = posicao[v];
+        if (i < 0) {
+            i = tamanho++;
+        } else if (prioridade >= prioridades[i]) {
+            return;
+        }
+        subir(i, v, prioridade);
+    }
+
+    /**
+     * Remove e retorna o vértice de menor prioridade.
+     * @return O índice do vértice removido.
+     */
+    public int removerMinimo() {
+        int minimo = vertices[0];
+        posicao[minimo] = -1;
+        int ultimo = --tamanho;
+        if (ultimo > 0) descer(0, vertices[ultimo], prioridades[ultimo]);
+        return minimo;
+    }
+
+    /**
+     * Esvazia o heap em O(tamanho), deixando-o pronto para a próxima busca.
+     */
+    public void limpar() {
+        for (int i = 0; i < tamanho; i++) posicao[vertices[i]] = -1;
+        tamanho = 0;
+    }
+
+    /**
+     * Move um elemento em direção à raiz até restaurar a propriedade de heap.
+     */
+    private void subir(int i, int v, int prioridade) {
+        while (i > 0) {
+            int pai = (i - 1) >>> 1;
+            if (prioridades[pai] <= prioridade) break;
+            colocar(i, vertices[pai], prioridades[pai]);
+            i = pai;
+        }
+        colocar(i, v, prioridade);
+    }
+
+    /**
+     * Move um elemento em direção às folhas até restaurar a propriedade de heap.
+     */
+    private void descer(int i, int v, int prioridade) {
+        int metade = tamanho >>> 1;
+        while (i < metade) {
+            int filho = 2 * i + 1;
+            int direito = filho + 1;
+            if (direito < tamanho && prioridades[direito] < prioridades[filho]) filho = direito;
+            if (prioridade <= prioridades[filho]) break;
+            colocar(i, vertices[filho], prioridades[filho]);
+            i = filho;
+        }
+        colocar(i, v, prioridade);
+    }
+
+    private void colocar(int i, int v, int prioridade) {
+        vertices[i] = v;
+        prioridades[i] = prioridade;
+        posicao[v] = i;
+    }
+}
@@ -0,0 +1,19 @@
+/**
+ * Estimativa da distância restante usada pela busca A*.
+ * Para que o caminho retornado seja ótimo, a estimativa deve ser admissível:
+ * nunca maior que a menor distância real (em metros) do vértice até o destino.
+ */
+@FunctionalInterface
+public interface Heuristica {
+    // Heurística nula: sempre admissível, faz o A* se comportar como o Dijkstra
+    Heuristica NULA = (adj, v, t) -> 0;
+
+    /**
+     * Estima a distância do vértice 'v' até o destino 't'.
+     * @param adj A adjacência em que a busca está sendo feita (use adj.id(v) para obter o ID do ponto).
+     * @param v O índice denso do vértice atual.
+     * @param t O índice denso do destino.
+     * @return Uma estimativa não negativa e admissível, em metros.
+     */
+    int estimar(AdjacenciaCSR adj, int v, int t);
+}
@@ -0,0 +1,89 @@
+import java.util.Arrays;
+
+/**
+ * Heurística ALT (A*, Landmarks e desigualdade Triangular) para o A*.
+ * Como os pontos não têm coordenadas, a estimativa vem de distâncias pré-calculadas
+ * de e para alguns vértices "marco": pela desigualdade triangular,
+ * d(v, t) >= d(M, t) - d(M, v) e d(v, t) >= d(v, M) - d(t, M), para todo marco M.
+ * A estimativa é sempre admissível, e só vale para a adjacência e a versão em que
+ * foi construída; depois de uma mutação ela passa a retornar 0.
+ */
+public class HeuristicaMarcos implements Heuristica {
+    // Adjacência e versão para as quais as distâncias foram calculadas
+    private final AdjacenciaCSR adj;
+    private final long versao;
+    // deMarco[i][v] = d(marco i, v); paraMarco[i][v] = d(v, marco i)
+    private final int[][] deMarco;
+    private final int[][] paraMarco;
+
+    private HeuristicaMarcos(AdjacenciaCSR adj, int[][] deMarco, int[][] paraMarco) {
+        this.adj = adj;
+        this.versao = adj.versao();
+        this.deMarco = deMarco;
+        this.paraMarco = paraMarco;
+    }
+
+    /**
+     * Escolhe os marcos pelo critério do mais distante (cada novo marco é o vértice
+     * alcançável mais longe dos marcos já escolhidos) e calcula as distâncias.
+     * Custo: 2 Dijkstras completos por marco.
+     * @param adj A adjacência do grafo.
+     * @param numMarcos A quantidade de marcos desejada.
+     * @return A heurística construída.
+     */
+    public static HeuristicaMarcos construir(AdjacenciaCSR adj, int numMarcos) {
+        int n = adj.numVertices();
+        int k = Math.min(numMarcos, n);
+        int[][] deMarco = new int[k][n];
+        int[][] paraMarco = new int[k][n];
+        // menorDistancia[v] = menor distância de v a partir dos marcos já escolhidos
+        int[] menorDistancia = new int[n];
+        Arrays.fill(menorDistancia, BuscaCaminhos.INFINITO);
+
+        int marco = 0;
+        for (int i = 0; i < k; i++) {
+            BuscaCaminhos.distanciasAPartirDe(adj, marco, false, deMarco[i]);
+            BuscaCaminhos.distanciasAPartirDe(adj, marco, true, paraMarco[i]);
+            // Próximo marco: o vértice alcançável mais distante de todos os marcos
+            int proximo = -1;
+            for (int v = 0; v < n; v++) {
+                menorDistancia[v] = Math.min(menorDistancia[v], deMarco[i][v]);
+                int d = menorDistancia[v];
+                if (d != BuscaCaminhos.INFINITO && (proximo < 0 || d > menorDistancia[proximo])) proximo = v;
+            }
+            // Se tudo que é alcançável já está coberto, recomeça por um vértice não alcançado
+            if (proximo < 0 || menorDistancia[proximo] == 0) {
+                for (int v = 0; v < n; v++) {
+                    if (menorDistancia[v] == BuscaCaminhos.INFINITO) {
+                        proximo = v;
+                        break;
+                    }
+                }
+            }
+            marco = Math.max(0, proximo);
+        }
+        return new HeuristicaMarcos(adj, deMarco, paraMarco);
+    }
+
+    /**
+     * @param adj Uma adjacência.
+     * @return true se a heurística foi construída para esta adjacência, sem mutações desde então.
+     */
+    public boolean valida(AdjacenciaCSR adj) {
+        return adj == this.adj && adj.versao() == versao;
+    }
+
+    @Override
+    public int estimar(AdjacenciaCSR adj, int v, int t) {
+        if (!valida(adj)) return 0;
+        int infinito = BuscaCaminhos.INFINITO;
+        int melhor = 0;
+        for (int i = 0; i < deMarco.length; i++) {
+            int[] de = deMarco[i];
+            if (de[t] != infinito && de[v] != infinito) melhor = Math.max(melhor, de[t] - de[v]);
+            int[] para = paraMarco[i];
+            if (para[v] != infinito && para[t] != infinito) melhor = Math.max(melhor, para[v] - para[t]);
+        }
+        return melhor;
+    }
+}
@@ -0,0 +1,124 @@
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histograma de latências no estilo HDR: faixas log-lineares, com 16 subfaixas por
+ * potência de 2, o que dá erro relativo de no máximo 1/16 (~6%) em qualquer escala,
+ * de 1 ns a ~73 minutos, com só 640 faixas.
+ *
+ * Cada faixa é um LongAdder (contador dividido em células por thread, sem travas),
+ * criado só quando a faixa recebe o primeiro registro: registrar custa um cálculo de
+ * índice e um incremento, e várias threads registram ao mesmo tempo sem disputar a
+ * mesma variável. As leituras (percentis, contagem) não param os registros e podem
+ * refletir registros feitos durante a leitura.
+ */
+public class HistogramaLatencia {
+    // Bits de precisão das subfaixas: 2^BITS_SUBFAIXA valores exatos no início da escala
+    private static final int BITS_SUBFAIXA = 5;
+    private static final int SUBFAIXAS = 1 << BITS_SUBFAIXA;          // 32
+    private static final int METADE = SUBFAIXAS / 2;                  // 16 subfaixas por potência de 2
+    // Maior expoente representado (2^42 ns ~ 73 min); valores maiores caem na última faixa
+    private static final int EXPOENTE_MAXIMO = 42;
+    static final int NUM_FAIXAS = SUBFAIXAS + (EXPOENTE_MAXIMO - BITS_SUBFAIXA + 1) * METADE;
+
+    // Contadores por faixa, criados sob demanda
+    private final AtomicReferenceArray<LongAdder> faixas = new AtomicReferenceArray<>(NUM_FAIXAS);
+    private final LongAdder contagem = new LongAdder();
+    private final LongAdder soma = new LongAdder();
+    private final LongAccumulator maximo = new LongAccumulator(Math::max, 0);
+
+    /**
+     * Registra uma latência.
+     * @param nanos A duração em nanossegundos (valores negativos contam como 0).
+     */
+    public void registrar(long nanos) {
+        if (nanos < 0) nanos = 0;
+        int i = indice(nanos);
+        LongAdder faixa = faixas.get(i);
+        if (faixa == null) {
+            // Só uma thread instala o contador; as outras usam o instalado
+            faixas.compareAndSet(i, null, new LongAdder());
+            faixa = faixas.get(i);
+        }
+        faixa.increment();
+        contagem.increment();
+        soma.add(nanos);
+        maximo.accumulate(nanos);
+    }
+
+    /**
+     * @return A faixa do valor: exata abaixo de 32; acima, 16 subfaixas por potência de 2.
+     */
+    static int indice(long valor) {
+        if (valor < SUBFAIXAS) return (int) valor;
+        int expoente = 63 - Long.numberOfLeadingZeros(valor);
+        if (expoente > EXPOENTE_MAXIMO) return NUM_FAIXAS - 1;
+        // Os 5 bits mais altos do valor (de 16 a 31) escolhem a subfaixa
+        int sub = (int) (valor >>> (expoente - BITS_SUBFAIXA + 1));
+        return SUBFAIXAS + (expoente - BITS_SUBFAIXA) * METADE + (sub - METADE);
+    }
+
+    /**
+     * @return O maior valor que cai na faixa 'i'.
+     */
+    static long limiteSuperior(int i) {
+        if (i < SUBFAIXAS) return i;
+        int expoente = BITS_SUBFAIXA + (i - SUBFAIXAS) / METADE;
+        long sub = METADE + (i - SUBFAIXAS) % METADE;
+        int deslocamento = expoente - BITS_SUBFAIXA + 1;
+        return ((sub + 1) << deslocamento) - 1;
+    }
+
+    /**
+     * @return A quantidade de latências registradas.
+     */
+    public long getContagem() {
+        return contagem.sum();
+    }
+
+    /**
+     * @return A soma das latências registradas, em nanossegundos.
+     */
+    public long getSomaNanos() {
+        return soma.sum();
+    }
+
+    /**
+     * @return A maior latência registrada, em nanossegundos.
+     */
+    public long getMaximoNanos() {
+        return maximo.get();
+    }
+
+    /**
+     * Resume o histograma nos percentis usuais, com uma única passada pelas faixas.
+     * @param operacao A operação medida.
+     * @return O resumo (contagem, média, p50, p90, p99, p99,9 e máximo).
+     */
+    public ResumoLatencia resumir(OperacaoGrafo operacao) {
+        long[] contagens = new long[NUM_FAIXAS];
+        long total = 0;
+        for (int i = 0; i < NUM_FAIXAS; i++) {
+            LongAdder faixa = faixas.get(i);
+            if (faixa != null) {
+                contagens[i] = faixa.sum();
+                total += contagens[i];
+            }
+        }
+        long max = getMaximoNanos();
+        double[] quantis = {0.50, 0.90, 0.99, 0.999};
+        long[] percentis = new long[quantis.length];
+        long acumulado = 0;
+        int q = 0;
+        for (int i = 0; i < NUM_FAIXAS && q < quantis.length; i++) {
+            acumulado += contagens[i];
+            // Posição (1..total) do quantil; a faixa que a alcança dá o valor
+            while (q < quantis.length && acumulado >= Math.max(1, (long) Math.ceil(quantis[q] * total))) {
+                percentis[q++] = Math.min(limiteSuperior(i), max);
+            }
+        }
+        double media = total == 0 ? 0 : (double) getSomaNanos() / total;
+        return new ResumoLatencia(operacao, total, media, percentis[0], percentis[1], percentis[2], percentis[3], max);
+    }
+}
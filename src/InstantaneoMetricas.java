@@ -0,0 +1,48 @@
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Fotografia das métricas em um instante: o resumo das operações que já foram
+ * executadas ao menos uma vez e o valor de cada medidor.
+ */
+public class InstantaneoMetricas {
+    // Momento da leitura, em milissegundos desde 1970 (System.currentTimeMillis)
+    final long instante;
+    // Resumos das operações com ao menos um registro, na ordem de OperacaoGrafo
+    final List<ResumoLatencia> operacoes;
+    // Valores dos medidores (ex.: vértices, arestas), na ordem em que foram definidos
+    final Map<String, Long> medidores;
+
+    /**
+     * Construtor para criar uma instância de InstantaneoMetricas.
+     * @param instante O momento da leitura, em milissegundos desde 1970.
+     * @param operacoes Os resumos das operações.
+     * @param medidores Os valores dos medidores.
+     */
+    public InstantaneoMetricas(long instante, List<ResumoLatencia> operacoes, Map<String, Long> medidores) {
+        this.instante = instante;
+        this.operacoes = operacoes;
+        this.medidores = medidores;
+    }
+
+    /**
+     * @return O momento da leitura, em milissegundos desde 1970.
+     */
+    public long getInstante() {
+        return instante;
+    }
+
+    /**
+     * @return Os resumos das operações executadas ao menos uma vez.
+     */
+    public List<ResumoLatencia> getOperacoes() {
+        return operacoes;
+    }
+
+    /**
+     * @return Os valores dos medidores, por nome.
+     */
+    public Map<String, Long> getMedidores() {
+        return medidores;
+    }
+}
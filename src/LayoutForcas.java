@@ -0,0 +1,301 @@
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+
+/**
+ * Layout dirigido por forças (Fruchterman–Reingold): pontos ligados se atraem (d²/k),
+ * todos os pontos se repelem (k²/d) e uma gravidade puxa tudo para o centro,
+ * para que componentes desconexos não se afastem. A cada iteração cada ponto anda na
+ * direção da força resultante, limitado por uma "temperatura" que esfria até o fim.
+ *
+ * A repulsão entre todos os pares usa a aproximação de Barnes–Hut (QuadtreeBarnesHut),
+ * O(n log n) por iteração, e os pontos são processados em paralelo no ForkJoinPool
+ * (cada bloco de pontos calcula as forças sobre a árvore, que só é lida, e grava as
+ * novas posições em vetores separados).
+ *
+ * Não depende da interface gráfica: o PainelGrafo roda o cálculo fora da thread do
+ * Swing e recebe layouts parciais pelo ouvinte, e o main pré-calcula as coordenadas
+ * de um grafo em arquivo (ver LayoutGrafo). Partindo de um layout anterior (ex.: o
+ * grafo ganhou alguns pontos), o cálculo começa frio e precisa de menos iterações.
+ *
+ * Uso: java LayoutForcas arquivoPontos arquivoConexoes arquivoLayout [iteracoes]
+ * Ex.: java LayoutForcas pontos_coleta.txt rotas_coletas.txt layout_coleta.txt 300
+ */
+public class LayoutForcas {
+    // Iterações de um cálculo completo e critério de abertura do Barnes–Hut
+    public static final int ITERACOES_PADRAO = 300;
+    public static final double THETA_PADRAO = 0.9;
+    // Intervalo mínimo entre dois layouts parciais enviados ao ouvinte
+    private static final long INTERVALO_PARCIAL_NANOS = 200_000_000L;
+    // Distância ideal entre pontos ligados (a unidade das coordenadas)
+    private static final double K = 1.0;
+    // Intensidade da gravidade em direção ao centro
+    private static final double GRAVIDADE = 0.3;
+    // Temperatura inicial em frações do lado da área ocupada: partindo do zero e de um layout anterior
+    private static final double TEMPERATURA_INICIAL = 0.1;
+    private static final double TEMPERATURA_INICIAL_AQUECIDO = 0.02;
+    // Fração mínima de pontos com posição no layout anterior para começar frio
+    private static final double FRACAO_AQUECIDO = 0.9;
+    // Pontos por tarefa paralela
+    private static final int PONTOS_POR_BLOCO = 512;
+
+    private final int iteracoes;
+    private final double theta;
+    private final ForkJoinPool pool;
+
+    /**
+     * Construtor com as iterações e o critério de abertura padrão, no pool comum do ForkJoin.
+     */
+    public LayoutForcas() {
+        this(ITERACOES_PADRAO, THETA_PADRAO, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Construtor para criar uma instância de LayoutForcas.
+     * @param iteracoes As iterações de um cálculo partindo do zero.
+     * @param theta O critério de abertura do Barnes–Hut (menor = mais preciso e mais lento).
+     * @param pool O pool de threads usado para paralelizar cada iteração.
+     */
+    public LayoutForcas(int iteracoes, double theta, ForkJoinPool pool) {
+        if (iteracoes < 1) throw new IllegalArgumentException("Informe ao menos uma iteração");
+        this.iteracoes = iteracoes;
+        this.theta = theta;
+        this.pool = pool;
+    }
+
+    /**
+     * Identifica o grafo pelos IDs e pelas conexões (em índices), na ordem: o mesmo grafo
+     * carregado em outra execução tem a mesma assinatura.
+     * @param ids Os IDs dos pontos.
+     * @param origens Os índices das origens das conexões.
+     * @param destinos Os índices dos destinos das conexões.
+     * @param numConexoes A quantidade de conexões (as primeiras dos vetores).
+     * @return A assinatura.
+     */
+    public static long assinatura(int[] ids, int[] origens, int[] destinos, int numConexoes) {
+        long h = 0x9E3779B97F4A7C15L ^ ids.length;
+        for (int id : ids) h = (h ^ id) * 0x100000001B3L;
+        for (int k = 0; k < numConexoes; k++) {
+            h = (h ^ origens[k]) * 0x100000001B3L;
+            h = (h ^ destinos[k]) * 0x100000001B3L;
+        }
+        return h ^ (h >>> 29);
+    }
+
+    /**
+     * Calcula o layout do estado atual do grafo (que não pode ser alterado durante o cálculo).
+     * @param grafo O grafo.
+     * @param inicial Um layout anterior usado como ponto de partida, ou null.
+     * @param ouvinte Recebe layouts parciais durante o cálculo, ou null.
+     * @return O layout, ou null se a thread foi interrompida.
+     */
+    public LayoutGrafo calcular(GrafoColetaReciclaveis grafo, LayoutGrafo inicial, Consumer<LayoutGrafo> ouvinte) {
+        int n = grafo.pontos.size();
+        int[] ids = new int[n];
+        MapaIdIndice indices = new MapaIdIndice(n);
+        int i = 0;
+        for (Integer id : grafo.pontos.keySet()) {
+            ids[i] = id;
+            indices.colocar(id, i++);
+        }
+        int[] origens = new int[grafo.conexoes.size()];
+        int[] destinos = new int[origens.length];
+        int m = 0;
+        for (Conexao c : grafo.conexoes) {
+            int o = indices.obter(c.origem), d = indices.obter(c.destino);
+            if (o < 0 || d < 0) continue;
+            origens[m] = o;
+            destinos[m++] = d;
+        }
+        return calcular(grafo.getVersao(), ids, origens, destinos, m, inicial, ouvinte);
+    }
+
+    /**
+     * Calcula o layout de um grafo dado em vetores (não alterados durante o cálculo).
+     * @param versao A versão do grafo, gravada no layout.
+     * @param ids Os IDs dos pontos (o vetor passa a ser compartilhado pelos layouts gerados).
+     * @param origens Os índices das origens das conexões.
+     * @param destinos Os índices dos destinos das conexões.
+     * @param numConexoes A quantidade de conexões (as primeiras dos vetores).
+     * @param inicial Um layout anterior usado como ponto de partida, ou null.
+     * @param ouvinte Recebe layouts parciais durante o cálculo (na thread do cálculo), ou null.
+     * @return O layout, ou null se a thread foi interrompida.
+     */
+    public LayoutGrafo calcular(long versao, int[] ids, int[] origens, int[] destinos, int numConexoes,
+                                LayoutGrafo inicial, Consumer<LayoutGrafo> ouvinte) {
+        int n = ids.length;
+        long assinatura = assinatura(ids, origens, destinos, numConexoes);
+        int[][] vizinhanca = vizinhanca(n, origens, destinos, numConexoes);
+        int[] inicio = vizinhanca[0], vizinhos = vizinhanca[1];
+
+        double[] x = new double[n], y = new double[n];
+        int aproveitados = posicoesIniciais(ids, inicio, vizinhos, inicial, x, y);
+        boolean aquecido = n > 0 && aproveitados >= FRACAO_AQUECIDO * n;
+        int total = aquecido ? Math.max(30, iteracoes / 4) : iteracoes;
+        double lado = Math.sqrt(Math.max(1, n)) * K;
+        double temperaturaInicial = lado * (aquecido ? TEMPERATURA_INICIAL_AQUECIDO : TEMPERATURA_INICIAL);
+
+        double[] novoX = new double[n], novoY = new double[n];
+        int numBlocos = (n + PONTOS_POR_BLOCO - 1) / PONTOS_POR_BLOCO;
+        long ultimoParcial = System.nanoTime();
+        for (int it = 0; it < total; it++) {
+            if (Thread.currentThread().isInterrupted()) return null;
+            // Esfriamento linear, com um mínimo para os últimos ajustes
+            double temperatura = Math.max(temperaturaInicial * (1 - (double) it / total), K * 0.01);
+            QuadtreeBarnesHut arvore = new QuadtreeBarnesHut(x, y, n);
+            double[] xa = x, ya = y, xn = novoX, yn = novoY;
+            pool.submit(() -> IntStream.range(0, numBlocos).parallel().forEach(b -> {
+                // Espaço de trabalho por tarefa
+                int[] pilha = new int[arvore.profundidadeMaxima()];
+                double[] forca = new double[2];
+                int fim = Math.min(n, (b + 1) * PONTOS_POR_BLOCO);
+                for (int i = b * PONTOS_POR_BLOCO; i < fim; i++) {
+                    mover(i, xa, ya, xn, yn, arvore, inicio, vizinhos, temperatura, pilha, forca);
+                }
+            })).join();
+            // As novas posições passam a ser as atuais
+            novoX = x;
+            novoY = y;
+            x = xn;
+            y = yn;
+
+            long agora = System.nanoTime();
+            if (ouvinte != null && it + 1 < total && agora - ultimoParcial >= INTERVALO_PARCIAL_NANOS) {
+                ouvinte.accept(new LayoutGrafo(versao, assinatura, ids, x.clone(), y.clone(), it + 1, false));
+                ultimoParcial = agora;
+            }
+        }
+        return new LayoutGrafo(versao, assinatura, ids, x, y, total, true);
+    }
+
+    /**
+     * Calcula a força resultante sobre o ponto i e grava a nova posição.
+     */
+    private void mover(int i, double[] x, double[] y, double[] novoX, double[] novoY, QuadtreeBarnesHut arvore,
+                       int[] inicio, int[] vizinhos, double temperatura, int[] pilha, double[] forca) {
+        double px = x[i], py = y[i];
+        arvore.repulsao(i, px, py, K * K, theta, pilha, forca);
+        double fx = forca[0], fy = forca[1];
+        // Atração pelos vizinhos: |F| = d²/k na direção do vizinho
+        for (int v = inicio[i]; v < inicio[i + 1]; v++) {
+            int j = vizinhos[v];
+            double dx = px - x[j], dy = py - y[j];
+            double d = Math.sqrt(dx * dx + dy * dy);
+            fx -= dx * d / K;
+            fy -= dy * d / K;
+        }
+        // Gravidade em direção à origem, proporcional à distância
+        fx -= GRAVIDADE * px;
+        fy -= GRAVIDADE * py;
+
+        double modulo = Math.sqrt(fx * fx + fy * fy);
+        if (modulo > 0 && Double.isFinite(modulo)) {
+            double passo = Math.min(modulo, temperatura) / modulo;
+            px += fx * passo;
+            py += fy * passo;
+        }
+        novoX[i] = px;
+        novoY[i] = py;
+    }
+
+    /**
+     * Monta as listas de vizinhos sem direção (cada conexão vale para as duas pontas) no
+     * formato CSR: os vizinhos de i ficam em vizinhos[inicio[i] .. inicio[i + 1]).
+     * @return {inicio, vizinhos}.
+     */
+    private static int[][] vizinhanca(int n, int[] origens, int[] destinos, int numConexoes) {
+        int[] inicio = new int[n + 1];
+        for (int k = 0; k < numConexoes; k++) {
+            if (origens[k] == destinos[k]) continue; // Laços não puxam nada
+            inicio[origens[k] + 1]++;
+            inicio[destinos[k] + 1]++;
+        }
+        for (int i = 0; i < n; i++) inicio[i + 1] += inicio[i];
+        int[] proximo = Arrays.copyOf(inicio, n);
+        int[] vizinhos = new int[inicio[n]];
+        for (int k = 0; k < numConexoes; k++) {
+            int o = origens[k], d = destinos[k];
+            if (o == d) continue;
+            vizinhos[proximo[o]++] = d;
+            vizinhos[proximo[d]++] = o;
+        }
+        return new int[][]{inicio, vizinhos};
+    }
+
+    /**
+     * Posições de partida: as do layout anterior para os IDs que estão nele; os demais
+     * ficam perto dos vizinhos já posicionados ou, sem nenhum, em um ponto sorteado
+     * (com semente fixa, para o mesmo grafo gerar sempre o mesmo layout).
+     * @return A quantidade de pontos que vieram do layout anterior.
+     */
+    private static int posicoesIniciais(int[] ids, int[] inicio, int[] vizinhos, LayoutGrafo inicial,
+                                        double[] x, double[] y) {
+        int n = ids.length;
+        boolean[] posicionado = new boolean[n];
+        int aproveitados = 0;
+        if (inicial != null) {
+            MapaIdIndice anteriores = new MapaIdIndice(inicial.tamanho());
+            for (int i = 0; i < inicial.tamanho(); i++) anteriores.colocar(inicial.id(i), i);
+            for (int i = 0; i < n; i++) {
+                int a = anteriores.obter(ids[i]);
+                if (a < 0) continue;
+                x[i] = inicial.x(a);
+                y[i] = inicial.y(a);
+                posicionado[i] = true;
+                aproveitados++;
+            }
+        }
+        SplittableRandom aleatorio = new SplittableRandom(42);
+        double lado = Math.sqrt(Math.max(1, n)) * K;
+        for (int i = 0; i < n; i++) {
+            if (posicionado[i]) continue;
+            double somaX = 0, somaY = 0;
+            int contagem = 0;
+            for (int v = inicio[i]; v < inicio[i + 1]; v++) {
+                if (!posicionado[vizinhos[v]]) continue;
+                somaX += x[vizinhos[v]];
+                somaY += y[vizinhos[v]];
+                contagem++;
+            }
+            if (contagem > 0) {
+                // Perto do centro dos vizinhos, com um desvio para não coincidir com eles
+                x[i] = somaX / contagem + (aleatorio.nextDouble() - 0.5) * K;
+                y[i] = somaY / contagem + (aleatorio.nextDouble() - 0.5) * K;
+            } else {
+                x[i] = (aleatorio.nextDouble() - 0.5) * lado;
+                y[i] = (aleatorio.nextDouble() - 0.5) * lado;
+            }
+            posicionado[i] = true;
+        }
+        return aproveitados;
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 3) {
+            System.err.println("Uso: java LayoutForcas arquivoPontos arquivoConexoes arquivoLayout [iteracoes]");
+            System.exit(1);
+        }
+        int iteracoes = args.length > 3 ? Integer.parseInt(args[3]) : ITERACOES_PADRAO;
+
+        long inicio = System.nanoTime();
+        GrafoColetaReciclaveis grafo = new GrafoColetaReciclaveis();
+        RelatorioCarga rel = grafo.carregarPontosDeColeta(args[0]);
+        if (!rel.semErros()) System.err.print(rel.descreverErros(10));
+        rel = grafo.carregarConexoes(args[1]);
+        if (!rel.semErros()) System.err.print(rel.descreverErros(10));
+        System.err.printf("Grafo carregado: %d pontos, %d conexões (%.1f s)%n", grafo.pontos.size(),
+                grafo.conexoes.size(), (System.nanoTime() - inicio) / 1e9);
+
+        inicio = System.nanoTime();
+        long inicioCalculo = inicio;
+        LayoutGrafo layout = new LayoutForcas(iteracoes, THETA_PADRAO, ForkJoinPool.commonPool())
+                .calcular(grafo, null, parcial -> System.err.printf("  iteração %d (%.1f s)%n",
+                        parcial.getIteracoes(), (System.nanoTime() - inicioCalculo) / 1e9));
+        layout.salvar(args[2]);
+        System.err.printf("Layout com %d iterações gravado em %s (%.1f s)%n", layout.getIteracoes(), args[2],
+                (System.nanoTime() - inicio) / 1e9);
+    }
+}
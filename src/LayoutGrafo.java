@@ -0,0 +1,148 @@
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Arrays;
+
+/**
+ * Coordenadas dos pontos calculadas pelo LayoutForcas (imutável). Guarda a versão do
+ * grafo para a qual foram calculadas (para o cache em memória, que vale enquanto o
+ * grafo não muda) e a assinatura do grafo (IDs e conexões), que identifica o mesmo
+ * grafo em outra execução: um layout pré-calculado em arquivo só é usado direto se a
+ * assinatura bater; senão, serve de ponto de partida.
+ *
+ * Formato do arquivo: a linha "ASSINATURA;valor" e depois uma linha "ID;X;Y" por ponto.
+ */
+public class LayoutGrafo {
+    private final long versao;
+    private final long assinatura;
+    private final int[] ids;
+    private final double[] x;
+    private final double[] y;
+    // Iterações já executadas e se o cálculo terminou (os layouts parciais têm 'concluido' false)
+    private final int iteracoes;
+    private final boolean concluido;
+
+    /**
+     * Construtor para criar uma instância de LayoutGrafo. Os vetores passam a pertencer ao layout.
+     * @param versao A versão do grafo do layout.
+     * @param assinatura A assinatura do grafo (ver LayoutForcas.assinatura).
+     * @param ids Os IDs dos pontos.
+     * @param x As coordenadas X, na ordem dos IDs.
+     * @param y As coordenadas Y, na ordem dos IDs.
+     * @param iteracoes As iterações executadas.
+     * @param concluido Se o cálculo terminou.
+     */
+    public LayoutGrafo(long versao, long assinatura, int[] ids, double[] x, double[] y, int iteracoes, boolean concluido) {
+        this.versao = versao;
+        this.assinatura = assinatura;
+        this.ids = ids;
+        this.x = x;
+        this.y = y;
+        this.iteracoes = iteracoes;
+        this.concluido = concluido;
+    }
+
+    public long getVersao() {
+        return versao;
+    }
+
+    public long getAssinatura() {
+        return assinatura;
+    }
+
+    public int getIteracoes() {
+        return iteracoes;
+    }
+
+    public boolean isConcluido() {
+        return concluido;
+    }
+
+    /**
+     * @return A quantidade de pontos.
+     */
+    public int tamanho() {
+        return ids.length;
+    }
+
+    public int id(int indice) {
+        return ids[indice];
+    }
+
+    public double x(int indice) {
+        return x[indice];
+    }
+
+    public double y(int indice) {
+        return y[indice];
+    }
+
+    /**
+     * @param versao A versão do grafo atribuída ao layout.
+     * @return Uma cópia deste layout com outra versão (ex.: um layout lido de arquivo
+     *         cuja assinatura bate com o grafo carregado).
+     */
+    public LayoutGrafo comVersao(long versao) {
+        return new LayoutGrafo(versao, assinatura, ids, x, y, iteracoes, concluido);
+    }
+
+    /**
+     * Grava o layout no formato de texto do sistema.
+     * @param arquivo O caminho do arquivo (sobrescrito).
+     * @throws IOException Se houver erro de escrita.
+     */
+    public void salvar(String arquivo) throws IOException {
+        try (BufferedWriter saida = Files.newBufferedWriter(Paths.get(arquivo), StandardCharsets.UTF_8)) {
+            saida.write("ASSINATURA;" + assinatura + "\n");
+            for (int i = 0; i < ids.length; i++) {
+                saida.write(ids[i] + ";" + (float) x[i] + ";" + (float) y[i] + "\n");
+            }
+        }
+    }
+
+    /**
+     * Lê um layout gravado por 'salvar'. A versão do layout lido é -1 (ainda não ligado a um grafo).
+     * @param arquivo O caminho do arquivo.
+     * @return O layout lido.
+     * @throws IOException Se houver erro de leitura ou o arquivo estiver em outro formato.
+     */
+    public static LayoutGrafo ler(String arquivo) throws IOException {
+        try (BufferedReader entrada = Files.newBufferedReader(Paths.get(arquivo), StandardCharsets.UTF_8)) {
+            String linha = entrada.readLine();
+            if (linha == null || !linha.startsWith("ASSINATURA;")) {
+                throw new IOException("Arquivo de layout inválido: " + arquivo);
+            }
+            long assinatura;
+            int n = 0;
+            int[] ids = new int[1024];
+            double[] x = new double[1024], y = new double[1024];
+            try {
+                assinatura = Long.parseLong(linha.substring("ASSINATURA;".length()).trim());
+                long numeroLinha = 1;
+                while ((linha = entrada.readLine()) != null) {
+                    numeroLinha++;
+                    if (linha.isBlank()) continue;
+                    String[] campos = linha.split(";");
+                    if (campos.length != 3) {
+                        throw new IOException("Linha " + numeroLinha + " do layout inválida: " + linha);
+                    }
+                    if (n == ids.length) {
+                        ids = Arrays.copyOf(ids, n * 2);
+                        x = Arrays.copyOf(x, n * 2);
+                        y = Arrays.copyOf(y, n * 2);
+                    }
+                    ids[n] = Integer.parseInt(campos[0].trim());
+                    x[n] = Double.parseDouble(campos[1].trim());
+                    y[n++] = Double.parseDouble(campos[2].trim());
+                }
+            } catch (NumberFormatException e) {
+                throw new IOException("Número inválido no layout: " + e.getMessage(), e);
+            }
+            return new LayoutGrafo(-1, assinatura, Arrays.copyOf(ids, n), Arrays.copyOf(x, n), Arrays.copyOf(y, n),
+                    0, true);
+        }
+    }
+}
@@ -0,0 +1,135 @@
+import java.util.Arrays;
+
+/**
+ * Mapa primitivo de ID de ponto (int) para índice denso de vértice (int).
+ * Usa endereçamento aberto com sondagem linear, evitando o boxing de Integer
+ * e os nós encadeados de um HashMap<Integer, Integer>.
+ */
+public class MapaIdIndice {
+    // Marca de posição livre na tabela de chaves
+    private static final int LIVRE = Integer.MIN_VALUE;
+
+    // Tabela de chaves (IDs) e valores (índices); o tamanho é sempre potência de 2
+    private int[] chaves;
+    private int[] valores;
+    // Quantidade de pares armazenados
+    private int tamanho;
+
+    /**
+     * Cria um mapa dimensionado para a quantidade esperada de elementos.
+     * @param capacidadeEsperada Número aproximado de IDs que serão inseridos.
+     */
+    public MapaIdIndice(int capacidadeEsperada) {
+        // Mantém o fator de carga abaixo de 0,5 para sondagens curtas
+        int capacidade = Integer.highestOneBit(Math.max(4, capacidadeEsperada * 2 - 1)) << 1;
+        chaves = new int[capacidade];
+        valores = new int[capacidade];
+        Arrays.fill(chaves, LIVRE);
+    }
+
+    /**
+     * Espalha os bits do ID para distribuir IDs sequenciais pela tabela.
+     * @param id O ID do ponto.
+     * @return A posição inicial de sondagem.
+     */
+    private int posicao(int id) {
+        int h = id * 0x9E3779B9;
+        return (h ^ (h >>> 16)) & (chaves.length - 1);
+    }
+
+    /**
+     * Associa um ID a um índice, substituindo o valor anterior se já existir.
+     * @param id O ID do ponto (não pode ser Integer.MIN_VALUE).
+     * @param indice O índice denso do vértice.
+     */
+    public void colocar(int id, int indice) {
+        if (id == LIVRE) throw new IllegalArgumentException("ID reservado: " + id);
+        // Cresce a tabela antes de ultrapassar o fator de carga
+        if ((tamanho + 1) * 2 > chaves.length) redimensionar(chaves.length << 1);
+
+        int mascara = chaves.length - 1;
+        int p = posicao(id);
+        while (chaves[p] != LIVRE) {
+            if (chaves[p] == id) {
+                valores[p] = indice;
+                return;
+            }
+            p = (p + 1) & mascara;
+        }
+        chaves[p] = id;
+        valores[p] = indice;
+        tamanho++;
+    }
+
+    /**
+     * Obtém o índice associado a um ID.
+     * @param id O ID do ponto.
+     * @return O índice do vértice, ou -1 se o ID não estiver no mapa.
+     */
+    public int obter(int id) {
+        int mascara = chaves.length - 1;
+        int p = posicao(id);
+        while (chaves[p] != LIVRE) {
+            if (chaves[p] == id) return valores[p];
+            p = (p + 1) & mascara;
+        }
+        return -1;
+    }
+
+    /**
+     * Remove um ID do mapa, reorganizando a sequência de sondagem seguinte
+     * para que as buscas continuem corretas (remoção sem lápides).
+     * @param id O ID a remover.
+     * @return O índice que estava associado, ou -1 se não existia.
+     */
+    public int remover(int id) {
+        int mascara = chaves.length - 1;
+        int p = posicao(id);
+        while (chaves[p] != LIVRE) {
+            if (chaves[p] == id) {
+                int removido = valores[p];
+                // Desloca para trás os elementos que dependiam desta posição
+                int livre = p;
+                int q = (p + 1) & mascara;
+                while (chaves[q] != LIVRE) {
+                    int ideal = posicao(chaves[q]);
+                    // Move o elemento se a posição livre estiver entre a ideal e a atual (circularmente)
+                    if (((q - ideal) & mascara) >= ((q - livre) & mascara)) {
+                        chaves[livre] = chaves[q];
+                        valores[livre] = valores[q];
+                        livre = q;
+                    }
+                    q = (q + 1) & mascara;
+                }
+                chaves[livre] = LIVRE;
+                tamanho--;
+                return removido;
+            }
+            p = (p + 1) & mascara;
+        }
+        return -1;
+    }
+
+    /**
+     * @return A quantidade de IDs armazenados.
+     */
+    public int tamanho() {
+        return tamanho;
+    }
+
+    /**
+     * Recria a tabela com uma nova capacidade, reinserindo todos os pares.
+     * @param novaCapacidade A nova capacidade (potência de 2).
+     */
+    private void redimensionar(int novaCapacidade) {
+        int[] antigasChaves = chaves;
+        int[] antigosValores = valores;
+        chaves = new int[novaCapacidade];
+        valores = new int[novaCapacidade];
+        Arrays.fill(chaves, LIVRE);
+        tamanho = 0;
+        for (int i = 0; i < antigasChaves.length; i++) {
+            if (antigasChaves[i] != LIVRE) colocar(antigasChaves[i], antigosValores[i]);
+        }
+    }
+}
@@ -0,0 +1,168 @@
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * Matriz de menores distâncias (em metros) entre todos os pares de pontos.
+ * Os valores ficam em um único vetor plano 'int[]' de tamanho n², linha por linha,
+ * na ordem dos índices densos da adjacência (GrafoColetaReciclaveis.getIdsDosVertices()),
+ * que deixa de coincidir com a ordem de 'pontos' depois da primeira exclusão de ponto.
+ * Use id(i) ou distancia(idOrigem, idDestino) em vez de supor uma ordem.
+ */
+public class MatrizDistancias {
+    // Distância entre pares sem caminho
+    public static final int INFINITO = BuscaCaminhos.INFINITO;
+    // Lado dos blocos do Floyd-Warshall: 64 x 64 ints = 16 KB, cabe no cache L1/L2
+    private static final int BLOCO = 64;
+    // Infinito interno do Floyd-Warshall: a soma de dois valores nunca estoura um int
+    private static final int INFINITO_INTERNO = Integer.MAX_VALUE / 2;
+
+    // Número de pontos (lado da matriz)
+    private final int n;
+    // Índice da linha/coluna -> ID do ponto
+    private final int[] ids;
+    // ID do ponto -> índice da linha/coluna
+    private final MapaIdIndice indicePorId;
+    // distancias[i * n + j] = menor distância do ponto i ao ponto j
+    private final int[] distancias;
+
+    private MatrizDistancias(int n, int[] ids, int[] distancias) {
+        this.n = n;
+        this.ids = ids;
+        this.distancias = distancias;
+        this.indicePorId = new MapaIdIndice(n);
+        for (int i = 0; i < n; i++) indicePorId.colocar(ids[i], i);
+    }
+
+    /**
+     * Calcula a matriz de menores distâncias entre todos os pares de pontos.
+     * @param adj A adjacência do grafo (não pode ser alterada durante o cálculo).
+     * @param motor O algoritmo a usar.
+     * @param pool O pool de threads usado para paralelizar o cálculo.
+     * @return A matriz calculada.
+     * @throws IllegalStateException Se a matriz tiver mais que GrafoColetaReciclaveis.LIMITE_MATRIZ_DENSA células.
+     */
+    public static MatrizDistancias calcular(AdjacenciaCSR adj, MotorDistancias motor, ForkJoinPool pool) {
+        int n = adj.numVertices();
+        // Mesmo limite das matrizes densas: acima dele o vetor n² não caberia na memória
+        long limite = GrafoColetaReciclaveis.LIMITE_MATRIZ_DENSA;
+        if ((long) n * n > limite) {
+            throw new IllegalStateException(String.format(
+                    "Grafo grande demais para a matriz completa de distâncias: %d pontos (limite de %d células); "
+                            + "use a tabela de distâncias entre origens e destinos", n, limite));
+        }
+        int[] ids = Arrays.copyOf(adj.ids, n);
+        int[] d = new int[n * n];
+
+        if (motor == MotorDistancias.AUTOMATICO) {
+            // Floyd-Warshall compensa quando há pelo menos ~n/8 arestas por vértice
+            motor = (long) adj.numArestas() * 8 >= (long) n * n ? MotorDistancias.FLOYD_WARSHALL
+                    : MotorDistancias.DIJKSTRA_PARALELO;
+        }
+        if (motor == MotorDistancias.FLOYD_WARSHALL) {
+            floydWarshallEmBlocos(adj, d, n, pool);
+        } else {
+            // Cada origem preenche a própria linha; o espaço de trabalho é por thread
+            pool.submit(() -> IntStream.range(0, n).parallel()
+                    .forEach(s -> BuscaCaminhos.distanciasAPartirDe(adj, s, false, d, s * n))).join();
+        }
+        return new MatrizDistancias(n, ids, d);
+    }
+
+    /**
+     * Floyd-Warshall em blocos. Para cada bloco k da diagonal: (1) atualiza o bloco
+     * diagonal, (2) a linha e a coluna de blocos k, em paralelo, e (3) todos os demais
+     * blocos, em paralelo. Cada atualização de bloco reusa dados que cabem no cache.
+     */
+    private static void floydWarshallEmBlocos(AdjacenciaCSR adj, int[] d, int n, ForkJoinPool pool) {
+        // Inicialização: infinito, zero na diagonal e a menor conexão direta entre cada par
+        Arrays.fill(d, INFINITO_INTERNO);
+        SegmentosAdjacencia saida = adj.saida;
+        for (int i = 0; i < n; i++) {
+            d[i * n + i] = 0;
+            for (int k = saida.inicio[i], f = k + saida.grau[i]; k < f; k++) {
+                int pos = i * n + saida.vizinhos[k];
+                d[pos] = Math.min(d[pos], Math.min(saida.pesos[k], INFINITO_INTERNO));
+            }
+        }
+
+        int nb = (n + BLOCO - 1) / BLOCO;
+        for (int kb = 0; kb < nb; kb++) {
+            final int k = kb;
+            atualizarBloco(d, n, k, k, k);
+            pool.submit(() -> IntStream.range(0, nb).parallel().forEach(b -> {
+                if (b == k) return;
+                atualizarBloco(d, n, k, b, k);
+                atualizarBloco(d, n, b, k, k);
+            })).join();
+            pool.submit(() -> IntStream.range(0, nb * nb).parallel().forEach(x -> {
+                int ib = x / nb, jb = x % nb;
+                if (ib != k && jb != k) atualizarBloco(d, n, ib, jb, k);
+            })).join();
+        }
+
+        // Converte o infinito interno para o valor público
+        for (int i = 0; i < d.length; i++) {
+            if (d[i] >= INFINITO_INTERNO) d[i] = INFINITO;
+        }
+    }
+
+    /**
+     * Relaxa o bloco (ib, jb) usando os vértices intermediários do bloco kb.
+     */
+    private static void atualizarBloco(int[] d, int n, int ib, int jb, int kb) {
+        int kFim = Math.min(n, (kb + 1) * BLOCO);
+        int iFim = Math.min(n, (ib + 1) * BLOCO);
+        int jIni = jb * BLOCO, jFim = Math.min(n, jIni + BLOCO);
+        for (int k = kb * BLOCO; k < kFim; k++) {
+            int linhaK = k * n;
+            for (int i = ib * BLOCO; i < iFim; i++) {
+                int linhaI = i * n;
+                int dik = d[linhaI + k];
+                if (dik >= INFINITO_INTERNO) continue;
+                for (int j = jIni; j < jFim; j++) {
+                    int v = dik + d[linhaK + j];
+                    if (v < d[linhaI + j]) d[linhaI + j] = v;
+                }
+            }
+        }
+    }
+
+    /**
+     * @return O número de pontos (lado da matriz).
+     */
+    public int tamanho() {
+        return n;
+    }
+
+    /**
+     * @param i O índice da linha/coluna.
+     * @return O ID do ponto correspondente.
+     */
+    public int id(int i) {
+        return ids[i];
+    }
+
+    /**
+     * @param i O índice da origem.
+     * @param j O índice do destino.
+     * @return A menor distância de i a j, ou INFINITO se não houver caminho.
+     */
+    public int get(int i, int j) {
+        return distancias[i * n + j];
+    }
+
+    /**
+     * Consulta a menor distância entre dois pontos pelos seus IDs.
+     * @param idOrigem O ID do ponto de origem.
+     * @param idDestino O ID do ponto de destino.
+     * @return A distância em metros, ou -1 se não houver caminho ou algum ID for desconhecido.
+     */
+    public int distancia(int idOrigem, int idDestino) {
+        int i = indicePorId.obter(idOrigem);
+        int j = indicePorId.obter(idDestino);
+        if (i < 0 || j < 0) return -1;
+        int d = get(i, j);
+        return d == INFINITO ? -1 : d;
+    }
+}
@@ -0,0 +1,213 @@
+import java.util.Arrays;
+
+/**
+ * Matriz esparsa de inteiros no formato CSR (Compressed Sparse Row).
+ * Só as células não nulas são armazenadas: as da linha 'i' ocupam as posições
+ * [inicioLinha[i], inicioLinha[i+1]) de 'colunasIdx' e 'valores', com as colunas
+ * em ordem crescente, o que permite get(i, j) por busca binária.
+ * Para percorrer colunas, uma cópia transposta (CSC) é criada sob demanda.
+ */
+public class MatrizEsparsa {
+
+    /**
+     * Recebe as células não nulas durante a iteração de uma linha ou coluna.
+     */
+    @FunctionalInterface
+    public interface VisitanteCelula {
+        void visitar(int linha, int coluna, int valor);
+    }
+
+    // Dimensões da matriz
+    private final int linhas;
+    private final int colunas;
+    // Formato CSR
+    private final int[] inicioLinha;
+    private final int[] colunasIdx;
+    private final int[] valores;
+    // Formato CSC (transposto), criado na primeira iteração por coluna
+    private volatile int[] inicioColuna;
+    private int[] linhasIdx;
+    private int[] valoresColuna;
+
+    private MatrizEsparsa(int linhas, int colunas, int[] inicioLinha, int[] colunasIdx, int[] valores) {
+        this.linhas = linhas;
+        this.colunas = colunas;
+        this.inicioLinha = inicioLinha;
+        this.colunasIdx = colunasIdx;
+        this.valores = valores;
+    }
+
+    /**
+     * Constrói a matriz a partir de coordenadas (formato COO) em O(linhas + colunas + nnz),
+     * com duas ordenações por contagem estáveis: por coluna e depois por linha.
+     * Células repetidas ficam com o último valor informado; valores 0 são descartados.
+     * @param linhas O número de linhas.
+     * @param colunas O número de colunas.
+     * @param i A linha de cada célula.
+     * @param j A coluna de cada célula.
+     * @param v O valor de cada célula.
+     * @param nnz A quantidade de células informadas nos vetores.
+     * @return A matriz esparsa.
+     */
+    public static MatrizEsparsa deCoordenadas(int linhas, int colunas, int[] i, int[] j, int[] v, int nnz) {
+        // 1ª ordenação (estável) por coluna
+        int[] porColuna = ordenarPorContagem(j, colunas, nnz, null);
+        // 2ª ordenação (estável) por linha: dentro de cada linha as colunas ficam crescentes
+        int[] ordem = ordenarPorContagem(i, linhas, nnz, porColuna);
+
+        int[] inicioLinha = new int[linhas + 1];
+        int[] colunasIdx = new int[nnz];
+        int[] valores = new int[nnz];
+        int m = 0;
+        for (int p = 0; p < nnz; p++) {
+            int e = ordem[p];
+            // Célula repetida: como a ordenação é estável, a última ocorrência prevalece
+            if (m > 0 && p > 0 && i[ordem[p - 1]] == i[e] && colunasIdx[m - 1] == j[e]) {
+                valores[m - 1] = v[e];
+                continue;
+            }
+            colunasIdx[m] = j[e];
+            valores[m] = v[e];
+            inicioLinha[i[e] + 1]++;
+            m++;
+        }
+        // Remove as células que terminaram com valor 0
+        int escrita = 0, lidas = 0;
+        for (int r = 0; r < linhas; r++) {
+            int fim = lidas + inicioLinha[r + 1];
+            int mantidas = 0;
+            for (; lidas < fim; lidas++) {
+                if (valores[lidas] == 0) continue;
+                colunasIdx[escrita] = colunasIdx[lidas];
+                valores[escrita++] = valores[lidas];
+                mantidas++;
+            }
+            inicioLinha[r + 1] = inicioLinha[r] + mantidas;
+        }
+        return new MatrizEsparsa(linhas, colunas, inicioLinha,
+                Arrays.copyOf(colunasIdx, escrita), Arrays.copyOf(valores, escrita));
+    }
+
+    /**
+     * Ordenação por contagem estável das posições 0..nnz-1 pela chave indicada.
+     * @param chave A chave de cada posição.
+     * @param faixa O número de chaves distintas possíveis.
+     * @param nnz A quantidade de posições.
+     * @param entrada A ordem de entrada (null = 0..nnz-1).
+     * @return As posições ordenadas pela chave.
+     */
+    private static int[] ordenarPorContagem(int[] chave, int faixa, int nnz, int[] entrada) {
+        int[] inicio = new int[faixa + 1];
+        for (int p = 0; p < nnz; p++) inicio[chave[p] + 1]++;
+        for (int k = 0; k < faixa; k++) inicio[k + 1] += inicio[k];
+        int[] saida = new int[nnz];
+        for (int p = 0; p < nnz; p++) {
+            int e = entrada == null ? p : entrada[p];
+            saida[inicio[chave[e]]++] = e;
+        }
+        return saida;
+    }
+
+    /**
+     * @return O número de linhas.
+     */
+    public int getLinhas() {
+        return linhas;
+    }
+
+    /**
+     * @return O número de colunas.
+     */
+    public int getColunas() {
+        return colunas;
+    }
+
+    /**
+     * @return A quantidade de células não nulas armazenadas.
+     */
+    public int numNaoNulos() {
+        return valores.length;
+    }
+
+    /**
+     * Consulta uma célula por busca binária nas colunas da linha. Custo O(log grau).
+     * @param i A linha.
+     * @param j A coluna.
+     * @return O valor da célula (0 se não estiver armazenada).
+     */
+    public int get(int i, int j) {
+        int baixo = inicioLinha[i], alto = inicioLinha[i + 1] - 1;
+        while (baixo <= alto) {
+            int meio = (baixo + alto) >>> 1;
+            int c = colunasIdx[meio];
+            if (c < j) baixo = meio + 1;
+            else if (c > j) alto = meio - 1;
+            else return valores[meio];
+        }
+        return 0;
+    }
+
+    /**
+     * Percorre as células não nulas de uma linha, em ordem crescente de coluna.
+     * @param i A linha.
+     * @param visitante Recebe cada célula.
+     */
+    public void percorrerLinha(int i, VisitanteCelula visitante) {
+        for (int p = inicioLinha[i]; p < inicioLinha[i + 1]; p++) visitante.visitar(i, colunasIdx[p], valores[p]);
+    }
+
+    /**
+     * Percorre as células não nulas de uma coluna, em ordem crescente de linha.
+     * Na primeira chamada, cria a transposta (CSC) em O(linhas + colunas + nnz).
+     * @param j A coluna.
+     * @param visitante Recebe cada célula.
+     */
+    public void percorrerColuna(int j, VisitanteCelula visitante) {
+        if (inicioColuna == null) transpor();
+        for (int p = inicioColuna[j]; p < inicioColuna[j + 1]; p++) visitante.visitar(linhasIdx[p], j, valoresColuna[p]);
+    }
+
+    /**
+     * Cria a representação por colunas (CSC) a partir do CSR.
+     */
+    private synchronized void transpor() {
+        if (inicioColuna != null) return;
+        int nnz = valores.length;
+        int[] inicio = new int[colunas + 1];
+        for (int p = 0; p < nnz; p++) inicio[colunasIdx[p] + 1]++;
+        for (int k = 0; k < colunas; k++) inicio[k + 1] += inicio[k];
+        int[] proxima = Arrays.copyOf(inicio, colunas);
+        int[] idx = new int[nnz];
+        int[] vals = new int[nnz];
+        // Percorrer as linhas em ordem garante linhas crescentes dentro de cada coluna
+        for (int i = 0; i < linhas; i++) {
+            for (int p = inicioLinha[i]; p < inicioLinha[i + 1]; p++) {
+                int k = proxima[colunasIdx[p]]++;
+                idx[k] = i;
+                vals[k] = valores[p];
+            }
+        }
+        linhasIdx = idx;
+        valoresColuna = vals;
+        inicioColuna = inicio;
+    }
+
+    /**
+     * Converte para uma matriz densa, apenas se o número de células não passar do limite.
+     * @param limiteCelulas O maior número de células (linhas x colunas) aceito.
+     * @return A matriz densa.
+     * @throws IllegalStateException Se a matriz densa for maior que o limite.
+     */
+    public int[][] paraDensa(long limiteCelulas) {
+        if ((long) linhas * colunas > limiteCelulas) {
+            throw new IllegalStateException(String.format(
+                    "Matriz %d x %d grande demais para a forma densa (limite de %d células); use a forma esparsa",
+                    linhas, colunas, limiteCelulas));
+        }
+        int[][] densa = new int[linhas][colunas];
+        for (int i = 0; i < linhas; i++) {
+            for (int p = inicioLinha[i]; p < inicioLinha[i + 1]; p++) densa[i][colunasIdx[p]] = valores[p];
+        }
+        return densa;
+    }
+}
@@ -0,0 +1,148 @@
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Métricas de operação do grafo: um contador e um histograma de latência por
+ * OperacaoGrafo, e medidores (vértices, arestas, memória dos índices...).
+ *
+ * As métricas ficam desligadas por padrão: o grafo, a BST e a Trie guardam uma
+ * referência nula e, nas operações medidas, o único custo é testar essa referência.
+ * Ligadas (GrafoColetaReciclaveis.ativarMetricas), cada operação custa duas leituras
+ * de System.nanoTime() e alguns incrementos em contadores sem travas, e várias threads
+ * podem registrar ao mesmo tempo (ex.: as versões de um GrafoConcorrente, que
+ * compartilham as métricas do grafo de origem).
+ *
+ * Os valores são acumulados desde a criação e entregues aos publicadores
+ * (PublicadorLog, PublicadorCsv, PublicadorJmx) por publicar(...) ou periodicamente.
+ */
+public class MetricasGrafo {
+    private static final Logger LOG = Logger.getLogger(MetricasGrafo.class.getName());
+    private static final OperacaoGrafo[] OPERACOES = OperacaoGrafo.values();
+
+    // Um histograma por operação, no índice do ordinal
+    private final HistogramaLatencia[] histogramas = new HistogramaLatencia[OPERACOES.length];
+    // Medidores lidos a cada instantâneo (escritos sob a trava do próprio mapa)
+    private final Map<String, LongSupplier> medidores = new LinkedHashMap<>();
+
+    /**
+     * Cria um conjunto de métricas zerado.
+     */
+    public MetricasGrafo() {
+        for (int i = 0; i < histogramas.length; i++) histogramas[i] = new HistogramaLatencia();
+    }
+
+    /**
+     * Início de uma medição; use com registrar(operacao, inicio).
+     * @param metricas As métricas ativas, ou null se desligadas.
+     * @return System.nanoTime(), ou 0 se as métricas estão desligadas (sem ler o relógio).
+     */
+    static long iniciar(MetricasGrafo metricas) {
+        return metricas == null ? 0 : System.nanoTime();
+    }
+
+    /**
+     * Registra uma execução da operação, do instante 'inicio' até agora.
+     * @param operacao A operação executada.
+     * @param inicio O valor de System.nanoTime() (ou de iniciar) no começo da operação.
+     */
+    public void registrar(OperacaoGrafo operacao, long inicio) {
+        histogramas[operacao.ordinal()].registrar(System.nanoTime() - inicio);
+    }
+
+    /**
+     * Registra uma execução da operação com a duração informada.
+     * @param operacao A operação executada.
+     * @param nanos A duração, em nanossegundos.
+     */
+    public void registrarDuracao(OperacaoGrafo operacao, long nanos) {
+        histogramas[operacao.ordinal()].registrar(nanos);
+    }
+
+    /**
+     * @param operacao A operação.
+     * @return O histograma de latência da operação.
+     */
+    public HistogramaLatencia histograma(OperacaoGrafo operacao) {
+        return histogramas[operacao.ordinal()];
+    }
+
+    /**
+     * Define (ou substitui) um medidor, lido a cada instantâneo na thread de quem publica.
+     * A leitura não deve alterar nada nem depender de travas do grafo.
+     * @param nome O nome do medidor (ex.: "vertices").
+     * @param leitura A função que lê o valor atual.
+     */
+    public void definirMedidor(String nome, LongSupplier leitura) {
+        synchronized (medidores) {
+            medidores.put(nome, leitura);
+        }
+    }
+
+    /**
+     * Lê todas as métricas. Não interrompe os registros em andamento.
+     * @return O instantâneo, só com as operações executadas ao menos uma vez.
+     */
+    public InstantaneoMetricas instantaneo() {
+        List<ResumoLatencia> operacoes = new ArrayList<>();
+        for (OperacaoGrafo op : OPERACOES) {
+            if (histogramas[op.ordinal()].getContagem() > 0) operacoes.add(histogramas[op.ordinal()].resumir(op));
+        }
+        Map<String, Long> valores = new LinkedHashMap<>();
+        synchronized (medidores) {
+            for (Map.Entry<String, LongSupplier> m : medidores.entrySet()) {
+                valores.put(m.getKey(), m.getValue().getAsLong());
+            }
+        }
+        return new InstantaneoMetricas(System.currentTimeMillis(), Collections.unmodifiableList(operacoes),
+                Collections.unmodifiableMap(valores));
+    }
+
+    /**
+     * Entrega um instantâneo ao publicador.
+     * @param publicador O destino das métricas.
+     * @throws IOException Se o publicador falhar ao gravar.
+     */
+    public void publicar(PublicadorMetricas publicador) throws IOException {
+        publicador.publicar(instantaneo());
+    }
+
+    /**
+     * Publica um instantâneo a cada período, em uma thread daemon própria.
+     * Falhas do publicador são registradas no log e não interrompem as publicações.
+     * @param publicador O destino das métricas.
+     * @param periodo O intervalo entre publicações.
+     * @param unidade A unidade do intervalo.
+     * @return Um AutoCloseable que encerra as publicações, com uma última publicação final.
+     */
+    public AutoCloseable publicarPeriodicamente(PublicadorMetricas publicador, long periodo, TimeUnit unidade) {
+        ScheduledExecutorService agendador = Executors.newSingleThreadScheduledExecutor(tarefa -> {
+            Thread t = new Thread(tarefa, "publicador-metricas");
+            t.setDaemon(true);
+            return t;
+        });
+        Runnable publicacao = () -> {
+            try {
+                publicar(publicador);
+            } catch (IOException | RuntimeException e) {
+                LOG.log(Level.WARNING, "Falha ao publicar as métricas", e);
+            }
+        };
+        agendador.scheduleAtFixedRate(publicacao, periodo, periodo, unidade);
+        return () -> {
+            // shutdown cancela as próximas execuções, mas deixa a atual terminar
+            agendador.shutdown();
+            agendador.awaitTermination(periodo, unidade);
+            publicacao.run();
+        };
+    }
+}
@@ -0,0 +1,113 @@
+import javax.swing.table.AbstractTableModel;
+import java.util.List;
+import java.util.function.IntFunction;
+
+/**
+ * Modelo de tabela (JTable) que lê as células de uma matriz sob demanda, em vez de
+ * copiá-la para um Object[][] e um String[] de cabeçalhos: a tabela só pede as células
+ * e os nomes das colunas que estão na tela, então abrir a matriz de um grafo grande
+ * não aloca nada proporcional ao tamanho dela. Use com TabelaMatriz, que também não
+ * cria um objeto por coluna.
+ *
+ * A coluna 0 é o rótulo da linha (o ID do ponto); as demais são as colunas da matriz.
+ */
+public class ModeloTabelaMatriz extends AbstractTableModel {
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Lê uma célula da matriz (linha e coluna da matriz, sem a coluna de rótulos).
+     */
+    @FunctionalInterface
+    public interface LeitorCelula {
+        Object valor(int linha, int coluna);
+    }
+
+    private final int numLinhas;
+    private final int numColunas;
+    // Cabeçalho da coluna de rótulos
+    private final String canto;
+    private final IntFunction<Object> rotuloLinha;
+    private final IntFunction<String> nomeColuna;
+    private final LeitorCelula celula;
+
+    /**
+     * Construtor para criar uma instância de ModeloTabelaMatriz.
+     * @param numLinhas As linhas da matriz.
+     * @param numColunas As colunas da matriz (sem a coluna de rótulos).
+     * @param canto O cabeçalho da coluna de rótulos.
+     * @param rotuloLinha O rótulo de cada linha, calculado quando ela aparece.
+     * @param nomeColuna O cabeçalho de cada coluna da matriz, calculado quando ela aparece.
+     * @param celula A leitura das células.
+     */
+    public ModeloTabelaMatriz(int numLinhas, int numColunas, String canto, IntFunction<Object> rotuloLinha,
+                              IntFunction<String> nomeColuna, LeitorCelula celula) {
+        this.numLinhas = numLinhas;
+        this.numColunas = numColunas;
+        this.canto = canto;
+        this.rotuloLinha = rotuloLinha;
+        this.nomeColuna = nomeColuna;
+        this.celula = celula;
+    }
+
+    /**
+     * Matriz de Adjacência: linhas e colunas são os pontos, na ordem dos índices densos.
+     * @param matriz A matriz esparsa (ver GrafoColetaReciclaveis.gerarMatrizAdjacenciaEsparsa).
+     * @param grafo O grafo da matriz, para os IDs dos pontos (não pode mudar enquanto a tabela é exibida).
+     * @return O modelo.
+     */
+    public static ModeloTabelaMatriz adjacencia(MatrizEsparsa matriz, GrafoColetaReciclaveis grafo) {
+        return new ModeloTabelaMatriz(matriz.getLinhas(), matriz.getColunas(), "ID \\ ID", grafo::idDoVertice,
+                j -> String.valueOf(grafo.idDoVertice(j)), matriz::get);
+    }
+
+    /**
+     * Matriz de Incidência: linhas são os pontos e colunas as conexões, numeradas a partir de 1.
+     * @param matriz A matriz esparsa (ver GrafoColetaReciclaveis.gerarMatrizIncidenciaEsparsa).
+     * @param grafo O grafo da matriz, para os IDs dos pontos e as conexões (não pode mudar
+     *              enquanto a tabela é exibida).
+     * @return O modelo.
+     */
+    public static ModeloTabelaMatriz incidencia(MatrizEsparsa matriz, GrafoColetaReciclaveis grafo) {
+        List<Conexao> conexoes = grafo.conexoes;
+        return new ModeloTabelaMatriz(matriz.getLinhas(), matriz.getColunas(), "Ponto \\ Conexão", grafo::idDoVertice,
+                j -> {
+                    // Exibe o número da Conexão (1-based) e sua descrição
+                    Conexao c = conexoes.get(j);
+                    return String.format("%d (ID%d->ID%d)", j + 1, c.origem, c.destino);
+                }, matriz::get);
+    }
+
+    /**
+     * Menores distâncias entre todos os pares; pares sem caminho aparecem como "-".
+     * @param distancias A matriz de distâncias.
+     * @return O modelo.
+     */
+    public static ModeloTabelaMatriz distancias(MatrizDistancias distancias) {
+        int n = distancias.tamanho();
+        return new ModeloTabelaMatriz(n, n, "ID \\ ID", distancias::id, j -> String.valueOf(distancias.id(j)),
+                (i, j) -> {
+                    int d = distancias.get(i, j);
+                    return d == MatrizDistancias.INFINITO ? "-" : (Object) d;
+                });
+    }
+
+    @Override
+    public int getRowCount() {
+        return numLinhas;
+    }
+
+    @Override
+    public int getColumnCount() {
+        return numColunas + 1;
+    }
+
+    @Override
+    public String getColumnName(int coluna) {
+        return coluna == 0 ? canto : nomeColuna.apply(coluna - 1);
+    }
+
+    @Override
+    public Object getValueAt(int linha, int coluna) {
+        return coluna == 0 ? rotuloLinha.apply(linha) : celula.valor(linha, coluna - 1);
+    }
+}
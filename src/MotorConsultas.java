@@ -0,0 +1,241 @@
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+
+/**
+ * Executa consultas (ver Consulta) sobre uma versão imutável do grafo e formata os
+ * resultados como registros de texto, um por linha, no formato dos arquivos de dados:
+ * "linha;TIPO;campo;campo...", onde 'linha' é a linha da consulta no arquivo de entrada.
+ * Consultas com vários resultados (prefixo, graus, matrizes...) geram um registro por
+ * resultado, e as sem resultado geram "linha;TIPO;VAZIO". Consultas inválidas, e qualquer
+ * outra falha ao executar uma consulta, geram "linha;ERRO;mensagem" em vez de interromper o lote.
+ *
+ * Como a VersaoGrafo não muda, várias threads podem usar o mesmo motor ao mesmo tempo.
+ * É o motor do ProcessadorConsultas (execução sem interface gráfica); os valores
+ * padrão e os nomes exibidos são os mesmos da interface gráfica.
+ */
+public class MotorConsultas {
+    // Quantidade de pontos retornados pela busca por prefixo quando o limite não é informado
+    public static final int LIMITE_PREFIXO_PADRAO = 50;
+    // Quantidade de sugestões da busca aproximada quando o limite não é informado
+    public static final int LIMITE_APROXIMADO_PADRAO = 10;
+    // Tempo da otimização de rota quando o limite não é informado, em milissegundos
+    public static final long TEMPO_ROTA_PADRAO_MS = 1000;
+
+    private final VersaoGrafo versao;
+    // Executor das tabelas de distância e das buscas da rota, e quantas buscas a rota usa
+    private final Executor executor;
+    private final int numBuscasRota;
+    // Graus de todos os pontos, calculados na primeira consulta de grau (a versão não muda)
+    private volatile Map<Integer, Integer> graus;
+
+    /**
+     * Construtor para criar uma instância de MotorConsultas.
+     * @param versao A versão do grafo consultada.
+     * @param executor O executor usado dentro de uma consulta (tabelas de distância e rotas).
+     *                 Se as próprias consultas já rodam em paralelo, use Runnable::run.
+     * @param numBuscasRota A quantidade de buscas locais independentes por rota.
+     */
+    public MotorConsultas(VersaoGrafo versao, Executor executor, int numBuscasRota) {
+        this.versao = versao;
+        this.executor = executor;
+        this.numBuscasRota = numBuscasRota;
+    }
+
+    /**
+     * Distância de edição usada quando a busca aproximada não informa uma: até 1 erro a
+     * cada 4 caracteres, entre 1 e 3.
+     * @param nome O nome digitado.
+     * @return A distância máxima aceita.
+     */
+    public static int distanciaMaximaPadrao(String nome) {
+        return Math.max(1, Math.min(3, nome.length() / 4));
+    }
+
+    /**
+     * @param pontos Os pontos do grafo.
+     * @param id O ID de um ponto.
+     * @return O nome do ponto, ou "? (ID id)" se ele não existe.
+     */
+    public static String nomeDoPonto(Map<Integer, PontoColeta> pontos, int id) {
+        PontoColeta p = pontos.get(id);
+        return p != null ? p.nome : "? (ID " + id + ")";
+    }
+
+    /**
+     * Formata o registro de erro de uma linha do arquivo de consultas.
+     * @param linha O número da linha.
+     * @param mensagem A descrição do erro.
+     * @return O registro, terminado em quebra de linha.
+     */
+    public static String erro(long linha, String mensagem) {
+        // Uma mensagem com quebras de linha ocuparia mais de um registro
+        return linha + ";ERRO;" + mensagem.replace('\n', ' ').replace('\r', ' ') + "\n";
+    }
+
+    /**
+     * Executa uma consulta. Uma exceção durante a execução vira o registro de erro da
+     * própria consulta; as demais consultas do lote não são afetadas.
+     * @param consulta A consulta.
+     * @return Os registros do resultado, cada um terminado em quebra de linha.
+     */
+    public String executar(Consulta consulta) {
+        StringBuilder sb = new StringBuilder();
+        try {
+            switch (consulta.tipo) {
+                case CAMINHO: caminho(consulta, sb); break;
+                case NOME: nome(consulta, sb); break;
+                case PREFIXO: prefixo(consulta, sb); break;
+                case APROXIMADO: aproximado(consulta, sb); break;
+                case GRAU: grau(consulta, sb); break;
+                case GRAUS: graus(consulta, sb); break;
+                case ESTATISTICAS: estatisticas(consulta, sb); break;
+                case MATRIZ_ADJACENCIA: matrizAdjacencia(consulta, sb); break;
+                case MATRIZ_INCIDENCIA: matrizIncidencia(consulta, sb); break;
+                case DISTANCIAS: distancias(consulta, sb); break;
+                case ROTA: rota(consulta, sb); break;
+            }
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            // Argumentos inválidos ou resultado grande demais: só esta consulta falha
+            return erro(consulta.linha, e.getMessage() != null ? e.getMessage() : e.toString());
+        } catch (RuntimeException e) {
+            // Falha inesperada: registrada no resultado desta consulta, com o tipo da exceção
+            return erro(consulta.linha, "Falha interna: " + e);
+        }
+        if (sb.length() == 0) registro(sb, consulta).append("VAZIO\n");
+        return sb.toString();
+    }
+
+    /**
+     * Inicia um registro: "linha;TIPO;".
+     */
+    private static StringBuilder registro(StringBuilder sb, Consulta consulta) {
+        return sb.append(consulta.linha).append(';').append(consulta.tipo.name()).append(';');
+    }
+
+    private static void juntarIds(StringBuilder sb, List<Integer> ids) {
+        for (int i = 0; i < ids.size(); i++) {
+            if (i > 0) sb.append(',');
+            sb.append(ids.get(i));
+        }
+    }
+
+    // linha;CAMINHO;distancia;verticesAssentados;id,id,...
+    private void caminho(Consulta c, StringBuilder sb) {
+        int origem = c.inteiro(0, "ID de origem");
+        int destino = c.inteiro(1, "ID de destino");
+        EstrategiaBusca estrategia = c.temArgumento(2)
+                ? EstrategiaBusca.valueOf(c.argumentos[2].toUpperCase()) : EstrategiaBusca.DIJKSTRA;
+        ResultadoCaminho r = versao.encontrarCaminho(origem, destino, estrategia);
+        if (r == null) return;
+        registro(sb, c).append(r.getDistancia()).append(';').append(r.getVerticesAssentados()).append(';');
+        juntarIds(sb, r.getCaminho());
+        sb.append('\n');
+    }
+
+    // linha;NOME;id;nome
+    private void nome(Consulta c, StringBuilder sb) {
+        PontoColeta p = versao.buscarPorNome(c.argumentos[0]);
+        if (p != null) registro(sb, c).append(p.id).append(';').append(p.nome).append('\n');
+    }
+
+    // linha;PREFIXO;id;nome (um registro por ponto)
+    private void prefixo(Consulta c, StringBuilder sb) {
+        int limite = c.temArgumento(1) ? c.inteiro(1, "Limite") : LIMITE_PREFIXO_PADRAO;
+        OrdemPrefixo ordem = c.temArgumento(2)
+                ? OrdemPrefixo.valueOf(c.argumentos[2].toUpperCase()) : OrdemPrefixo.PONTUACAO;
+        for (PontoColeta p : versao.buscarPorPrefixo(c.argumentos[0], limite, ordem)) {
+            registro(sb, c).append(p.id).append(';').append(p.nome).append('\n');
+        }
+    }
+
+    // linha;APROXIMADO;id;nome;distanciaDeEdicao (um registro por sugestão)
+    private void aproximado(Consulta c, StringBuilder sb) {
+        String nome = c.argumentos[0];
+        int distanciaMaxima = c.temArgumento(1) ? c.inteiro(1, "Distância máxima") : distanciaMaximaPadrao(nome);
+        int limite = c.temArgumento(2) ? c.inteiro(2, "Limite") : LIMITE_APROXIMADO_PADRAO;
+        for (ResultadoAproximado r : versao.buscarAproximado(nome, distanciaMaxima, limite)) {
+            registro(sb, c).append(r.getPonto().id).append(';').append(r.getPonto().nome).append(';')
+                    .append(r.getDistancia()).append('\n');
+        }
+    }
+
+    // linha;GRAU;id;grau
+    private void grau(Consulta c, StringBuilder sb) {
+        int id = c.inteiro(0, "ID");
+        Integer grau = graus().get(id);
+        if (grau == null) throw new IllegalArgumentException("Ponto inexistente: " + id);
+        registro(sb, c).append(id).append(';').append(grau).append('\n');
+    }
+
+    /**
+     * @return Os graus por ID. Duas threads podem calculá-los ao mesmo tempo; o resultado é o mesmo.
+     */
+    private Map<Integer, Integer> graus() {
+        Map<Integer, Integer> g = graus;
+        if (g == null) graus = g = versao.calcularGraus();
+        return g;
+    }
+
+    // linha;GRAUS;id;grau (um registro por ponto)
+    private void graus(Consulta c, StringBuilder sb) {
+        for (Map.Entry<Integer, Integer> g : graus().entrySet()) {
+            registro(sb, c).append(g.getKey()).append(';').append(g.getValue()).append('\n');
+        }
+    }
+
+    // linha;ESTATISTICAS;descricao;valor (um registro por estatística)
+    private void estatisticas(Consulta c, StringBuilder sb) {
+        for (String linha : versao.calcularEstatisticas().split("\n")) {
+            int separador = linha.indexOf(": ");
+            registro(sb, c).append(linha, 0, separador).append(';').append(linha.substring(separador + 2)).append('\n');
+        }
+    }
+
+    // linha;MATRIZ_ADJACENCIA;idOrigem;idDestino;distancia (só as células não nulas)
+    private void matrizAdjacencia(Consulta c, StringBuilder sb) {
+        MatrizEsparsa matriz = versao.gerarMatrizAdjacenciaEsparsa();
+        List<Integer> ids = versao.getIdsDosVertices();
+        for (int i = 0; i < matriz.getLinhas(); i++) {
+            matriz.percorrerLinha(i, (linha, coluna, valor) -> registro(sb, c).append(ids.get(linha)).append(';')
+                    .append(ids.get(coluna)).append(';').append(valor).append('\n'));
+        }
+    }
+
+    // linha;MATRIZ_INCIDENCIA;idPonto;numeroConexao;valor (conexões numeradas a partir de 1, como na interface)
+    private void matrizIncidencia(Consulta c, StringBuilder sb) {
+        MatrizEsparsa matriz = versao.gerarMatrizIncidenciaEsparsa();
+        List<Integer> ids = versao.getIdsDosVertices();
+        for (int i = 0; i < matriz.getLinhas(); i++) {
+            matriz.percorrerLinha(i, (linha, coluna, valor) -> registro(sb, c).append(ids.get(linha)).append(';')
+                    .append(coluna + 1).append(';').append(valor).append('\n'));
+        }
+    }
+
+    // linha;DISTANCIAS;idOrigem;idDestino;distancia ("-" se não há caminho)
+    private void distancias(Consulta c, StringBuilder sb) {
+        TabelaDistancias tabela = versao.calcularDistancias(Consulta.lerIds(c.argumentos[0]),
+                Consulta.lerIds(c.argumentos[1]), executor);
+        for (int i = 0; i < tabela.numOrigens(); i++) {
+            for (int j = 0; j < tabela.numDestinos(); j++) {
+                int d = tabela.get(i, j);
+                registro(sb, c).append(tabela.origem(i)).append(';').append(tabela.destino(j)).append(';');
+                if (d == TabelaDistancias.INFINITO) sb.append('-');
+                else sb.append(d);
+                sb.append('\n');
+            }
+        }
+    }
+
+    // linha;ROTA;distancia;distanciaInicial;viavel;deposito,parada,...
+    private void rota(Consulta c, StringBuilder sb) {
+        List<Integer> paradas = Consulta.lerIds(c.argumentos[0]);
+        long tempo = c.temArgumento(1) ? c.inteiro(1, "Tempo limite") : TEMPO_ROTA_PADRAO_MS;
+        ResultadoRota r = versao.otimizarRota(paradas, tempo, executor, numBuscasRota);
+        if (r == null) throw new IllegalArgumentException("Informe ao menos uma parada com ID válido");
+        registro(sb, c).append(r.getDistancia()).append(';').append(r.getDistanciaInicial()).append(';')
+                .append(r.isViavel()).append(';');
+        juntarIds(sb, r.getParadas());
+        sb.append('\n');
+    }
+}
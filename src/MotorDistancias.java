@@ -0,0 +1,11 @@
+/**
+ * Algoritmos disponíveis para calcular a matriz de menores distâncias entre todos os pares.
+ */
+public enum MotorDistancias {
+    // Escolhe pelo número de arestas: Floyd-Warshall em grafos densos, Dijkstra nos esparsos
+    AUTOMATICO,
+    // Floyd-Warshall em blocos que cabem no cache, O(V³), com os blocos processados em paralelo
+    FLOYD_WARSHALL,
+    // Um Dijkstra por origem, O(V·(E + V log V)), distribuídos em um ForkJoinPool
+    DIJKSTRA_PARALELO
+}
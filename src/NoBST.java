@@ -7,6 +7,8 @@ public class NoBST {
     PontoColeta ponto;
     // Referências aos nós filhos
     NoBST esquerda, direita;
+    // Altura da sub-árvore com raiz neste nó (folha = 1), usada no balanceamento AVL
+    int altura = 1;
 
     /**
      * Construtor do Nó BST.
@@ -15,4 +17,4 @@ public class NoBST {
     public NoBST(PontoColeta ponto) {
         this.ponto = ponto;
     }
-}
\ No newline at end of file
+}
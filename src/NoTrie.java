@@ -1,15 +1,87 @@
-import java.util.HashMap;
-import java.util.Map;
+import java.util.Arrays;
 
 /**
- * Classe que representa um Nó da Árvore Trie (Prefix Tree).
+ * Classe que representa um Nó da Árvore Trie radix (Patricia).
  * É utilizada para buscar Pontos de Coleta por prefixo (autocomplete).
+ *
+ * Cadeias de nós com um único filho são comprimidas: o nó guarda em 'rotulo' todos os
+ * caracteres da aresta que chega até ele. Os filhos ficam em vetores compactos:
+ * 'chaves' tem o primeiro caractere do rótulo de cada filho, em ordem crescente,
+ * e a busca por um filho é binária.
  */
 public class NoTrie {
-    // Mapa que armazena os nós filhos, onde a chave é o próximo caractere
-    Map<Character, NoTrie> filhos = new HashMap<>();
+    // Vetores compartilhados pelos nós sem rótulo ou sem filhos
+    static final char[] SEM_CARACTERES = new char[0];
+    static final NoTrie[] SEM_FILHOS = new NoTrie[0];
+
+    // Caracteres da aresta que chega a este nó (vazio apenas na raiz)
+    char[] rotulo = SEM_CARACTERES;
+    // Primeiro caractere do rótulo de cada filho, em ordem crescente
+    char[] chaves = SEM_CARACTERES;
+    // Filhos, na mesma ordem de 'chaves'
+    NoTrie[] filhos = SEM_FILHOS;
     // Referência ao PontoColeta, armazenado SOMENTE se este nó marcar o fim de uma palavra
     PontoColeta ponto;
     // Flag que indica se o caminho até este nó forma um nome completo de PontoColeta
     boolean fimPalavra;
-}
\ No newline at end of file
+    // Pontuação do ponto deste nó (ex.: grau), usada na busca por relevância
+    int pontuacao;
+    // Limite superior das pontuações dos pontos desta sub-árvore
+    int maiorPontuacao = Integer.MIN_VALUE;
+
+    public NoTrie() {
+    }
+
+    NoTrie(char[] rotulo) {
+        this.rotulo = rotulo;
+    }
+
+    /**
+     * Procura o filho cujo rótulo começa com o caractere informado.
+     * @param c O primeiro caractere do rótulo.
+     * @return A posição do filho, ou (-(posição de inserção) - 1) se não existir.
+     */
+    int indiceFilho(char c) {
+        return Arrays.binarySearch(chaves, c);
+    }
+
+    /**
+     * Insere um filho mantendo 'chaves' ordenado. Os vetores têm o tamanho exato.
+     * @param posicao A posição de inserção (obtida de indiceFilho).
+     * @param filho O novo filho, com rótulo não vazio.
+     */
+    void inserirFilho(int posicao, NoTrie filho) {
+        int n = chaves.length;
+        char[] novasChaves = new char[n + 1];
+        NoTrie[] novosFilhos = new NoTrie[n + 1];
+        System.arraycopy(chaves, 0, novasChaves, 0, posicao);
+        System.arraycopy(filhos, 0, novosFilhos, 0, posicao);
+        novasChaves[posicao] = filho.rotulo[0];
+        novosFilhos[posicao] = filho;
+        System.arraycopy(chaves, posicao, novasChaves, posicao + 1, n - posicao);
+        System.arraycopy(filhos, posicao, novosFilhos, posicao + 1, n - posicao);
+        chaves = novasChaves;
+        filhos = novosFilhos;
+    }
+
+    /**
+     * Remove o filho da posição informada. Os vetores continuam com o tamanho exato.
+     * @param posicao A posição do filho (obtida de indiceFilho).
+     */
+    void removerFilho(int posicao) {
+        int n = chaves.length;
+        if (n == 1) {
+            chaves = SEM_CARACTERES;
+            filhos = SEM_FILHOS;
+            return;
+        }
+        char[] novasChaves = new char[n - 1];
+        NoTrie[] novosFilhos = new NoTrie[n - 1];
+        System.arraycopy(chaves, 0, novasChaves, 0, posicao);
+        System.arraycopy(filhos, 0, novosFilhos, 0, posicao);
+        System.arraycopy(chaves, posicao + 1, novasChaves, posicao, n - posicao - 1);
+        System.arraycopy(filhos, posicao + 1, novosFilhos, posicao, n - posicao - 1);
+        chaves = novasChaves;
+        filhos = novosFilhos;
+    }
+}
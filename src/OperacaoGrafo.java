@@ -0,0 +1,62 @@
+/**
+ * Operações medidas pelas MetricasGrafo. Cada uma tem o seu contador e o seu
+ * histograma de latência.
+ */
+public enum OperacaoGrafo {
+    // Cargas e snapshot
+    CARREGAR_PONTOS("Carga de pontos"),
+    CARREGAR_CONEXOES("Carga de conexões"),
+    CARREGAR_SNAPSHOT("Carga do snapshot"),
+    SALVAR_SNAPSHOT("Gravação do snapshot"),
+    CONSTRUIR_ADJACENCIA("Reconstrução da adjacência"),
+    // Buscas de caminho, uma por estratégia (ver caminho(EstrategiaBusca))
+    CAMINHO_BFS("Caminho (BFS)"),
+    CAMINHO_DIJKSTRA("Caminho (Dijkstra)"),
+    CAMINHO_DIJKSTRA_BIDIRECIONAL("Caminho (Dijkstra bidirecional)"),
+    CAMINHO_A_ESTRELA("Caminho (A*)"),
+    // Cálculos sobre o grafo inteiro ou muitos pares
+    GERAR_MATRIZ("Geração de matriz"),
+    DISTANCIAS_TODOS_PARES("Distâncias entre todos os pares"),
+    TABELA_DISTANCIAS("Tabela de distâncias"),
+    OTIMIZAR_ROTA("Otimização de rota"),
+    // Alterações
+    ADICIONAR_PONTO("Inclusão de ponto"),
+    EDITAR_PONTO("Edição de ponto"),
+    EXCLUIR_PONTO("Exclusão de ponto"),
+    ADICIONAR_CONEXAO("Inclusão de conexão"),
+    EDITAR_CONEXAO("Edição de conexão"),
+    EXCLUIR_CONEXAO("Exclusão de conexão"),
+    // Índices de nome
+    BST_BUSCAR("BST: busca"),
+    BST_INSERIR("BST: inserção"),
+    BST_REMOVER("BST: remoção"),
+    TRIE_INSERIR("Trie: inserção"),
+    TRIE_REMOVER("Trie: remoção"),
+    TRIE_PREFIXO("Trie: busca por prefixo"),
+    TRIE_APROXIMADO("Trie: busca aproximada");
+
+    // Nome legível da operação, usado nos relatórios
+    private final String descricao;
+
+    OperacaoGrafo(String descricao) {
+        this.descricao = descricao;
+    }
+
+    /**
+     * @param estrategia A estratégia de busca.
+     * @return A operação que mede as buscas de caminho com essa estratégia.
+     */
+    public static OperacaoGrafo caminho(EstrategiaBusca estrategia) {
+        switch (estrategia) {
+            case BFS: return CAMINHO_BFS;
+            case DIJKSTRA: return CAMINHO_DIJKSTRA;
+            case DIJKSTRA_BIDIRECIONAL: return CAMINHO_DIJKSTRA_BIDIRECIONAL;
+            default: return CAMINHO_A_ESTRELA;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return descricao;
+    }
+}
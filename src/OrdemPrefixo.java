@@ -0,0 +1,21 @@
+/**
+ * Ordem dos resultados de uma busca por prefixo na Trie.
+ */
+public enum OrdemPrefixo {
+    // Ordem alfabética dos nomes (em minúsculas)
+    ALFABETICA("Alfabética"),
+    // Maior pontuação primeiro (no grafo, o grau do ponto); empates em ordem alfabética
+    PONTUACAO("Por relevância (grau)");
+
+    // Nome legível da ordem, usado na interface
+    private final String descricao;
+
+    OrdemPrefixo(String descricao) {
+        this.descricao = descricao;
+    }
+
+    @Override
+    public String toString() {
+        return descricao;
+    }
+}
@@ -0,0 +1,414 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * Otimizador de rotas de coleta (problema do caixeiro-viajante assimétrico) sobre
+ * uma tabela de menores distâncias entre as paradas.
+ *
+ * 1. Construção gulosa pelo vizinho mais próximo, a partir do depósito.
+ * 2. Busca local por 2-opt e Or-opt restrita às listas de vizinhos de cada parada.
+ *    Como as distâncias do grafo dependem do sentido, o custo de inverter um trecho no
+ *    2-opt vem de somas de prefixo dos dois sentidos da rota, em O(1) por movimento.
+ * 3. Busca local iterada: várias buscas independentes, em paralelo no executor, aplicam
+ *    perturbações "double-bridge" à melhor rota que encontraram e repetem a busca local
+ *    até o prazo. Quanto mais tempo, mais perturbações e melhor a rota.
+ */
+public final class OtimizadorRota {
+    // Custo de um trecho sem caminho: domina qualquer rota viável, sem estourar somas em long
+    private static final int SEM_CAMINHO = 1_000_000_000;
+    // Maior trecho movido pelo Or-opt
+    private static final int TRECHO_MAXIMO_OR_OPT = 3;
+    // Tamanho da lista de vizinhos de cada parada usada pela busca local
+    private static final int VIZINHOS = 10;
+    // Maior distância (em posições da rota) entre os cortes de uma perturbação
+    private static final int JANELA_PERTURBACAO = 50;
+
+    private OtimizadorRota() {
+    }
+
+    /**
+     * Otimiza a ordem de visita das paradas da tabela (origens e destinos iguais).
+     * A primeira parada é o depósito: a rota começa e termina nela.
+     * @param tabela As menores distâncias entre as paradas.
+     * @param prazoNanos O instante (System.nanoTime) em que a melhoria deve parar.
+     * @param executor O executor das buscas paralelas.
+     * @param numBuscas A quantidade de buscas locais iteradas independentes.
+     * @param semente A semente das perturbações aleatórias.
+     * @return A melhor rota encontrada.
+     */
+    public static ResultadoRota otimizar(TabelaDistancias tabela, long prazoNanos, Executor executor,
+                                         int numBuscas, long semente) {
+        int n = tabela.numOrigens();
+        int[] custo = new int[n * n];
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                int d = tabela.get(i, j);
+                custo[i * n + j] = d == TabelaDistancias.INFINITO ? SEM_CAMINHO : d;
+            }
+        }
+        int[] inicial = vizinhoMaisProximo(custo, n);
+        long distanciaInicial = custoRota(custo, n, inicial);
+
+        int[] melhor = inicial;
+        long iteracoes = 0;
+        if (n == 3) {
+            // Só há duas rotas, e com distâncias assimétricas o sentido inverso pode ser melhor
+            int[] invertida = {0, inicial[2], inicial[1]};
+            if (custoRota(custo, n, invertida) < distanciaInicial) melhor = invertida;
+        } else if (n > 3) {
+            int k = Math.min(VIZINHOS, n - 1);
+            int[] vizinhos = calcularVizinhos(custo, n, k);
+            // Cada busca tem sua semente; a melhor rota entre todas vence
+            List<CompletableFuture<BuscaLocal>> buscas = new ArrayList<>();
+            for (int b = 0; b < Math.max(1, numBuscas); b++) {
+                BuscaLocal busca = new BuscaLocal(custo, n, vizinhos, k, inicial, new Random(semente + b), prazoNanos);
+                buscas.add(CompletableFuture.supplyAsync(() -> {
+                    busca.executar();
+                    return busca;
+                }, executor));
+            }
+            long melhorCusto = Long.MAX_VALUE;
+            for (CompletableFuture<BuscaLocal> f : buscas) {
+                BuscaLocal busca = f.join();
+                iteracoes += busca.iteracoes;
+                if (busca.melhorCusto < melhorCusto) {
+                    melhorCusto = busca.melhorCusto;
+                    melhor = busca.melhor;
+                }
+            }
+        }
+
+        List<Integer> paradas = new ArrayList<>(n);
+        boolean viavel = true;
+        for (int p = 0; p < n; p++) {
+            paradas.add(tabela.origem(melhor[p]));
+            if (custo[melhor[p] * n + melhor[(p + 1) % n]] == SEM_CAMINHO) viavel = false;
+        }
+        return new ResultadoRota(paradas, custoRota(custo, n, melhor), distanciaInicial, viavel, iteracoes);
+    }
+
+    /**
+     * Rota gulosa: a partir do depósito (parada 0), visita sempre a parada mais próxima ainda não visitada.
+     */
+    private static int[] vizinhoMaisProximo(int[] custo, int n) {
+        int[] rota = new int[n];
+        boolean[] visitada = new boolean[n];
+        visitada[0] = true;
+        for (int p = 1; p < n; p++) {
+            int atual = rota[p - 1], escolhida = -1;
+            for (int j = 0; j < n; j++) {
+                if (!visitada[j] && (escolhida < 0 || custo[atual * n + j] < custo[atual * n + escolhida])) escolhida = j;
+            }
+            rota[p] = escolhida;
+            visitada[escolhida] = true;
+        }
+        return rota;
+    }
+
+    /**
+     * @return A distância total da rota, com a volta ao depósito.
+     */
+    private static long custoRota(int[] custo, int n, int[] rota) {
+        long total = 0;
+        for (int p = 0; p < n; p++) total += custo[rota[p] * n + rota[(p + 1) % n]];
+        return total;
+    }
+
+    /**
+     * Lista de vizinhos de cada parada: as VIZINHOS mais próximas, pelo menor dos dois
+     * sentidos. A busca local só avalia movimentos que criam uma aresta entre vizinhos.
+     * @return vizinhos[i * k + r] = r-ésima parada mais próxima de i.
+     */
+    private static int[] calcularVizinhos(int[] custo, int n, int k) {
+        int[] vizinhos = new int[n * k];
+        Integer[] ordem = new Integer[n];
+        for (int i = 0; i < n; i++) {
+            final int origem = i;
+            for (int j = 0; j < n; j++) ordem[j] = j;
+            Arrays.sort(ordem, (x, y) -> Integer.compare(
+                    Math.min(custo[origem * n + x], custo[x * n + origem]),
+                    Math.min(custo[origem * n + y], custo[y * n + origem])));
+            int r = 0;
+            for (int j = 0; j < n && r < k; j++) {
+                if (ordem[j] != i) vizinhos[i * k + r++] = ordem[j];
+            }
+        }
+        return vizinhos;
+    }
+
+    /**
+     * Uma busca local iterada, executada por uma thread. A posição 0 da rota (o depósito) nunca muda.
+     *
+     * Cada parada tem um "bit de não olhar": só as paradas da fila são examinadas, e uma
+     * parada entra na fila quando uma aresta ligada a ela muda. Depois de uma perturbação,
+     * apenas a vizinhança dos cortes é reexaminada, e cada iteração custa perto de O(n).
+     */
+    private static final class BuscaLocal {
+        private final int[] custo;
+        private final int n;
+        private final int[] vizinhos;
+        private final int k;
+        private final Random aleatorio;
+        private final long prazoNanos;
+        // Rota em melhoria e posição de cada parada nela
+        private final int[] rota;
+        private final int[] posicao;
+        // Somas de prefixo dos custos no sentido da rota e no sentido inverso
+        private final long[] ida;
+        private final long[] volta;
+        // Fila circular de paradas a examinar
+        private final int[] fila;
+        private final boolean[] naFila;
+        private int inicioFila, tamanhoFila;
+        // Melhor rota encontrada por esta busca
+        int[] melhor;
+        long melhorCusto;
+        long iteracoes;
+
+        BuscaLocal(int[] custo, int n, int[] vizinhos, int k, int[] inicial, Random aleatorio, long prazoNanos) {
+            this.custo = custo;
+            this.n = n;
+            this.vizinhos = vizinhos;
+            this.k = k;
+            this.aleatorio = aleatorio;
+            this.prazoNanos = prazoNanos;
+            this.rota = inicial.clone();
+            this.posicao = new int[n];
+            this.ida = new long[n];
+            this.volta = new long[n];
+            this.fila = new int[n];
+            this.naFila = new boolean[n];
+        }
+
+        /**
+         * Busca local completa na rota inicial e, até o prazo, perturbação + busca local
+         * sobre a melhor rota. A primeira busca local sempre termina, mesmo após o prazo.
+         */
+        void executar() {
+            atualizarPosicoes(0, n - 1);
+            recalcularPrefixos(1);
+            for (int c = 0; c < n; c++) enfileirar(c);
+            melhorarLocalmente(false);
+            melhor = rota.clone();
+            melhorCusto = custoRota(custo, n, melhor);
+            while (System.nanoTime() < prazoNanos) {
+                perturbar();
+                melhorarLocalmente(true);
+                long c = ida[n - 1] + c(rota[n - 1], rota[0]);
+                iteracoes++;
+                // Aceitar empates ajuda a sair de platôs; senão, volta à melhor rota
+                if (c <= melhorCusto) {
+                    melhorCusto = c;
+                    System.arraycopy(rota, 0, melhor, 0, n);
+                } else {
+                    System.arraycopy(melhor, 0, rota, 0, n);
+                    atualizarPosicoes(0, n - 1);
+                    recalcularPrefixos(1);
+                }
+            }
+        }
+
+        private int c(int de, int para) {
+            return custo[de * n + para];
+        }
+
+        private void enfileirar(int parada) {
+            if (naFila[parada]) return;
+            naFila[parada] = true;
+            fila[(inicioFila + tamanhoFila++) % n] = parada;
+        }
+
+        /**
+         * Examina as paradas da fila até ela esvaziar (ótimo local) ou o prazo acabar.
+         * @param respeitarPrazo false na primeira busca, que sempre vai até o ótimo local.
+         */
+        private void melhorarLocalmente(boolean respeitarPrazo) {
+            while (tamanhoFila > 0) {
+                if (respeitarPrazo && System.nanoTime() >= prazoNanos) {
+                    // Prazo esgotado: a rota atual ainda é válida; a fila é descartada
+                    while (tamanhoFila > 0) naFila[desenfileirar()] = false;
+                    return;
+                }
+                int a = desenfileirar();
+                naFila[a] = false;
+                if (doisOpt(a) || orOpt(a)) enfileirar(a);
+            }
+        }
+
+        private int desenfileirar() {
+            int parada = fila[inicioFila];
+            inicioFila = (inicioFila + 1) % n;
+            tamanhoFila--;
+            return parada;
+        }
+
+        private void atualizarPosicoes(int de, int ate) {
+            for (int p = de; p <= ate; p++) posicao[rota[p]] = p;
+        }
+
+        /**
+         * Recalcula as somas de prefixo a partir da posição 'de': ida[p] = custo de
+         * rota[0] até rota[p] pela rota, volta[p] = custo do mesmo trecho ao contrário.
+         */
+        private void recalcularPrefixos(int de) {
+            for (int p = Math.max(1, de); p < n; p++) {
+                ida[p] = ida[p - 1] + c(rota[p - 1], rota[p]);
+                volta[p] = volta[p - 1] + c(rota[p], rota[p - 1]);
+            }
+        }
+
+        /**
+         * 2-opt a partir da parada 'a': troca as arestas (x, y) e (u, w) por (x, u) e (y, w),
+         * invertendo o trecho y..u, onde uma das arestas toca 'a' e a outra toca um vizinho de 'a'.
+         * @return true se aplicou um movimento que melhora a rota.
+         */
+        private boolean doisOpt(int a) {
+            int pa = posicao[a];
+            for (int lado = 0; lado < 2; lado++) {
+                // Aresta que sai de 'a' ou que chega em 'a' (posição da sua origem)
+                int i = lado == 0 ? pa : (pa + n - 1) % n;
+                for (int r = 0; r < k; r++) {
+                    int pv = posicao[vizinhos[a * k + r]];
+                    for (int lado2 = 0; lado2 < 2; lado2++) {
+                        int j = lado2 == 0 ? pv : (pv + n - 1) % n;
+                        int de = Math.min(i, j), ate = Math.max(i, j);
+                        if (ate - de < 2) continue;
+                        int x = rota[de], y = rota[de + 1], u = rota[ate], w = rota[(ate + 1) % n];
+                        long delta = (long) c(x, u) + c(y, w) - c(x, y) - c(u, w)
+                                + (volta[ate] - volta[de + 1]) - (ida[ate] - ida[de + 1]);
+                        if (delta < 0) {
+                            inverter(de + 1, ate);
+                            atualizarPosicoes(de + 1, ate);
+                            recalcularPrefixos(de + 1);
+                            enfileirar(x);
+                            enfileirar(y);
+                            enfileirar(u);
+                            enfileirar(w);
+                            return true;
+                        }
+                    }
+                }
+            }
+            return false;
+        }
+
+        private void inverter(int de, int ate) {
+            for (; de < ate; de++, ate--) {
+                int t = rota[de];
+                rota[de] = rota[ate];
+                rota[ate] = t;
+            }
+        }
+
+        /**
+         * Or-opt a partir da parada 'a': move o trecho de 1 a 3 paradas que começa em 'a'
+         * para junto de um vizinho de 'a' (logo depois ou logo antes dele), no mesmo sentido.
+         * @return true se aplicou um movimento que melhora a rota.
+         */
+        private boolean orOpt(int a) {
+            int s = posicao[a];
+            if (s == 0) return false; // O depósito não sai do lugar
+            for (int tamanho = 1; tamanho <= TRECHO_MAXIMO_OR_OPT && s + tamanho <= n; tamanho++) {
+                int fim = s + tamanho - 1;
+                int antes = rota[s - 1], depois = rota[(fim + 1) % n];
+                int ultima = rota[fim];
+                long ganho = (long) c(antes, a) + c(ultima, depois) - c(antes, depois);
+                if (ganho <= 0) continue;
+                for (int r = 0; r < k; r++) {
+                    int pv = posicao[vizinhos[a * k + r]];
+                    for (int lado = 0; lado < 2; lado++) {
+                        // Insere o trecho na aresta (rota[p], rota[p + 1])
+                        int p = lado == 0 ? pv : (pv + n - 1) % n;
+                        if (p >= s - 1 && p <= fim) continue;
+                        int x = rota[p], y = rota[(p + 1) % n];
+                        if ((long) c(x, a) + c(ultima, y) - c(x, y) < ganho) {
+                            moverTrecho(s, fim, p);
+                            int de = Math.min(s, p), ate = Math.max(fim, p);
+                            atualizarPosicoes(de, ate);
+                            recalcularPrefixos(de);
+                            enfileirar(antes);
+                            enfileirar(depois);
+                            enfileirar(ultima);
+                            enfileirar(x);
+                            enfileirar(y);
+                            return true;
+                        }
+                    }
+                }
+            }
+            return false;
+        }
+
+        /**
+         * Move o trecho [s, fim] para logo depois da posição p (fora do trecho).
+         */
+        private void moverTrecho(int s, int fim, int p) {
+            int tamanho = fim - s + 1;
+            int[] trecho = new int[tamanho];
+            System.arraycopy(rota, s, trecho, 0, tamanho);
+            if (p < s) {
+                // Desloca (p, s) para a direita e insere o trecho depois de p
+                System.arraycopy(rota, p + 1, rota, p + 1 + tamanho, s - p - 1);
+                System.arraycopy(trecho, 0, rota, p + 1, tamanho);
+            } else {
+                // Desloca (fim, p] para a esquerda e insere o trecho no espaço liberado
+                System.arraycopy(rota, fim + 1, rota, s, p - fim);
+                System.arraycopy(trecho, 0, rota, p - tamanho + 1, tamanho);
+            }
+        }
+
+        /**
+         * Perturbação double-bridge local: dentro de uma janela de até JANELA_PERTURBACAO
+         * posições, corta a rota em A B C D e a religa como A C B D. Não inverte trechos,
+         * o que importa com distâncias assimétricas, e não é desfeita por um único 2-opt
+         * ou Or-opt. As paradas nos cortes entram na fila da busca local.
+         */
+        private void perturbar() {
+            int janela = Math.min(n - 1, JANELA_PERTURBACAO);
+            int p1, p2, p3;
+            if (janela < 4) {
+                // Rotas muito pequenas: troca duas paradas vizinhas (fora o depósito)
+                p1 = 1 + aleatorio.nextInt(n - 2);
+                int t = rota[p1];
+                rota[p1] = rota[p1 + 1];
+                rota[p1 + 1] = t;
+                atualizarPosicoes(p1, p1 + 1);
+                recalcularPrefixos(p1);
+                enfileirar(rota[p1 - 1]);
+                enfileirar(rota[p1]);
+                enfileirar(rota[p1 + 1]);
+                enfileirar(rota[(p1 + 2) % n]);
+                return;
+            }
+            // Três cortes distintos em (inicio, inicio + janela]
+            int inicio = aleatorio.nextInt(n - janela);
+            do {
+                p1 = inicio + 1 + aleatorio.nextInt(janela);
+                p2 = inicio + 1 + aleatorio.nextInt(janela);
+                p3 = inicio + 1 + aleatorio.nextInt(janela);
+            } while (p1 == p2 || p2 == p3 || p1 == p3);
+            int[] cortes = {p1, p2, p3};
+            Arrays.sort(cortes);
+            p1 = cortes[0];
+            p2 = cortes[1];
+            p3 = cortes[2];
+            // B = [p1, p2), C = [p2, p3): C passa para antes de B
+            int[] b = Arrays.copyOfRange(rota, p1, p2);
+            System.arraycopy(rota, p2, rota, p1, p3 - p2);
+            System.arraycopy(b, 0, rota, p1 + (p3 - p2), b.length);
+            atualizarPosicoes(p1, p3 - 1);
+            recalcularPrefixos(p1);
+            int juncao = p1 + (p3 - p2);
+            enfileirar(rota[p1 - 1]);
+            enfileirar(rota[p1]);
+            enfileirar(rota[juncao - 1]);
+            enfileirar(rota[juncao]);
+            enfileirar(rota[p3 - 1]);
+            enfileirar(rota[p3 % n]);
+        }
+    }
+}
@@ -1,23 +1,333 @@
 import javax.swing.*;
 import java.awt.*;
+import java.awt.event.ActionEvent;
+import java.awt.event.KeyEvent;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.awt.event.MouseWheelEvent;
+import java.awt.image.BufferedImage;
 import java.util.*;
-import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 /**
  * Componente JPanel customizado responsável por desenhar a representação visual do Grafo.
- * Utiliza um layout circular para posicionar os nós.
+ * Os pontos são posicionados por um layout dirigido por forças (LayoutForcas), calculado
+ * em uma thread própria, fora da thread do Swing: enquanto ele não termina, o painel
+ * mostra o layout circular e depois os layouts parciais que o cálculo envia. O layout
+ * calculado fica em cache para a versão do grafo e serve de ponto de partida quando o
+ * grafo muda; um layout pré-calculado (ver usarLayout) com a mesma assinatura do grafo
+ * é usado direto, sem cálculo.
+ *
+ * Para redes grandes, o desenho é feito em camadas com cache:
+ *  - as posições normalizadas e as conexões em índices só são recalculadas quando a
+ *    versão do grafo muda ou chega um novo layout;
+ *  - a camada estática (conexões e pontos visíveis) é desenhada uma vez em uma imagem fora
+ *    da tela, refeita só quando as posições, o tamanho do painel ou a visão mudam;
+ *    cada repaint apenas copia a imagem.
+ *
+ * A roda do mouse amplia e reduz em torno do cursor, arrastar move a visão, Home volta
+ * ao grafo inteiro e um clique seleciona o ponto mais próximo (propriedade
+ * "pontoSelecionado"). Um índice espacial (GradeEspacial) das posições e das conexões
+ * responde quais itens estão na área visível: cada quadro consulta e desenha só esses,
+ * então o tempo de um quadro depende da área visível, não do tamanho da rede.
+ *
+ * O nível de detalhe depende do espaço entre pontos vizinhos na tela: com espaço de sobra,
+ * o desenho completo (círculos com o ID e a distância de cada conexão); com pouco espaço,
+ * pontos menores sem rótulos; com a rede "vista de longe", as conexões que caem nas
+ * mesmas células da tela são agrupadas em uma única linha.
+ *
+ * F3 liga e desliga uma sobreposição de depuração com o tempo de cada repaint.
  */
 public class PainelGrafo extends JPanel {
+    /**
+     * Nível de detalhe do desenho, do mais completo ao mais resumido.
+     */
+    enum NivelDetalhe {
+        // Círculos com o ID e a distância de cada conexão
+        COMPLETO,
+        // Pontos menores, sem rótulos, e todas as conexões
+        SIMPLIFICADO,
+        // Pontos de um pixel e conexões agrupadas por célula da tela
+        AGRUPADO
+    }
+
+    // Diâmetro dos pontos no nível completo
+    private static final int DIAMETRO_COMPLETO = 50;
+    // Espaço livre nas bordas do painel, em pixels (metade de um ponto, mais uma folga)
+    private static final int MARGEM = 30;
+    // Espaço mínimo entre pontos vizinhos (em pixels) para o nível completo e para o simplificado
+    private static final double ESPACO_COMPLETO = 60;
+    private static final double ESPACO_SIMPLIFICADO = 6;
+    // Acima desta quantidade de conexões, elas são sempre agrupadas (desenhar cada uma não compensa)
+    private static final int MAXIMO_CONEXOES_INDIVIDUAIS = 50_000;
+    // Lado das células usadas para agrupar as conexões, em pixels
+    private static final int CELULA_AGRUPAMENTO = 4;
+    // Repaints usados na média móvel da sobreposição de depuração
+    private static final int JANELA_MEDIA = 30;
+    // Limites da ampliação (1 = grafo inteiro na janela) e fator de cada passo da roda do mouse
+    private static final double ZOOM_MINIMO = 0.5;
+    private static final double ZOOM_MAXIMO = 10_000;
+    private static final double PASSO_ZOOM = 1.2;
+    // Distância máxima do clique a um ponto para selecioná-lo, em pixels
+    private static final int RAIO_CLIQUE = 8;
+    // Limite das coordenadas de tela usadas no agrupamento (pontas fora da tela são aproximadas)
+    private static final int LIMITE_TELA = 1 << 15;
+
+    // Fontes, traços e cores criados uma vez só (antes eram criados a cada conexão e ponto)
+    private static final Font FONTE_DISTANCIA = new Font("Arial", Font.PLAIN, 10);
+    private static final Font FONTE_ID = new Font("Arial", Font.BOLD, 12);
+    private static final Font FONTE_DEPURACAO = new Font(Font.MONOSPACED, Font.PLAIN, 12);
+    private static final BasicStroke TRACO_GROSSO = new BasicStroke(2);
+    private static final BasicStroke TRACO_FINO = new BasicStroke(1);
+    private static final Color COR_PONTO = new Color(100, 149, 237); // Azul bonito
+    private static final Color COR_CONEXAO_AGRUPADA = new Color(128, 128, 128, 90);
+    private static final Color COR_FUNDO_DEPURACAO = new Color(0, 0, 0, 170);
+    private static final Color COR_SELECAO = new Color(255, 140, 0);
+    private static final BasicStroke TRACO_SELECAO = new BasicStroke(3);
+
     // Referência ao objeto Grafo que será desenhado
     private GrafoColetaReciclaveis grafo;
 
+    // Cálculo do layout por forças, em uma thread fora da thread do Swing
+    private final LayoutForcas motorLayout;
+    private final ExecutorService calculoLayout = Executors.newSingleThreadExecutor(tarefa -> {
+        Thread t = new Thread(tarefa, "layout-grafo");
+        t.setDaemon(true);
+        return t;
+    });
+    private Future<?> calculoAtual;
+    // Último layout por forças recebido (parcial ou concluído) e o pré-calculado informado em usarLayout
+    private LayoutGrafo layoutForcas;
+    private LayoutGrafo layoutPrecalculado;
+
+    // Geometria em cache para a versão 'versaoLayout': IDs, posições normalizadas em [-1, 1]
+    // (circulares até chegar o layout por forças), o espaço típico entre pontos vizinhos na
+    // mesma escala e as conexões como pares de índices (as com pontas inexistentes ficam de fora)
+    private long versaoLayout = -1;
+    private int[] ids = new int[0];
+    private double[] posX = new double[0];
+    private double[] posY = new double[0];
+    private double espacoNormalizado;
+    // Muda a cada novo conjunto de posições (nova versão ou layout parcial), para refazer a camada
+    private long geracaoPosicoes;
+    private int numConexoes;
+    private int[] conexaoOrigem = new int[0];
+    private int[] conexaoDestino = new int[0];
+    private int[] conexaoDistancia = new int[0];
+    // ID -> índice nos vetores acima
+    private MapaIdIndice indicePorId = new MapaIdIndice(0);
+
+    // Visão: ampliação e centro da área visível, nas coordenadas normalizadas
+    private double zoom = 1;
+    private double centroX, centroY;
+    // Índice espacial das posições atuais, refeito quando elas mudam
+    private GradeEspacial grade;
+    private long geracaoGrade = -1;
+    // Pontos e conexões da área visível na última consulta
+    private int[] pontosVisiveis = new int[0];
+    private int[] conexoesVisiveis = new int[0];
+    private int numPontosVisiveis, numConexoesVisiveis;
+    private final int[] quantidade = new int[1];
+    private long ultimaConsultaNanos;
+    // Transformação da camada atual: tela = origem + escala * posição normalizada
+    private double escalaDesenho, origemX, origemY;
+
+    // Ponto selecionado pelo clique (por ID, que continua valendo se o grafo mudar), ou null
+    private Integer idSelecionado;
+    // Arraste em andamento: última posição do mouse e se ele já se moveu desde o clique
+    private Point ultimoArraste;
+    private boolean arrastou;
+
+    // Camada estática em cache e a chave com que foi desenhada
+    private BufferedImage camada;
+    private long geracaoCamada = -1;
+    private double zoomCamada, centroXCamada, centroYCamada;
+    private NivelDetalhe nivelCamada;
+    // Segmentos desenhados na última camada (depois do agrupamento)
+    private int segmentosCamada;
+
+    // Sobreposição de depuração: tempos dos últimos repaints e quantos refizeram a camada
+    private boolean depuracao;
+    private final long[] temposRepaint = new long[JANELA_MEDIA];
+    private long totalRepaints;
+    private long camadasRefeitas;
+    private long ultimaCamadaNanos;
+
     /**
      * Construtor do painel.
      * * @param grafo A instância do grafo a ser visualizada.
      */
     public PainelGrafo(GrafoColetaReciclaveis grafo) {
+        this(grafo, new LayoutForcas());
+    }
+
+    /**
+     * Construtor do painel com um motor de layout configurado.
+     * @param grafo A instância do grafo a ser visualizada.
+     * @param motorLayout O cálculo do layout por forças.
+     */
+    public PainelGrafo(GrafoColetaReciclaveis grafo, LayoutForcas motorLayout) {
         this.grafo = grafo;
+        this.motorLayout = motorLayout;
         setBackground(Color.WHITE); // Define o fundo como branco
+
+        // F3 liga e desliga a sobreposição de depuração
+        getInputMap(WHEN_IN_FOCUSED_WINDOW).put(KeyStroke.getKeyStroke(KeyEvent.VK_F3, 0), "depuracao");
+        getActionMap().put("depuracao", new AbstractAction() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                setDepuracao(!depuracao);
+            }
+        });
+        // Home volta a mostrar o grafo inteiro
+        getInputMap(WHEN_IN_FOCUSED_WINDOW).put(KeyStroke.getKeyStroke(KeyEvent.VK_HOME, 0), "restaurarVisao");
+        getActionMap().put("restaurarVisao", new AbstractAction() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                restaurarVisao();
+            }
+        });
+
+        // Roda: ampliação em torno do cursor; arrastar: move a visão; clique: seleciona
+        MouseAdapter mouse = new MouseAdapter() {
+            @Override
+            public void mousePressed(MouseEvent e) {
+                ultimoArraste = e.getPoint();
+                arrastou = false;
+            }
+
+            @Override
+            public void mouseDragged(MouseEvent e) {
+                if (ultimoArraste == null) return;
+                double escalaTela = escala(getWidth(), getHeight()) * zoom;
+                centroX -= (e.getX() - ultimoArraste.x) / escalaTela;
+                centroY -= (e.getY() - ultimoArraste.y) / escalaTela;
+                ultimoArraste = e.getPoint();
+                arrastou = true;
+                repaint();
+            }
+
+            @Override
+            public void mouseReleased(MouseEvent e) {
+                if (!arrastou && SwingUtilities.isLeftMouseButton(e)) selecionarEm(e.getX(), e.getY());
+                ultimoArraste = null;
+            }
+
+            @Override
+            public void mouseWheelMoved(MouseWheelEvent e) {
+                ampliar(Math.pow(PASSO_ZOOM, -e.getPreciseWheelRotation()), e.getX(), e.getY());
+            }
+        };
+        addMouseListener(mouse);
+        addMouseMotionListener(mouse);
+        addMouseWheelListener(mouse);
+    }
+
+    /**
+     * Amplia ou reduz a visão mantendo fixo o ponto do grafo que está sob (x, y).
+     * @param fator O fator de ampliação (maior que 1 amplia).
+     * @param x A coordenada X do ponto fixo, em pixels do painel.
+     * @param y A coordenada Y do ponto fixo, em pixels do painel.
+     */
+    public void ampliar(double fator, int x, int y) {
+        double base = escala(getWidth(), getHeight());
+        double novoZoom = Math.max(ZOOM_MINIMO, Math.min(ZOOM_MAXIMO, zoom * fator));
+        // Posição normalizada sob o cursor, antes e depois da mudança
+        double dx = x - getWidth() / 2.0, dy = y - getHeight() / 2.0;
+        double px = centroX + dx / (base * zoom), py = centroY + dy / (base * zoom);
+        zoom = novoZoom;
+        centroX = px - dx / (base * zoom);
+        centroY = py - dy / (base * zoom);
+        repaint();
+    }
+
+    /**
+     * Volta a mostrar o grafo inteiro.
+     */
+    public void restaurarVisao() {
+        zoom = 1;
+        centroX = centroY = 0;
+        repaint();
+    }
+
+    /**
+     * @return O ponto selecionado pelo clique, ou null se não há (ou se ele foi removido do grafo).
+     */
+    public PontoColeta getPontoSelecionado() {
+        return idSelecionado == null ? null : grafo.pontos.get(idSelecionado);
+    }
+
+    /**
+     * Seleciona o ponto mais próximo da posição clicada (ou nenhum, se o clique foi longe
+     * de todos) e avisa os ouvintes da propriedade "pontoSelecionado".
+     */
+    private void selecionarEm(int x, int y) {
+        if (grade == null) return;
+        PontoColeta anterior = getPontoSelecionado();
+        double escalaTela = escala(getWidth(), getHeight()) * zoom;
+        double px = centroX + (x - getWidth() / 2.0) / escalaTela;
+        double py = centroY + (y - getHeight() / 2.0) / escalaTela;
+        // Dentro do círculo desenhado ou a poucos pixels de um ponto pequeno
+        int raioPixels = nivelCamada == NivelDetalhe.COMPLETO ? DIAMETRO_COMPLETO / 2 : RAIO_CLIQUE;
+        int i = grade.pontoMaisProximo(px, py, raioPixels / escalaTela);
+        idSelecionado = i >= 0 ? ids[i] : null;
+        firePropertyChange("pontoSelecionado", anterior, getPontoSelecionado());
+        repaint();
+    }
+
+    /**
+     * Passa a desenhar outro grafo (ex.: o grafo manual depois de limpo). Descarta a
+     * geometria, o índice espacial, a camada, a seleção, a visão e os layouts do grafo
+     * anterior, e cancela o cálculo de layout dele.
+     * @param grafo A nova instância do grafo a ser visualizada.
+     */
+    public void setGrafo(GrafoColetaReciclaveis grafo) {
+        if (grafo == this.grafo) return;
+        PontoColeta anterior = getPontoSelecionado();
+        if (calculoAtual != null) calculoAtual.cancel(true);
+        calculoAtual = null;
+        this.grafo = grafo;
+        layoutForcas = null;
+        layoutPrecalculado = null;
+        grade = null;
+        idSelecionado = null;
+        zoom = 1;
+        centroX = centroY = 0;
+        versaoLayout = -1; // Refaz a geometria no próximo repaint
+        firePropertyChange("pontoSelecionado", anterior, null);
+        repaint();
+    }
+
+    /**
+     * Informa um layout pré-calculado (ex.: lido de arquivo com LayoutGrafo.ler). Se a
+     * assinatura bater com a do grafo, ele é usado sem cálculo; senão, serve de ponto de
+     * partida para o cálculo.
+     * @param layout O layout.
+     */
+    public void usarLayout(LayoutGrafo layout) {
+        layoutPrecalculado = layout;
+        versaoLayout = -1; // Refaz a geometria no próximo repaint
+        repaint();
+    }
+
+    /**
+     * @return O último layout por forças concluído para a versão atual do grafo, ou null
+     *         se o cálculo ainda não terminou (ex.: para gravá-lo com LayoutGrafo.salvar).
+     */
+    public LayoutGrafo getLayoutForcas() {
+        LayoutGrafo l = layoutForcas;
+        return l != null && l.isConcluido() && l.getVersao() == grafo.getVersao() ? l : null;
+    }
+
+    /**
+     * Liga ou desliga a sobreposição com o tempo de repaint, o nível de detalhe e os contadores do cache.
+     * @param depuracao true para exibir a sobreposição.
+     */
+    public void setDepuracao(boolean depuracao) {
+        this.depuracao = depuracao;
+        repaint();
     }
 
     /**
@@ -26,66 +336,376 @@ public class PainelGrafo extends JPanel {
      */
     @Override
     protected void paintComponent(Graphics g) {
+        long inicio = System.nanoTime();
         super.paintComponent(g); // Chama a implementação padrão
-        Graphics2D g2 = (Graphics2D) g;
-        // Ativa o antialiasing para um desenho mais suave
-        g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        int largura = getWidth(), altura = getHeight();
+        if (largura <= 0 || altura <= 0) return;
 
-        // Map para armazenar as coordenadas (X, Y) de cada ponto de coleta
-        Map<Integer, Point> posicoes = new HashMap<>();
-        // Lista de IDs para manter a ordem de posicionamento
-        List<Integer> ids = new ArrayList<>(grafo.pontos.keySet());
+        // A geometria só muda quando o grafo muda (ou chega um layout, ver aplicarLayout)
+        long versao = grafo.getVersao();
+        if (versao != versaoLayout) calcularLayout(versao);
 
-        // Parâmetros para o layout circular
-        int raio = Math.min(getWidth(), getHeight()) / 3; // Raio do círculo
-        int cx = getWidth() / 2, cy = getHeight() / 2; // Centro do painel
-        int n = ids.size(); // Número de pontos
+        // A camada estática só é refeita se as posições, o tamanho ou a visão mudaram;
+        // nesse caso, consulta os itens visíveis e escolhe o nível de detalhe
+        if (camada == null || camada.getWidth() != largura || camada.getHeight() != altura
+                || geracaoCamada != geracaoPosicoes || zoomCamada != zoom
+                || centroXCamada != centroX || centroYCamada != centroY) {
+            long inicioCamada = System.nanoTime();
+            consultarVisiveis(largura, altura);
+            NivelDetalhe nivel = nivelDetalhe(largura, altura);
+            desenharCamada(largura, altura, nivel);
+            geracaoCamada = geracaoPosicoes;
+            zoomCamada = zoom;
+            centroXCamada = centroX;
+            centroYCamada = centroY;
+            nivelCamada = nivel;
+            camadasRefeitas++;
+            ultimaCamadaNanos = System.nanoTime() - inicioCamada;
+        }
+        g.drawImage(camada, 0, 0, null);
+        desenharSelecao((Graphics2D) g);
 
-        // Calcula a posição circular de cada ponto
-        for (int i = 0; i < n; i++) {
-            // Calcula o ângulo em radianos para espaçamento uniforme
+        temposRepaint[(int) (totalRepaints++ % JANELA_MEDIA)] = System.nanoTime() - inicio;
+        if (depuracao) desenharDepuracao((Graphics2D) g, nivelCamada);
+    }
+
+    /**
+     * Consulta no índice espacial (refeito se as posições mudaram) os pontos e as conexões
+     * da área visível, com uma margem de meio ponto para os que aparecem só em parte.
+     */
+    private void consultarVisiveis(int largura, int altura) {
+        long inicio = System.nanoTime();
+        if (grade == null || geracaoGrade != geracaoPosicoes) {
+            grade = new GradeEspacial(posX, posY, conexaoOrigem, conexaoDestino, numConexoes);
+            geracaoGrade = geracaoPosicoes;
+        }
+        double escalaTela = escala(largura, altura) * zoom;
+        double meiaLargura = (largura / 2.0 + DIAMETRO_COMPLETO) / escalaTela;
+        double meiaAltura = (altura / 2.0 + DIAMETRO_COMPLETO) / escalaTela;
+        double x0 = centroX - meiaLargura, x1 = centroX + meiaLargura;
+        double y0 = centroY - meiaAltura, y1 = centroY + meiaAltura;
+        pontosVisiveis = grade.pontosNoRetangulo(x0, y0, x1, y1, pontosVisiveis, quantidade);
+        numPontosVisiveis = quantidade[0];
+        conexoesVisiveis = grade.conexoesNoRetangulo(x0, y0, x1, y1, conexoesVisiveis, quantidade);
+        numConexoesVisiveis = quantidade[0];
+        ultimaConsultaNanos = System.nanoTime() - inicio;
+    }
+
+    /**
+     * Refaz a geometria da versão atual do grafo: IDs, conexões em índices e as posições
+     * circulares provisórias. Usa o layout em cache ou o pré-calculado, se servirem, ou
+     * inicia o cálculo por forças (cancelando o de uma versão anterior).
+     */
+    private void calcularLayout(long versao) {
+        int n = grafo.pontos.size();
+        ids = new int[n];
+        posX = new double[n];
+        posY = new double[n];
+        MapaIdIndice indices = new MapaIdIndice(n);
+        int i = 0;
+        for (Integer id : grafo.pontos.keySet()) {
+            // Ângulo em radianos para espaçamento uniforme
             double ang = 2 * Math.PI * i / Math.max(1, n);
-            // Calcula as coordenadas (x, y)
-            int x = (int) (cx + raio * Math.cos(ang));
-            int y = (int) (cy + raio * Math.sin(ang));
-            posicoes.put(ids.get(i), new Point(x, y));
+            ids[i] = id;
+            posX[i] = Math.cos(ang);
+            posY[i] = Math.sin(ang);
+            indices.colocar(id, i++);
         }
+        espacoNormalizado = 2 * Math.PI / Math.max(1, n);
 
-        // 1. Desenhar conexões (arestas)
-        g2.setColor(Color.GRAY);
-        g2.setStroke(new BasicStroke(2)); // Linhas de espessura 2
+        int m = grafo.conexoes.size();
+        conexaoOrigem = new int[m];
+        conexaoDestino = new int[m];
+        conexaoDistancia = new int[m];
+        numConexoes = 0;
         for (Conexao c : grafo.conexoes) {
-            Point p1 = posicoes.get(c.origem);
-            Point p2 = posicoes.get(c.destino);
-            if (p1 != null && p2 != null) {
-                // Desenha a linha entre os pontos
-                g2.drawLine(p1.x, p1.y, p2.x, p2.y);
-
-                // Desenha o peso (distância) da conexão no meio da linha
-                g2.setFont(new Font("Arial", Font.PLAIN, 10));
-                g2.drawString(c.distancia + "m", (p1.x + p2.x) / 2, (p1.y + p2.y) / 2);
+            int o = indices.obter(c.origem);
+            int d = indices.obter(c.destino);
+            if (o < 0 || d < 0) continue;
+            conexaoOrigem[numConexoes] = o;
+            conexaoDestino[numConexoes] = d;
+            conexaoDistancia[numConexoes++] = c.distancia;
+        }
+        indicePorId = indices;
+        versaoLayout = versao;
+        geracaoPosicoes++;
+
+        if (calculoAtual != null) calculoAtual.cancel(true);
+        calculoAtual = null;
+        long assinatura = LayoutForcas.assinatura(ids, conexaoOrigem, conexaoDestino, numConexoes);
+        LayoutGrafo pre = layoutPrecalculado;
+        if (pre != null && pre.getAssinatura() == assinatura && pre.tamanho() == n) {
+            aplicarLayout(pre.comVersao(versao));
+            return;
+        }
+        if (layoutForcas != null && layoutForcas.isConcluido() && layoutForcas.getVersao() == versao) {
+            // Cache: o grafo não mudou desde o último cálculo (ex.: usarLayout com um layout de outro grafo)
+            aplicarLayout(layoutForcas);
+            return;
+        }
+        // Parte do último layout calculado (o grafo mudou pouco) ou do pré-calculado
+        LayoutGrafo inicial = layoutForcas != null ? layoutForcas : pre;
+        int[] idsCalculo = ids, origens = conexaoOrigem, destinos = conexaoDestino;
+        int conexoesCalculo = numConexoes;
+        // Layouts que chegam depois de uma troca de grafo (setGrafo) são descartados
+        GrafoColetaReciclaveis grafoCalculo = grafo;
+        calculoAtual = calculoLayout.submit(() -> {
+            LayoutGrafo fim = motorLayout.calcular(versao, idsCalculo, origens, destinos, conexoesCalculo, inicial,
+                    parcial -> SwingUtilities.invokeLater(() -> {
+                        if (grafoCalculo == grafo) aplicarLayout(parcial);
+                    }));
+            if (fim != null) SwingUtilities.invokeLater(() -> {
+                if (grafoCalculo == grafo) aplicarLayout(fim);
+            });
+        });
+    }
+
+    /**
+     * Passa a desenhar um layout por forças (na thread do Swing). Layouts de versões
+     * anteriores do grafo, que chegam depois de uma alteração, são descartados.
+     */
+    private void aplicarLayout(LayoutGrafo layout) {
+        if (layout.getVersao() != versaoLayout || layout.tamanho() != ids.length) return;
+        layoutForcas = layout;
+        int n = layout.tamanho();
+        // Normaliza para [-1, 1] mantendo a proporção, centralizado
+        double minX = Double.POSITIVE_INFINITY, minY = Double.POSITIVE_INFINITY;
+        double maxX = Double.NEGATIVE_INFINITY, maxY = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < n; i++) {
+            minX = Math.min(minX, layout.x(i));
+            maxX = Math.max(maxX, layout.x(i));
+            minY = Math.min(minY, layout.y(i));
+            maxY = Math.max(maxY, layout.y(i));
+        }
+        double escala = 2 / Math.max(1e-9, Math.max(maxX - minX, maxY - minY));
+        double meioX = (minX + maxX) / 2, meioY = (minY + maxY) / 2;
+        double[] x = new double[n], y = new double[n];
+        for (int i = 0; i < n; i++) {
+            x[i] = (layout.x(i) - meioX) * escala;
+            y[i] = (layout.y(i) - meioY) * escala;
+        }
+        posX = x;
+        posY = y;
+        // Espaço típico: o lado da área que cabe a cada ponto no quadrado 2 x 2
+        espacoNormalizado = 2 / Math.sqrt(Math.max(1, n));
+        geracaoPosicoes++;
+        repaint();
+    }
+
+    /**
+     * @return A escala (pixels por unidade normalizada) das posições para o tamanho do painel.
+     */
+    private static double escala(int largura, int altura) {
+        return Math.max(1, Math.min(largura, altura) / 2 - MARGEM);
+    }
+
+    /**
+     * Escolhe o nível de detalhe pelo espaço entre pontos vizinhos na tela e pela
+     * quantidade de conexões visíveis.
+     */
+    private NivelDetalhe nivelDetalhe(int largura, int altura) {
+        double espaco = espacoNormalizado * escala(largura, altura) * zoom;
+        if (numConexoesVisiveis > MAXIMO_CONEXOES_INDIVIDUAIS || espaco < ESPACO_SIMPLIFICADO) return NivelDetalhe.AGRUPADO;
+        return espaco < ESPACO_COMPLETO ? NivelDetalhe.SIMPLIFICADO : NivelDetalhe.COMPLETO;
+    }
+
+    /**
+     * Desenha as conexões e os pontos visíveis na imagem fora da tela, no nível de detalhe informado.
+     */
+    private void desenharCamada(int largura, int altura, NivelDetalhe nivel) {
+        if (camada == null || camada.getWidth() != largura || camada.getHeight() != altura) {
+            GraphicsConfiguration gc = getGraphicsConfiguration();
+            // Imagem no formato da tela, quando disponível, para a cópia ser a mais rápida possível
+            camada = gc != null ? gc.createCompatibleImage(largura, altura)
+                    : new BufferedImage(largura, altura, BufferedImage.TYPE_INT_RGB);
+        }
+        Graphics2D g2 = camada.createGraphics();
+        try {
+            g2.setColor(getBackground());
+            g2.fillRect(0, 0, largura, altura);
+            // Antialiasing só no desenho completo: com milhares de linhas ele custa caro e não aparece
+            if (nivel == NivelDetalhe.COMPLETO) {
+                g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
             }
+
+            // Transformação das posições normalizadas para a tela, com o centro da visão no centro do painel
+            escalaDesenho = escala(largura, altura) * zoom;
+            origemX = largura / 2.0 - escalaDesenho * centroX;
+            origemY = altura / 2.0 - escalaDesenho * centroY;
+
+            // 1. Desenhar conexões (arestas)
+            if (nivel == NivelDetalhe.AGRUPADO) desenharConexoesAgrupadas(g2);
+            else desenharConexoes(g2, nivel == NivelDetalhe.COMPLETO);
+
+            // 2. Desenhar pontos (vértices)
+            if (nivel == NivelDetalhe.COMPLETO) desenharPontosCompletos(g2);
+            else desenharPontosSimplificados(g2, nivel, espacoNormalizado * escalaDesenho);
+        } finally {
+            g2.dispose();
         }
+    }
 
-        // 2. Desenhar pontos (vértices)
-        for (Map.Entry<Integer, Point> entry : posicoes.entrySet()) {
-            Point p = entry.getValue();
+    /**
+     * @return A coordenada de tela (limitada para não estourar um int) do ponto de índice i.
+     */
+    private int telaX(int i) {
+        return (int) Math.max(-LIMITE_TELA, Math.min(LIMITE_TELA, origemX + escalaDesenho * posX[i]));
+    }
+
+    private int telaY(int i) {
+        return (int) Math.max(-LIMITE_TELA, Math.min(LIMITE_TELA, origemY + escalaDesenho * posY[i]));
+    }
 
+    /**
+     * Desenha cada conexão visível, com a distância no meio da linha se 'rotulos' for true.
+     */
+    private void desenharConexoes(Graphics2D g2, boolean rotulos) {
+        g2.setColor(Color.GRAY);
+        g2.setStroke(rotulos ? TRACO_GROSSO : TRACO_FINO); // Linhas de espessura 2 no desenho completo
+        g2.setFont(FONTE_DISTANCIA);
+        for (int v = 0; v < numConexoesVisiveis; v++) {
+            int k = conexoesVisiveis[v];
+            int x1 = telaX(conexaoOrigem[k]), y1 = telaY(conexaoOrigem[k]);
+            int x2 = telaX(conexaoDestino[k]), y2 = telaY(conexaoDestino[k]);
+            g2.drawLine(x1, y1, x2, y2);
+            // Desenha o peso (distância) da conexão no meio da linha
+            if (rotulos) g2.drawString(conexaoDistancia[k] + "m", (x1 + x2) / 2, (y1 + y2) / 2);
+        }
+        segmentosCamada = numConexoesVisiveis;
+    }
+
+    /**
+     * Agrupa as conexões cujas pontas caem nas mesmas células da tela (nos dois sentidos)
+     * e desenha uma linha translúcida por grupo: vistas de longe, milhares de conexões
+     * paralelas viram poucas linhas sem mudar o desenho.
+     */
+    private void desenharConexoesAgrupadas(Graphics2D g2) {
+        // Células de toda a faixa de coordenadas limitadas, para caber em 32 bits
+        int colunas = 2 * LIMITE_TELA / CELULA_AGRUPAMENTO + 1;
+        Set<Long> desenhados = new HashSet<>();
+        g2.setColor(COR_CONEXAO_AGRUPADA);
+        g2.setStroke(TRACO_FINO);
+        for (int v = 0; v < numConexoesVisiveis; v++) {
+            int k = conexoesVisiveis[v];
+            int x1 = telaX(conexaoOrigem[k]), y1 = telaY(conexaoOrigem[k]);
+            int x2 = telaX(conexaoDestino[k]), y2 = telaY(conexaoDestino[k]);
+            long celulaO = (long) ((y1 + LIMITE_TELA) / CELULA_AGRUPAMENTO) * colunas + (x1 + LIMITE_TELA) / CELULA_AGRUPAMENTO;
+            long celulaD = (long) ((y2 + LIMITE_TELA) / CELULA_AGRUPAMENTO) * colunas + (x2 + LIMITE_TELA) / CELULA_AGRUPAMENTO;
+            // Ida e volta entre as mesmas células contam como um grupo só
+            long chave = Math.min(celulaO, celulaD) << 32 | Math.max(celulaO, celulaD);
+            if (desenhados.add(chave)) g2.drawLine(x1, y1, x2, y2);
+        }
+        segmentosCamada = desenhados.size();
+    }
+
+    /**
+     * Desenha os pontos como círculos com borda e o ID centralizado.
+     */
+    private void desenharPontosCompletos(Graphics2D g2) {
+        int r = DIAMETRO_COMPLETO / 2;
+        g2.setStroke(TRACO_GROSSO);
+        g2.setFont(FONTE_ID);
+        FontMetrics fm = g2.getFontMetrics();
+        for (int v = 0; v < numPontosVisiveis; v++) {
+            int i = pontosVisiveis[v];
+            int x = telaX(i), y = telaY(i);
             // Desenha a elipse (círculo) preenchida
-            g2.setColor(new Color(100, 149, 237)); // Azul bonito
-            g2.fillOval(p.x - 25, p.y - 25, 50, 50);
+            g2.setColor(COR_PONTO);
+            g2.fillOval(x - r, y - r, DIAMETRO_COMPLETO, DIAMETRO_COMPLETO);
 
             // Desenha a borda do círculo
             g2.setColor(Color.BLACK);
-            g2.setStroke(new BasicStroke(2));
-            g2.drawOval(p.x - 25, p.y - 25, 50, 50);
+            g2.drawOval(x - r, y - r, DIAMETRO_COMPLETO, DIAMETRO_COMPLETO);
 
             // Desenha o ID do ponto no centro
-            g2.setFont(new Font("Arial", Font.BOLD, 12));
-            String label = String.valueOf(entry.getKey());
-            FontMetrics fm = g2.getFontMetrics();
-            int w = fm.stringWidth(label);
-            g2.drawString(label, p.x - w/2, p.y + 5); // Centraliza o texto
+            String label = String.valueOf(ids[i]);
+            g2.drawString(label, x - fm.stringWidth(label) / 2, y + 5); // Centraliza o texto
+        }
+    }
+
+    /**
+     * Desenha os pontos sem borda nem rótulo, com diâmetro proporcional ao espaço entre
+     * vizinhos (um pixel no nível agrupado).
+     */
+    private void desenharPontosSimplificados(Graphics2D g2, NivelDetalhe nivel, double espaco) {
+        g2.setColor(COR_PONTO);
+        if (nivel == NivelDetalhe.AGRUPADO) {
+            for (int v = 0; v < numPontosVisiveis; v++) {
+                g2.fillRect(telaX(pontosVisiveis[v]), telaY(pontosVisiveis[v]), 1, 1);
+            }
+            return;
+        }
+        int diametro = Math.max(2, Math.min(DIAMETRO_COMPLETO, (int) (espaco * 0.5)));
+        int r = diametro / 2;
+        for (int v = 0; v < numPontosVisiveis; v++) {
+            g2.fillOval(telaX(pontosVisiveis[v]) - r, telaY(pontosVisiveis[v]) - r, diametro, diametro);
+        }
+    }
+
+    /**
+     * Destaca o ponto selecionado com um anel e o seu ID e nome (fora da camada em cache,
+     * para a seleção não exigir redesenhar o grafo).
+     */
+    private void desenharSelecao(Graphics2D g2) {
+        PontoColeta p = getPontoSelecionado();
+        if (p == null) return;
+        int i = indicePorId.obter(p.id);
+        if (i < 0) return;
+        int x = telaX(i), y = telaY(i);
+        if (x < -DIAMETRO_COMPLETO || y < -DIAMETRO_COMPLETO || x > getWidth() + DIAMETRO_COMPLETO
+                || y > getHeight() + DIAMETRO_COMPLETO) return;
+        g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        int r = (nivelCamada == NivelDetalhe.COMPLETO ? DIAMETRO_COMPLETO / 2 : RAIO_CLIQUE) + 4;
+        g2.setColor(COR_SELECAO);
+        g2.setStroke(TRACO_SELECAO);
+        g2.drawOval(x - r, y - r, 2 * r, 2 * r);
+
+        String texto = p.id + " - " + p.nome;
+        g2.setFont(FONTE_ID);
+        FontMetrics fm = g2.getFontMetrics();
+        int tx = x + r + 4, ty = y - r;
+        g2.setColor(COR_FUNDO_DEPURACAO);
+        g2.fillRect(tx - 4, ty - fm.getAscent() - 2, fm.stringWidth(texto) + 8, fm.getHeight() + 4);
+        g2.setColor(Color.WHITE);
+        g2.drawString(texto, tx, ty);
+    }
+
+    /**
+     * @return O estado do layout exibido, para a sobreposição de depuração.
+     */
+    private String descreverLayout() {
+        LayoutGrafo l = layoutForcas;
+        if (l == null || l.getVersao() != versaoLayout) return "circular (calculando forças)";
+        if (!l.isConcluido()) return "forças, iteração " + l.getIteracoes() + " (parcial)";
+        return l.getIteracoes() == 0 ? "pré-calculado" : "forças, " + l.getIteracoes() + " iterações";
+    }
+
+    /**
+     * Desenha no canto a média e o último tempo de repaint, o nível de detalhe e os contadores do cache.
+     */
+    private void desenharDepuracao(Graphics2D g2, NivelDetalhe nivel) {
+        int amostras = (int) Math.min(totalRepaints, JANELA_MEDIA);
+        long soma = 0;
+        for (int i = 0; i < amostras; i++) soma += temposRepaint[i];
+        String[] linhas = {
+                String.format("repaint: %.2f ms (média de %d: %.2f ms)",
+                        temposRepaint[(int) ((totalRepaints - 1) % JANELA_MEDIA)] / 1e6, amostras, soma / 1e6 / amostras),
+                String.format("camada: refeita %d de %d vezes (última em %.1f ms)",
+                        camadasRefeitas, totalRepaints, ultimaCamadaNanos / 1e6),
+                String.format("detalhe: %s | zoom %.1fx | visíveis: %d de %d pontos, %d de %d conexões em %d linhas",
+                        nivel, zoom, numPontosVisiveis, ids.length, numConexoesVisiveis, numConexoes, segmentosCamada),
+                String.format("consulta ao índice espacial: %.2f ms", ultimaConsultaNanos / 1e6),
+                "versão do grafo: " + versaoLayout + " | layout: " + descreverLayout()
+        };
+        g2.setFont(FONTE_DEPURACAO);
+        FontMetrics fm = g2.getFontMetrics();
+        int largura = 0;
+        for (String linha : linhas) largura = Math.max(largura, fm.stringWidth(linha));
+        g2.setColor(COR_FUNDO_DEPURACAO);
+        g2.fillRect(8, 8, largura + 12, linhas.length * fm.getHeight() + 8);
+        g2.setColor(Color.WHITE);
+        for (int i = 0; i < linhas.length; i++) {
+            g2.drawString(linhas[i], 14, 12 + fm.getAscent() + i * fm.getHeight());
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,131 @@
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Execução em lote, sem interface gráfica (ex.: cálculo noturno de rotas em um servidor).
+ * Carrega o grafo (snapshot binário ou arquivos de texto, como a interface), executa um
+ * arquivo de consultas (ver Consulta e TipoConsulta) e grava os resultados em outro
+ * arquivo, no formato dos registros do MotorConsultas.
+ *
+ * As consultas rodam em paralelo, uma por thread, sobre uma VersaoGrafo (sem travas).
+ * O arquivo de consultas é lido em fluxo e os resultados são gravados na ordem das
+ * consultas assim que cada uma termina; no máximo 'JANELA_POR_THREAD' consultas por
+ * thread ficam em andamento ou aguardando a gravação, então a memória não depende do
+ * tamanho do arquivo (só do maior resultado, como uma matriz de um grafo grande).
+ *
+ * Uso: java ProcessadorConsultas arquivoConsultas arquivoSaida [arquivoPontos] [arquivoConexoes] [arquivoSnapshot] [threads]
+ * Ex.: java ProcessadorConsultas consultas.txt resultados.txt pontos_1m.txt rotas_1m.txt grafo_1m.snap 8
+ */
+public final class ProcessadorConsultas {
+    // Consultas em andamento ou aguardando a gravação, por thread
+    private static final int JANELA_POR_THREAD = 4;
+
+    private ProcessadorConsultas() {
+    }
+
+    /**
+     * Executa todas as consultas do arquivo de entrada e grava os resultados na ordem das consultas.
+     * @param versao A versão do grafo consultada.
+     * @param arquivoConsultas O arquivo de consultas (uma por linha).
+     * @param arquivoSaida O arquivo de resultados (sobrescrito).
+     * @param numThreads A quantidade de consultas executadas ao mesmo tempo.
+     * @return A quantidade de consultas executadas (linhas que não são vazias nem comentários).
+     * @throws IOException Se houver erro de leitura ou de escrita.
+     */
+    public static long processar(VersaoGrafo versao, String arquivoConsultas, String arquivoSaida,
+                                 int numThreads) throws IOException {
+        // As consultas já rodam em paralelo: dentro de cada uma, as buscas rodam na própria thread
+        MotorConsultas motor = new MotorConsultas(versao, Runnable::run, 1);
+        ExecutorService threads = Executors.newFixedThreadPool(numThreads, tarefa -> {
+            Thread t = new Thread(tarefa, "consultas");
+            t.setDaemon(true);
+            return t;
+        });
+        ArrayDeque<CompletableFuture<String>> pendentes = new ArrayDeque<>();
+        long executadas = 0;
+        try (BufferedReader entrada = Files.newBufferedReader(Paths.get(arquivoConsultas), StandardCharsets.UTF_8);
+             BufferedWriter saida = Files.newBufferedWriter(Paths.get(arquivoSaida), StandardCharsets.UTF_8)) {
+            String texto;
+            long linha = 0;
+            while ((texto = entrada.readLine()) != null) {
+                linha++;
+                CompletableFuture<String> resultado;
+                try {
+                    Consulta consulta = Consulta.interpretar(linha, texto);
+                    if (consulta == null) continue;
+                    executadas++;
+                    resultado = CompletableFuture.supplyAsync(() -> motor.executar(consulta), threads);
+                } catch (IllegalArgumentException e) {
+                    // A linha inválida entra na saída na sua posição, sem parar o lote
+                    resultado = CompletableFuture.completedFuture(MotorConsultas.erro(linha, e.getMessage()));
+                }
+                pendentes.add(resultado);
+                // Janela cheia: grava (esperando, se preciso) o resultado mais antigo
+                if (pendentes.size() >= numThreads * JANELA_POR_THREAD) gravar(pendentes.poll(), saida);
+            }
+            while (!pendentes.isEmpty()) gravar(pendentes.poll(), saida);
+        } finally {
+            threads.shutdownNow();
+        }
+        return executadas;
+    }
+
+    /**
+     * Espera o resultado de uma consulta e o grava.
+     */
+    private static void gravar(CompletableFuture<String> resultado, Writer saida) throws IOException {
+        try {
+            saida.write(resultado.get());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Execução das consultas interrompida", e);
+        } catch (ExecutionException e) {
+            // Falha inesperada do motor (os erros de consulta já viram registros ERRO)
+            throw new IOException("Falha ao executar uma consulta", e.getCause());
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Uso: java ProcessadorConsultas arquivoConsultas arquivoSaida"
+                    + " [arquivoPontos] [arquivoConexoes] [arquivoSnapshot] [threads]");
+            System.err.println("Consultas (uma por linha, campos separados por ';'):");
+            for (TipoConsulta t : TipoConsulta.values()) System.err.println("  " + t.getSintaxe());
+            System.exit(1);
+        }
+        String arquivoPontos = args.length > 2 ? args[2] : "pontos_coleta.txt";
+        String arquivoConexoes = args.length > 3 ? args[3] : "rotas_coletas.txt";
+        String arquivoSnapshot = args.length > 4 ? args[4] : "grafo_coleta.snap";
+        int numThreads = args.length > 5 ? Integer.parseInt(args[5]) : Runtime.getRuntime().availableProcessors();
+
+        long inicio = System.nanoTime();
+        GrafoColetaReciclaveis grafo = new GrafoColetaReciclaveis();
+        // O A* usa a heurística de marcos (ALT), como na interface gráfica
+        grafo.usarHeuristicaMarcos(8);
+        List<RelatorioCarga> relatorios = grafo.carregarArquivos(arquivoSnapshot, arquivoPontos, arquivoConexoes);
+        for (RelatorioCarga rel : relatorios) {
+            if (!rel.semErros()) System.err.print(rel.descreverErros(10));
+        }
+        // O grafo carregado passa a pertencer à versão e não é mais alterado
+        VersaoGrafo versao = new VersaoGrafo(1, grafo);
+        System.err.printf("Grafo carregado (%s): %d pontos, %d conexões (%.1f s)%n",
+                relatorios.isEmpty() ? "snapshot" : "arquivos de texto", versao.getPontos().size(),
+                versao.getConexoes().size(), (System.nanoTime() - inicio) / 1e9);
+
+        inicio = System.nanoTime();
+        long executadas = processar(versao, args[0], args[1], numThreads);
+        System.err.printf("%d consultas executadas com %d threads em %s (%.1f s)%n",
+                executadas, numThreads, args[1], (System.nanoTime() - inicio) / 1e9);
+    }
+}
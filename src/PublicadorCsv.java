@@ -0,0 +1,69 @@
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Acrescenta as métricas a um arquivo CSV, separado por ';' como os arquivos de dados,
+ * no formato longo "instante;metrica;valor": uma linha por estatística de cada operação
+ * (ex.: CAMINHO_DIJKSTRA.p99_us) e por medidor. O formato não muda quando surgem
+ * operações ou medidores novos, então o mesmo arquivo acumula execuções diferentes.
+ */
+public class PublicadorCsv implements PublicadorMetricas {
+    private static final String CABECALHO = "instante;metrica;valor";
+
+    private final Path arquivo;
+
+    /**
+     * @param arquivo O arquivo CSV (criado com o cabeçalho, se ainda não existir).
+     */
+    public PublicadorCsv(String arquivo) {
+        this.arquivo = Paths.get(arquivo);
+    }
+
+    @Override
+    public synchronized void publicar(InstantaneoMetricas instantaneo) throws IOException {
+        boolean novo = !Files.exists(arquivo) || Files.size(arquivo) == 0;
+        try (BufferedWriter saida = Files.newBufferedWriter(arquivo, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            if (novo) {
+                saida.write(CABECALHO);
+                saida.newLine();
+            }
+            String instante = Instant.ofEpochMilli(instantaneo.getInstante()).toString();
+            for (ResumoLatencia r : instantaneo.getOperacoes()) {
+                String op = r.getOperacao().name();
+                linha(saida, instante, op + ".contagem", Long.toString(r.getContagem()));
+                linha(saida, instante, op + ".media_us", microssegundos(r.getMediaNanos()));
+                linha(saida, instante, op + ".p50_us", microssegundos(r.getP50Nanos()));
+                linha(saida, instante, op + ".p90_us", microssegundos(r.getP90Nanos()));
+                linha(saida, instante, op + ".p99_us", microssegundos(r.getP99Nanos()));
+                linha(saida, instante, op + ".p999_us", microssegundos(r.getP999Nanos()));
+                linha(saida, instante, op + ".maximo_us", microssegundos(r.getMaximoNanos()));
+            }
+            for (Map.Entry<String, Long> m : instantaneo.getMedidores().entrySet()) {
+                linha(saida, instante, m.getKey(), Long.toString(m.getValue()));
+            }
+        }
+    }
+
+    private static void linha(BufferedWriter saida, String instante, String metrica, String valor) throws IOException {
+        saida.write(instante);
+        saida.write(';');
+        saida.write(metrica);
+        saida.write(';');
+        saida.write(valor);
+        saida.newLine();
+    }
+
+    private static String microssegundos(double nanos) {
+        // Ponto decimal fixo, independente da localidade da máquina
+        return String.format(Locale.ROOT, "%.3f", nanos / 1e3);
+    }
+}
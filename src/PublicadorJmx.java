@@ -0,0 +1,174 @@
+import javax.management.Attribute;
+import javax.management.AttributeList;
+import javax.management.AttributeNotFoundException;
+import javax.management.DynamicMBean;
+import javax.management.JMException;
+import javax.management.MBeanAttributeInfo;
+import javax.management.MBeanInfo;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.ReflectionException;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Expõe as métricas como um MBean (atributos somente leitura), para o JConsole, o
+ * VisualVM ou qualquer coletor JMX. Os atributos mostram o último instantâneo
+ * publicado: "OPERACAO.contagem", "OPERACAO.p99Nanos"... (todas as operações, mesmo
+ * as ainda não executadas) e um atributo por medidor.
+ *
+ * O MBeanInfo de um registro não muda: se a publicação trouxer outro conjunto de
+ * atributos (um medidor definido depois), o MBean é retirado e registrado de novo, e os
+ * clientes JMX recebem as notificações de registro e passam a ver a nova lista.
+ *
+ * Ex.: metricas.publicarPeriodicamente(new PublicadorJmx("reciclaveis:type=Metricas"), 10, TimeUnit.SECONDS)
+ */
+public class PublicadorJmx implements PublicadorMetricas, DynamicMBean, AutoCloseable {
+    private static final String[] ESTATISTICAS = {"contagem", "mediaNanos", "p50Nanos", "p90Nanos", "p99Nanos",
+            "p999Nanos", "maximoNanos"};
+    // Valores iniciais dos atributos (Object, para não haver conversão entre Long e Double)
+    private static final Object ZERO_LONG = 0L;
+    private static final Object ZERO_DOUBLE = 0.0;
+
+    private final MBeanServer servidor;
+    private final ObjectName nome;
+    // Valores do último instantâneo, por nome de atributo (substituído inteiro a cada publicação)
+    private volatile Map<String, Object> atributos;
+    // Descrição dos atributos do registro atual (refeita só quando o conjunto de nomes muda)
+    private volatile MBeanInfo info;
+    // Indica se o MBean está registrado no servidor (escrito sob a trava do publicador)
+    private boolean registrado;
+
+    /**
+     * Registra o MBean no servidor da plataforma.
+     * @param nomeObjeto O ObjectName do MBean (ex.: "reciclaveis:type=Metricas").
+     * @throws JMException Se o nome for inválido ou já estiver registrado.
+     */
+    public PublicadorJmx(String nomeObjeto) throws JMException {
+        servidor = ManagementFactory.getPlatformMBeanServer();
+        nome = new ObjectName(nomeObjeto);
+        atualizar(new InstantaneoMetricas(System.currentTimeMillis(), Collections.emptyList(), Collections.emptyMap()));
+        synchronized (this) {
+            servidor.registerMBean(this, nome);
+            registrado = true;
+        }
+    }
+
+    /**
+     * Publica o instantâneo, registrando o MBean de novo se o conjunto de atributos mudou.
+     * @throws IOException Se o novo registro falhar (o MBean fica fora do servidor).
+     */
+    @Override
+    public synchronized void publicar(InstantaneoMetricas instantaneo) throws IOException {
+        if (!atualizar(instantaneo) || !registrado) return;
+        try {
+            servidor.unregisterMBean(nome);
+            registrado = false;
+            servidor.registerMBean(this, nome);
+            registrado = true;
+        } catch (JMException e) {
+            throw new IOException("Falha ao registrar de novo o MBean " + nome, e);
+        }
+    }
+
+    /**
+     * Troca os valores dos atributos pelos do instantâneo.
+     * @return true se o conjunto de atributos mudou (o MBeanInfo foi refeito).
+     */
+    private boolean atualizar(InstantaneoMetricas instantaneo) {
+        Map<String, Object> valores = new LinkedHashMap<>();
+        // Todas as operações, com zeros até a primeira execução: a lista de atributos não muda
+        for (OperacaoGrafo op : OperacaoGrafo.values()) {
+            for (String e : ESTATISTICAS) {
+                Object zero = e.equals("mediaNanos") ? ZERO_DOUBLE : ZERO_LONG;
+                valores.put(op.name() + "." + e, zero);
+            }
+        }
+        for (ResumoLatencia r : instantaneo.getOperacoes()) {
+            String op = r.getOperacao().name();
+            valores.put(op + ".contagem", r.getContagem());
+            valores.put(op + ".mediaNanos", r.getMediaNanos());
+            valores.put(op + ".p50Nanos", r.getP50Nanos());
+            valores.put(op + ".p90Nanos", r.getP90Nanos());
+            valores.put(op + ".p99Nanos", r.getP99Nanos());
+            valores.put(op + ".p999Nanos", r.getP999Nanos());
+            valores.put(op + ".maximoNanos", r.getMaximoNanos());
+        }
+        valores.putAll(instantaneo.getMedidores());
+        Map<String, Object> anteriores = atributos;
+        boolean mudou = anteriores == null || !anteriores.keySet().equals(valores.keySet());
+        if (mudou) info = construirInfo(valores);
+        atributos = valores;
+        return mudou;
+    }
+
+    private MBeanInfo construirInfo(Map<String, Object> valores) {
+        MBeanAttributeInfo[] lista = new MBeanAttributeInfo[valores.size()];
+        int i = 0;
+        for (Map.Entry<String, Object> a : valores.entrySet()) {
+            lista[i++] = new MBeanAttributeInfo(a.getKey(), a.getValue().getClass().getName(), a.getKey(),
+                    true, false, false);
+        }
+        return new MBeanInfo(getClass().getName(), "Métricas do grafo de coleta de recicláveis",
+                lista, null, null, null);
+    }
+
+    @Override
+    public Object getAttribute(String atributo) throws AttributeNotFoundException {
+        Object valor = atributos.get(atributo);
+        if (valor == null) throw new AttributeNotFoundException(atributo);
+        return valor;
+    }
+
+    @Override
+    public AttributeList getAttributes(String[] nomes) {
+        Map<String, Object> atuais = atributos;
+        AttributeList lista = new AttributeList();
+        for (String n : nomes) {
+            Object valor = atuais.get(n);
+            if (valor != null) lista.add(new Attribute(n, valor));
+        }
+        return lista;
+    }
+
+    @Override
+    public MBeanInfo getMBeanInfo() {
+        return info;
+    }
+
+    /**
+     * Os atributos são somente leitura: responde como um MBean padrão a um atributo sem setter.
+     */
+    @Override
+    public void setAttribute(Attribute atributo) throws AttributeNotFoundException {
+        String n = atributo.getName();
+        if (!atributos.containsKey(n)) throw new AttributeNotFoundException(n);
+        throw new AttributeNotFoundException("Atributo somente leitura: " + n);
+    }
+
+    @Override
+    public AttributeList setAttributes(AttributeList atributos) {
+        return new AttributeList();
+    }
+
+    /**
+     * O MBean não tem operações: qualquer ação é desconhecida, como num MBean padrão.
+     */
+    @Override
+    public Object invoke(String acao, Object[] parametros, String[] assinatura) throws ReflectionException {
+        throw new ReflectionException(new NoSuchMethodException(acao), "O MBean de métricas não tem operações");
+    }
+
+    /**
+     * Retira o MBean do servidor; publicações posteriores só atualizam os valores.
+     * @throws JMException Se ele já tiver sido retirado.
+     */
+    @Override
+    public synchronized void close() throws JMException {
+        registrado = false;
+        servidor.unregisterMBean(nome);
+    }
+}
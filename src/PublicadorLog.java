@@ -0,0 +1,40 @@
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Publica as métricas no java.util.logging: uma linha por operação e uma com os medidores.
+ */
+public class PublicadorLog implements PublicadorMetricas {
+    private final Logger logger;
+    private final Level nivel;
+
+    /**
+     * Publica no logger "MetricasGrafo", no nível INFO.
+     */
+    public PublicadorLog() {
+        this(Logger.getLogger(MetricasGrafo.class.getName()), Level.INFO);
+    }
+
+    /**
+     * @param logger O logger de destino.
+     * @param nivel O nível das mensagens.
+     */
+    public PublicadorLog(Logger logger, Level nivel) {
+        this.logger = logger;
+        this.nivel = nivel;
+    }
+
+    @Override
+    public void publicar(InstantaneoMetricas instantaneo) {
+        if (!logger.isLoggable(nivel)) return;
+        for (ResumoLatencia r : instantaneo.getOperacoes()) logger.log(nivel, r.toString());
+        if (!instantaneo.getMedidores().isEmpty()) {
+            StringBuilder sb = new StringBuilder("Medidores:");
+            for (Map.Entry<String, Long> m : instantaneo.getMedidores().entrySet()) {
+                sb.append(' ').append(m.getKey()).append('=').append(m.getValue());
+            }
+            logger.log(nivel, sb.toString());
+        }
+    }
+}
@@ -0,0 +1,16 @@
+import java.io.IOException;
+
+/**
+ * Destino das métricas do grafo (log, arquivo CSV, JMX...).
+ * Recebe instantâneos de MetricasGrafo.publicar(...) ou publicarPeriodicamente(...).
+ */
+@FunctionalInterface
+public interface PublicadorMetricas {
+
+    /**
+     * Publica um instantâneo das métricas.
+     * @param instantaneo As métricas lidas.
+     * @throws IOException Se houver erro ao gravar no destino.
+     */
+    void publicar(InstantaneoMetricas instantaneo) throws IOException;
+}
@@ -0,0 +1,193 @@
+import java.util.Arrays;
+
+/**
+ * Quadtree da aproximação de Barnes–Hut, usada pelo LayoutForcas para calcular a
+ * repulsão entre todos os pontos em O(n log n) em vez de O(n²): um grupo de pontos
+ * distante (lado da célula / distância < theta) age como um único ponto, com a massa
+ * do grupo, no seu centro de massa.
+ *
+ * Os nós ficam em vetores planos (sem um objeto por nó), com os 4 filhos de cada nó
+ * em posições consecutivas. A árvore é montada por uma thread e depois só lida, então
+ * várias threads podem calcular forças ao mesmo tempo.
+ */
+class QuadtreeBarnesHut {
+    // Marca de nó sem filhos (folha) e de folha vazia
+    private static final int SEM_FILHOS = -1;
+    private static final int VAZIO = -1;
+    // Folha com vários pontos: células menores que isto não são mais divididas (pontos coincidentes)
+    private static final int AGRUPADO = -2;
+    private static final double LADO_MINIMO = 1e-6;
+
+    // Centro e metade do lado de cada célula
+    private double[] centroX, centroY, metade;
+    // Massa (quantidade de pontos) e soma das posições dos pontos de cada célula
+    private double[] massa, somaX, somaY;
+    // Primeiro dos 4 filhos, ou SEM_FILHOS; e o ponto de uma folha (VAZIO, índice ou AGRUPADO)
+    private int[] primeiroFilho, ponto;
+    private int numNos;
+
+    /**
+     * Monta a quadtree dos pontos.
+     * @param x As coordenadas X dos pontos.
+     * @param y As coordenadas Y dos pontos.
+     * @param n A quantidade de pontos (os primeiros n dos vetores).
+     */
+    QuadtreeBarnesHut(double[] x, double[] y, int n) {
+        int capacidade = Math.max(16, 2 * n + 1);
+        centroX = new double[capacidade];
+        centroY = new double[capacidade];
+        metade = new double[capacidade];
+        massa = new double[capacidade];
+        somaX = new double[capacidade];
+        somaY = new double[capacidade];
+        primeiroFilho = new int[capacidade];
+        ponto = new int[capacidade];
+
+        // A raiz é o menor quadrado que contém todos os pontos
+        double minX = Double.POSITIVE_INFINITY, minY = Double.POSITIVE_INFINITY;
+        double maxX = Double.NEGATIVE_INFINITY, maxY = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < n; i++) {
+            minX = Math.min(minX, x[i]);
+            maxX = Math.max(maxX, x[i]);
+            minY = Math.min(minY, y[i]);
+            maxY = Math.max(maxY, y[i]);
+        }
+        double lado = n == 0 ? 1 : Math.max(Math.max(maxX - minX, maxY - minY), LADO_MINIMO);
+        novoNo((minX + maxX) / 2, (minY + maxY) / 2, lado / 2 * 1.0001);
+        for (int i = 0; i < n; i++) inserir(i, x[i], y[i]);
+    }
+
+    private int novoNo(double cx, double cy, double m) {
+        if (numNos == centroX.length) crescer();
+        int no = numNos++;
+        centroX[no] = cx;
+        centroY[no] = cy;
+        metade[no] = m;
+        massa[no] = somaX[no] = somaY[no] = 0;
+        primeiroFilho[no] = SEM_FILHOS;
+        ponto[no] = VAZIO;
+        return no;
+    }
+
+    private void crescer() {
+        int capacidade = centroX.length * 2;
+        centroX = Arrays.copyOf(centroX, capacidade);
+        centroY = Arrays.copyOf(centroY, capacidade);
+        metade = Arrays.copyOf(metade, capacidade);
+        massa = Arrays.copyOf(massa, capacidade);
+        somaX = Arrays.copyOf(somaX, capacidade);
+        somaY = Arrays.copyOf(somaY, capacidade);
+        primeiroFilho = Arrays.copyOf(primeiroFilho, capacidade);
+        ponto = Arrays.copyOf(ponto, capacidade);
+    }
+
+    /**
+     * @return O filho de 'no' (já dividido) que contém a posição.
+     */
+    private int quadrante(int no, double px, double py) {
+        return primeiroFilho[no] + (px >= centroX[no] ? 1 : 0) + (py >= centroY[no] ? 2 : 0);
+    }
+
+    /**
+     * Desce da raiz até a folha da posição, somando o ponto em cada célula do caminho;
+     * uma folha já ocupada é dividida e o ponto antigo desce para o filho dele.
+     */
+    private void inserir(int i, double px, double py) {
+        int no = 0;
+        while (true) {
+            massa[no]++;
+            somaX[no] += px;
+            somaY[no] += py;
+            if (primeiroFilho[no] != SEM_FILHOS) {
+                no = quadrante(no, px, py);
+                continue;
+            }
+            if (ponto[no] == VAZIO) {
+                ponto[no] = i;
+                return;
+            }
+            if (ponto[no] == AGRUPADO || metade[no] < LADO_MINIMO) {
+                // Pontos (quase) coincidentes ficam juntos na mesma folha
+                ponto[no] = AGRUPADO;
+                return;
+            }
+            // Divide a folha: o ponto que estava nela desce para o filho correspondente
+            int antigo = ponto[no];
+            double ax = somaX[no] - px, ay = somaY[no] - py;
+            double m = metade[no] / 2;
+            int primeiro = novoNo(centroX[no] - m, centroY[no] - m, m);
+            novoNo(centroX[no] + m, centroY[no] - m, m);
+            novoNo(centroX[no] - m, centroY[no] + m, m);
+            novoNo(centroX[no] + m, centroY[no] + m, m);
+            primeiroFilho[no] = primeiro;
+            ponto[no] = VAZIO;
+            int filho = quadrante(no, ax, ay);
+            massa[filho] = 1;
+            somaX[filho] = ax;
+            somaY[filho] = ay;
+            ponto[filho] = antigo;
+            no = quadrante(no, px, py);
+        }
+    }
+
+    /**
+     * Soma a repulsão de todos os pontos sobre o ponto i, com força k²/d por unidade de
+     * massa (Fruchterman–Reingold), aproximando as células distantes pelo centro de massa.
+     * @param i O índice do ponto.
+     * @param px A coordenada X do ponto.
+     * @param py A coordenada Y do ponto.
+     * @param k2 O quadrado da distância ideal entre pontos ligados.
+     * @param theta O critério de abertura (0 = exato; 0,5 a 1,2 é o usual).
+     * @param pilha Espaço de trabalho da thread, com ao menos 'profundidadeMaxima' posições.
+     * @param forca Recebe a força resultante: forca[0] em X e forca[1] em Y.
+     */
+    void repulsao(int i, double px, double py, double k2, double theta, int[] pilha, double[] forca) {
+        double fx = 0, fy = 0;
+        double theta2 = theta * theta;
+        int topo = 0;
+        pilha[topo++] = 0;
+        while (topo > 0) {
+            int no = pilha[--topo];
+            double m = massa[no];
+            if (m == 0 || ponto[no] == i) continue;
+            double dx = px - somaX[no] / m, dy = py - somaY[no] / m;
+            double d2 = dx * dx + dy * dy;
+            double lado = 2 * metade[no];
+            if (primeiroFilho[no] == SEM_FILHOS || lado * lado < theta2 * d2) {
+                // Folha ou célula distante: age como um ponto só
+                if (ponto[no] == AGRUPADO && d2 < LADO_MINIMO * LADO_MINIMO) continue;
+                if (d2 < 1e-12) {
+                    // Pontos na mesma posição: empurra em uma direção que depende do índice
+                    dx = Math.cos(i);
+                    dy = Math.sin(i);
+                    d2 = 1e-6;
+                }
+                // |F| = m·k²/d na direção de (dx, dy): F = m·k²·(dx, dy)/d²
+                double f = m * k2 / d2;
+                fx += dx * f;
+                fy += dy * f;
+            } else {
+                int filho = primeiroFilho[no];
+                pilha[topo++] = filho;
+                pilha[topo++] = filho + 1;
+                pilha[topo++] = filho + 2;
+                pilha[topo++] = filho + 3;
+            }
+        }
+        forca[0] = fx;
+        forca[1] = fy;
+    }
+
+    /**
+     * @return O tamanho de pilha suficiente para o percurso em 'repulsao'.
+     */
+    int profundidadeMaxima() {
+        // Cada nível empilha no máximo 3 irmãos pendentes, mais os 4 filhos do último
+        return 3 * alturaMaxima() + 8;
+    }
+
+    private int alturaMaxima() {
+        // Cada divisão reduz o lado pela metade; a árvore para em LADO_MINIMO
+        return (int) Math.ceil(Math.log(Math.max(2, metade[0] / LADO_MINIMO)) / Math.log(2)) + 2;
+    }
+}
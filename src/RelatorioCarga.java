@@ -0,0 +1,112 @@
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Resumo da leitura de um arquivo de dados: quantas linhas foram lidas e
+ * aceitas, e quais linhas estavam mal formadas (com o número da linha).
+ * Linhas inválidas não interrompem a carga; elas são apenas registradas aqui.
+ */
+public class RelatorioCarga {
+    // Quantidade máxima de erros guardados com detalhes (os demais são só contados)
+    public static final int MAXIMO_ERROS_DETALHADOS = 1000;
+
+    /**
+     * Uma linha mal formada do arquivo.
+     */
+    public static class ErroLinha {
+        // Número da linha no arquivo (1-based)
+        final long numeroLinha;
+        // Descrição do problema encontrado
+        final String mensagem;
+
+        public ErroLinha(long numeroLinha, String mensagem) {
+            this.numeroLinha = numeroLinha;
+            this.mensagem = mensagem;
+        }
+
+        public long getNumeroLinha() {
+            return numeroLinha;
+        }
+
+        public String getMensagem() {
+            return mensagem;
+        }
+
+        @Override
+        public String toString() {
+            return "Linha " + numeroLinha + ": " + mensagem;
+        }
+    }
+
+    // Caminho do arquivo lido
+    final String arquivo;
+    // Linhas não vazias encontradas e linhas convertidas com sucesso
+    final long linhasLidas;
+    final long linhasAceitas;
+    // Total de linhas com erro e os primeiros erros, em ordem de linha
+    final long totalErros;
+    final List<ErroLinha> erros;
+
+    public RelatorioCarga(String arquivo, long linhasLidas, long linhasAceitas, long totalErros, List<ErroLinha> erros) {
+        this.arquivo = arquivo;
+        this.linhasLidas = linhasLidas;
+        this.linhasAceitas = linhasAceitas;
+        this.totalErros = totalErros;
+        this.erros = Collections.unmodifiableList(new ArrayList<>(erros));
+    }
+
+    public String getArquivo() {
+        return arquivo;
+    }
+
+    public long getLinhasLidas() {
+        return linhasLidas;
+    }
+
+    public long getLinhasAceitas() {
+        return linhasAceitas;
+    }
+
+    public long getTotalErros() {
+        return totalErros;
+    }
+
+    /**
+     * @return Os primeiros erros encontrados (até MAXIMO_ERROS_DETALHADOS), em ordem de linha.
+     */
+    public List<ErroLinha> getErros() {
+        return erros;
+    }
+
+    /**
+     * @return true se nenhuma linha foi rejeitada.
+     */
+    public boolean semErros() {
+        return totalErros == 0;
+    }
+
+    /**
+     * Descreve o relatório com as primeiras linhas rejeitadas, para exibição.
+     * @param maximo A quantidade máxima de erros listados.
+     * @return O resumo e um erro por linha, terminado em quebra de linha.
+     */
+    public String descreverErros(int maximo) {
+        StringBuilder sb = new StringBuilder(toString()).append("\n");
+        int mostrados = 0;
+        for (ErroLinha erro : erros) {
+            if (mostrados++ == maximo) {
+                sb.append("  ...\n");
+                break;
+            }
+            sb.append("  ").append(erro).append("\n");
+        }
+        return sb.toString();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s: %d linhas lidas, %d aceitas, %d com erro",
+                arquivo, linhasLidas, linhasAceitas, totalErros);
+    }
+}
@@ -0,0 +1,43 @@
+/**
+ * Resultado de uma busca aproximada por nome: o ponto encontrado e a distância
+ * de edição (Levenshtein, sem acentos e sem diferenciar maiúsculas) entre o nome
+ * digitado e o nome do ponto.
+ */
+public class ResultadoAproximado {
+    // Ponto de coleta encontrado
+    final PontoColeta ponto;
+    // Quantidade mínima de inserções, remoções e trocas de caracteres entre os nomes
+    final int distancia;
+
+    /**
+     * Construtor para criar uma instância de ResultadoAproximado.
+     * @param ponto O ponto encontrado.
+     * @param distancia A distância de edição até o nome buscado.
+     */
+    public ResultadoAproximado(PontoColeta ponto, int distancia) {
+        this.ponto = ponto;
+        this.distancia = distancia;
+    }
+
+    /**
+     * @return O ponto encontrado.
+     */
+    public PontoColeta getPonto() {
+        return ponto;
+    }
+
+    /**
+     * @return A distância de edição até o nome buscado.
+     */
+    public int getDistancia() {
+        return distancia;
+    }
+
+    /**
+     * @return O ponto e a distância, para exibição.
+     */
+    @Override
+    public String toString() {
+        return ponto + " (distância " + distancia + ")";
+    }
+}
@@ -0,0 +1,54 @@
+import java.util.List;
+
+/**
+ * Resultado de uma busca de caminho: a sequência de IDs da origem ao destino
+ * e a distância total percorrida, calculadas em uma única passada.
+ * Também registra quantos vértices a busca assentou, para comparar o trabalho
+ * realizado por cada estratégia.
+ */
+public class ResultadoCaminho {
+    // IDs dos pontos do caminho, da origem ao destino
+    final List<Integer> caminho;
+    // Soma das distâncias das conexões do caminho, em metros
+    final int distancia;
+    // Quantidade de vértices removidos da fila/heap durante a busca
+    final int verticesAssentados;
+
+    /**
+     * Construtor para criar uma instância de ResultadoCaminho.
+     * @param caminho Os IDs dos pontos do caminho.
+     * @param distancia A distância total, em metros.
+     * @param verticesAssentados O número de vértices assentados pela busca.
+     */
+    public ResultadoCaminho(List<Integer> caminho, int distancia, int verticesAssentados) {
+        this.caminho = caminho;
+        this.distancia = distancia;
+        this.verticesAssentados = verticesAssentados;
+    }
+
+    /**
+     * @return Os IDs dos pontos do caminho, da origem ao destino.
+     */
+    public List<Integer> getCaminho() {
+        return caminho;
+    }
+
+    /**
+     * @return A distância total do caminho, em metros.
+     */
+    public int getDistancia() {
+        return distancia;
+    }
+
+    /**
+     * @return O número de vértices assentados (trabalho realizado pela busca).
+     */
+    public int getVerticesAssentados() {
+        return verticesAssentados;
+    }
+
+    @Override
+    public String toString() {
+        return caminho + " (" + distancia + "m, " + verticesAssentados + " vértices assentados)";
+    }
+}
@@ -0,0 +1,69 @@
+import java.util.List;
+
+/**
+ * Resultado da otimização de uma rota de coleta: a ordem de visita das paradas
+ * (começando e terminando no depósito) e a distância total em metros.
+ */
+public class ResultadoRota {
+    // IDs das paradas na ordem de visita; a primeira é o depósito, para onde a rota volta
+    final List<Integer> paradas;
+    // Soma das menores distâncias entre paradas consecutivas, incluindo a volta ao depósito
+    final long distancia;
+    // Distância da rota gulosa inicial (vizinho mais próximo), para medir a melhoria
+    final long distanciaInicial;
+    // false se algum trecho da rota não tem caminho no grafo
+    final boolean viavel;
+    // Quantidade de perturbações (reinícios da busca local) feitas dentro do prazo
+    final long iteracoes;
+
+    /**
+     * Construtor para criar uma instância de ResultadoRota.
+     * @param paradas Os IDs das paradas na ordem de visita.
+     * @param distancia A distância total, em metros.
+     * @param distanciaInicial A distância da rota inicial, em metros.
+     * @param viavel Se todos os trechos têm caminho.
+     * @param iteracoes O número de perturbações realizadas.
+     */
+    public ResultadoRota(List<Integer> paradas, long distancia, long distanciaInicial, boolean viavel, long iteracoes) {
+        this.paradas = paradas;
+        this.distancia = distancia;
+        this.distanciaInicial = distanciaInicial;
+        this.viavel = viavel;
+        this.iteracoes = iteracoes;
+    }
+
+    /**
+     * @return Os IDs das paradas na ordem de visita, começando pelo depósito.
+     */
+    public List<Integer> getParadas() {
+        return paradas;
+    }
+
+    /**
+     * @return A distância total da rota, com a volta ao depósito, em metros.
+     */
+    public long getDistancia() {
+        return distancia;
+    }
+
+    /**
+     * @return A distância da rota gulosa inicial, em metros.
+     */
+    public long getDistanciaInicial() {
+        return distanciaInicial;
+    }
+
+    /**
+     * @return true se todos os trechos da rota têm caminho no grafo.
+     */
+    public boolean isViavel() {
+        return viavel;
+    }
+
+    /**
+     * @return O número de perturbações feitas pela busca local iterada.
+     */
+    public long getIteracoes() {
+        return iteracoes;
+    }
+}
@@ -0,0 +1,105 @@
+/**
+ * Resumo do histograma de latência de uma operação em um instante: contagem, média,
+ * percentis e máximo. Os valores estão em nanossegundos.
+ */
+public class ResumoLatencia {
+    // Operação medida
+    final OperacaoGrafo operacao;
+    // Quantidade de execuções registradas
+    final long contagem;
+    // Latência média
+    final double mediaNanos;
+    // Percentis 50, 90, 99 e 99,9 (limite superior da faixa do histograma, ~6% de erro)
+    final long p50Nanos;
+    final long p90Nanos;
+    final long p99Nanos;
+    final long p999Nanos;
+    // Maior latência registrada (exata)
+    final long maximoNanos;
+
+    /**
+     * Construtor para criar uma instância de ResumoLatencia.
+     * @param operacao A operação medida.
+     * @param contagem A quantidade de execuções.
+     * @param mediaNanos A latência média.
+     * @param p50Nanos A mediana.
+     * @param p90Nanos O percentil 90.
+     * @param p99Nanos O percentil 99.
+     * @param p999Nanos O percentil 99,9.
+     * @param maximoNanos A maior latência.
+     */
+    public ResumoLatencia(OperacaoGrafo operacao, long contagem, double mediaNanos, long p50Nanos,
+                          long p90Nanos, long p99Nanos, long p999Nanos, long maximoNanos) {
+        this.operacao = operacao;
+        this.contagem = contagem;
+        this.mediaNanos = mediaNanos;
+        this.p50Nanos = p50Nanos;
+        this.p90Nanos = p90Nanos;
+        this.p99Nanos = p99Nanos;
+        this.p999Nanos = p999Nanos;
+        this.maximoNanos = maximoNanos;
+    }
+
+    /**
+     * @return A operação medida.
+     */
+    public OperacaoGrafo getOperacao() {
+        return operacao;
+    }
+
+    /**
+     * @return A quantidade de execuções registradas.
+     */
+    public long getContagem() {
+        return contagem;
+    }
+
+    /**
+     * @return A latência média, em nanossegundos.
+     */
+    public double getMediaNanos() {
+        return mediaNanos;
+    }
+
+    /**
+     * @return A mediana, em nanossegundos.
+     */
+    public long getP50Nanos() {
+        return p50Nanos;
+    }
+
+    /**
+     * @return O percentil 90, em nanossegundos.
+     */
+    public long getP90Nanos() {
+        return p90Nanos;
+    }
+
+    /**
+     * @return O percentil 99, em nanossegundos.
+     */
+    public long getP99Nanos() {
+        return p99Nanos;
+    }
+
+    /**
+     * @return O percentil 99,9, em nanossegundos.
+     */
+    public long getP999Nanos() {
+        return p999Nanos;
+    }
+
+    /**
+     * @return A maior latência registrada, em nanossegundos.
+     */
+    public long getMaximoNanos() {
+        return maximoNanos;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s: n=%d média=%.1f µs p50=%.1f µs p90=%.1f µs p99=%.1f µs p99,9=%.1f µs máx=%.1f µs",
+                operacao.name(), contagem, mediaNanos / 1e3, p50Nanos / 1e3, p90Nanos / 1e3,
+                p99Nanos / 1e3, p999Nanos / 1e3, maximoNanos / 1e3);
+    }
+}
@@ -0,0 +1,235 @@
+import java.util.Arrays;
+
+/**
+ * Um sentido da adjacência CSR com folga (arestas de saída ou de entrada).
+ * As arestas do vértice 'v' ocupam as posições [inicio[v], inicio[v] + grau[v])
+ * dos vetores primitivos 'vizinhos' e 'pesos'.
+ *
+ * Cada segmento tem uma capacidade que pode ser maior que o grau, o que permite
+ * aplicar mutações como deltas: inserir uma aresta custa O(1) amortizado (o segmento
+ * é realocado para o fim dos vetores quando enche) e remover ou editar custa O(grau).
+ * O espaço abandonado pelas realocações é recuperado por uma compactação periódica.
+ */
+public class SegmentosAdjacencia {
+    // Capacidade mínima de um segmento quando ele precisa ser realocado
+    private static final int CAPACIDADE_MINIMA = 4;
+
+    // Posição inicial, quantidade de arestas e capacidade do segmento de cada vértice
+    int[] inicio;
+    int[] grau;
+    private int[] capacidade;
+
+    // Índice do vértice na outra ponta de cada aresta (destino na saída, origem na entrada)
+    int[] vizinhos;
+    // Distância (peso) de cada aresta, em metros
+    int[] pesos;
+    // Conexão original de cada posição, usada para localizar a aresta e pelas visões
+    Conexao[] conexoes;
+    // Fim da região ocupada por segmentos nos vetores de arestas
+    private int usado;
+    // Total de arestas armazenadas
+    private int numArestas;
+
+    /**
+     * Constrói os segmentos em O(V + E) por ordenação por contagem (estável).
+     * @param numVertices O número de vértices.
+     * @param capacidadeVertices O tamanho inicial dos vetores por vértice (>= numVertices).
+     * @param m O número de arestas.
+     * @param chave O vértice dono de cada aresta (origem na saída, destino na entrada).
+     * @param outro O vértice na outra ponta de cada aresta.
+     * @param peso O peso de cada aresta.
+     * @param conexao A conexão de cada aresta.
+     */
+    SegmentosAdjacencia(int numVertices, int capacidadeVertices, int m,
+                        int[] chave, int[] outro, int[] peso, Conexao[] conexao) {
+        // 1ª passagem: conta o grau de cada vértice
+        capacidade = new int[capacidadeVertices];
+        for (int k = 0; k < m; k++) capacidade[chave[k]]++;
+        // Soma de prefixos: segmentos contíguos, sem folga, na ordem dos índices
+        inicio = new int[capacidadeVertices];
+        int total = 0;
+        for (int v = 0; v < numVertices; v++) {
+            inicio[v] = total;
+            total += capacidade[v];
+        }
+        grau = new int[capacidadeVertices];
+        vizinhos = new int[m];
+        pesos = new int[m];
+        conexoes = new Conexao[m];
+
+        // 2ª passagem: distribui as arestas preservando a ordem de entrada
+        for (int k = 0; k < m; k++) {
+            int v = chave[k];
+            int pos = inicio[v] + grau[v]++;
+            vizinhos[pos] = outro[k];
+            pesos[pos] = peso[k];
+            conexoes[pos] = conexao[k];
+        }
+        usado = m;
+        numArestas = m;
+    }
+
+    /**
+     * @return O total de arestas armazenadas.
+     */
+    int numArestas() {
+        return numArestas;
+    }
+
+    /**
+     * Aumenta os vetores por vértice para comportar 'n' vértices.
+     * @param n A nova capacidade de vértices.
+     */
+    void garantirVertices(int n) {
+        if (n <= inicio.length) return;
+        inicio = Arrays.copyOf(inicio, n);
+        grau = Arrays.copyOf(grau, n);
+        capacidade = Arrays.copyOf(capacidade, n);
+    }
+
+    /**
+     * Inicializa o segmento vazio de um vértice recém-criado.
+     * @param v O índice do vértice.
+     */
+    void iniciarVertice(int v) {
+        inicio[v] = usado;
+        grau[v] = 0;
+        capacidade[v] = 0;
+    }
+
+    /**
+     * Insere uma aresta no fim do segmento de 'v'. Custo O(1) amortizado.
+     * @param v O vértice dono do segmento.
+     * @param numVertices O número de vértices em uso (para uma eventual compactação).
+     */
+    void adicionar(int v, int vizinho, int peso, Conexao c, int numVertices) {
+        if (grau[v] == capacidade[v]) realocarSegmento(v, numVertices);
+        int k = inicio[v] + grau[v]++;
+        vizinhos[k] = vizinho;
+        pesos[k] = peso;
+        conexoes[k] = c;
+        numArestas++;
+    }
+
+    /**
+     * Procura a posição de uma conexão (por referência) no segmento de um vértice.
+     * @param v O índice do vértice.
+     * @param c A conexão procurada.
+     * @return A posição nos vetores de arestas, ou -1.
+     */
+    int posicaoDe(int v, Conexao c) {
+        for (int k = inicio[v], f = k + grau[v]; k < f; k++) {
+            if (conexoes[k] == c) return k;
+        }
+        return -1;
+    }
+
+    /**
+     * Remove a aresta da posição 'k' do segmento de 'v', deslocando o restante do
+     * segmento para manter a ordem relativa. Custo O(grau).
+     */
+    void removerPosicao(int v, int k) {
+        int fim = inicio[v] + grau[v] - 1;
+        System.arraycopy(vizinhos, k + 1, vizinhos, k, fim - k);
+        System.arraycopy(pesos, k + 1, pesos, k, fim - k);
+        System.arraycopy(conexoes, k + 1, conexoes, k, fim - k);
+        conexoes[fim] = null;
+        grau[v]--;
+        numArestas--;
+    }
+
+    /**
+     * Remove uma conexão (por referência) do segmento de 'v'. Custo O(grau).
+     * @return true se a conexão estava no segmento.
+     */
+    boolean remover(int v, Conexao c) {
+        int k = posicaoDe(v, c);
+        if (k < 0) return false;
+        removerPosicao(v, k);
+        return true;
+    }
+
+    /**
+     * Descarta todas as arestas do segmento de 'v' (o espaço é recuperado na compactação).
+     * @param v O índice do vértice.
+     */
+    void esvaziar(int v) {
+        Arrays.fill(conexoes, inicio[v], inicio[v] + grau[v], null);
+        numArestas -= grau[v];
+        grau[v] = 0;
+    }
+
+    /**
+     * Transfere o segmento do vértice 'de' para o índice 'para' (renumeração de vértice).
+     * O segmento antigo de 'para' deve estar vazio.
+     */
+    void moverVertice(int de, int para) {
+        inicio[para] = inicio[de];
+        grau[para] = grau[de];
+        capacidade[para] = capacidade[de];
+        grau[de] = 0;
+        capacidade[de] = 0;
+    }
+
+    /**
+     * Move o segmento de um vértice para o fim dos vetores, dobrando sua capacidade.
+     * Se o espaço abandonado ficar maior que o ocupado, compacta todos os segmentos.
+     */
+    private void realocarSegmento(int v, int numVertices) {
+        if ((usado - numArestas) > numArestas + CAPACIDADE_MINIMA * numVertices) {
+            // Muito espaço desperdiçado: compacta antes de crescer
+            compactar(numVertices, true);
+            if (grau[v] < capacidade[v]) return;
+        }
+        int novaCapacidade = Math.max(CAPACIDADE_MINIMA, capacidade[v] * 2);
+        garantirEspaco(usado + novaCapacidade);
+        System.arraycopy(vizinhos, inicio[v], vizinhos, usado, grau[v]);
+        System.arraycopy(pesos, inicio[v], pesos, usado, grau[v]);
+        System.arraycopy(conexoes, inicio[v], conexoes, usado, grau[v]);
+        Arrays.fill(conexoes, inicio[v], inicio[v] + grau[v], null);
+        inicio[v] = usado;
+        capacidade[v] = novaCapacidade;
+        usado += novaCapacidade;
+    }
+
+    /**
+     * Garante que os vetores de arestas comportem pelo menos 'tamanho' posições.
+     */
+    private void garantirEspaco(int tamanho) {
+        if (tamanho <= vizinhos.length) return;
+        int novo = Math.max(tamanho, vizinhos.length + (vizinhos.length >> 1));
+        vizinhos = Arrays.copyOf(vizinhos, novo);
+        pesos = Arrays.copyOf(pesos, novo);
+        conexoes = Arrays.copyOf(conexoes, novo);
+    }
+
+    /**
+     * Regrava todos os segmentos contiguamente na ordem dos índices. Custo O(V + E).
+     * @param numVertices O número de vértices em uso.
+     * @param comFolga Se true, deixa uma pequena folga em cada segmento para as próximas inserções.
+     */
+    void compactar(int numVertices, boolean comFolga) {
+        int total = 0;
+        int[] novaCapacidade = new int[inicio.length];
+        for (int v = 0; v < numVertices; v++) {
+            novaCapacidade[v] = comFolga ? grau[v] + Math.max(1, grau[v] >> 2) : grau[v];
+            total += novaCapacidade[v];
+        }
+        int[] novosVizinhos = new int[total];
+        int[] novosPesos = new int[total];
+        Conexao[] novasConexoes = new Conexao[total];
+        int pos = 0;
+        for (int v = 0; v < numVertices; v++) {
+            System.arraycopy(vizinhos, inicio[v], novosVizinhos, pos, grau[v]);
+            System.arraycopy(pesos, inicio[v], novosPesos, pos, grau[v]);
+            System.arraycopy(conexoes, inicio[v], novasConexoes, pos, grau[v]);
+            inicio[v] = pos;
+            pos += novaCapacidade[v];
+        }
+        vizinhos = novosVizinhos;
+        pesos = novosPesos;
+        conexoes = novasConexoes;
+        capacidade = novaCapacidade;
+        usado = total;
+    }
+}
@@ -0,0 +1,540 @@
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.lang.reflect.Method;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Serviço HTTP/JSON local para outras ferramentas consultarem rotas e pontos sem abrir
+ * a interface gráfica. Usa o servidor HTTP embutido no JDK (com.sun.net.httpserver) e
+ * atende só na interface de loopback.
+ *
+ * Recursos (GET, parâmetros na URL):
+ *   /caminho?origem=1&destino=50[&estrategia=A_ESTRELA]
+ *   /distancias?origens=1,2,3&destinos=40,50
+ *   /nome?nome=Ecoponto Central       (com sugestões aproximadas se não houver o nome exato)
+ *   /prefixo?prefixo=Eco[&limite=50][&ordem=ALFABETICA]
+ *   /estatisticas
+ * Lote (POST /lote): o corpo tem uma requisição por linha (ex.: "/caminho?origem=1&destino=50"),
+ * executadas em paralelo sobre a mesma versão do grafo; a resposta é a lista JSON das
+ * respostas, na ordem das linhas, enviada conforme cada uma fica pronta.
+ *
+ * Erros: 400 para parâmetros inválidos, 404/405 para recurso ou método errado, 413 para
+ * lotes ou tabelas de distância grandes demais e 500 para falhas inesperadas (registradas
+ * no log). No lote, cada elemento traz o seu próprio status de erro.
+ *
+ * As respostas são enviadas em fluxo (chunked), sem montá-las inteiras em memória.
+ * Cada requisição lê a versão publicada do GrafoConcorrente, sem travas, então as
+ * alterações feitas por GrafoConcorrente.alterar aparecem nas requisições seguintes.
+ * Cada requisição roda em uma thread virtual (Java 21+) ou, em JDKs anteriores, em uma
+ * thread de um pool que cresce sob demanda.
+ *
+ * Uso: java ServicoConsultas [porta] [arquivoPontos] [arquivoConexoes] [arquivoSnapshot]
+ */
+public class ServicoConsultas implements AutoCloseable {
+    private static final Logger LOG = Logger.getLogger(ServicoConsultas.class.getName());
+    // Quantidade máxima de requisições em um lote
+    public static final int MAXIMO_LOTE = 10_000;
+    // Quantidade máxima de células (origens x destinos distintos) de /distancias
+    public static final long MAXIMO_CELULAS = 1_000_000L;
+    private static final String TIPO_JSON = "application/json; charset=utf-8";
+    private static final int TAMANHO_BUFFER = 1 << 16;
+
+    /**
+     * Um recurso do serviço: valida os parâmetros e faz a consulta (erros viram status
+     * 400 ou 413) e só então devolve o corpo, escrito depois do status 200.
+     */
+    @FunctionalInterface
+    private interface Recurso {
+        Corpo consultar(VersaoGrafo versao, Map<String, String> parametros);
+    }
+
+    /**
+     * O corpo JSON de uma resposta bem-sucedida.
+     */
+    @FunctionalInterface
+    private interface Corpo {
+        void escrever(EscritorJson json) throws IOException;
+    }
+
+    /**
+     * Requisição válida, mas grande demais para ser atendida (status 413).
+     */
+    private static final class RequisicaoGrandeDemais extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        RequisicaoGrandeDemais(String mensagem) {
+            super(mensagem);
+        }
+    }
+
+    private final GrafoConcorrente grafo;
+    private final Map<String, Recurso> recursos = new LinkedHashMap<>();
+    private final ExecutorService executor;
+    // Indica se o executor cria uma thread virtual por requisição
+    private final boolean threadsVirtuais;
+    private HttpServer servidor;
+
+    /**
+     * Cria o serviço sobre um grafo já carregado, que passa a ser o grafo de trabalho de
+     * um GrafoConcorrente (ver getGrafo) e não deve mais ser usado diretamente.
+     * @param grafo O grafo consultado.
+     */
+    public ServicoConsultas(GrafoColetaReciclaveis grafo) {
+        this(new GrafoConcorrente(grafo));
+    }
+
+    /**
+     * Cria o serviço sobre um grafo concorrente compartilhado com outros leitores e escritores.
+     * @param grafo O grafo consultado.
+     */
+    public ServicoConsultas(GrafoConcorrente grafo) {
+        this.grafo = grafo;
+        ExecutorService virtuais = executorVirtual();
+        threadsVirtuais = virtuais != null;
+        executor = virtuais != null ? virtuais : Executors.newCachedThreadPool(tarefa -> {
+            // JDK sem threads virtuais: threads daemon criadas sob demanda e reaproveitadas
+            Thread t = new Thread(tarefa, "servico-consultas");
+            t.setDaemon(true);
+            return t;
+        });
+        recursos.put("/caminho", this::caminho);
+        recursos.put("/distancias", this::distancias);
+        recursos.put("/nome", this::nome);
+        recursos.put("/prefixo", this::prefixo);
+        recursos.put("/estatisticas", this::estatisticas);
+    }
+
+    /**
+     * Procura por reflexão o executor de threads virtuais (Java 21+), já que o projeto
+     * compila para o Java 17.
+     * @return Um executor com uma thread virtual por tarefa, ou null se o JDK não tiver
+     *         threads virtuais (ou se elas ainda forem um recurso em preview desativado).
+     */
+    private static ExecutorService executorVirtual() {
+        try {
+            Method virtuais = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) virtuais.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+
+    /**
+     * @return true se as requisições rodam em threads virtuais.
+     */
+    public boolean usaThreadsVirtuais() {
+        return threadsVirtuais;
+    }
+
+    /**
+     * @return O grafo consultado, para alterações com GrafoConcorrente.alterar.
+     */
+    public GrafoConcorrente getGrafo() {
+        return grafo;
+    }
+
+    /**
+     * Inicia o serviço na interface de loopback.
+     * @param porta A porta TCP (0 escolhe uma porta livre).
+     * @return O endereço em que o serviço atende.
+     * @throws IOException Se a porta não puder ser aberta.
+     */
+    public InetSocketAddress iniciar(int porta) throws IOException {
+        servidor = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), porta), 0);
+        servidor.createContext("/", this::atender);
+        servidor.setExecutor(executor);
+        servidor.start();
+        return servidor.getAddress();
+    }
+
+    /**
+     * Para o serviço, esperando no máximo 1 segundo pelas requisições em andamento.
+     */
+    @Override
+    public void close() {
+        if (servidor != null) servidor.stop(1);
+        executor.shutdownNow();
+    }
+
+    // ==================== ATENDIMENTO ====================
+
+    private void atender(HttpExchange troca) throws IOException {
+        try {
+            URI uri = troca.getRequestURI();
+            String metodo = troca.getRequestMethod();
+            if (uri.getPath().equals("/lote")) {
+                if (!metodo.equals("POST")) responderErro(troca, 405, "Use POST em /lote");
+                else atenderLote(troca);
+                return;
+            }
+            Recurso recurso = recursos.get(uri.getPath());
+            if (recurso == null) {
+                responderErro(troca, 404, "Recurso inexistente: " + uri.getPath());
+                return;
+            }
+            if (!metodo.equals("GET")) {
+                responderErro(troca, 405, "Use GET em " + uri.getPath());
+                return;
+            }
+            Corpo corpo;
+            try {
+                corpo = recurso.consultar(grafo.versaoAtual(), lerParametros(uri.getRawQuery()));
+            } catch (RequisicaoGrandeDemais e) {
+                responderErro(troca, 413, e.getMessage());
+                return;
+            } catch (IllegalArgumentException | IllegalStateException e) {
+                responderErro(troca, 400, e.getMessage());
+                return;
+            }
+            troca.getResponseHeaders().set("Content-Type", TIPO_JSON);
+            // Tamanho 0: corpo em partes (chunked), enviado enquanto é escrito
+            troca.sendResponseHeaders(200, 0);
+            try (Writer saida = abrirCorpo(troca)) {
+                corpo.escrever(new EscritorJson(saida));
+            }
+        } catch (RuntimeException e) {
+            // Falha inesperada: 500, se o status ainda não foi enviado (-1 = não enviado)
+            LOG.log(Level.SEVERE, "Falha ao atender " + troca.getRequestURI(), e);
+            if (troca.getResponseCode() == -1) responderErro(troca, 500, "Erro interno: " + e);
+        } finally {
+            troca.close();
+        }
+    }
+
+    /**
+     * Executa as requisições do corpo em paralelo e envia a lista das respostas em ordem.
+     * Cada elemento é a resposta JSON da requisição ou {"status":400,"erro":"..."}; uma
+     * requisição que falha depois do status 200 vira um elemento de erro (500), e a lista
+     * continua válida.
+     */
+    private void atenderLote(HttpExchange troca) throws IOException {
+        List<String> linhas = new ArrayList<>();
+        try (BufferedReader entrada = new BufferedReader(
+                new InputStreamReader(troca.getRequestBody(), StandardCharsets.UTF_8))) {
+            String linha;
+            while ((linha = entrada.readLine()) != null) {
+                if (linha.isBlank()) continue;
+                if (linhas.size() == MAXIMO_LOTE) {
+                    responderErro(troca, 413, "O lote aceita no máximo " + MAXIMO_LOTE + " requisições");
+                    return;
+                }
+                linhas.add(linha.strip());
+            }
+        }
+        // Todas as requisições do lote veem a mesma versão do grafo
+        VersaoGrafo versao = grafo.versaoAtual();
+        List<CompletableFuture<String>> respostas = new ArrayList<>(linhas.size());
+        for (String linha : linhas) {
+            respostas.add(CompletableFuture.supplyAsync(() -> executarNoLote(versao, linha), executor));
+        }
+
+        troca.getResponseHeaders().set("Content-Type", TIPO_JSON);
+        troca.sendResponseHeaders(200, 0);
+        try (Writer saida = abrirCorpo(troca)) {
+            EscritorJson json = new EscritorJson(saida);
+            json.iniciarLista();
+            for (Iterator<CompletableFuture<String>> it = respostas.iterator(); it.hasNext(); ) {
+                CompletableFuture<String> resposta = it.next();
+                // Antes de esperar, envia ao cliente o que já está pronto
+                if (!resposta.isDone()) json.descarregar();
+                json.valorBruto(aguardar(resposta));
+            }
+            json.fimLista();
+        }
+    }
+
+    /**
+     * Executa uma requisição do lote, escrevendo a resposta em memória.
+     * @return A resposta JSON (ou o erro, com o status que a requisição avulsa teria).
+     */
+    private String executarNoLote(VersaoGrafo versao, String requisicao) {
+        try {
+            URI uri = URI.create(requisicao);
+            Recurso recurso = recursos.get(uri.getPath());
+            if (recurso == null) return erroJson(404, "Recurso inexistente: " + uri.getPath());
+            return emTexto(recurso.consultar(versao, lerParametros(uri.getRawQuery())));
+        } catch (RequisicaoGrandeDemais e) {
+            return erroJson(413, e.getMessage());
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            return erroJson(400, e.getMessage());
+        } catch (RuntimeException e) {
+            LOG.log(Level.SEVERE, "Falha ao executar " + requisicao + " no lote", e);
+            return erroJson(500, "Erro interno: " + e);
+        }
+    }
+
+    /**
+     * Escreve um corpo JSON em uma String.
+     */
+    private static String emTexto(Corpo corpo) {
+        StringWriter texto = new StringWriter();
+        try {
+            corpo.escrever(new EscritorJson(texto));
+        } catch (IOException e) {
+            // StringWriter não lança IOException
+            throw new UncheckedIOException(e);
+        }
+        return texto.toString();
+    }
+
+    /**
+     * @return O JSON de erro: {"status":400,"erro":"mensagem"}.
+     */
+    private static String erroJson(int status, String mensagem) {
+        return emTexto(json -> json.iniciarObjeto().nome("status").valor(status).nome("erro").valor(mensagem).fimObjeto());
+    }
+
+    /**
+     * @return A resposta da requisição do lote, ou o seu elemento de erro (500) se ela falhou.
+     * @throws IOException Se a thread for interrompida (o serviço está parando).
+     */
+    private static String aguardar(CompletableFuture<String> resposta) throws IOException {
+        try {
+            return resposta.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Lote interrompido", e);
+        } catch (ExecutionException e) {
+            // O status 200 já foi enviado: o erro fica no elemento, e a lista JSON segue completa
+            LOG.log(Level.SEVERE, "Falha ao executar uma requisição do lote", e.getCause());
+            return erroJson(500, "Erro interno: " + e.getCause());
+        }
+    }
+
+    private static Writer abrirCorpo(HttpExchange troca) {
+        return new BufferedWriter(new OutputStreamWriter(troca.getResponseBody(), StandardCharsets.UTF_8), TAMANHO_BUFFER);
+    }
+
+    private static void responderErro(HttpExchange troca, int status, String mensagem) throws IOException {
+        byte[] corpo = erroJson(status, mensagem).getBytes(StandardCharsets.UTF_8);
+        troca.getResponseHeaders().set("Content-Type", TIPO_JSON);
+        troca.sendResponseHeaders(status, corpo.length);
+        troca.getResponseBody().write(corpo);
+    }
+
+    // ==================== PARÂMETROS ====================
+
+    /**
+     * @param consulta A parte da URL depois do '?', ainda codificada (pode ser null).
+     * @return Os parâmetros decodificados; um nome repetido fica com o último valor.
+     */
+    static Map<String, String> lerParametros(String consulta) {
+        Map<String, String> parametros = new HashMap<>();
+        if (consulta == null || consulta.isEmpty()) return parametros;
+        for (String par : consulta.split("&")) {
+            if (par.isEmpty()) continue;
+            int igual = par.indexOf('=');
+            String nome = igual < 0 ? par : par.substring(0, igual);
+            String valor = igual < 0 ? "" : par.substring(igual + 1);
+            parametros.put(URLDecoder.decode(nome, StandardCharsets.UTF_8), URLDecoder.decode(valor, StandardCharsets.UTF_8));
+        }
+        return parametros;
+    }
+
+    private static String texto(Map<String, String> parametros, String nome) {
+        String valor = parametros.get(nome);
+        if (valor == null || valor.isBlank()) throw new IllegalArgumentException("Parâmetro '" + nome + "' ausente");
+        return valor.strip();
+    }
+
+    private static int inteiro(Map<String, String> parametros, String nome, int padrao) {
+        if (!parametros.containsKey(nome)) return padrao;
+        return inteiro(parametros, nome);
+    }
+
+    private static int inteiro(Map<String, String> parametros, String nome) {
+        String valor = texto(parametros, nome);
+        try {
+            return Integer.parseInt(valor);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Parâmetro '" + nome + "' inválido: '" + valor + "'");
+        }
+    }
+
+    private static <E extends Enum<E>> E opcao(Map<String, String> parametros, String nome, Class<E> tipo, E padrao) {
+        if (!parametros.containsKey(nome)) return padrao;
+        String valor = texto(parametros, nome);
+        try {
+            return Enum.valueOf(tipo, valor.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Parâmetro '" + nome + "' inválido: '" + valor + "'");
+        }
+    }
+
+    private static List<Integer> ids(Map<String, String> parametros, String nome) {
+        try {
+            List<Integer> ids = Consulta.lerIds(texto(parametros, nome));
+            if (ids.isEmpty()) throw new IllegalArgumentException("Parâmetro '" + nome + "' sem IDs");
+            return ids;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Parâmetro '" + nome + "' inválido: " + e.getMessage());
+        }
+    }
+
+    // ==================== RECURSOS ====================
+
+    // {"origem":1,"destino":50,"estrategia":"DIJKSTRA","encontrado":true,"distancia":1234,"verticesAssentados":87,"caminho":[1,7,50]}
+    private Corpo caminho(VersaoGrafo versao, Map<String, String> p) {
+        int origem = inteiro(p, "origem");
+        int destino = inteiro(p, "destino");
+        EstrategiaBusca estrategia = opcao(p, "estrategia", EstrategiaBusca.class, EstrategiaBusca.DIJKSTRA);
+        ResultadoCaminho r = versao.encontrarCaminho(origem, destino, estrategia);
+        return json -> {
+            json.iniciarObjeto().nome("origem").valor(origem).nome("destino").valor(destino)
+                    .nome("estrategia").valor(estrategia.name()).nome("encontrado").valor(r != null);
+            if (r != null) {
+                json.nome("distancia").valor(r.getDistancia()).nome("verticesAssentados").valor(r.getVerticesAssentados());
+                json.nome("caminho").iniciarLista();
+                for (int id : r.getCaminho()) json.valor(id);
+                json.fimLista();
+            }
+            json.fimObjeto();
+        };
+    }
+
+    // {"origens":[1,2],"destinos":[40,50],"distancias":[[812,null],[95,4410]]} (null = sem caminho)
+    private Corpo distancias(VersaoGrafo versao, Map<String, String> p) {
+        List<Integer> origens = ids(p, "origens");
+        List<Integer> destinos = ids(p, "destinos");
+        // A tabela ignora IDs repetidos; o limite vale para as células que ela teria
+        long celulas = (long) new LinkedHashSet<>(origens).size() * new LinkedHashSet<>(destinos).size();
+        if (celulas > MAXIMO_CELULAS) {
+            throw new RequisicaoGrandeDemais("A tabela aceita no máximo " + MAXIMO_CELULAS
+                    + " células (origens x destinos); foram pedidas " + celulas);
+        }
+        TabelaDistancias tabela = versao.calcularDistancias(origens, destinos, ForkJoinPool.commonPool());
+        return json -> {
+            json.iniciarObjeto().nome("origens").iniciarLista();
+            for (int i = 0; i < tabela.numOrigens(); i++) json.valor(tabela.origem(i));
+            json.fimLista().nome("destinos").iniciarLista();
+            for (int j = 0; j < tabela.numDestinos(); j++) json.valor(tabela.destino(j));
+            json.fimLista().nome("distancias").iniciarLista();
+            // Uma linha por origem, enviada conforme o buffer enche
+            for (int i = 0; i < tabela.numOrigens(); i++) {
+                json.iniciarLista();
+                for (int j = 0; j < tabela.numDestinos(); j++) {
+                    int d = tabela.get(i, j);
+                    if (d == TabelaDistancias.INFINITO) json.valorNulo();
+                    else json.valor(d);
+                }
+                json.fimLista();
+            }
+            json.fimLista().fimObjeto();
+        };
+    }
+
+    // {"encontrado":true,"ponto":{"id":3,"nome":"..."}} ou {"encontrado":false,"sugestoes":[{"id":..,"nome":..,"distancia":1}]}
+    private Corpo nome(VersaoGrafo versao, Map<String, String> p) {
+        String nome = texto(p, "nome");
+        PontoColeta ponto = versao.buscarPorNome(nome);
+        // Sem o nome exato, sugere os parecidos, como a interface gráfica
+        List<ResultadoAproximado> sugestoes = ponto != null ? List.of() : versao.buscarAproximado(nome,
+                MotorConsultas.distanciaMaximaPadrao(nome), MotorConsultas.LIMITE_APROXIMADO_PADRAO);
+        return json -> {
+            json.iniciarObjeto().nome("encontrado").valor(ponto != null);
+            if (ponto != null) {
+                json.nome("ponto");
+                escreverPonto(json, ponto).fimObjeto();
+            } else {
+                json.nome("sugestoes").iniciarLista();
+                for (ResultadoAproximado s : sugestoes) {
+                    escreverPonto(json, s.getPonto()).nome("distancia").valor(s.getDistancia()).fimObjeto();
+                }
+                json.fimLista();
+            }
+            json.fimObjeto();
+        };
+    }
+
+    // {"prefixo":"Eco","ordem":"PONTUACAO","pontos":[{"id":3,"nome":"..."},...]}
+    private Corpo prefixo(VersaoGrafo versao, Map<String, String> p) {
+        String prefixo = texto(p, "prefixo");
+        int limite = inteiro(p, "limite", MotorConsultas.LIMITE_PREFIXO_PADRAO);
+        if (limite < 0) throw new IllegalArgumentException("Parâmetro 'limite' negativo");
+        OrdemPrefixo ordem = opcao(p, "ordem", OrdemPrefixo.class, OrdemPrefixo.PONTUACAO);
+        return json -> {
+            json.iniciarObjeto().nome("prefixo").valor(prefixo).nome("ordem").valor(ordem.name());
+            json.nome("pontos").iniciarLista();
+            // A Trie é percorrida conforme os pontos são escritos (a versão não muda)
+            Iterator<PontoColeta> it = versao.streamPorPrefixo(prefixo, ordem).limit(limite).iterator();
+            while (it.hasNext()) escreverPonto(json, it.next()).fimObjeto();
+            json.fimLista().fimObjeto();
+        };
+    }
+
+    // {"versao":3,"pontos":100,"conexoes":250,"distanciaTotal":..,"distanciaMedia":..,"menorConexao":..,"maiorConexao":..}
+    private Corpo estatisticas(VersaoGrafo versao, Map<String, String> p) {
+        long total = 0;
+        int menor = Integer.MAX_VALUE, maior = 0;
+        List<Conexao> conexoes = versao.getConexoes();
+        for (Conexao c : conexoes) {
+            total += c.distancia;
+            menor = Math.min(menor, c.distancia);
+            maior = Math.max(maior, c.distancia);
+        }
+        long distanciaTotal = total;
+        int menorConexao = conexoes.isEmpty() ? 0 : menor;
+        int maiorConexao = maior;
+        return json -> json.iniciarObjeto().nome("versao").valor(versao.getNumero())
+                .nome("pontos").valor(versao.getPontos().size()).nome("conexoes").valor(conexoes.size())
+                .nome("distanciaTotal").valor(distanciaTotal)
+                .nome("distanciaMedia").valor(conexoes.isEmpty() ? 0.0 : (double) distanciaTotal / conexoes.size())
+                .nome("menorConexao").valor(menorConexao).nome("maiorConexao").valor(maiorConexao)
+                .fimObjeto();
+    }
+
+    /**
+     * Abre o objeto de um ponto com o id e o nome (quem chama fecha o objeto).
+     */
+    private static EscritorJson escreverPonto(EscritorJson json, PontoColeta ponto) throws IOException {
+        return json.iniciarObjeto().nome("id").valor(ponto.id).nome("nome").valor(ponto.nome);
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        int porta = args.length > 0 ? Integer.parseInt(args[0]) : 8080;
+        String arquivoPontos = args.length > 1 ? args[1] : "pontos_coleta.txt";
+        String arquivoConexoes = args.length > 2 ? args[2] : "rotas_coletas.txt";
+        String arquivoSnapshot = args.length > 3 ? args[3] : "grafo_coleta.snap";
+
+        GrafoColetaReciclaveis grafo = new GrafoColetaReciclaveis();
+        // O A* usa a heurística de marcos (ALT), como na interface gráfica
+        grafo.usarHeuristicaMarcos(8);
+        for (RelatorioCarga rel : grafo.carregarArquivos(arquivoSnapshot, arquivoPontos, arquivoConexoes)) {
+            if (!rel.semErros()) System.err.print(rel.descreverErros(10));
+        }
+        ServicoConsultas servico = new ServicoConsultas(grafo);
+        InetSocketAddress endereco = servico.iniciar(porta);
+        System.err.printf("Atendendo em http://%s:%d/ (%s)%n", endereco.getHostString(), endereco.getPort(),
+                servico.usaThreadsVirtuais() ? "threads virtuais" : "pool de threads");
+        // O servidor roda em threads próprias; a principal só espera o encerramento do processo
+        Runtime.getRuntime().addShutdownHook(new Thread(servico::close));
+        Thread.currentThread().join();
+    }
+}
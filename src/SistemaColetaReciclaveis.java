@@ -10,11 +10,15 @@ import java.util.List;
  * Gerencia a Interface Gráfica (JFrame) e a lógica de interação com o Grafo.
  */
 public class SistemaColetaReciclaveis extends JFrame {
+    // Quantidade máxima de pontos exibidos na busca por prefixo (a mesma do processamento em lote)
+    private static final int MAXIMO_RESULTADOS_PREFIXO = MotorConsultas.LIMITE_PREFIXO_PADRAO;
 
     private GrafoColetaReciclaveis grafoArquivos;   // Instância do grafo para dados carregados de arquivos
     private GrafoColetaReciclaveis grafoManual;     // Instância do grafo para dados inseridos manualmente
     private GrafoColetaReciclaveis grafoAtual;      // Referência ao grafo atualmente em uso (ou grafoArquivos ou grafoManual)
-    private PainelGrafo painelGrafo;                // Painel para visualização gráfica do grafo
+    private PainelGrafo painelGrafo;                // Painel para visualização gráfica do grafo atual
+    private PainelGrafo painelArquivos;             // Painéis de cada modo, mantidos para não perder o layout calculado
+    private PainelGrafo painelManual;
     private JLabel lblModo;                         // Label para mostrar o modo de operação atual
     private boolean modoArquivos = true;            // Flag que indica se o sistema está no modo de arquivos (true) ou manual (false)
 
@@ -26,6 +30,9 @@ public class SistemaColetaReciclaveis extends JFrame {
         grafoArquivos = new GrafoColetaReciclaveis();
         grafoManual = new GrafoColetaReciclaveis();
         grafoAtual = grafoArquivos; // Inicia no modo arquivos
+        // O A* usa a heurística de marcos (ALT), já que os pontos não têm coordenadas
+        grafoArquivos.usarHeuristicaMarcos(8);
+        grafoManual.usarHeuristicaMarcos(8);
 
         // Configurações básicas da janela
         setTitle("Sistema de Coleta de Recicláveis");
@@ -42,8 +49,13 @@ public class SistemaColetaReciclaveis extends JFrame {
         painelSuperior.add(lblModo);
         add(painelSuperior, BorderLayout.NORTH);
 
-        // Configuração do Painel de Visualização do Grafo
-        painelGrafo = new PainelGrafo(grafoAtual);
+        // Configuração do Painel de Visualização do Grafo (um por modo; o layout de cada um fica em cache)
+        painelArquivos = new PainelGrafo(grafoArquivos);
+        painelManual = new PainelGrafo(grafoManual);
+        painelGrafo = painelArquivos;
+        // O ponto clicado no painel aparece ao lado do modo
+        painelArquivos.addPropertyChangeListener("pontoSelecionado", e -> atualizarRotuloModo());
+        painelManual.addPropertyChangeListener("pontoSelecionado", e -> atualizarRotuloModo());
         add(painelGrafo, BorderLayout.CENTER);
 
         // Cria e exibe o menu principal em um diálogo flutuante
@@ -92,6 +104,8 @@ public class SistemaColetaReciclaveis extends JFrame {
                 "16. Editar Conexão",
                 "17. Excluir Conexão",
                 "18. Limpar Dados Manuais",
+                "19. Caminho Mínimo (Escolher Estratégia)",
+                "20. Otimizar Rota de Coleta",
                 "0. Sair"
         };
 
@@ -151,7 +165,9 @@ public class SistemaColetaReciclaveis extends JFrame {
             case 15: editarConexao(); break;
             case 16: excluirConexao(); break;
             case 17: limparDadosManuais(); break;
-            case 18: System.exit(0); break;
+            case 18: buscarCaminhoMinimo(); break;
+            case 19: otimizarRota(); break;
+            case 20: System.exit(0); break;
         }
     }
 
@@ -161,21 +177,46 @@ public class SistemaColetaReciclaveis extends JFrame {
     private void carregarArquivos() {
         try {
             // Tenta carregar os dados
-            grafoArquivos.carregarPontosDeColeta("pontos_coleta.txt");
-            grafoArquivos.carregarConexoes("rotas_coletas.txt");
+            // Usa o snapshot binário se ele ainda corresponder aos arquivos de texto
+            List<RelatorioCarga> relatorios = grafoArquivos.carregarArquivos(
+                    "grafo_coleta.snap", "pontos_coleta.txt", "rotas_coletas.txt");
+            // Layout pré-calculado (java LayoutForcas ...), se existir: evita recalcular o desenho
+            if (new File("layout_coleta.txt").exists()) {
+                painelArquivos.usarLayout(LayoutGrafo.ler("layout_coleta.txt"));
+            }
 
             // Se estiver no modo arquivos, atualiza a visualização
             if (modoArquivos) {
                 grafoAtual = grafoArquivos;
                 painelGrafo.repaint();
             }
-            JOptionPane.showMessageDialog(this, "Arquivos carregados com sucesso!");
+            if (relatorios.stream().allMatch(RelatorioCarga::semErros)) {
+                JOptionPane.showMessageDialog(this, relatorios.isEmpty()
+                        ? "Arquivos carregados com sucesso (snapshot binário)!"
+                        : "Arquivos carregados com sucesso!");
+            } else {
+                // Mostra as primeiras linhas rejeitadas de cada arquivo
+                StringBuilder sb = new StringBuilder("Arquivos carregados, mas algumas linhas foram ignoradas:\n\n");
+                for (RelatorioCarga rel : relatorios) {
+                    if (!rel.semErros()) sb.append(rel.descreverErros(10));
+                }
+                JOptionPane.showMessageDialog(this, sb.toString(), "Aviso", JOptionPane.WARNING_MESSAGE);
+            }
         } catch (IOException e) {
             // Mostra um erro se os arquivos não puderem ser lidos
             JOptionPane.showMessageDialog(this, "Erro: Arquivos 'pontos_coleta.txt' ou 'rotas_coletas.txt' não encontrados ou inválidos. Detalhe: " + e.getMessage(), "Erro", JOptionPane.ERROR_MESSAGE);
         }
     }
 
+    /**
+     * Mostra o modo atual e, se houver, o ponto selecionado no painel do grafo.
+     */
+    private void atualizarRotuloModo() {
+        PontoColeta selecionado = painelGrafo.getPontoSelecionado();
+        lblModo.setText("MODO: " + (modoArquivos ? "Dados dos Arquivos" : "Dados Manuais")
+                + (selecionado != null ? " | Selecionado: " + selecionado.id + " - " + selecionado.nome : ""));
+    }
+
     /**
      * Alterna entre o modo de dados dos Arquivos e o modo Manual.
      */
@@ -183,11 +224,11 @@ public class SistemaColetaReciclaveis extends JFrame {
         modoArquivos = !modoArquivos; // Inverte o modo
         grafoAtual = modoArquivos ? grafoArquivos : grafoManual; // Atualiza a referência
 
-        // Atualiza o label
-        lblModo.setText("MODO: " + (modoArquivos ? "Dados dos Arquivos" : "Dados Manuais"));
-
         // Substitui e redesenha o PainelGrafo
-        painelGrafo = new PainelGrafo(grafoAtual);
+        painelGrafo = modoArquivos ? painelArquivos : painelManual;
+
+        // Atualiza o label (com o ponto selecionado no painel do novo modo)
+        atualizarRotuloModo();
         getContentPane().removeAll(); // Remove todos os componentes antigos
 
         // Recria e adiciona o painel superior e o painel do grafo
@@ -202,33 +243,17 @@ public class SistemaColetaReciclaveis extends JFrame {
     }
 
     /**
-     * Gera e exibe a Matriz de Incidência do grafo atual em uma tabela.
+     * Exibe a Matriz de Incidência do grafo atual em uma tabela. As células são lidas da
+     * forma esparsa só quando aparecem na tela (ver ModeloTabelaMatriz), então a tabela
+     * abre na hora mesmo com muitas conexões.
      */
     private void mostrarMatrizIncidencia() {
-        int[][] matriz = grafoAtual.gerarMatrizIncidencia();
-        List<Integer> idsPontos = new ArrayList<>(grafoAtual.pontos.keySet());
-
-        // 1. Prepara os cabeçalhos das colunas (índices das Conexões)
-        String[] colunas = new String[grafoAtual.conexoes.size() + 1];
-        colunas[0] = "Ponto \\ Conexão";
-        for (int j = 0; j < grafoAtual.conexoes.size(); j++) {
-            // Exibe o número da Conexão (1-based) e sua descrição
-            Conexao c = grafoAtual.conexoes.get(j);
-            colunas[j + 1] = String.format("%d (ID%d->ID%d)", j + 1, c.origem, c.destino);
-        }
-
-        // 2. Prepara os dados da tabela
-        Object[][] dados = new Object[idsPontos.size()][grafoAtual.conexoes.size() + 1];
-        for (int i = 0; i < idsPontos.size(); i++) {
-            dados[i][0] = idsPontos.get(i); // Primeira coluna é o ID do Ponto
-            for (int j = 0; j < grafoAtual.conexoes.size(); j++) {
-                dados[i][j + 1] = matriz[i][j]; // Valores: 1 (saída), -1 (entrada), 0 (não incidente)
-            }
-        }
+        // Linhas na ordem dos índices densos do grafo; colunas são as conexões.
+        // Valores: 1 (saída), -1 (entrada), 0 (não incidente)
+        ModeloTabelaMatriz modelo = ModeloTabelaMatriz.incidencia(grafoAtual.gerarMatrizIncidenciaEsparsa(), grafoAtual);
 
-        // Cria a tabela e exibe em um diálogo
-        JTable tabela = new JTable(dados, colunas);
-        tabela.setAutoResizeMode(JTable.AUTO_RESIZE_OFF); // Permite barra de rolagem horizontal
+        // Cria a tabela e exibe em um diálogo (colunas largas para a descrição da conexão)
+        TabelaMatriz tabela = new TabelaMatriz(modelo, 130);
         JOptionPane.showMessageDialog(this, new JScrollPane(tabela),
                 "Matriz de Incidência (1=Saída, -1=Entrada)", JOptionPane.PLAIN_MESSAGE);
     }
@@ -269,30 +294,34 @@ public class SistemaColetaReciclaveis extends JFrame {
 
     /**
      * Gera e exibe a Matriz de Adjacência do grafo atual em uma tabela.
+     * O usuário escolhe entre as distâncias diretas (conexões) e as menores
+     * distâncias entre todos os pares (caminhos mínimos, calculados em paralelo e em cache).
      */
     private void mostrarMatrizAdjacencia() {
-        int[][] matriz = grafoAtual.gerarMatrizAdjacencia();
-        List<Integer> ids = new ArrayList<>(grafoAtual.pontos.keySet());
-
-        // 1. Cria os cabeçalhos das colunas (IDs dos pontos)
-        String[] colunas = new String[ids.size() + 1];
-        colunas[0] = "ID \\ ID"; // Cabeçalho da primeira coluna
-        for (int i = 0; i < ids.size(); i++) colunas[i + 1] = String.valueOf(ids.get(i));
-
-        // 2. Preenche os dados da tabela
-        Object[][] dados = new Object[ids.size()][ids.size() + 1];
-        for (int i = 0; i < ids.size(); i++) {
-            dados[i][0] = ids.get(i); // Primeira coluna é o ID de origem
-            for (int j = 0; j < ids.size(); j++) {
-                dados[i][j + 1] = matriz[i][j]; // Valores da matriz (distâncias)
-            }
+        String[] tipos = {"Distâncias diretas", "Menores distâncias (todos os pares)"};
+        int tipo = JOptionPane.showOptionDialog(this, "Qual matriz deseja ver?", "Matriz de Adjacência",
+                JOptionPane.DEFAULT_OPTION, JOptionPane.QUESTION_MESSAGE, null, tipos, tipos[0]);
+        if (tipo < 0) return; // Cancelado
+        boolean todosPares = tipo == 1;
+
+        // Linhas e colunas na ordem dos índices densos do grafo; as células são lidas sob demanda
+        ModeloTabelaMatriz modelo;
+        try {
+            modelo = todosPares
+                    ? ModeloTabelaMatriz.distancias(grafoAtual.calcularDistanciasTodosPares())
+                    : ModeloTabelaMatriz.adjacencia(grafoAtual.gerarMatrizAdjacenciaEsparsa(), grafoAtual);
+        } catch (IllegalStateException e) {
+            // Grafo grande demais para a matriz de distâncias
+            JOptionPane.showMessageDialog(this, e.getMessage(), "Erro", JOptionPane.ERROR_MESSAGE);
+            return;
         }
 
         // Cria a tabela e exibe em um diálogo
-        JTable tabela = new JTable(dados, colunas);
+        TabelaMatriz tabela = new TabelaMatriz(modelo, TabelaMatriz.LARGURA_COLUNA_PADRAO);
         // Desativa a edição da tabela
         tabela.setEnabled(false);
-        JOptionPane.showMessageDialog(this, new JScrollPane(tabela), "Matriz de Adjacência (Distância em m)", JOptionPane.PLAIN_MESSAGE);
+        String titulo = todosPares ? "Menores Distâncias entre Todos os Pares (m)" : "Matriz de Adjacência (Distância em m)";
+        JOptionPane.showMessageDialog(this, new JScrollPane(tabela), titulo, JOptionPane.PLAIN_MESSAGE);
     }
 
     /**
@@ -353,33 +382,101 @@ public class SistemaColetaReciclaveis extends JFrame {
             if (caminho == null) {
                 JOptionPane.showMessageDialog(this, "Não há caminho entre os pontos ou IDs inválidos!");
             } else {
-                StringBuilder sb = new StringBuilder("Caminho encontrado (BFS - Mais Curto em Conexões):\n\n");
-                int distTotal = 0;
-
-                // Percorre o caminho encontrado (lista de IDs)
-                for (int i = 0; i < caminho.size(); i++) {
-                    PontoColeta p = grafoAtual.pontos.get(caminho.get(i));
-                    sb.append(p != null ? p.nome : "? (ID " + caminho.get(i) + ")");
-
-                    if (i < caminho.size() - 1) {
-                        sb.append(" → ");
-                        // Calcula a distância entre o ponto atual e o próximo
-                        for (Conexao c : grafoAtual.conexoes) {
-                            if (c.origem == caminho.get(i) && c.destino == caminho.get(i + 1)) {
-                                distTotal += c.distancia;
-                                break;
-                            }
-                        }
-                    }
-                }
-                sb.append(String.format("\n\nDistância total do caminho: %d metros", distTotal));
-                JOptionPane.showMessageDialog(this, sb.toString(), "Busca em Largura (BFS)", JOptionPane.INFORMATION_MESSAGE);
+                // A distância é somada consultando apenas os sucessores de cada ponto do caminho
+                long distTotal = grafoAtual.calcularDistanciaCaminho(caminho);
+                mostrarCaminho("Caminho encontrado (BFS - Mais Curto em Conexões):", caminho, distTotal, "Busca em Largura (BFS)");
             }
         } catch (NumberFormatException e) {
             JOptionPane.showMessageDialog(this, "IDs inválidos! Por favor, insira números inteiros.", "Erro", JOptionPane.ERROR_MESSAGE);
         }
     }
 
+    /**
+     * Solicita IDs de origem e destino e a estratégia de busca (Dijkstra, bidirecional, A* ou BFS).
+     * Exibe o caminho, a distância total e quantos vértices a busca assentou.
+     */
+    private void buscarCaminhoMinimo() {
+        String origemStr = JOptionPane.showInputDialog("ID do ponto de origem:");
+        String destinoStr = JOptionPane.showInputDialog("ID do ponto de destino:");
+        if (origemStr == null || destinoStr == null) return; // Cancelado
+        EstrategiaBusca estrategia = (EstrategiaBusca) JOptionPane.showInputDialog(this, "Estratégia de busca:",
+                "Caminho Mínimo", JOptionPane.QUESTION_MESSAGE, null, EstrategiaBusca.values(), EstrategiaBusca.DIJKSTRA);
+        if (estrategia == null) return;
+
+        try {
+            int origem = Integer.parseInt(origemStr);
+            int destino = Integer.parseInt(destinoStr);
+            ResultadoCaminho resultado = grafoAtual.encontrarCaminho(origem, destino, estrategia);
+
+            if (resultado == null) {
+                JOptionPane.showMessageDialog(this, "Não há caminho entre os pontos ou IDs inválidos!");
+            } else {
+                mostrarCaminho(String.format("Caminho encontrado (%s - %d vértices assentados):",
+                                estrategia, resultado.getVerticesAssentados()),
+                        resultado.getCaminho(), resultado.getDistancia(), "Caminho Mínimo (" + estrategia + ")");
+            }
+        } catch (NumberFormatException e) {
+            JOptionPane.showMessageDialog(this, "IDs inválidos! Por favor, insira números inteiros.", "Erro", JOptionPane.ERROR_MESSAGE);
+        }
+    }
+
+    /**
+     * Solicita as paradas de uma rota de coleta e um tempo limite, e exibe a melhor
+     * ordem de visita encontrada (saindo do depósito e voltando a ele).
+     */
+    private void otimizarRota() {
+        String paradasStr = JOptionPane.showInputDialog("IDs das paradas separados por vírgula (o primeiro é o depósito):");
+        if (paradasStr == null) return; // Cancelado
+        String prazoStr = JOptionPane.showInputDialog("Tempo limite em milissegundos:", MotorConsultas.TEMPO_ROTA_PADRAO_MS);
+        if (prazoStr == null) return;
+
+        try {
+            List<Integer> paradas = Consulta.lerIds(paradasStr);
+            long prazo = Long.parseLong(prazoStr.trim());
+            ResultadoRota resultado = grafoAtual.otimizarRota(paradas, prazo);
+
+            if (resultado == null) {
+                JOptionPane.showMessageDialog(this, "Informe ao menos uma parada com ID válido!", "Erro", JOptionPane.ERROR_MESSAGE);
+                return;
+            }
+            StringBuilder sb = new StringBuilder("Ordem de visita:\n\n");
+            List<Integer> ordem = resultado.getParadas();
+            for (int i = 0; i < ordem.size(); i++) {
+                PontoColeta p = grafoAtual.pontos.get(ordem.get(i));
+                sb.append(p.nome).append(" (ID ").append(p.id).append(")");
+                if (i < ordem.size() - 1) sb.append(" → ");
+                if (i % 5 == 4) sb.append("\n");
+            }
+            sb.append(" → volta ao depósito\n\n");
+            sb.append(String.format("Distância total: %d metros (rota gulosa inicial: %d metros)%n",
+                    resultado.getDistancia(), resultado.getDistanciaInicial()));
+            sb.append(String.format("Perturbações da busca local: %d", resultado.getIteracoes()));
+            if (!resultado.isViavel()) sb.append("\n\nAtenção: algumas paradas não são alcançáveis entre si!");
+            JOptionPane.showMessageDialog(this, sb.toString(), "Rota de Coleta", JOptionPane.INFORMATION_MESSAGE);
+        } catch (NumberFormatException e) {
+            JOptionPane.showMessageDialog(this, "Valores inválidos! Por favor, insira números inteiros.", "Erro", JOptionPane.ERROR_MESSAGE);
+        }
+    }
+
+    /**
+     * Exibe um caminho (lista de IDs) com os nomes dos pontos e a distância total.
+     * @param cabecalho O texto exibido antes do caminho.
+     * @param caminho Os IDs dos pontos do caminho.
+     * @param distTotal A distância total em metros.
+     * @param titulo O título do diálogo.
+     */
+    private void mostrarCaminho(String cabecalho, List<Integer> caminho, long distTotal, String titulo) {
+        StringBuilder sb = new StringBuilder(cabecalho).append("\n\n");
+
+        // Percorre o caminho encontrado (lista de IDs)
+        for (int i = 0; i < caminho.size(); i++) {
+            sb.append(MotorConsultas.nomeDoPonto(grafoAtual.pontos, caminho.get(i)));
+            if (i < caminho.size() - 1) sb.append(" → ");
+        }
+        sb.append(String.format("\n\nDistância total do caminho: %d metros", distTotal));
+        JOptionPane.showMessageDialog(this, sb.toString(), titulo, JOptionPane.INFORMATION_MESSAGE);
+    }
+
     /**
      * Solicita um nome e busca o Ponto de Coleta correspondente usando a BST.
      */
@@ -392,7 +489,16 @@ public class SistemaColetaReciclaveis extends JFrame {
         if (ponto != null) {
             JOptionPane.showMessageDialog(this, "Ponto encontrado:\n" + ponto, "Busca BST", JOptionPane.INFORMATION_MESSAGE);
         } else {
-            JOptionPane.showMessageDialog(this, "Ponto não encontrado!", "Busca BST", JOptionPane.WARNING_MESSAGE);
+            // Sugere nomes parecidos (erros de digitação e acentos), como a consulta APROXIMADO do lote
+            List<ResultadoAproximado> sugestoes = grafoAtual.buscarAproximado(nome,
+                    MotorConsultas.distanciaMaximaPadrao(nome), MotorConsultas.LIMITE_APROXIMADO_PADRAO);
+            if (sugestoes.isEmpty()) {
+                JOptionPane.showMessageDialog(this, "Ponto não encontrado!", "Busca BST", JOptionPane.WARNING_MESSAGE);
+            } else {
+                StringBuilder sb = new StringBuilder("Ponto não encontrado. Você quis dizer:\n\n");
+                for (ResultadoAproximado r : sugestoes) sb.append(r).append("\n");
+                JOptionPane.showMessageDialog(this, sb.toString(), "Busca BST", JOptionPane.INFORMATION_MESSAGE);
+            }
         }
     }
 
@@ -403,13 +509,23 @@ public class SistemaColetaReciclaveis extends JFrame {
         String prefixo = JOptionPane.showInputDialog("Prefixo para busca (Autocomplete):");
         if (prefixo == null) return;
 
-        List<PontoColeta> resultados = grafoAtual.trie.buscarPorPrefixo(prefixo);
+        OrdemPrefixo ordem = (OrdemPrefixo) JOptionPane.showInputDialog(this, "Ordem dos resultados:", "Busca Trie",
+                JOptionPane.QUESTION_MESSAGE, null, OrdemPrefixo.values(), OrdemPrefixo.PONTUACAO);
+        if (ordem == null) return;
+
+        // Busca um resultado a mais que o exibido só para saber se a lista foi cortada
+        List<PontoColeta> resultados = grafoAtual.buscarPorPrefixo(prefixo, MAXIMO_RESULTADOS_PREFIXO + 1, ordem);
 
         if (resultados.isEmpty()) {
             JOptionPane.showMessageDialog(this, "Nenhum ponto encontrado com o prefixo '" + prefixo + "'!", "Busca Trie", JOptionPane.WARNING_MESSAGE);
         } else {
             StringBuilder sb = new StringBuilder("Pontos encontrados:\n\n");
-            for (PontoColeta p : resultados) sb.append(p).append("\n");
+            for (int i = 0; i < Math.min(resultados.size(), MAXIMO_RESULTADOS_PREFIXO); i++) {
+                sb.append(resultados.get(i)).append("\n");
+            }
+            if (resultados.size() > MAXIMO_RESULTADOS_PREFIXO) {
+                sb.append("\n(mostrando os ").append(MAXIMO_RESULTADOS_PREFIXO).append(" primeiros; refine o prefixo)");
+            }
             JOptionPane.showMessageDialog(this, sb.toString(), "Busca Trie", JOptionPane.INFORMATION_MESSAGE);
         }
     }
@@ -569,11 +685,11 @@ public class SistemaColetaReciclaveis extends JFrame {
                 "Confirmar Limpeza", JOptionPane.YES_NO_OPTION, JOptionPane.WARNING_MESSAGE);
         if (resp == JOptionPane.YES_OPTION) {
             grafoManual = new GrafoColetaReciclaveis(); // Cria uma nova instância limpa
-            // Se o modo atual for manual, atualiza a referência e redesenha
-            if (!modoArquivos) {
-                grafoAtual = grafoManual;
-                painelGrafo.repaint();
-            }
+            grafoManual.usarHeuristicaMarcos(8);
+            // O painel do modo manual passa a desenhar o novo grafo (e descarta a seleção e o layout do antigo)
+            painelManual.setGrafo(grafoManual);
+            // Se o modo atual for manual, atualiza a referência
+            if (!modoArquivos) grafoAtual = grafoManual;
             JOptionPane.showMessageDialog(this, "Dados manuais limpos! O grafo manual agora está vazio.");
         }
     }
@@ -0,0 +1,463 @@
+import java.io.*;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Snapshot binário e versionado do grafo, para abrir uma rede grande sem reler os
+ * arquivos de texto nem reconstruir a BST e a Trie.
+ *
+ * Formato (big-endian), versão 3:
+ * <pre>
+ *   cabeçalho: MAGICO, VERSAO_FORMATO,
+ *              tamanho e data de modificação dos arquivos de pontos e de conexões,
+ *              n, m, pendentes, nós da BST, nós da Trie, bytes dos nomes
+ *   pontos:    ids[n], inicioNome[n+1], nomes em UTF-8
+ *   arestas:   inicioSaida[n+1], destinos[m], pesos[m]   (CSR por índice denso)
+ *   pendentes: (origemId, destinoId, distancia) das conexões com extremo desconhecido
+ *   BST:       pré-ordem de (índice do ponto, byte com filhos e altura AVL:
+ *              bit 0 = esquerda, bit 1 = direita, bits 2-7 = altura)
+ *   Trie:      pré-ordem de (tamanho do rótulo, rótulo, índice do ponto ou -1, quantidade de filhos)
+ *   trailer:   CRC32 de todos os bytes anteriores
+ * </pre>
+ * A leitura mapeia o arquivo em memória e copia cada seção com leituras em bloco. O
+ * mapeamento é feito em janelas de até TAMANHO_JANELA bytes, porque um MappedByteBuffer
+ * só endereça 2 GB e o snapshot de uma rede do porte de uma cidade pode passar disso.
+ */
+final class SnapshotGrafo {
+    // "GCRS": Grafo de Coleta de Recicláveis - Snapshot
+    static final int MAGICO = 0x47435253;
+    // Deve ser incrementada sempre que o layout de alguma seção mudar
+    static final int VERSAO_FORMATO = 3;
+    // Bytes do cabeçalho: 2 ints, 4 longs e 6 ints
+    private static final int TAMANHO_CABECALHO = 2 * 4 + 4 * 8 + 6 * 4;
+    // Maior trecho do arquivo mapeado de uma vez na leitura
+    static final int TAMANHO_JANELA = 1 << 30;
+
+    private SnapshotGrafo() {
+    }
+
+    /**
+     * Estado do grafo lido de um snapshot.
+     */
+    static final class Conteudo {
+        LinkedHashMap<Integer, PontoColeta> pontos;
+        ArrayList<Conexao> conexoes;
+        AdjacenciaCSR adjacencia;
+        int arestasPendentes;
+        ArvoreBST bst;
+        ArvoreTrie trie;
+    }
+
+    /**
+     * Grava o snapshot em um arquivo temporário e o move para o destino, para que um
+     * snapshot incompleto nunca substitua um válido.
+     * @param arquivo O caminho do snapshot.
+     * @param arquivoPontos O arquivo de texto de origem dos pontos (null se não houver).
+     * @param arquivoConexoes O arquivo de texto de origem das conexões (null se não houver).
+     * @param adj A adjacência atual (define a ordem dos pontos e as arestas gravadas).
+     * @param pontos Os pontos do grafo, por ID.
+     * @param pendentes As conexões que não estão na adjacência (extremos desconhecidos).
+     * @param bst A árvore de nomes.
+     * @param trie A árvore de prefixos.
+     * @throws IOException Se houver erro de escrita.
+     */
+    static void gravar(String arquivo, String arquivoPontos, String arquivoConexoes, AdjacenciaCSR adj,
+                       Map<Integer, PontoColeta> pontos, List<Conexao> pendentes,
+                       ArvoreBST bst, ArvoreTrie trie) throws IOException {
+        int n = adj.numVertices();
+        int m = adj.numArestas();
+        SegmentosAdjacencia saida = adj.saida;
+
+        // Nomes já codificados, para conhecer o tamanho total antes de gravar
+        byte[][] nomes = new byte[n][];
+        int bytesNomes = 0;
+        for (int v = 0; v < n; v++) {
+            nomes[v] = pontos.get(adj.id(v)).nome.getBytes(StandardCharsets.UTF_8);
+            bytesNomes += nomes[v].length;
+        }
+
+        Path destino = Paths.get(arquivo).toAbsolutePath();
+        Path temporario = destino.resolveSibling(destino.getFileName() + ".tmp");
+        CRC32 crc = new CRC32();
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                new CheckedOutputStream(Files.newOutputStream(temporario), crc), 1 << 16))) {
+            out.writeInt(MAGICO);
+            out.writeInt(VERSAO_FORMATO);
+            long[] carimboPontos = carimbo(arquivoPontos);
+            long[] carimboConexoes = carimbo(arquivoConexoes);
+            out.writeLong(carimboPontos[0]);
+            out.writeLong(carimboPontos[1]);
+            out.writeLong(carimboConexoes[0]);
+            out.writeLong(carimboConexoes[1]);
+            out.writeInt(n);
+            out.writeInt(m);
+            out.writeInt(pendentes.size());
+            out.writeInt(contarNos(bst));
+            out.writeInt(trie.contarNos());
+            out.writeInt(bytesNomes);
+
+            // Pontos
+            for (int v = 0; v < n; v++) out.writeInt(adj.id(v));
+            int inicioNome = 0;
+            out.writeInt(0);
+            for (int v = 0; v < n; v++) {
+                inicioNome += nomes[v].length;
+                out.writeInt(inicioNome);
+            }
+            for (int v = 0; v < n; v++) out.write(nomes[v]);
+
+            // Arestas em CSR, sem a folga dos segmentos
+            int inicio = 0;
+            out.writeInt(0);
+            for (int v = 0; v < n; v++) {
+                inicio += saida.grau[v];
+                out.writeInt(inicio);
+            }
+            for (int v = 0; v < n; v++) {
+                for (int k = saida.inicio[v], f = k + saida.grau[v]; k < f; k++) out.writeInt(saida.vizinhos[k]);
+            }
+            for (int v = 0; v < n; v++) {
+                for (int k = saida.inicio[v], f = k + saida.grau[v]; k < f; k++) out.writeInt(saida.pesos[k]);
+            }
+            for (Conexao c : pendentes) {
+                out.writeInt(c.origem);
+                out.writeInt(c.destino);
+                out.writeInt(c.distancia);
+            }
+
+            gravarBST(out, bst, adj);
+            gravarTrie(out, trie, adj);
+
+            // O CRC acumulado até aqui vai no trailer
+            out.flush();
+            out.writeLong(crc.getValue());
+        }
+        try {
+            Files.move(temporario, destino, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temporario, destino, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Lê um snapshot, se ele existir, estiver íntegro e corresponder aos arquivos de texto.
+     * @param arquivo O caminho do snapshot.
+     * @param arquivoPontos O arquivo de texto dos pontos que o snapshot deve refletir.
+     * @param arquivoConexoes O arquivo de texto das conexões que o snapshot deve refletir.
+     * @return O conteúdo lido, ou null se o snapshot estiver ausente, desatualizado
+     *         (tamanho ou data dos arquivos de texto mudaram) ou corrompido (CRC ou versão).
+     * @throws IOException Se houver erro de leitura do snapshot.
+     */
+    static Conteudo ler(String arquivo, String arquivoPontos, String arquivoConexoes) throws IOException {
+        return ler(arquivo, arquivoPontos, arquivoConexoes, TAMANHO_JANELA);
+    }
+
+    /**
+     * Lê um snapshot mapeando-o em janelas do tamanho indicado (os testes usam janelas
+     * pequenas para passar pelas trocas de janela no meio das seções).
+     */
+    static Conteudo ler(String arquivo, String arquivoPontos, String arquivoConexoes, int tamanhoJanela)
+            throws IOException {
+        Path caminho = Paths.get(arquivo);
+        if (!Files.isRegularFile(caminho)) return null;
+        try (FileChannel canal = FileChannel.open(caminho, StandardOpenOption.READ)) {
+            long tamanho = canal.size();
+            if (tamanho < TAMANHO_CABECALHO + 8) return null;
+            LeitorJanelas buf = new LeitorJanelas(canal, tamanho, tamanhoJanela);
+
+            // Cabeçalho: formato e correspondência com os arquivos de texto
+            if (buf.getInt() != MAGICO || buf.getInt() != VERSAO_FORMATO) return null;
+            long[] carimboPontos = carimbo(arquivoPontos);
+            long[] carimboConexoes = carimbo(arquivoConexoes);
+            if (buf.getLong() != carimboPontos[0] || buf.getLong() != carimboPontos[1]
+                    || buf.getLong() != carimboConexoes[0] || buf.getLong() != carimboConexoes[1]) return null;
+
+            // Integridade de todo o conteúdo, uma janela de cada vez
+            CRC32 crc = new CRC32();
+            for (long inicio = 0, fim = tamanho - 8; inicio < fim; inicio += tamanhoJanela) {
+                crc.update(canal.map(FileChannel.MapMode.READ_ONLY, inicio, Math.min(tamanhoJanela, fim - inicio)));
+            }
+            ByteBuffer trailer = canal.map(FileChannel.MapMode.READ_ONLY, tamanho - 8, 8);
+            if (trailer.getLong() != crc.getValue()) return null;
+
+            try {
+                return lerConteudo(buf);
+            } catch (BufferUnderflowException | IndexOutOfBoundsException | NegativeArraySizeException e) {
+                // Seções inconsistentes com o cabeçalho: trata como snapshot inválido
+                return null;
+            }
+        }
+    }
+
+    /**
+     * Lê as seções do snapshot a partir da posição logo após os carimbos do cabeçalho.
+     */
+    private static Conteudo lerConteudo(LeitorJanelas buf) throws IOException {
+        int n = buf.getInt();
+        int m = buf.getInt();
+        int numPendentes = buf.getInt();
+        int nosBST = buf.getInt();
+        int nosTrie = buf.getInt();
+        int bytesNomes = buf.getInt();
+
+        // Pontos
+        int[] ids = buf.lerInteiros(n);
+        int[] inicioNome = buf.lerInteiros(n + 1);
+        byte[] nomes = new byte[bytesNomes];
+        buf.get(nomes);
+        PontoColeta[] porIndice = new PontoColeta[n];
+        Conteudo conteudo = new Conteudo();
+        conteudo.pontos = new LinkedHashMap<>(Math.max(16, (int) (n / 0.75f) + 1));
+        MapaIdIndice indicePorId = new MapaIdIndice(n);
+        for (int v = 0; v < n; v++) {
+            String nome = new String(nomes, inicioNome[v], inicioNome[v + 1] - inicioNome[v], StandardCharsets.UTF_8);
+            porIndice[v] = new PontoColeta(ids[v], nome);
+            conteudo.pontos.put(ids[v], porIndice[v]);
+            indicePorId.colocar(ids[v], v);
+        }
+
+        // Arestas: expande o CSR em (origem, destino, peso) e recria as conexões
+        int[] inicioSaida = buf.lerInteiros(n + 1);
+        int[] destinos = buf.lerInteiros(m);
+        int[] pesos = buf.lerInteiros(m);
+        int[] origens = new int[m];
+        Conexao[] refs = new Conexao[m];
+        for (int v = 0; v < n; v++) {
+            for (int k = inicioSaida[v]; k < inicioSaida[v + 1]; k++) {
+                origens[k] = v;
+                refs[k] = new Conexao(ids[v], ids[destinos[k]], pesos[k]);
+            }
+        }
+        conteudo.conexoes = new ArrayList<>(m + numPendentes);
+        conteudo.conexoes.addAll(Arrays.asList(refs));
+        int[] pendentes = buf.lerInteiros(3 * numPendentes);
+        for (int p = 0; p < numPendentes; p++) {
+            conteudo.conexoes.add(new Conexao(pendentes[3 * p], pendentes[3 * p + 1], pendentes[3 * p + 2]));
+        }
+        conteudo.arestasPendentes = numPendentes;
+        conteudo.adjacencia = AdjacenciaCSR.construirPorIndices(ids, indicePorId, n, origens, destinos, pesos, refs, m);
+
+        conteudo.bst = lerBST(buf, nosBST, porIndice);
+        conteudo.trie = lerTrie(buf, nosTrie, porIndice);
+        return conteudo;
+    }
+
+    /**
+     * Leitura sequencial de um arquivo mapeado por janelas. Cada valor é lido inteiro de
+     * uma janela: quando faltam bytes na atual, a próxima é mapeada a partir da posição
+     * corrente (offsets em long). As leituras em bloco copiam janela por janela.
+     */
+    private static final class LeitorJanelas {
+        private final FileChannel canal;
+        private final long tamanho;
+        private final int tamanhoJanela;
+        // Posição da janela atual no arquivo
+        private long inicioJanela;
+        private ByteBuffer janela = ByteBuffer.allocate(0);
+
+        LeitorJanelas(FileChannel canal, long tamanho, int tamanhoJanela) {
+            this.canal = canal;
+            this.tamanho = tamanho;
+            this.tamanhoJanela = tamanhoJanela;
+        }
+
+        /**
+         * Garante ao menos 'bytes' bytes na janela, mapeando a seguinte se preciso.
+         * @throws BufferUnderflowException Se o arquivo terminar antes.
+         */
+        private void garantir(int bytes) throws IOException {
+            if (janela.remaining() >= bytes) return;
+            long posicao = inicioJanela + janela.position();
+            if (tamanho - posicao < bytes) throw new BufferUnderflowException();
+            inicioJanela = posicao;
+            janela = canal.map(FileChannel.MapMode.READ_ONLY, posicao,
+                    Math.min(Math.max(tamanhoJanela, bytes), tamanho - posicao));
+        }
+
+        int getInt() throws IOException {
+            garantir(4);
+            return janela.getInt();
+        }
+
+        long getLong() throws IOException {
+            garantir(8);
+            return janela.getLong();
+        }
+
+        byte get() throws IOException {
+            garantir(1);
+            return janela.get();
+        }
+
+        void get(byte[] destino) throws IOException {
+            for (int feitos = 0; feitos < destino.length; ) {
+                garantir(1);
+                int parte = Math.min(destino.length - feitos, janela.remaining());
+                janela.get(destino, feitos, parte);
+                feitos += parte;
+            }
+        }
+
+        /**
+         * Copia 'quantidade' inteiros da posição atual, avançando a posição.
+         */
+        int[] lerInteiros(int quantidade) throws IOException {
+            int[] valores = new int[quantidade];
+            for (int feitos = 0; feitos < quantidade; ) {
+                garantir(4);
+                int parte = Math.min(quantidade - feitos, janela.remaining() / 4);
+                janela.slice().asIntBuffer().get(valores, feitos, parte);
+                janela.position(janela.position() + 4 * parte);
+                feitos += parte;
+            }
+            return valores;
+        }
+
+        void lerCaracteres(char[] destino) throws IOException {
+            for (int feitos = 0; feitos < destino.length; ) {
+                garantir(2);
+                int parte = Math.min(destino.length - feitos, janela.remaining() / 2);
+                janela.slice().asCharBuffer().get(destino, feitos, parte);
+                janela.position(janela.position() + 2 * parte);
+                feitos += parte;
+            }
+        }
+    }
+
+    /**
+     * Identifica a versão de um arquivo de texto pelo tamanho e data de modificação.
+     * @return {tamanho, modificação em ms}, ou {-1, -1} se o arquivo não existir.
+     */
+    private static long[] carimbo(String arquivo) throws IOException {
+        if (arquivo == null) return new long[]{-1, -1};
+        Path caminho = Paths.get(arquivo);
+        if (!Files.isRegularFile(caminho)) return new long[]{-1, -1};
+        return new long[]{Files.size(caminho), Files.getLastModifiedTime(caminho).toMillis()};
+    }
+
+    // ==================== ÍNDICES DE NOMES ====================
+
+    private static int contarNos(ArvoreBST bst) {
+        int total = 0;
+        Deque<NoBST> pilha = new ArrayDeque<>();
+        if (bst.raiz != null) pilha.push(bst.raiz);
+        while (!pilha.isEmpty()) {
+            NoBST no = pilha.pop();
+            total++;
+            if (no.direita != null) pilha.push(no.direita);
+            if (no.esquerda != null) pilha.push(no.esquerda);
+        }
+        return total;
+    }
+
+    /**
+     * Grava a BST em pré-ordem, de forma iterativa (a árvore pode ser degenerada).
+     */
+    private static void gravarBST(DataOutputStream out, ArvoreBST bst, AdjacenciaCSR adj) throws IOException {
+        Deque<NoBST> pilha = new ArrayDeque<>();
+        if (bst.raiz != null) pilha.push(bst.raiz);
+        while (!pilha.isEmpty()) {
+            NoBST no = pilha.pop();
+            out.writeInt(adj.indice(no.ponto.id));
+            out.writeByte((no.esquerda != null ? 1 : 0) | (no.direita != null ? 2 : 0) | (no.altura << 2));
+            if (no.direita != null) pilha.push(no.direita);
+            if (no.esquerda != null) pilha.push(no.esquerda);
+        }
+    }
+
+    /**
+     * Reconstrói a BST em O(n) a partir da pré-ordem, com uma pilha dos nós que
+     * ainda esperam filhos. As alturas gravadas dispensam um novo balanceamento.
+     */
+    private static ArvoreBST lerBST(LeitorJanelas buf, int numNos, PontoColeta[] porIndice) throws IOException {
+        ArvoreBST bst = new ArvoreBST();
+        NoBST[] pilha = new NoBST[numNos];
+        int[] faltando = new int[numNos];
+        int topo = -1;
+        for (int k = 0; k < numNos; k++) {
+            NoBST no = new NoBST(porIndice[buf.getInt()]);
+            int marcas = buf.get() & 0xFF;
+            int filhos = marcas & 3;
+            no.altura = marcas >>> 2;
+            if (topo < 0) {
+                bst.raiz = no;
+            } else {
+                // O primeiro filho esperado é o da esquerda, se houver
+                if ((faltando[topo] & 1) != 0) {
+                    pilha[topo].esquerda = no;
+                    faltando[topo] &= ~1;
+                } else {
+                    pilha[topo].direita = no;
+                    faltando[topo] &= ~2;
+                }
+                if (faltando[topo] == 0) topo--;
+            }
+            if (filhos != 0) {
+                pilha[++topo] = no;
+                faltando[topo] = filhos;
+            }
+        }
+        bst.tamanho = numNos;
+        return bst;
+    }
+
+    /**
+     * Grava a Trie radix em pré-ordem, com os filhos em ordem crescente de chave.
+     */
+    private static void gravarTrie(DataOutputStream out, ArvoreTrie trie, AdjacenciaCSR adj) throws IOException {
+        Deque<NoTrie> pilha = new ArrayDeque<>();
+        pilha.push(trie.raiz);
+        while (!pilha.isEmpty()) {
+            NoTrie no = pilha.pop();
+            out.writeInt(no.rotulo.length);
+            for (char c : no.rotulo) out.writeChar(c);
+            out.writeInt(no.fimPalavra && no.ponto != null ? adj.indice(no.ponto.id) : -1);
+            out.writeInt(no.filhos.length);
+            for (int k = no.filhos.length - 1; k >= 0; k--) pilha.push(no.filhos[k]);
+        }
+    }
+
+    /**
+     * Reconstrói a Trie radix em O(nós + caracteres) a partir da pré-ordem. Os vetores
+     * de filhos de cada nó são alocados com o tamanho exato e preenchidos em ordem.
+     */
+    private static ArvoreTrie lerTrie(LeitorJanelas buf, int numNos, PontoColeta[] porIndice) throws IOException {
+        ArvoreTrie trie = new ArvoreTrie();
+        NoTrie[] pilha = new NoTrie[numNos];
+        int[] faltando = new int[numNos];
+        int topo = -1;
+        for (int k = 0; k < numNos; k++) {
+            char[] rotulo = new char[buf.getInt()];
+            buf.lerCaracteres(rotulo);
+            int ponto = buf.getInt();
+            int filhos = buf.getInt();
+            NoTrie no = topo < 0 ? trie.raiz : new NoTrie(rotulo);
+            // As pontuações não são gravadas: todas começam em 0
+            no.maiorPontuacao = 0;
+            if (ponto >= 0) {
+                no.ponto = porIndice[ponto];
+                no.fimPalavra = true;
+            }
+            if (topo >= 0) {
+                NoTrie pai = pilha[topo];
+                int posicao = pai.filhos.length - faltando[topo];
+                pai.filhos[posicao] = no;
+                pai.chaves[posicao] = rotulo[0];
+                if (--faltando[topo] == 0) topo--;
+            }
+            if (filhos > 0) {
+                no.filhos = new NoTrie[filhos];
+                no.chaves = new char[filhos];
+                pilha[++topo] = no;
+                faltando[topo] = filhos;
+            }
+        }
+        return trie;
+    }
+}
@@ -0,0 +1,174 @@
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * Tabela de menores distâncias (em metros) de um conjunto de origens para um conjunto
+ * de destinos (ex.: de cada pátio de caminhões para cada ponto com coleta no dia).
+ * Os valores ficam em um único vetor plano 'int[]', linha por linha (uma linha por origem).
+ *
+ * Em vez de uma busca por par, o cálculo faz uma busca de Dijkstra por vértice do
+ * lado menor: uma por origem (arestas de saída) ou, se houver menos destinos, uma por
+ * destino (arestas de entrada, preenchendo colunas). Cada busca preenche a linha ou a
+ * coluna inteira e para assim que o último alvo é assentado. As buscas são repartidas
+ * em tarefas no Executor informado, com espaço de trabalho por thread.
+ */
+public class TabelaDistancias {
+    // Distância entre pares sem caminho
+    public static final int INFINITO = BuscaCaminhos.INFINITO;
+    // Quantidade de buscas por tarefa submetida ao Executor
+    private static final int BUSCAS_POR_TAREFA = 8;
+
+    // IDs das origens (linhas) e dos destinos (colunas), sem repetições
+    private final int[] origens;
+    private final int[] destinos;
+    // ID -> posição na linha/coluna
+    private final MapaIdIndice linhaPorId;
+    private final MapaIdIndice colunaPorId;
+    // distancias[i * destinos.length + j] = menor distância da origem i ao destino j
+    private final int[] distancias;
+    // Total de vértices assentados por todas as buscas (medida do trabalho realizado)
+    private final long verticesAssentados;
+
+    private TabelaDistancias(int[] origens, int[] destinos, int[] distancias, long verticesAssentados) {
+        this.origens = origens;
+        this.destinos = destinos;
+        this.distancias = distancias;
+        this.verticesAssentados = verticesAssentados;
+        this.linhaPorId = new MapaIdIndice(origens.length);
+        for (int i = 0; i < origens.length; i++) linhaPorId.colocar(origens[i], i);
+        this.colunaPorId = new MapaIdIndice(destinos.length);
+        for (int j = 0; j < destinos.length; j++) colunaPorId.colocar(destinos[j], j);
+    }
+
+    /**
+     * Calcula a tabela de distâncias entre os conjuntos de pontos.
+     * IDs repetidos são considerados uma vez; IDs desconhecidos ficam sem caminho.
+     * @param adj A adjacência do grafo (não pode ser alterada durante o cálculo).
+     * @param idsOrigens Os IDs das origens, na ordem das linhas.
+     * @param idsDestinos Os IDs dos destinos, na ordem das colunas.
+     * @param executor O executor que roda as buscas (ex.: um ForkJoinPool).
+     * @return A tabela calculada.
+     * @throws IllegalStateException Se a tabela não couber em um vetor.
+     */
+    public static TabelaDistancias calcular(AdjacenciaCSR adj, Collection<Integer> idsOrigens,
+                                            Collection<Integer> idsDestinos, Executor executor) {
+        int[] origens = semRepeticoes(idsOrigens);
+        int[] destinos = semRepeticoes(idsDestinos);
+        int linhas = origens.length, colunas = destinos.length;
+        if ((long) linhas * colunas > Integer.MAX_VALUE - 8) {
+            throw new IllegalStateException("Tabela de distâncias grande demais: " + linhas + " x " + colunas);
+        }
+        int[] d = new int[linhas * colunas];
+        Arrays.fill(d, INFINITO);
+
+        // Parte das buscas do lado menor; os alvos são o outro lado
+        boolean reverso = colunas < linhas;
+        int[] partidas = reverso ? destinos : origens;
+        int[] alvos = reverso ? origens : destinos;
+        int[] posicaoAlvo = new int[adj.numVertices()];
+        Arrays.fill(posicaoAlvo, -1);
+        int numAlvos = 0;
+        for (int j = 0; j < alvos.length; j++) {
+            int v = adj.indice(alvos[j]);
+            if (v >= 0) {
+                posicaoAlvo[v] = j;
+                numAlvos++;
+            }
+        }
+        // Na busca direta cada partida preenche uma linha; na reversa, uma coluna
+        int passo = reverso ? colunas : 1;
+        int numAlvosValidos = numAlvos;
+
+        int numTarefas = (partidas.length + BUSCAS_POR_TAREFA - 1) / BUSCAS_POR_TAREFA;
+        long[] assentadosPorTarefa = new long[numTarefas];
+        CompletableFuture<?>[] tarefas = new CompletableFuture<?>[numTarefas];
+        for (int t = 0; t < numTarefas; t++) {
+            final int tarefa = t;
+            tarefas[t] = CompletableFuture.runAsync(() -> {
+                int fim = Math.min(partidas.length, (tarefa + 1) * BUSCAS_POR_TAREFA);
+                for (int p = tarefa * BUSCAS_POR_TAREFA; p < fim; p++) {
+                    int s = adj.indice(partidas[p]);
+                    if (s < 0 || numAlvosValidos == 0) continue;
+                    int deslocamento = reverso ? p : p * colunas;
+                    assentadosPorTarefa[tarefa] += BuscaCaminhos.distanciasAteAlvos(
+                            adj, s, reverso, posicaoAlvo, numAlvosValidos, d, deslocamento, passo);
+                }
+            }, executor);
+        }
+        CompletableFuture.allOf(tarefas).join();
+
+        long assentados = 0;
+        for (long a : assentadosPorTarefa) assentados += a;
+        return new TabelaDistancias(origens, destinos, d, assentados);
+    }
+
+    /**
+     * @return Os IDs distintos, na ordem da primeira ocorrência.
+     */
+    private static int[] semRepeticoes(Collection<Integer> ids) {
+        return new LinkedHashSet<>(ids).stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    /**
+     * @return A quantidade de origens (linhas).
+     */
+    public int numOrigens() {
+        return origens.length;
+    }
+
+    /**
+     * @return A quantidade de destinos (colunas).
+     */
+    public int numDestinos() {
+        return destinos.length;
+    }
+
+    /**
+     * @param i O índice da linha.
+     * @return O ID da origem dessa linha.
+     */
+    public int origem(int i) {
+        return origens[i];
+    }
+
+    /**
+     * @param j O índice da coluna.
+     * @return O ID do destino dessa coluna.
+     */
+    public int destino(int j) {
+        return destinos[j];
+    }
+
+    /**
+     * @param i O índice da origem.
+     * @param j O índice do destino.
+     * @return A menor distância, ou INFINITO se não houver caminho.
+     */
+    public int get(int i, int j) {
+        return distancias[i * destinos.length + j];
+    }
+
+    /**
+     * Consulta a menor distância entre dois pontos pelos seus IDs.
+     * @param idOrigem O ID de uma das origens.
+     * @param idDestino O ID de um dos destinos.
+     * @return A distância em metros, ou -1 se não houver caminho ou algum ID não estiver na tabela.
+     */
+    public int distancia(int idOrigem, int idDestino) {
+        int i = linhaPorId.obter(idOrigem);
+        int j = colunaPorId.obter(idDestino);
+        if (i < 0 || j < 0) return -1;
+        int d = get(i, j);
+        return d == INFINITO ? -1 : d;
+    }
+
+    /**
+     * @return O total de vértices assentados pelas buscas (mede o trabalho poupado pela parada antecipada).
+     */
+    public long getVerticesAssentados() {
+        return verticesAssentados;
+    }
+}
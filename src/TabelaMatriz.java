@@ -0,0 +1,269 @@
+import javax.swing.*;
+import javax.swing.event.ChangeEvent;
+import javax.swing.event.EventListenerList;
+import javax.swing.event.ListSelectionEvent;
+import javax.swing.event.ListSelectionListener;
+import javax.swing.event.TableColumnModelListener;
+import javax.swing.table.JTableHeader;
+import javax.swing.table.TableColumn;
+import javax.swing.table.TableColumnModel;
+import java.awt.*;
+import java.util.Enumeration;
+
+/**
+ * JTable para matrizes grandes (ver ModeloTabelaMatriz). Uma JTable comum cria um
+ * TableColumn e o texto do cabeçalho de cada coluna ao receber o modelo, e várias
+ * operações (posição de uma célula, largura preferida) percorrem todas as colunas; com
+ * uma coluna por conexão ou por ponto, isso é proporcional ao tamanho da matriz. Aqui
+ * as colunas têm largura fixa (a 0, de rótulos, e as demais), então a posição de
+ * qualquer coluna é uma conta, e o modelo de colunas cria cada TableColumn só quando
+ * ela é pedida (as visíveis), com o cabeçalho lido do modelo na hora de desenhar.
+ *
+ * As colunas não podem ser redimensionadas nem reordenadas pelo usuário.
+ */
+public class TabelaMatriz extends JTable {
+    private static final long serialVersionUID = 1L;
+
+    // Largura da coluna de rótulos e largura padrão das colunas da matriz, em pixels
+    private static final int LARGURA_ROTULOS = 80;
+    public static final int LARGURA_COLUNA_PADRAO = 75;
+
+    private final ColunasUniformes colunas;
+
+    /**
+     * Construtor para criar uma instância de TabelaMatriz.
+     * @param modelo O modelo da matriz.
+     * @param larguraColuna A largura de cada coluna da matriz, em pixels.
+     */
+    public TabelaMatriz(ModeloTabelaMatriz modelo, int larguraColuna) {
+        super(modelo, new ColunasUniformes(modelo, LARGURA_ROTULOS, larguraColuna));
+        colunas = (ColunasUniformes) getColumnModel();
+        setAutoResizeMode(AUTO_RESIZE_OFF); // Larguras fixas, com barra de rolagem horizontal
+        getTableHeader().setReorderingAllowed(false);
+        getTableHeader().setResizingAllowed(false);
+    }
+
+    /**
+     * As larguras das colunas são fixas: não há o que distribuir (a JTable percorreria todas as colunas).
+     */
+    @Override
+    public void doLayout() {
+    }
+
+    /**
+     * Posição da célula calculada pelas larguras fixas, em vez de somar as larguras das
+     * colunas anteriores (a JTable chama isto a cada linha desenhada).
+     */
+    @Override
+    public Rectangle getCellRect(int linha, int coluna, boolean incluirEspacamento) {
+        Rectangle r = new Rectangle();
+        boolean valido = true;
+        if (linha < 0) {
+            valido = false;
+        } else if (linha >= getRowCount()) {
+            r.y = getHeight();
+            valido = false;
+        } else {
+            r.height = getRowHeight();
+            r.y = linha * r.height;
+        }
+        if (coluna < 0) {
+            valido = false;
+        } else if (coluna >= getColumnCount()) {
+            r.x = getWidth();
+            valido = false;
+        } else {
+            r.x = colunas.inicio(coluna);
+            r.width = colunas.largura(coluna);
+        }
+        if (valido && !incluirEspacamento) {
+            // Desconta o espaço entre células, como a JTable
+            int margemColuna = Math.min(colunas.getColumnMargin(), r.width);
+            int margemLinha = Math.min(getRowMargin(), r.height);
+            r.setBounds(r.x + margemColuna / 2, r.y + margemLinha / 2, r.width - margemColuna, r.height - margemLinha);
+        }
+        return r;
+    }
+
+    /**
+     * Cabeçalho cuja altura vem da primeira coluna (o cabeçalho padrão mede todas).
+     */
+    @Override
+    protected JTableHeader createDefaultTableHeader() {
+        return new JTableHeader(columnModel) {
+            private int altura = -1;
+
+            @Override
+            public Dimension getPreferredSize() {
+                if (altura < 0) {
+                    TableColumn primeira = columnModel.getColumn(0);
+                    Component c = getDefaultRenderer().getTableCellRendererComponent(
+                            getTable(), primeira.getHeaderValue(), false, false, -1, 0);
+                    altura = c.getPreferredSize().height;
+                }
+                return new Dimension(columnModel.getTotalColumnWidth(), altura);
+            }
+        };
+    }
+
+    /**
+     * Modelo de colunas com larguras fixas que cria cada TableColumn quando ela é pedida.
+     */
+    private static class ColunasUniformes implements TableColumnModel {
+        private final ModeloTabelaMatriz modelo;
+        private final int larguraRotulos;
+        private final int larguraColuna;
+        private final EventListenerList ouvintes = new EventListenerList();
+        private final ListSelectionListener repasse = this::avisarSelecao;
+        private ListSelectionModel selecao = new DefaultListSelectionModel();
+        private boolean selecaoPermitida;
+        private int margem = 1;
+
+        ColunasUniformes(ModeloTabelaMatriz modelo, int larguraRotulos, int larguraColuna) {
+            this.modelo = modelo;
+            this.larguraRotulos = larguraRotulos;
+            this.larguraColuna = larguraColuna;
+            selecao.addListSelectionListener(repasse);
+        }
+
+        int largura(int coluna) {
+            return coluna == 0 ? larguraRotulos : larguraColuna;
+        }
+
+        int inicio(int coluna) {
+            if (coluna == 0) return 0;
+            // Em long, como getTotalColumnWidth: as colunas além de Integer.MAX_VALUE ficam no limite
+            return (int) Math.min(Integer.MAX_VALUE, larguraRotulos + (long) (coluna - 1) * larguraColuna);
+        }
+
+        @Override
+        public TableColumn getColumn(int coluna) {
+            // Coluna leve, criada sob demanda: o cabeçalho é lido do modelo só quando desenhado
+            TableColumn c = new TableColumn(coluna, largura(coluna)) {
+                @Override
+                public Object getHeaderValue() {
+                    return modelo.getColumnName(getModelIndex());
+                }
+            };
+            c.setResizable(false);
+            return c;
+        }
+
+        @Override
+        public int getColumnCount() {
+            return modelo.getColumnCount();
+        }
+
+        @Override
+        public Enumeration<TableColumn> getColumns() {
+            return new Enumeration<TableColumn>() {
+                private int proxima;
+
+                @Override
+                public boolean hasMoreElements() {
+                    return proxima < getColumnCount();
+                }
+
+                @Override
+                public TableColumn nextElement() {
+                    return getColumn(proxima++);
+                }
+            };
+        }
+
+        @Override
+        public int getColumnIndex(Object identificador) {
+            throw new IllegalArgumentException("Colunas sem identificador: " + identificador);
+        }
+
+        @Override
+        public int getColumnIndexAtX(int x) {
+            if (x < 0 || x >= getTotalColumnWidth()) return -1;
+            return x < larguraRotulos ? 0 : 1 + (x - larguraRotulos) / larguraColuna;
+        }
+
+        @Override
+        public int getTotalColumnWidth() {
+            // Em long: com milhões de colunas a largura total passa de Integer.MAX_VALUE
+            long total = larguraRotulos + (long) (getColumnCount() - 1) * larguraColuna;
+            return (int) Math.min(Integer.MAX_VALUE, total);
+        }
+
+        @Override
+        public void addColumn(TableColumn coluna) {
+            throw new UnsupportedOperationException("As colunas vêm do modelo da matriz");
+        }
+
+        @Override
+        public void removeColumn(TableColumn coluna) {
+            throw new UnsupportedOperationException("As colunas vêm do modelo da matriz");
+        }
+
+        @Override
+        public void moveColumn(int origem, int destino) {
+            // Reordenação desligada no cabeçalho; a JTable só pede "mover" para a mesma posição
+            if (origem != destino) throw new UnsupportedOperationException("As colunas não podem ser reordenadas");
+        }
+
+        @Override
+        public void setColumnMargin(int margem) {
+            this.margem = margem;
+            for (TableColumnModelListener o : ouvintes.getListeners(TableColumnModelListener.class)) {
+                o.columnMarginChanged(new ChangeEvent(this));
+            }
+        }
+
+        @Override
+        public int getColumnMargin() {
+            return margem;
+        }
+
+        @Override
+        public void setColumnSelectionAllowed(boolean permitida) {
+            selecaoPermitida = permitida;
+        }
+
+        @Override
+        public boolean getColumnSelectionAllowed() {
+            return selecaoPermitida;
+        }
+
+        @Override
+        public int[] getSelectedColumns() {
+            return selecao.getSelectedIndices();
+        }
+
+        @Override
+        public int getSelectedColumnCount() {
+            return selecao.getSelectedItemsCount();
+        }
+
+        @Override
+        public void setSelectionModel(ListSelectionModel novo) {
+            selecao.removeListSelectionListener(repasse);
+            selecao = novo;
+            selecao.addListSelectionListener(repasse);
+        }
+
+        @Override
+        public ListSelectionModel getSelectionModel() {
+            return selecao;
+        }
+
+        @Override
+        public void addColumnModelListener(TableColumnModelListener ouvinte) {
+            ouvintes.add(TableColumnModelListener.class, ouvinte);
+        }
+
+        @Override
+        public void removeColumnModelListener(TableColumnModelListener ouvinte) {
+            ouvintes.remove(TableColumnModelListener.class, ouvinte);
+        }
+
+        private void avisarSelecao(ListSelectionEvent e) {
+            for (TableColumnModelListener o : ouvintes.getListeners(TableColumnModelListener.class)) {
+                o.columnSelectionChanged(e);
+            }
+        }
+    }
+}
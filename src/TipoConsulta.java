@@ -0,0 +1,36 @@
+/**
+ * Tipos de consulta aceitos pelo ProcessadorConsultas, com a sintaxe de cada um
+ * (campos separados por ';', os entre colchetes são opcionais).
+ */
+public enum TipoConsulta {
+    CAMINHO("CAMINHO;origem;destino[;estrategia]", 2, 3),
+    NOME("NOME;nome", 1, 1),
+    PREFIXO("PREFIXO;prefixo[;limite[;ordem]]", 1, 3),
+    APROXIMADO("APROXIMADO;nome[;distanciaMaxima[;limite]]", 1, 3),
+    GRAU("GRAU;id", 1, 1),
+    GRAUS("GRAUS", 0, 0),
+    ESTATISTICAS("ESTATISTICAS", 0, 0),
+    MATRIZ_ADJACENCIA("MATRIZ_ADJACENCIA", 0, 0),
+    MATRIZ_INCIDENCIA("MATRIZ_INCIDENCIA", 0, 0),
+    DISTANCIAS("DISTANCIAS;origem,origem,...;destino,destino,...", 2, 2),
+    ROTA("ROTA;deposito,parada,...[;tempoLimiteMs]", 1, 2);
+
+    // Formato da linha, usado nas mensagens de erro e na ajuda
+    private final String sintaxe;
+    // Quantidade mínima e máxima de argumentos depois do tipo
+    final int minimoArgumentos;
+    final int maximoArgumentos;
+
+    TipoConsulta(String sintaxe, int minimoArgumentos, int maximoArgumentos) {
+        this.sintaxe = sintaxe;
+        this.minimoArgumentos = minimoArgumentos;
+        this.maximoArgumentos = maximoArgumentos;
+    }
+
+    /**
+     * @return O formato da linha de consulta deste tipo.
+     */
+    public String getSintaxe() {
+        return sintaxe;
+    }
+}
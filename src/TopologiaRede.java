@@ -0,0 +1,23 @@
+/**
+ * Formatos de rede produzidos pelo GeradorRede.
+ */
+public enum TopologiaRede {
+    // Malha de ruas em grade, com quarteirões de tamanhos variados e algumas ruas de mão única
+    GRADE("Grade de ruas"),
+    // Pontos espalhados ao acaso em um plano, ligados aos vizinhos dentro de um raio
+    GEOMETRICA("Geométrica aleatória"),
+    // Poucos pontos muito conectados (hubs) e muitos pontos com poucas conexões (lei de potência)
+    LIVRE_DE_ESCALA("Livre de escala (hubs)");
+
+    // Nome legível da topologia
+    private final String descricao;
+
+    TopologiaRede(String descricao) {
+        this.descricao = descricao;
+    }
+
+    @Override
+    public String toString() {
+        return descricao;
+    }
+}
@@ -0,0 +1,189 @@
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.stream.Stream;
+
+/**
+ * Versão imutável do grafo publicada pelo GrafoConcorrente.
+ * Guarda uma cópia privada do grafo que ninguém mais altera, com a adjacência e as
+ * pontuações da Trie já calculadas. Assim, qualquer número de threads pode consultá-la
+ * ao mesmo tempo sem travas: as buscas de caminho usam áreas de trabalho por thread
+ * (ver BuscaCaminhos), e as buscas por nome só leem a BST e a Trie.
+ *
+ * Os únicos cálculos sob demanda (marcos do A* e matriz de todos os pares) são feitos
+ * uma única vez por versão, sob a trava da própria versão.
+ * Os pontos e conexões retornados pertencem à versão e não devem ser alterados.
+ */
+public class VersaoGrafo {
+    // Número sequencial da publicação (1 para a versão inicial)
+    private final long numero;
+    // Cópia do grafo exclusiva desta versão, somente leitura depois do construtor
+    private final GrafoColetaReciclaveis grafo;
+    // Indica se os marcos do A* já foram calculados (escrito sob a trava da versão)
+    private volatile boolean heuristicaPronta;
+    // Matriz de todos os pares, calculada na primeira consulta (escrita sob a trava da versão)
+    private volatile MatrizDistancias matrizDistancias;
+
+    /**
+     * Cria uma versão a partir de uma cópia do grafo que passa a pertencer a ela.
+     * @param numero O número sequencial da publicação.
+     * @param grafo A cópia do grafo (não pode ser usada por mais ninguém).
+     */
+    VersaoGrafo(long numero, GrafoColetaReciclaveis grafo) {
+        this.numero = numero;
+        this.grafo = grafo;
+        grafo.prepararSomenteLeitura();
+    }
+
+    /**
+     * @return O número sequencial desta publicação.
+     */
+    public long getNumero() {
+        return numero;
+    }
+
+    /**
+     * @return Uma nova cópia mutável desta versão (ex.: para descartar alterações incompletas).
+     */
+    GrafoColetaReciclaveis copiarGrafo() {
+        return grafo.copiar();
+    }
+
+    /**
+     * @return Os pontos desta versão, por ID (somente leitura).
+     */
+    public Map<Integer, PontoColeta> getPontos() {
+        return Collections.unmodifiableMap(grafo.pontos);
+    }
+
+    /**
+     * @return As conexões desta versão (somente leitura).
+     */
+    public List<Conexao> getConexoes() {
+        return Collections.unmodifiableList(grafo.conexoes);
+    }
+
+    /**
+     * @param nome O nome exato (case-insensitive).
+     * @return O ponto com esse nome, ou null. Custo O(log n).
+     */
+    public PontoColeta buscarPorNome(String nome) {
+        return grafo.bst.buscar(nome);
+    }
+
+    /**
+     * @see GrafoColetaReciclaveis#buscarPorPrefixo(String, int, OrdemPrefixo)
+     */
+    public List<PontoColeta> buscarPorPrefixo(String prefixo, int limite, OrdemPrefixo ordem) {
+        return grafo.buscarPorPrefixo(prefixo, limite, ordem);
+    }
+
+    /**
+     * @see GrafoColetaReciclaveis#streamPorPrefixo(String, OrdemPrefixo)
+     */
+    public Stream<PontoColeta> streamPorPrefixo(String prefixo, OrdemPrefixo ordem) {
+        return grafo.streamPorPrefixo(prefixo, ordem);
+    }
+
+    /**
+     * @see GrafoColetaReciclaveis#buscarAproximado(String, int, int)
+     */
+    public List<ResultadoAproximado> buscarAproximado(String nome, int distanciaMaxima, int limite) {
+        return grafo.buscarAproximado(nome, distanciaMaxima, limite);
+    }
+
+    /**
+     * Busca um caminho nesta versão. Sem travas, exceto na primeira busca A* da versão,
+     * que calcula os marcos da heurística.
+     * @see GrafoColetaReciclaveis#encontrarCaminho(int, int, EstrategiaBusca)
+     */
+    public ResultadoCaminho encontrarCaminho(int origem, int destino, EstrategiaBusca estrategia) {
+        if (estrategia == EstrategiaBusca.A_ESTRELA && !heuristicaPronta) prepararHeuristica();
+        return grafo.encontrarCaminho(origem, destino, estrategia);
+    }
+
+    private synchronized void prepararHeuristica() {
+        if (heuristicaPronta) return;
+        grafo.prepararHeuristica();
+        heuristicaPronta = true;
+    }
+
+    /**
+     * @see GrafoColetaReciclaveis#calcularDistanciaCaminho(List)
+     */
+    public long calcularDistanciaCaminho(List<Integer> caminho) {
+        return grafo.calcularDistanciaCaminho(caminho);
+    }
+
+    /**
+     * @see GrafoColetaReciclaveis#getListaSucessores()
+     */
+    public Map<Integer, List<Conexao>> getListaSucessores() {
+        return grafo.getListaSucessores();
+    }
+
+    /**
+     * @see GrafoColetaReciclaveis#getIdsDosVertices()
+     */
+    public List<Integer> getIdsDosVertices() {
+        return grafo.getIdsDosVertices();
+    }
+
+    /**
+     * @see GrafoColetaReciclaveis#gerarMatrizAdjacenciaEsparsa()
+     */
+    public MatrizEsparsa gerarMatrizAdjacenciaEsparsa() {
+        return grafo.gerarMatrizAdjacenciaEsparsa();
+    }
+
+    /**
+     * @see GrafoColetaReciclaveis#gerarMatrizIncidenciaEsparsa()
+     */
+    public MatrizEsparsa gerarMatrizIncidenciaEsparsa() {
+        return grafo.gerarMatrizIncidenciaEsparsa();
+    }
+
+    /**
+     * @see GrafoColetaReciclaveis#calcularGraus()
+     */
+    public Map<Integer, Integer> calcularGraus() {
+        return grafo.calcularGraus();
+    }
+
+    /**
+     * Matriz de menores distâncias desta versão, calculada uma única vez.
+     * @see GrafoColetaReciclaveis#calcularDistanciasTodosPares()
+     */
+    public MatrizDistancias calcularDistanciasTodosPares() {
+        MatrizDistancias matriz = matrizDistancias;
+        if (matriz != null) return matriz;
+        synchronized (this) {
+            if (matrizDistancias == null) matrizDistancias = grafo.calcularDistanciasTodosPares();
+            return matrizDistancias;
+        }
+    }
+
+    /**
+     * @see GrafoColetaReciclaveis#calcularDistancias(Collection, Collection, Executor)
+     */
+    public TabelaDistancias calcularDistancias(Collection<Integer> origens, Collection<Integer> destinos,
+                                               Executor executor) {
+        return grafo.calcularDistancias(origens, destinos, executor);
+    }
+
+    /**
+     * @see GrafoColetaReciclaveis#otimizarRota(List, long, Executor, int)
+     */
+    public ResultadoRota otimizarRota(List<Integer> paradas, long tempoLimiteMs, Executor executor, int numBuscas) {
+        return grafo.otimizarRota(paradas, tempoLimiteMs, executor, numBuscas);
+    }
+
+    /**
+     * @see GrafoColetaReciclaveis#calcularEstatisticas()
+     */
+    public String calcularEstatisticas() {
+        return grafo.calcularEstatisticas();
+    }
+}
@@ -0,0 +1,114 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Testes da ArvoreBST (AVL) contra um TreeMap ordenado sem diferenciar maiúsculas:
+ * depois de cada inserção ou remoção aleatória, o percurso em ordem tem que bater com
+ * a referência e todos os nós têm que respeitar a ordem, as alturas e o balanceamento.
+ */
+class ArvoreBSTTest {
+
+    @Test
+    void insercoesERemocoesAleatoriasMantemOrdemEBalanceamento() {
+        Random aleatorio = new Random(7);
+        for (int rodada = 0; rodada < 30; rodada++) {
+            ArvoreBST arvore = new ArvoreBST();
+            TreeMap<String, PontoColeta> referencia = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+            int faixa = 10 + aleatorio.nextInt(300);
+            for (int op = 0; op < 2_000; op++) {
+                String nome = nomeAleatorio(aleatorio, faixa);
+                if (aleatorio.nextInt(5) < 2) {
+                    PontoColeta esperado = referencia.remove(nome);
+                    assertSame(esperado, arvore.remover(nome), "remover " + nome);
+                } else {
+                    PontoColeta ponto = new PontoColeta(op, nome);
+                    arvore.inserir(ponto);
+                    // A BST não aceita duplicatas: o primeiro ponto com o nome continua
+                    referencia.putIfAbsent(nome, ponto);
+                }
+                assertEquals(referencia.size(), arvore.tamanho());
+                if (op % 50 == 0) verificarEstrutura(arvore, referencia);
+            }
+            verificarEstrutura(arvore, referencia);
+            for (int i = 0; i < faixa; i++) {
+                String nome = "Ponto " + i;
+                assertSame(referencia.get(nome), arvore.buscar(nome.toUpperCase()), "buscar " + nome);
+            }
+        }
+    }
+
+    @Test
+    void nomesEmOrdemCrescenteNaoDesbalanceiam() {
+        ArvoreBST arvore = new ArvoreBST();
+        int n = 100_000;
+        for (int i = 0; i < n; i++) arvore.inserir(new PontoColeta(i, String.format("Ponto %06d", i)));
+        // Uma AVL com n nós tem altura de no máximo ~1,44 * log2(n)
+        assertTrue(arvore.altura() <= 1.45 * Math.log(n + 2) / Math.log(2), "altura " + arvore.altura());
+        for (int i = 0; i < n; i += 2) arvore.remover(String.format("Ponto %06d", i));
+        assertEquals(n / 2, arvore.tamanho());
+        assertTrue(arvore.altura() <= 1.45 * Math.log(n / 2 + 2) / Math.log(2), "altura " + arvore.altura());
+        assertNull(arvore.buscar("Ponto 000000"));
+        assertEquals(1, arvore.buscar("ponto 000001").id);
+    }
+
+    @Test
+    void intervaloConfereComAReferencia() {
+        Random aleatorio = new Random(3);
+        ArvoreBST arvore = new ArvoreBST();
+        TreeMap<String, PontoColeta> referencia = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        for (int i = 0; i < 500; i++) {
+            PontoColeta ponto = new PontoColeta(i, nomeAleatorio(aleatorio, 1_000));
+            arvore.inserir(ponto);
+            referencia.putIfAbsent(ponto.nome, ponto);
+        }
+        for (int i = 0; i < 100; i++) {
+            String a = nomeAleatorio(aleatorio, 1_000), b = nomeAleatorio(aleatorio, 1_000);
+            String de = a.compareToIgnoreCase(b) <= 0 ? a : b, ate = de == a ? b : a;
+            assertEquals(new ArrayList<>(referencia.subMap(de, true, ate, true).values()),
+                    arvore.buscarIntervalo(de, ate), de + " .. " + ate);
+        }
+    }
+
+    /**
+     * Nomes de uma faixa pequena, com maiúsculas aleatórias (a BST ignora a diferença).
+     */
+    private static String nomeAleatorio(Random aleatorio, int faixa) {
+        String nome = "Ponto " + aleatorio.nextInt(faixa);
+        return aleatorio.nextBoolean() ? nome.toUpperCase() : nome;
+    }
+
+    /**
+     * Confere o percurso em ordem com a referência e, em cada nó, a ordem dos filhos,
+     * a altura guardada e o fator de balanceamento.
+     */
+    private static void verificarEstrutura(ArvoreBST arvore, TreeMap<String, PontoColeta> referencia) {
+        List<PontoColeta> emOrdem = new ArrayList<>();
+        verificarNo(arvore.raiz, null, null, emOrdem);
+        assertEquals(new ArrayList<>(referencia.values()), emOrdem);
+    }
+
+    /**
+     * @return A altura da sub-árvore, conferida contra a altura guardada no nó.
+     */
+    private static int verificarNo(NoBST no, String minimo, String maximo, List<PontoColeta> emOrdem) {
+        if (no == null) return 0;
+        if (minimo != null) assertTrue(no.ponto.nome.compareToIgnoreCase(minimo) > 0, "ordem");
+        if (maximo != null) assertTrue(no.ponto.nome.compareToIgnoreCase(maximo) < 0, "ordem");
+        int esquerda = verificarNo(no.esquerda, minimo, no.ponto.nome, emOrdem);
+        emOrdem.add(no.ponto);
+        int direita = verificarNo(no.direita, no.ponto.nome, maximo, emOrdem);
+        assertTrue(Math.abs(esquerda - direita) <= 1, "balanceamento em " + no.ponto.nome);
+        int altura = 1 + Math.max(esquerda, direita);
+        assertEquals(altura, no.altura, "altura em " + no.ponto.nome);
+        return altura;
+    }
+}
@@ -0,0 +1,216 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Testes da ArvoreTrie (radix) contra um TreeMap dos nomes em minúsculas: depois de
+ * inserções e remoções aleatórias com muitos prefixos em comum, as buscas por prefixo
+ * têm que bater com a referência e a árvore tem que continuar na forma radix (sem nós
+ * sem ponto com menos de dois filhos, que a remoção deve podar ou fundir). As buscas
+ * também são conferidas contra a Trie original (ArvoreTrieMapa).
+ */
+class ArvoreTrieTest {
+    // Alfabeto pequeno (com um acento e maiúsculas) para gerar muitos prefixos em comum
+    private static final String LETRAS = "abcáB";
+
+    /**
+     * Ponto e pontuação guardados na referência para cada nome.
+     */
+    private static final class Entrada {
+        final PontoColeta ponto;
+        final int pontuacao;
+
+        Entrada(PontoColeta ponto, int pontuacao) {
+            this.ponto = ponto;
+            this.pontuacao = pontuacao;
+        }
+    }
+
+    @Test
+    void insercoesERemocoesAleatoriasConferemComAReferencia() {
+        Random aleatorio = new Random(11);
+        for (int rodada = 0; rodada < 40; rodada++) {
+            ArvoreTrie trie = new ArvoreTrie();
+            TreeMap<String, Entrada> referencia = new TreeMap<>();
+            int operacoes = 200 + aleatorio.nextInt(800);
+            for (int op = 0; op < operacoes; op++) {
+                String nome = nomeAleatorio(aleatorio);
+                String chave = nome.toLowerCase();
+                int tipo = aleatorio.nextInt(10);
+                if (tipo < 4 && !referencia.isEmpty()) {
+                    // Remove um ponto indexado, escolhido entre os presentes
+                    List<String> chaves = new ArrayList<>(referencia.keySet());
+                    Entrada e = referencia.remove(chaves.get(aleatorio.nextInt(chaves.size())));
+                    assertTrue(trie.remover(e.ponto));
+                } else if (tipo < 5) {
+                    // Um ponto que não está na Trie (mesmo que o nome esteja) não é removido
+                    assertFalse(trie.remover(new PontoColeta(-1, nome)));
+                    assertFalse(trie.atualizarPontuacao(new PontoColeta(-1, nome), 1));
+                } else if (tipo < 7 && !referencia.isEmpty()) {
+                    // Nova pontuação para um ponto indexado (só o caminho até ele é corrigido)
+                    List<String> chaves = new ArrayList<>(referencia.keySet());
+                    String escolhida = chaves.get(aleatorio.nextInt(chaves.size()));
+                    Entrada e = referencia.get(escolhida);
+                    int pontuacao = aleatorio.nextInt(6);
+                    assertTrue(trie.atualizarPontuacao(e.ponto, pontuacao));
+                    referencia.put(escolhida, new Entrada(e.ponto, pontuacao));
+                } else {
+                    int pontuacao = aleatorio.nextInt(6);
+                    PontoColeta ponto = new PontoColeta(op, nome);
+                    trie.inserir(ponto, pontuacao);
+                    // Um nome repetido passa a apontar para o ponto novo
+                    referencia.put(chave, new Entrada(ponto, pontuacao));
+                }
+                if (op % 20 == 0) verificarEstrutura(trie);
+            }
+            verificarEstrutura(trie);
+            verificarPrefixos(trie, referencia, aleatorio);
+        }
+    }
+
+    @Test
+    void buscasConferemComATrieOriginal() {
+        Random aleatorio = new Random(10);
+        ArvoreTrie trie = new ArvoreTrie();
+        ArvoreTrieMapa original = new ArvoreTrieMapa();
+        for (int i = 0; i < 2000; i++) {
+            PontoColeta ponto = new PontoColeta(i, nomeAleatorio(aleatorio));
+            trie.inserir(ponto);
+            original.inserir(ponto);
+        }
+        verificarEstrutura(trie);
+        for (int i = 0; i < 200; i++) {
+            String nome = nomeAleatorio(aleatorio);
+            String prefixo = nome.substring(0, aleatorio.nextInt(nome.length() + 1));
+            // A original devolve os pontos na ordem dos HashMaps; a radix, na alfabética
+            assertEquals(idsOrdenados(original.buscarPorPrefixo(prefixo)), idsOrdenados(trie.buscarPorPrefixo(prefixo)),
+                    "prefixo " + prefixo);
+        }
+    }
+
+    @Test
+    void removerTudoDeixaSoARaiz() {
+        ArvoreTrie trie = new ArvoreTrie();
+        List<PontoColeta> pontos = new ArrayList<>();
+        String[] nomes = {"Ecoponto", "Eco", "Ecoponto Norte", "Ecoponto Sul", "Centro", "Cent", "E"};
+        for (int i = 0; i < nomes.length; i++) {
+            PontoColeta p = new PontoColeta(i, nomes[i]);
+            pontos.add(p);
+            trie.inserir(p);
+        }
+        int nosCheia = trie.contarNos();
+        for (PontoColeta p : pontos) {
+            assertTrue(trie.remover(p), p.nome);
+            verificarEstrutura(trie);
+            assertTrue(trie.contarNos() <= nosCheia);
+        }
+        assertEquals(1, trie.contarNos());
+        assertEquals(0, trie.raiz.filhos.length);
+        assertTrue(trie.buscarPorPrefixo("").isEmpty());
+    }
+
+    @Test
+    void iteradorEsgotadoLancaExcecao() {
+        ArvoreTrie trie = new ArvoreTrie();
+        trie.inserir(new PontoColeta(1, "Eco"), 2);
+        trie.inserir(new PontoColeta(2, "Ecoponto"), 5);
+        for (OrdemPrefixo ordem : OrdemPrefixo.values()) {
+            Iterator<PontoColeta> it = trie.iterarPorPrefixo("ECO", ordem);
+            assertTrue(it.hasNext());
+            assertEquals(ordem == OrdemPrefixo.PONTUACAO ? 2 : 1, it.next().id);
+            assertTrue(it.hasNext());
+            it.next();
+            assertFalse(it.hasNext());
+            assertThrows(NoSuchElementException.class, it::next);
+            assertFalse(trie.iterarPorPrefixo("x", ordem).hasNext());
+        }
+        assertTrue(trie.buscarPorPrefixo("eco", 0, OrdemPrefixo.ALFABETICA).isEmpty());
+    }
+
+    /**
+     * Confere as buscas por prefixo (completa, limitada e por pontuação) de todos os
+     * prefixos de até 3 letras e de alguns mais longos.
+     */
+    private static void verificarPrefixos(ArvoreTrie trie, TreeMap<String, Entrada> referencia, Random aleatorio) {
+        List<String> prefixos = new ArrayList<>();
+        prefixos.add("");
+        for (int i = 0; i < 60; i++) {
+            String nome = nomeAleatorio(aleatorio);
+            prefixos.add(nome.substring(0, Math.min(nome.length(), 1 + aleatorio.nextInt(3))));
+            prefixos.add(nome);
+        }
+        for (String prefixo : prefixos) {
+            String minusculo = prefixo.toLowerCase();
+            List<Entrada> esperadas = referencia.entrySet().stream()
+                    .filter(e -> e.getKey().startsWith(minusculo))
+                    .map(Map.Entry::getValue)
+                    .collect(Collectors.toList());
+            List<PontoColeta> alfabetica = esperadas.stream().map(e -> e.ponto).collect(Collectors.toList());
+            assertEquals(alfabetica, trie.buscarPorPrefixo(prefixo), "prefixo " + prefixo);
+            int limite = 1 + aleatorio.nextInt(4);
+            assertEquals(alfabetica.subList(0, Math.min(limite, alfabetica.size())),
+                    trie.buscarPorPrefixo(prefixo, limite, OrdemPrefixo.ALFABETICA), "limite " + prefixo);
+
+            // Por pontuação: maior primeiro, empates na ordem alfabética (a lista já está nela)
+            List<Entrada> porPontuacao = new ArrayList<>(esperadas);
+            porPontuacao.sort(Comparator.comparingInt((Entrada e) -> e.pontuacao).reversed());
+            assertEquals(porPontuacao.stream().map(e -> e.ponto).collect(Collectors.toList()),
+                    trie.buscarPorPrefixo(prefixo, Integer.MAX_VALUE, OrdemPrefixo.PONTUACAO), "pontuação " + prefixo);
+
+            // O stream preguiçoso entrega o mesmo que a busca limitada, nas duas ordens
+            for (OrdemPrefixo ordem : OrdemPrefixo.values()) {
+                assertEquals(trie.buscarPorPrefixo(prefixo, limite, ordem),
+                        trie.streamPorPrefixo(prefixo, ordem).limit(limite).collect(Collectors.toList()),
+                        "stream " + ordem + " " + prefixo);
+            }
+        }
+    }
+
+    /**
+     * Confere a forma radix: rótulos não vazios (fora da raiz), filhos em ordem pelo
+     * primeiro caractere, ponto presente exatamente nos fins de palavra e nenhum nó sem
+     * ponto com menos de dois filhos.
+     */
+    private static void verificarEstrutura(ArvoreTrie trie) {
+        verificarNo(trie.raiz, true);
+    }
+
+    private static void verificarNo(NoTrie no, boolean raiz) {
+        assertEquals(no.fimPalavra, no.ponto != null, "fimPalavra");
+        assertEquals(no.chaves.length, no.filhos.length);
+        if (!raiz) {
+            assertTrue(no.rotulo.length > 0, "rótulo vazio");
+            assertTrue(no.fimPalavra || no.filhos.length >= 2,
+                    "nó sem ponto com " + no.filhos.length + " filho(s): " + new String(no.rotulo));
+        }
+        for (int k = 0; k < no.filhos.length; k++) {
+            assertEquals(no.chaves[k], no.filhos[k].rotulo[0], "chave do filho");
+            if (k > 0) assertTrue(no.chaves[k - 1] < no.chaves[k], "ordem dos filhos");
+            verificarNo(no.filhos[k], false);
+        }
+    }
+
+    private static List<Integer> idsOrdenados(List<PontoColeta> pontos) {
+        return pontos.stream().map(p -> p.id).sorted().collect(Collectors.toList());
+    }
+
+    private static String nomeAleatorio(Random aleatorio) {
+        int tamanho = 1 + aleatorio.nextInt(6);
+        StringBuilder sb = new StringBuilder(tamanho);
+        for (int i = 0; i < tamanho; i++) sb.append(LETRAS.charAt(aleatorio.nextInt(LETRAS.length())));
+        return sb.toString();
+    }
+}
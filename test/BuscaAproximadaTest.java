@@ -0,0 +1,133 @@
+import org.junit.jupiter.api.Test;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Testes da busca aproximada da ArvoreTrie contra a força bruta: a distância de
+ * Levenshtein de cada nome indexado até a consulta, ignorando acentos e maiúsculas,
+ * ordenada por distância, pontuação decrescente e nome.
+ */
+class BuscaAproximadaTest {
+    // Letras com e sem acento, para que a normalização faça diferença
+    private static final String LETRAS = "acoçãéÉCO";
+
+    /**
+     * Ponto e pontuação de cada nome indexado.
+     */
+    private static final class Entrada {
+        final PontoColeta ponto;
+        final int pontuacao;
+
+        Entrada(PontoColeta ponto, int pontuacao) {
+            this.ponto = ponto;
+            this.pontuacao = pontuacao;
+        }
+    }
+
+    @Test
+    void resultadosConferemComAForcaBruta() {
+        Random aleatorio = new Random(13);
+        for (int rodada = 0; rodada < 30; rodada++) {
+            ArvoreTrie trie = new ArvoreTrie();
+            // Um nome repetido (sem diferença de maiúsculas) substitui o ponto anterior
+            Map<String, Entrada> indexados = new LinkedHashMap<>();
+            int quantidade = 1 + aleatorio.nextInt(300);
+            for (int i = 0; i < quantidade; i++) {
+                PontoColeta ponto = new PontoColeta(i, nomeAleatorio(aleatorio));
+                int pontuacao = aleatorio.nextInt(4);
+                trie.inserir(ponto, pontuacao);
+                indexados.put(ponto.nome.toLowerCase(), new Entrada(ponto, pontuacao));
+            }
+            for (int consulta = 0; consulta < 40; consulta++) {
+                String nome = nomeAleatorio(aleatorio);
+                int distanciaMaxima = aleatorio.nextInt(4);
+                int limite = 1 + aleatorio.nextInt(8);
+                List<ResultadoAproximado> obtidos = trie.buscarAproximado(nome, distanciaMaxima, limite);
+                List<String> esperados = forcaBruta(indexados, nome, distanciaMaxima, limite);
+                assertEquals(esperados, descrever(obtidos), "consulta " + nome + " até " + distanciaMaxima);
+            }
+        }
+    }
+
+    @Test
+    void acentosEMaiusculasNaoContam() {
+        ArvoreTrie trie = new ArvoreTrie();
+        PontoColeta ponto = new PontoColeta(1, "Galpão Reciclagem");
+        trie.inserir(ponto);
+        List<ResultadoAproximado> r = trie.buscarAproximado("GALPAO RECICLAGEM", 0, 5);
+        assertEquals(1, r.size());
+        assertEquals(ponto, r.get(0).getPonto());
+        assertEquals(0, r.get(0).getDistancia());
+
+        assertEquals(1, trie.buscarAproximado("galpao reciclage", 1, 5).size());
+        assertTrue(trie.buscarAproximado("galpao recicla", 1, 5).isEmpty());
+        assertTrue(trie.buscarAproximado("galpao reciclagem", 0, 0).isEmpty());
+        assertTrue(trie.buscarAproximado("galpao reciclagem", -1, 5).isEmpty());
+    }
+
+    /**
+     * Calcula o resultado esperado comparando a consulta com todos os nomes.
+     */
+    private static List<String> forcaBruta(Map<String, Entrada> indexados, String nome, int distanciaMaxima, int limite) {
+        String consulta = normalizar(nome);
+        List<Object[]> candidatos = new ArrayList<>();
+        for (Map.Entry<String, Entrada> e : indexados.entrySet()) {
+            int d = levenshtein(normalizar(e.getValue().ponto.nome), consulta);
+            if (d <= distanciaMaxima) candidatos.add(new Object[]{e.getKey(), e.getValue(), d});
+        }
+        candidatos.sort(Comparator.<Object[]>comparingInt(c -> (Integer) c[2])
+                .thenComparing(c -> -((Entrada) c[1]).pontuacao)
+                .thenComparing(c -> (String) c[0]));
+        return candidatos.stream()
+                .limit(limite)
+                .map(c -> ((Entrada) c[1]).ponto.id + "@" + c[2])
+                .collect(Collectors.toList());
+    }
+
+    private static List<String> descrever(List<ResultadoAproximado> resultados) {
+        return resultados.stream()
+                .map(r -> r.getPonto().id + "@" + r.getDistancia())
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Minúsculas e sem acento, pela decomposição Unicode (independente da tabela da Trie).
+     */
+    private static String normalizar(String s) {
+        return Normalizer.normalize(s.toLowerCase(), Normalizer.Form.NFD).replaceAll("\\p{M}", "");
+    }
+
+    private static int levenshtein(String a, String b) {
+        int[] anterior = new int[b.length() + 1];
+        int[] atual = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) anterior[j] = j;
+        for (int i = 1; i <= a.length(); i++) {
+            atual[0] = i;
+            for (int j = 1; j <= b.length(); j++) {
+                int troca = anterior[j - 1] + (a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1);
+                atual[j] = Math.min(troca, Math.min(anterior[j], atual[j - 1]) + 1);
+            }
+            int[] t = anterior;
+            anterior = atual;
+            atual = t;
+        }
+        return anterior[b.length()];
+    }
+
+    private static String nomeAleatorio(Random aleatorio) {
+        int tamanho = 1 + aleatorio.nextInt(7);
+        StringBuilder sb = new StringBuilder(tamanho);
+        for (int i = 0; i < tamanho; i++) sb.append(LETRAS.charAt(aleatorio.nextInt(LETRAS.length())));
+        return sb.toString();
+    }
+}
@@ -0,0 +1,188 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Testes das buscas de caminho em redes aleatórias, contra uma referência ingênua
+ * (Bellman-Ford e BFS sobre a lista de conexões): distância ótima (ou menor número de
+ * conexões, na BFS) em todas as estratégias, caminho válido com a distância informada
+ * e ausência de caminho entre componentes desconectados.
+ */
+class BuscaCaminhosTest {
+    private static final long SEM_CAMINHO = Long.MAX_VALUE;
+
+    /**
+     * Rede aleatória com 'n' pontos (IDs 1..n) e conexões guardadas para a referência.
+     */
+    private static final class Rede {
+        final GrafoColetaReciclaveis grafo = new GrafoColetaReciclaveis();
+        final List<int[]> conexoes = new ArrayList<>();
+        final int n;
+
+        Rede(Random aleatorio, int n, int m) {
+            this.n = n;
+            for (int i = 1; i <= n; i++) grafo.adicionarPonto("Ponto " + i);
+            for (int k = 0; k < m; k++) {
+                int origem = 1 + aleatorio.nextInt(n);
+                int destino = 1 + aleatorio.nextInt(n);
+                // Pesos repetidos e zeros geram empates entre caminhos
+                int distancia = aleatorio.nextInt(6) == 0 ? 0 : 1 + aleatorio.nextInt(50);
+                grafo.adicionarConexao(origem, destino, distancia);
+                conexoes.add(new int[]{origem, destino, distancia});
+            }
+        }
+
+        /**
+         * Bellman-Ford a partir de 'origem'.
+         * @return As menores distâncias por ID (SEM_CAMINHO se inalcançável).
+         */
+        long[] distancias(int origem) {
+            long[] dist = new long[n + 1];
+            Arrays.fill(dist, SEM_CAMINHO);
+            dist[origem] = 0;
+            for (int rodada = 0; rodada < n; rodada++) {
+                boolean mudou = false;
+                for (int[] c : conexoes) {
+                    if (dist[c[0]] != SEM_CAMINHO && dist[c[0]] + c[2] < dist[c[1]]) {
+                        dist[c[1]] = dist[c[0]] + c[2];
+                        mudou = true;
+                    }
+                }
+                if (!mudou) break;
+            }
+            return dist;
+        }
+
+        /**
+         * BFS a partir de 'origem'.
+         * @return O menor número de conexões até cada ID (-1 se inalcançável).
+         */
+        int[] saltos(int origem) {
+            Map<Integer, List<Integer>> sucessores = new HashMap<>();
+            for (int[] c : conexoes) sucessores.computeIfAbsent(c[0], k -> new ArrayList<>()).add(c[1]);
+            int[] saltos = new int[n + 1];
+            Arrays.fill(saltos, -1);
+            saltos[origem] = 0;
+            ArrayDeque<Integer> fila = new ArrayDeque<>(List.of(origem));
+            while (!fila.isEmpty()) {
+                int u = fila.poll();
+                for (int v : sucessores.getOrDefault(u, List.of())) {
+                    if (saltos[v] < 0) {
+                        saltos[v] = saltos[u] + 1;
+                        fila.add(v);
+                    }
+                }
+            }
+            return saltos;
+        }
+
+        /**
+         * Confere que o caminho vai de 'origem' a 'destino' por conexões existentes.
+         */
+        void verificarCaminho(List<Integer> caminho, int origem, int destino) {
+            assertEquals(origem, caminho.get(0));
+            assertEquals(destino, caminho.get(caminho.size() - 1));
+            for (int i = 0; i + 1 < caminho.size(); i++) {
+                int u = caminho.get(i), v = caminho.get(i + 1);
+                assertTrue(conexoes.stream().anyMatch(c -> c[0] == u && c[1] == v), "conexão " + u + ">" + v);
+            }
+        }
+    }
+
+    @Test
+    void dijkstraConfereComBellmanFord() {
+        Random aleatorio = new Random(3);
+        for (int rodada = 0; rodada < 40; rodada++) {
+            int n = 2 + aleatorio.nextInt(40);
+            Rede rede = new Rede(aleatorio, n, aleatorio.nextInt(4 * n));
+            for (int origem = 1; origem <= n; origem++) {
+                long[] esperadas = rede.distancias(origem);
+                for (int destino = 1; destino <= n; destino++) {
+                    ResultadoCaminho r = rede.grafo.encontrarCaminhoMinimo(origem, destino);
+                    if (esperadas[destino] == SEM_CAMINHO) {
+                        assertNull(r, origem + ">" + destino);
+                        continue;
+                    }
+                    assertNotNull(r, origem + ">" + destino);
+                    assertEquals(esperadas[destino], r.getDistancia(), origem + ">" + destino);
+                    rede.verificarCaminho(r.getCaminho(), origem, destino);
+                    // A distância somada pelas conexões do caminho é a informada
+                    assertEquals(esperadas[destino], rede.grafo.calcularDistanciaCaminho(r.getCaminho()));
+                }
+            }
+        }
+    }
+
+    @Test
+    void estrategiasConferemComAReferencia() {
+        Random aleatorio = new Random(4);
+        for (int rodada = 0; rodada < 30; rodada++) {
+            int n = 2 + aleatorio.nextInt(30);
+            Rede rede = new Rede(aleatorio, n, aleatorio.nextInt(4 * n));
+            rede.grafo.usarHeuristicaMarcos(1 + aleatorio.nextInt(4));
+            verificarEstrategias(rede);
+            // Depois de alterações, os marcos do ALT são refeitos e continuam admissíveis
+            for (int k = 0; k < 5; k++) {
+                int origem = 1 + aleatorio.nextInt(n), destino = 1 + aleatorio.nextInt(n);
+                int distancia = 1 + aleatorio.nextInt(5);
+                rede.grafo.adicionarConexao(origem, destino, distancia);
+                rede.conexoes.add(new int[]{origem, destino, distancia});
+            }
+            verificarEstrategias(rede);
+        }
+    }
+
+    private static void verificarEstrategias(Rede rede) {
+        for (int origem = 1; origem <= rede.n; origem++) {
+            long[] distancias = rede.distancias(origem);
+            int[] saltos = rede.saltos(origem);
+            for (int destino = 1; destino <= rede.n; destino++) {
+                for (EstrategiaBusca estrategia : EstrategiaBusca.values()) {
+                    String contexto = estrategia + " " + origem + ">" + destino;
+                    ResultadoCaminho r = rede.grafo.encontrarCaminho(origem, destino, estrategia);
+                    if (saltos[destino] < 0) {
+                        assertNull(r, contexto);
+                        continue;
+                    }
+                    assertNotNull(r, contexto);
+                    rede.verificarCaminho(r.getCaminho(), origem, destino);
+                    if (estrategia == EstrategiaBusca.BFS) {
+                        assertEquals(saltos[destino], r.getCaminho().size() - 1, contexto);
+                    } else {
+                        assertEquals(distancias[destino], r.getDistancia(), contexto);
+                        assertEquals(distancias[destino], rede.grafo.calcularDistanciaCaminho(r.getCaminho()), contexto);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    void pontoInexistenteNaoTemCaminho() {
+        Rede rede = new Rede(new Random(1), 5, 10);
+        assertNull(rede.grafo.encontrarCaminhoMinimo(1, 99));
+        assertNull(rede.grafo.encontrarCaminhoMinimo(99, 1));
+    }
+
+    @Test
+    void somasDeDistanciasNaoTransbordamOInt() {
+        GrafoColetaReciclaveis grafo = new GrafoColetaReciclaveis();
+        for (int i = 1; i <= 4; i++) grafo.adicionarPonto("Ponto " + i);
+        grafo.adicionarConexao(1, 2, 1_500_000_000);
+        grafo.adicionarConexao(2, 3, 1_500_000_000);
+        grafo.adicionarConexao(3, 4, 1_500_000_000);
+        assertEquals(4_500_000_000L, grafo.calcularDistanciaCaminho(List.of(1, 2, 3, 4)));
+        assertTrue(grafo.calcularEstatisticas().contains("Distância total: 4500000000 m"));
+    }
+}
@@ -0,0 +1,130 @@
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Testes do CarregadorMapeado: valores lidos, linhas mal formadas ou negativas no
+ * relatório com o número da linha certo (inclusive em arquivos com vários blocos
+ * paralelos), linhas em branco, BOM, quebras de linha do Windows e campos extras.
+ */
+class CarregadorMapeadoTest {
+    @TempDir
+    Path pasta;
+
+    private String arquivo(String nome, String conteudo) throws IOException {
+        Path caminho = pasta.resolve(nome);
+        Files.write(caminho, conteudo.getBytes(StandardCharsets.UTF_8));
+        return caminho.toString();
+    }
+
+    private static List<String> erros(RelatorioCarga relatorio) {
+        return relatorio.getErros().stream().map(e -> e.getNumeroLinha() + ":" + e.getMensagem())
+                .collect(Collectors.toList());
+    }
+
+    @Test
+    void lePontosERelataAsLinhasRejeitadas() throws IOException {
+        String texto = "﻿1;Ecoponto Central\r\n"
+                + "\n"
+                + "  2 ; Praça da Sé \r\n"
+                + "x;Sem ID\n"
+                + "-3;Negativo\n"
+                + "4;\n"
+                + "5;Último;campo extra\n"
+                + "6 Sem separador\n"
+                + "2147483648;Grande demais";
+        CarregadorMapeado.PontosLidos lidos = CarregadorMapeado.lerPontos(arquivo("pontos.txt", texto));
+        assertEquals(3, lidos.quantidade);
+        assertArrayEquals(new int[]{1, 2, 5}, Arrays.copyOf(lidos.ids, 3));
+        assertArrayEquals(new String[]{"Ecoponto Central", "Praça da Sé", "Último"},
+                Arrays.copyOf(lidos.nomes, 3));
+        RelatorioCarga r = lidos.relatorio;
+        assertEquals(8, r.getLinhasLidas());
+        assertEquals(3, r.getLinhasAceitas());
+        assertEquals(5, r.getTotalErros());
+        assertEquals(List.of("4:ID inválido", "5:ID negativo", "6:nome ausente", "8:ID inválido", "9:ID inválido"),
+                erros(r));
+    }
+
+    @Test
+    void leConexoesERejeitaNegativos() throws IOException {
+        String texto = "1;2;100\n"
+                + "1;2\n"
+                + "1;x;5\n"
+                + "-1;2;5\n"
+                + "1;-2;5\n"
+                + "1;2;-5\n"
+                + "1;2;5x\n"
+                + "a;2;5\n"
+                + " 3 ; 4 ; 0 ;ignorado\r\n"
+                + "\r\n"
+                + "5;6;2147483647";
+        CarregadorMapeado.ConexoesLidas lidas = CarregadorMapeado.lerConexoes(arquivo("conexoes.txt", texto));
+        assertEquals(3, lidas.quantidade);
+        assertArrayEquals(new int[]{1, 3, 5}, Arrays.copyOf(lidas.origens, 3));
+        assertArrayEquals(new int[]{2, 4, 6}, Arrays.copyOf(lidas.destinos, 3));
+        assertArrayEquals(new int[]{100, 0, Integer.MAX_VALUE}, Arrays.copyOf(lidas.distancias, 3));
+        assertEquals(List.of("2:distância ausente", "3:destino inválido", "4:origem negativa", "5:destino negativo",
+                "6:distância negativa", "7:distância inválida", "8:origem inválida"), erros(lidas.relatorio));
+        assertEquals(10, lidas.relatorio.getLinhasLidas());
+    }
+
+    @Test
+    void numerosDeLinhaAtravessamOsBlocos() throws IOException {
+        // Arquivo com mais de dois blocos: os erros de cada bloco mantêm o número de linha do arquivo
+        Path caminho = pasta.resolve("grande.txt");
+        long linhas = 0;
+        long[] linhasComErro = new long[3];
+        int erros = 0;
+        try (BufferedWriter saida = Files.newBufferedWriter(caminho, StandardCharsets.UTF_8)) {
+            long bytes = 0;
+            while (bytes < 2L * CarregadorMapeado.TAMANHO_BLOCO + 1000) {
+                linhas++;
+                String linha;
+                // Um erro no início do arquivo e outro logo depois do fim nominal de cada bloco
+                if (erros < 3 && bytes > (long) erros * CarregadorMapeado.TAMANHO_BLOCO + 100) {
+                    linha = "1;2;-" + linhas + "\n";
+                    linhasComErro[erros++] = linhas;
+                } else {
+                    linha = linhas + ";" + (linhas + 1) + ";" + (linhas % 1000) + "\n";
+                }
+                saida.write(linha);
+                bytes += linha.length();
+            }
+        }
+        CarregadorMapeado.ConexoesLidas lidas = CarregadorMapeado.lerConexoes(caminho.toString());
+        assertEquals(3, erros);
+        assertEquals(linhas - 3, lidas.quantidade);
+        for (int k = 0; k < 3; k++) {
+            assertEquals(linhasComErro[k], lidas.relatorio.getErros().get(k).getNumeroLinha());
+        }
+        // As conexões ficam na ordem do arquivo
+        for (int k = 1; k < lidas.quantidade; k++) assertTrue(lidas.origens[k] > lidas.origens[k - 1]);
+        assertEquals(linhas, lidas.origens[lidas.quantidade - 1]);
+    }
+
+    @Test
+    void grafoCarregadoUsaSoAsLinhasValidas() throws IOException {
+        GrafoColetaReciclaveis grafo = new GrafoColetaReciclaveis();
+        RelatorioCarga pontos = grafo.carregarPontosDeColeta(arquivo("p.txt", "1;A\n2;B\n3;C\nquatro;D\n"));
+        RelatorioCarga conexoes = grafo.carregarConexoes(arquivo("c.txt", "1;2;5\n2;3;-7\n2;3;7\n"));
+        assertEquals(1, pontos.getTotalErros());
+        assertEquals(1, conexoes.getTotalErros());
+        assertEquals(3, grafo.pontos.size());
+        assertEquals(2, grafo.conexoes.size());
+        assertEquals(12, grafo.encontrarCaminhoMinimo(1, 3).getDistancia());
+        assertEquals("A", grafo.bst.buscar("a").nome);
+    }
+}
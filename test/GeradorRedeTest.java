@@ -0,0 +1,74 @@
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Testes do GeradorRede: a mesma semente gera os mesmos arquivos, e cada topologia
+ * grava arquivos que o sistema carrega sem erros, com IDs de 1 a numPontos e
+ * distâncias positivas.
+ */
+class GeradorRedeTest {
+    @TempDir
+    Path pasta;
+
+    @Test
+    void mesmaSementeGeraOsMesmosArquivos() throws IOException {
+        for (TopologiaRede topologia : TopologiaRede.values()) {
+            Path[] a = gerar(topologia, 2000, 5, 42, "a");
+            Path[] b = gerar(topologia, 2000, 5, 42, "b");
+            Path[] c = gerar(topologia, 2000, 5, 43, "c");
+            assertArrayEquals(Files.readAllBytes(a[0]), Files.readAllBytes(b[0]), topologia + " pontos");
+            assertArrayEquals(Files.readAllBytes(a[1]), Files.readAllBytes(b[1]), topologia + " conexões");
+            assertFalse(Files.readString(a[1]).equals(Files.readString(c[1])), topologia + " outra semente");
+        }
+    }
+
+    @Test
+    void redesGeradasCarregamSemErros() throws IOException {
+        int n = 3000;
+        for (TopologiaRede topologia : TopologiaRede.values()) {
+            String nome = topologia.name().toLowerCase();
+            Path pontos = pasta.resolve(nome + "_pontos.txt");
+            Path conexoes = pasta.resolve(nome + "_rotas.txt");
+            long gravadas = GeradorRede.gerar(topologia, n, 6, 7, pontos.toString(), conexoes.toString());
+
+            GrafoColetaReciclaveis grafo = new GrafoColetaReciclaveis();
+            RelatorioCarga relatorioPontos = grafo.carregarPontosDeColeta(pontos.toString());
+            RelatorioCarga relatorioConexoes = grafo.carregarConexoes(conexoes.toString());
+            assertTrue(relatorioPontos.semErros(), relatorioPontos.descreverErros(5));
+            assertTrue(relatorioConexoes.semErros(), relatorioConexoes.descreverErros(5));
+            assertEquals(n, grafo.pontos.size());
+            assertEquals(gravadas, grafo.conexoes.size());
+            assertTrue(gravadas >= n, topologia + ": " + gravadas + " conexões");
+
+            for (int id = 1; id <= n; id++) assertTrue(grafo.pontos.containsKey(id));
+            for (Conexao c : grafo.conexoes) {
+                assertTrue(grafo.pontos.containsKey(c.origem) && grafo.pontos.containsKey(c.destino), c.toString());
+                assertTrue(c.distancia > 0, c.toString());
+            }
+        }
+    }
+
+    @Test
+    void parametrosInvalidosSaoRecusados() {
+        String p = pasta.resolve("p.txt").toString(), c = pasta.resolve("c.txt").toString();
+        assertThrows(IllegalArgumentException.class, () -> GeradorRede.gerar(TopologiaRede.GRADE, 0, 4, 1, p, c));
+        assertThrows(IllegalArgumentException.class, () -> GeradorRede.gerar(TopologiaRede.GEOMETRICA, 10, 0, 1, p, c));
+    }
+
+    private Path[] gerar(TopologiaRede topologia, int n, int grau, long semente, String prefixo) throws IOException {
+        Path pontos = pasta.resolve(prefixo + "_" + topologia.name() + "_pontos.txt");
+        Path conexoes = pasta.resolve(prefixo + "_" + topologia.name() + "_rotas.txt");
+        GeradorRede.gerar(topologia, n, grau, semente, pontos.toString(), conexoes.toString());
+        return new Path[]{pontos, conexoes};
+    }
+}
@@ -0,0 +1,95 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Testes da GradeEspacial contra a força bruta: pontos e conexões em retângulos de
+ * vários tamanhos (inclusive fora da área dos pontos) e o ponto mais próximo de uma
+ * posição, com pontos aglomerados, repetidos e conexões longas.
+ */
+class GradeEspacialTest {
+
+    @Test
+    void consultasConferemComAForcaBruta() {
+        Random aleatorio = new Random(24);
+        for (int rodada = 0; rodada < 40; rodada++) {
+            int n = 1 + aleatorio.nextInt(rodada < 5 ? 3 : 2000);
+            double[] x = new double[n], y = new double[n];
+            for (int i = 0; i < n; i++) {
+                if (i > 0 && aleatorio.nextInt(20) == 0) {
+                    // Ponto repetido
+                    x[i] = x[i - 1];
+                    y[i] = y[i - 1];
+                } else if (aleatorio.nextBoolean()) {
+                    x[i] = 500 + aleatorio.nextGaussian() * 10;
+                    y[i] = 500 + aleatorio.nextGaussian() * 10;
+                } else {
+                    x[i] = aleatorio.nextDouble() * 1000;
+                    y[i] = aleatorio.nextDouble() * 1000;
+                }
+            }
+            int m = aleatorio.nextInt(3 * n + 1);
+            int[] origens = new int[m], destinos = new int[m];
+            for (int k = 0; k < m; k++) {
+                origens[k] = aleatorio.nextInt(n);
+                // Metade liga pontos próximos no vetor, metade pontos quaisquer (conexões longas)
+                destinos[k] = aleatorio.nextBoolean() ? Math.min(n - 1, origens[k] + aleatorio.nextInt(3))
+                        : aleatorio.nextInt(n);
+            }
+            GradeEspacial grade = new GradeEspacial(x, y, origens, destinos, m);
+
+            int[] saida = new int[0];
+            int[] quantidade = new int[1];
+            for (int consulta = 0; consulta < 50; consulta++) {
+                double x0 = -100 + aleatorio.nextDouble() * 1200, y0 = -100 + aleatorio.nextDouble() * 1200;
+                double lado = Math.pow(10, aleatorio.nextDouble() * 3.5);
+                double x1 = x0 + lado, y1 = y0 + lado * (0.5 + aleatorio.nextDouble());
+                String retangulo = "[" + x0 + ", " + y0 + ", " + x1 + ", " + y1 + "]";
+
+                saida = grade.pontosNoRetangulo(x0, y0, x1, y1, saida, quantidade);
+                List<Integer> esperados = new ArrayList<>();
+                for (int i = 0; i < n; i++) {
+                    if (x[i] >= x0 && x[i] <= x1 && y[i] >= y0 && y[i] <= y1) esperados.add(i);
+                }
+                assertArrayEquals(ordenados(esperados), ordenados(saida, quantidade[0]), "pontos " + retangulo);
+
+                saida = grade.conexoesNoRetangulo(x0, y0, x1, y1, saida, quantidade);
+                esperados.clear();
+                for (int k = 0; k < m; k++) {
+                    int o = origens[k], d = destinos[k];
+                    if (Math.max(x[o], x[d]) >= x0 && Math.min(x[o], x[d]) <= x1
+                            && Math.max(y[o], y[d]) >= y0 && Math.min(y[o], y[d]) <= y1) esperados.add(k);
+                }
+                assertArrayEquals(ordenados(esperados), ordenados(saida, quantidade[0]), "conexões " + retangulo);
+
+                double px = aleatorio.nextDouble() * 1000, py = aleatorio.nextDouble() * 1000;
+                double raio = aleatorio.nextDouble() * 30;
+                int maisProximo = grade.pontoMaisProximo(px, py, raio);
+                double menor = Double.POSITIVE_INFINITY;
+                for (int i = 0; i < n; i++) menor = Math.min(menor, Math.hypot(x[i] - px, y[i] - py));
+                if (menor > raio) {
+                    assertEquals(-1, maisProximo, "clique em " + px + ", " + py);
+                } else {
+                    // Em caso de empate qualquer um dos mais próximos serve
+                    assertEquals(menor, Math.hypot(x[maisProximo] - px, y[maisProximo] - py), 1e-9);
+                }
+            }
+        }
+    }
+
+    private static int[] ordenados(List<Integer> valores) {
+        return valores.stream().mapToInt(Integer::intValue).sorted().toArray();
+    }
+
+    private static int[] ordenados(int[] valores, int quantidade) {
+        int[] copia = Arrays.copyOf(valores, quantidade);
+        Arrays.sort(copia);
+        return copia;
+    }
+}
@@ -0,0 +1,407 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Testes das alterações incrementais do grafo: depois de cada sequência aleatória de
+ * inclusões, edições e exclusões de pontos e conexões, o grafo é comparado com uma
+ * referência ingênua (mapa de pontos e lista de conexões, Dijkstra em O(n²)) e com um
+ * grafo reconstruído do zero a partir das mesmas listas. Cobre a adjacência CSR com
+ * folga e troca com o último vértice, as posições das conexões na lista, o mapa de
+ * homônimos entre a BST e a Trie e as distâncias de todas as estratégias.
+ */
+class GrafoColetaReciclaveisTest {
+    // Poucos nomes para o grafo ter muitos homônimos (maiúsculas não diferenciam nomes)
+    private static final int NOMES = 12;
+    private static final EstrategiaBusca[] ESTRATEGIAS_METRICAS = {
+            EstrategiaBusca.DIJKSTRA, EstrategiaBusca.DIJKSTRA_BIDIRECIONAL, EstrategiaBusca.A_ESTRELA};
+
+    /**
+     * Estado esperado do grafo: os pontos por ID e as conexões como (origem, destino, distância).
+     */
+    private static final class Referencia {
+        final Map<Integer, String> pontos = new HashMap<>();
+        final List<int[]> conexoes = new ArrayList<>();
+
+        /**
+         * Dijkstra simples em O(n²) sobre a lista de conexões.
+         * @return A menor distância, ou -1 se não houver caminho.
+         */
+        int distancia(int origem, int destino) {
+            Map<Integer, Integer> dist = new HashMap<>();
+            Set<Integer> fechados = new HashSet<>();
+            dist.put(origem, 0);
+            while (true) {
+                int u = -1, du = Integer.MAX_VALUE;
+                for (Map.Entry<Integer, Integer> e : dist.entrySet()) {
+                    if (!fechados.contains(e.getKey()) && e.getValue() < du) {
+                        u = e.getKey();
+                        du = e.getValue();
+                    }
+                }
+                if (u < 0) return -1;
+                if (u == destino) return du;
+                fechados.add(u);
+                for (int[] c : conexoes) {
+                    // Conexões com extremo desconhecido não fazem parte do grafo
+                    if (c[0] != u || !pontos.containsKey(c[1])) continue;
+                    dist.merge(c[1], du + c[2], Math::min);
+                }
+            }
+        }
+
+        /**
+         * @return A quantidade de conexões do menor caminho, ou -1 se não houver caminho.
+         */
+        int saltos(int origem, int destino) {
+            Map<Integer, Integer> nivel = new HashMap<>();
+            ArrayDeque<Integer> fila = new ArrayDeque<>();
+            nivel.put(origem, 0);
+            fila.add(origem);
+            while (!fila.isEmpty()) {
+                int u = fila.poll();
+                if (u == destino) return nivel.get(u);
+                for (int[] c : conexoes) {
+                    if (c[0] != u || !pontos.containsKey(c[1]) || nivel.containsKey(c[1])) continue;
+                    nivel.put(c[1], nivel.get(u) + 1);
+                    fila.add(c[1]);
+                }
+            }
+            return -1;
+        }
+    }
+
+    @Test
+    void alteracoesIncrementaisConferemComReferenciaEReconstrucao() {
+        Random aleatorio = new Random(2024);
+        for (int rodada = 0; rodada < 25; rodada++) {
+            GrafoColetaReciclaveis grafo = new GrafoColetaReciclaveis();
+            grafo.usarHeuristicaMarcos(3);
+            Referencia ref = new Referencia();
+            int n = 5 + aleatorio.nextInt(30);
+            for (int i = 0; i < n; i++) adicionarPonto(grafo, ref, aleatorio);
+            for (int k = 0; k < 2 * n; k++) adicionarConexao(grafo, ref, aleatorio);
+            // Monta a adjacência para que as alterações seguintes sejam incrementais
+            grafo.calcularGraus();
+
+            for (int op = 0; op < 150; op++) {
+                // De vez em quando, um lote: a adjacência é refeita uma vez só no final
+                boolean lote = aleatorio.nextInt(15) == 0;
+                if (lote) grafo.iniciarLote();
+                int repeticoes = lote ? 1 + aleatorio.nextInt(5) : 1;
+                for (int r = 0; r < repeticoes; r++) alterar(grafo, ref, aleatorio);
+                if (lote) grafo.confirmarLote();
+                verificar(grafo, ref, aleatorio);
+            }
+        }
+    }
+
+    @Test
+    void excluirPontoComConexoesPendentesReconstroiAdjacencia() {
+        GrafoColetaReciclaveis grafo = new GrafoColetaReciclaveis();
+        Referencia ref = new Referencia();
+        Random aleatorio = new Random(5);
+        for (int i = 0; i < 6; i++) adicionarPonto(grafo, ref, aleatorio);
+        grafo.adicionarConexao(1, 2, 10);
+        grafo.adicionarConexao(2, 3, 20);
+        // Destino desconhecido: fica fora da adjacência até o ponto existir
+        grafo.adicionarConexao(3, 99, 5);
+        grafo.adicionarConexao(4, 1, 7);
+        ref.conexoes.addAll(Arrays.asList(
+                new int[]{1, 2, 10}, new int[]{2, 3, 20}, new int[]{3, 99, 5}, new int[]{4, 1, 7}));
+        grafo.calcularGraus();
+        grafo.excluirPonto(2);
+        ref.pontos.remove(2);
+        ref.conexoes.removeIf(c -> c[0] == 2 || c[1] == 2);
+        verificar(grafo, ref, aleatorio);
+        assertNull(grafo.encontrarCaminhoMinimo(1, 3));
+        assertEquals(7, grafo.encontrarCaminhoMinimo(4, 1).getDistancia());
+    }
+
+    @Test
+    void excluirPontoMantemOsIndicesDaListagem() {
+        GrafoColetaReciclaveis grafo = new GrafoColetaReciclaveis();
+        for (int i = 1; i <= 5; i++) grafo.adicionarPonto("Ponto " + i);
+        grafo.adicionarConexao(1, 2, 10);
+        grafo.adicionarConexao(2, 3, 20);
+        grafo.adicionarConexao(3, 4, 30);
+        grafo.adicionarConexao(4, 5, 40);
+        grafo.adicionarConexao(5, 1, 50);
+        grafo.calcularGraus();
+
+        grafo.excluirPonto(2);
+        // A listagem numerada mostra agora: 0) 3>4  1) 4>5  2) 5>1
+        assertEquals(Arrays.asList("3>4", "4>5", "5>1"), grafo.conexoes.stream()
+                .map(c -> c.origem + ">" + c.destino).collect(Collectors.toList()));
+        // O índice 1 da listagem é a conexão 4>5, e é ela que muda
+        grafo.editarConexao(1, 4, 5, 7);
+        assertEquals(7, grafo.conexoes.get(1).distancia);
+        assertEquals(7, grafo.encontrarCaminhoMinimo(4, 5).getDistancia());
+        assertEquals(30, grafo.conexoes.get(0).distancia);
+        assertEquals(50, grafo.conexoes.get(2).distancia);
+        grafo.excluirConexao(0);
+        assertNull(grafo.encontrarCaminhoMinimo(3, 4));
+        assertEquals(57, grafo.encontrarCaminhoMinimo(4, 1).getDistancia());
+    }
+
+    @Test
+    void alteracoesInvalidasNaoMudamAVersao() {
+        GrafoColetaReciclaveis grafo = new GrafoColetaReciclaveis();
+        grafo.adicionarPonto("A");
+        grafo.adicionarConexao(1, 1, 5);
+        long versao = grafo.getVersao();
+        grafo.editarPonto(42, "X");
+        grafo.excluirPonto(42);
+        grafo.editarConexao(3, 1, 1, 9);
+        grafo.excluirConexao(-1);
+        assertEquals(versao, grafo.getVersao());
+        grafo.excluirConexao(0);
+        assertTrue(grafo.getVersao() > versao);
+    }
+
+    @Test
+    void listaDeSucessoresEhSomenteLeitura() {
+        GrafoColetaReciclaveis grafo = new GrafoColetaReciclaveis();
+        grafo.adicionarPonto("A");
+        grafo.adicionarPonto("B");
+        grafo.adicionarConexao(1, 2, 10);
+        Map<Integer, List<Conexao>> sucessores = grafo.getListaSucessores();
+        assertEquals(1, sucessores.get(1).size());
+        assertTrue(sucessores.get(2).isEmpty());
+        assertThrows(UnsupportedOperationException.class, () -> sucessores.get(1).clear());
+        assertThrows(UnsupportedOperationException.class, () -> sucessores.remove(1));
+    }
+
+    // ==================== ALTERAÇÕES ====================
+
+    private static void alterar(GrafoColetaReciclaveis grafo, Referencia ref, Random aleatorio) {
+        int tipo = aleatorio.nextInt(10);
+        if (tipo < 2) {
+            adicionarPonto(grafo, ref, aleatorio);
+        } else if (tipo < 3 && !ref.pontos.isEmpty()) {
+            int id = idAleatorio(ref, aleatorio);
+            String nome = nomeAleatorio(aleatorio);
+            grafo.editarPonto(id, nome);
+            ref.pontos.put(id, nome);
+        } else if (tipo < 5 && !ref.pontos.isEmpty()) {
+            int id = idAleatorio(ref, aleatorio);
+            grafo.excluirPonto(id);
+            ref.pontos.remove(id);
+            ref.conexoes.removeIf(c -> c[0] == id || c[1] == id);
+        } else if (tipo < 7) {
+            adicionarConexao(grafo, ref, aleatorio);
+        } else if (tipo < 8 && !grafo.conexoes.isEmpty()) {
+            int k = aleatorio.nextInt(grafo.conexoes.size());
+            Conexao c = grafo.conexoes.get(k);
+            // Metade das vezes mantém a origem (atualização no próprio segmento)
+            int origem = aleatorio.nextBoolean() ? c.origem : extremoAleatorio(ref, aleatorio);
+            int destino = extremoAleatorio(ref, aleatorio);
+            int distancia = 1 + aleatorio.nextInt(100);
+            grafo.editarConexao(k, origem, destino, distancia);
+            ref.conexoes.set(k, new int[]{origem, destino, distancia});
+        } else if (!grafo.conexoes.isEmpty()) {
+            int k = aleatorio.nextInt(grafo.conexoes.size());
+            grafo.excluirConexao(k);
+            ref.conexoes.remove(k);
+        }
+    }
+
+    private static void adicionarPonto(GrafoColetaReciclaveis grafo, Referencia ref, Random aleatorio) {
+        String nome = nomeAleatorio(aleatorio);
+        Set<Integer> antes = new HashSet<>(grafo.pontos.keySet());
+        grafo.adicionarPonto(nome);
+        Set<Integer> novos = new HashSet<>(grafo.pontos.keySet());
+        novos.removeAll(antes);
+        assertEquals(1, novos.size());
+        ref.pontos.put(novos.iterator().next(), nome);
+    }
+
+    private static void adicionarConexao(GrafoColetaReciclaveis grafo, Referencia ref, Random aleatorio) {
+        int origem = extremoAleatorio(ref, aleatorio);
+        int destino = extremoAleatorio(ref, aleatorio);
+        int distancia = 1 + aleatorio.nextInt(100);
+        grafo.adicionarConexao(origem, destino, distancia);
+        ref.conexoes.add(new int[]{origem, destino, distancia});
+    }
+
+    private static int idAleatorio(Referencia ref, Random aleatorio) {
+        List<Integer> ids = new ArrayList<>(ref.pontos.keySet());
+        return ids.get(aleatorio.nextInt(ids.size()));
+    }
+
+    /**
+     * Um ponto existente ou, às vezes, um ID desconhecido (conexão pendente).
+     */
+    private static int extremoAleatorio(Referencia ref, Random aleatorio) {
+        if (ref.pontos.isEmpty() || aleatorio.nextInt(25) == 0) return 1_000 + aleatorio.nextInt(5);
+        return idAleatorio(ref, aleatorio);
+    }
+
+    private static String nomeAleatorio(Random aleatorio) {
+        String nome = "Ecoponto " + aleatorio.nextInt(NOMES);
+        return aleatorio.nextBoolean() ? nome : nome.toUpperCase();
+    }
+
+    // ==================== VERIFICAÇÕES ====================
+
+    private static void verificar(GrafoColetaReciclaveis grafo, Referencia ref, Random aleatorio) {
+        verificarListas(grafo, ref);
+        GrafoColetaReciclaveis reconstruido = reconstruir(grafo);
+        verificarSucessores(grafo, ref);
+        verificarSucessores(reconstruido, ref);
+        assertEquals(new TreeSet<>(ref.pontos.keySet()), new TreeSet<>(grafo.getIdsDosVertices()));
+        assertEquals(grafo.calcularGraus().entrySet().stream().collect(Collectors.toSet()),
+                reconstruido.calcularGraus().entrySet().stream().collect(Collectors.toSet()));
+        verificarDistancias(grafo, reconstruido, ref, aleatorio);
+        verificarNomes(grafo, ref);
+    }
+
+    /**
+     * Pontos e conexões iguais aos da referência, com as conexões na mesma ordem (os
+     * índices de editarConexao e excluirConexao), e cada conexão com a sua posição na lista.
+     */
+    private static void verificarListas(GrafoColetaReciclaveis grafo, Referencia ref) {
+        assertEquals(ref.pontos.keySet(), grafo.pontos.keySet());
+        for (Map.Entry<Integer, String> e : ref.pontos.entrySet()) {
+            assertEquals(e.getValue(), grafo.pontos.get(e.getKey()).nome);
+        }
+        List<String> esperadas = ref.conexoes.stream().map(c -> c[0] + ">" + c[1] + ":" + c[2])
+                .collect(Collectors.toList());
+        List<String> atuais = grafo.conexoes.stream().map(c -> c.origem + ">" + c.destino + ":" + c.distancia)
+                .collect(Collectors.toList());
+        assertEquals(esperadas, atuais);
+        for (int k = 0; k < grafo.conexoes.size(); k++) assertEquals(k, grafo.conexoes.get(k).posicao, "posição");
+    }
+
+    /**
+     * Sucessores de cada ponto: as conexões da referência que saem dele e chegam a um ponto existente.
+     */
+    private static void verificarSucessores(GrafoColetaReciclaveis grafo, Referencia ref) {
+        Map<Integer, List<Conexao>> sucessores = grafo.getListaSucessores();
+        for (int id : ref.pontos.keySet()) {
+            List<String> esperados = ref.conexoes.stream()
+                    .filter(c -> c[0] == id && ref.pontos.containsKey(c[1]))
+                    .map(c -> c[1] + ":" + c[2]).sorted().collect(Collectors.toList());
+            List<String> atuais = sucessores.getOrDefault(id, Collections.emptyList()).stream()
+                    .map(c -> c.destino + ":" + c.distancia).sorted().collect(Collectors.toList());
+            assertEquals(esperados, atuais, "sucessores de " + id);
+        }
+    }
+
+    /**
+     * Menores distâncias de pares aleatórios em todas as estratégias, no grafo alterado
+     * e no reconstruído, contra o Dijkstra da referência; e a matriz de todos os pares.
+     */
+    private static void verificarDistancias(GrafoColetaReciclaveis grafo, GrafoColetaReciclaveis reconstruido,
+                                            Referencia ref, Random aleatorio) {
+        if (ref.pontos.isEmpty()) return;
+        for (int i = 0; i < 10; i++) {
+            int origem = idAleatorio(ref, aleatorio), destino = idAleatorio(ref, aleatorio);
+            int esperada = ref.distancia(origem, destino);
+            for (EstrategiaBusca estrategia : ESTRATEGIAS_METRICAS) {
+                for (GrafoColetaReciclaveis g : Arrays.asList(grafo, reconstruido)) {
+                    ResultadoCaminho r = g.encontrarCaminho(origem, destino, estrategia);
+                    String caso = estrategia + " " + origem + "->" + destino;
+                    if (esperada < 0) {
+                        assertNull(r, caso);
+                    } else {
+                        assertNotNull(r, caso);
+                        assertEquals(esperada, r.getDistancia(), caso);
+                        assertEquals(esperada, g.calcularDistanciaCaminho(r.getCaminho()), caso);
+                    }
+                }
+            }
+            ResultadoCaminho bfs = grafo.encontrarCaminho(origem, destino, EstrategiaBusca.BFS);
+            assertEquals(esperada < 0, bfs == null, "BFS " + origem + "->" + destino);
+            if (bfs != null) assertEquals(ref.saltos(origem, destino) + 1, bfs.getCaminho().size());
+        }
+        MatrizDistancias matriz = grafo.calcularDistanciasTodosPares();
+        List<Integer> ids = grafo.getIdsDosVertices();
+        for (int i = 0; i < matriz.tamanho(); i++) assertEquals(ids.get(i).intValue(), matriz.id(i));
+        int origem = idAleatorio(ref, aleatorio);
+        for (int destino : ref.pontos.keySet()) {
+            assertEquals(ref.distancia(origem, destino), matriz.distancia(origem, destino));
+        }
+    }
+
+    /**
+     * Índices de nomes: para cada nome (sem diferenciar maiúsculas), a BST e a Trie
+     * devolvem um dos pontos atuais com esse nome; nomes de pontos excluídos ou
+     * renomeados não aparecem; a busca por prefixo lista exatamente os nomes atuais.
+     */
+    private static void verificarNomes(GrafoColetaReciclaveis grafo, Referencia ref) {
+        Map<String, Set<Integer>> porNome = new HashMap<>();
+        for (Map.Entry<Integer, String> e : ref.pontos.entrySet()) {
+            porNome.computeIfAbsent(e.getValue().toLowerCase(), k -> new HashSet<>()).add(e.getKey());
+        }
+        assertEquals(porNome.size(), grafo.bst.tamanho());
+        for (int i = 0; i < NOMES; i++) {
+            String nome = "ecoponto " + i;
+            Set<Integer> ids = porNome.get(nome);
+            PontoColeta naBST = grafo.bst.buscar(nome);
+            List<PontoColeta> naTrie = grafo.trie.buscarPorPrefixo(nome).stream()
+                    .filter(p -> p.nome.equalsIgnoreCase(nome)).collect(Collectors.toList());
+            if (ids == null) {
+                assertNull(naBST, nome);
+                assertTrue(naTrie.isEmpty(), nome);
+                continue;
+            }
+            assertNotNull(naBST, nome);
+            assertTrue(ids.contains(naBST.id), nome);
+            assertSame(grafo.pontos.get(naBST.id), naBST, nome);
+            assertEquals(1, naTrie.size(), nome);
+            assertTrue(ids.contains(naTrie.get(0).id), nome);
+            assertSame(grafo.pontos.get(naTrie.get(0).id), naTrie.get(0), nome);
+        }
+        Set<String> porPrefixo = grafo.buscarPorPrefixo("ECO", Integer.MAX_VALUE, OrdemPrefixo.PONTUACAO).stream()
+                .map(p -> p.nome.toLowerCase()).collect(Collectors.toSet());
+        assertEquals(porNome.keySet(), porPrefixo);
+        // A busca por pontuação deixou as pontuações em dia: cada ponto da Trie com o seu grau
+        verificarPontuacoes(grafo.trie.raiz, grafo.calcularGraus());
+    }
+
+    /**
+     * @return O maior grau da sub-árvore, conferido contra o limite guardado no nó.
+     */
+    private static int verificarPontuacoes(NoTrie no, Map<Integer, Integer> graus) {
+        int maior = Integer.MIN_VALUE;
+        if (no.fimPalavra) {
+            assertEquals(graus.get(no.ponto.id).intValue(), no.pontuacao, "pontuação de " + no.ponto.nome);
+            maior = no.pontuacao;
+        }
+        for (NoTrie filho : no.filhos) maior = Math.max(maior, verificarPontuacoes(filho, graus));
+        // O limite pode ficar acima do real depois de remoções, mas nunca abaixo
+        assertTrue(no.maiorPontuacao >= maior, "limite de pontuação");
+        return maior;
+    }
+
+    /**
+     * Grafo novo com cópias dos mesmos pontos e conexões; a adjacência é montada do zero
+     * na primeira consulta.
+     */
+    private static GrafoColetaReciclaveis reconstruir(GrafoColetaReciclaveis grafo) {
+        GrafoColetaReciclaveis copia = new GrafoColetaReciclaveis();
+        copia.usarHeuristicaMarcos(3);
+        for (PontoColeta p : grafo.pontos.values()) copia.pontos.put(p.id, new PontoColeta(p.id, p.nome));
+        for (Conexao c : grafo.conexoes) copia.conexoes.add(new Conexao(c.origem, c.destino, c.distancia));
+        return copia;
+    }
+}
@@ -0,0 +1,126 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Testes do GrafoConcorrente: versões publicadas não mudam, um lote que falha não
+ * publica nada nem deixa resto no grafo de trabalho, e leitores concorrentes com um
+ * escritor sempre enxergam versões inteiras.
+ */
+class GrafoConcorrenteTest {
+
+    @Test
+    void versoesPublicadasNaoMudam() {
+        GrafoColetaReciclaveis inicial = new GrafoColetaReciclaveis();
+        inicial.adicionarPonto("Centro");
+        inicial.adicionarPonto("Ecoponto");
+        inicial.adicionarConexao(1, 2, 30);
+        GrafoConcorrente grafo = new GrafoConcorrente(inicial);
+
+        VersaoGrafo primeira = grafo.versaoAtual();
+        assertEquals(1, primeira.getNumero());
+        VersaoGrafo segunda = grafo.alterar(g -> {
+            g.adicionarPonto("Galpão");
+            g.adicionarConexao(2, 3, 20);
+            g.editarPonto(1, "Praça");
+        });
+        assertSame(segunda, grafo.versaoAtual());
+        assertEquals(2, segunda.getNumero());
+
+        assertEquals(2, primeira.getPontos().size());
+        assertEquals(1, primeira.getConexoes().size());
+        assertNotNull(primeira.buscarPorNome("centro"));
+        assertNull(primeira.buscarPorNome("praça"));
+        assertNull(primeira.encontrarCaminho(1, 3, EstrategiaBusca.DIJKSTRA));
+
+        assertEquals(3, segunda.getPontos().size());
+        assertNull(segunda.buscarPorNome("centro"));
+        assertNotNull(segunda.buscarPorNome("PRAÇA"));
+        assertEquals(50, segunda.encontrarCaminho(1, 3, EstrategiaBusca.DIJKSTRA).getDistancia());
+
+        assertThrows(UnsupportedOperationException.class, () -> segunda.getConexoes().clear());
+        assertThrows(UnsupportedOperationException.class, () -> segunda.getPontos().remove(1));
+    }
+
+    @Test
+    void loteComExcecaoNaoPublicaNada() {
+        GrafoConcorrente grafo = new GrafoConcorrente();
+        grafo.alterar(g -> g.adicionarPonto("Centro"));
+        VersaoGrafo antes = grafo.versaoAtual();
+
+        assertThrows(IllegalStateException.class, () -> grafo.alterar(g -> {
+            g.adicionarPonto("Parcial");
+            g.adicionarConexao(1, 2, 10);
+            throw new IllegalStateException("falha no meio do lote");
+        }));
+        assertSame(antes, grafo.versaoAtual());
+
+        // O lote seguinte parte da versão publicada, sem o ponto nem a conexão parciais
+        VersaoGrafo depois = grafo.alterar(g -> g.adicionarPonto("Ecoponto"));
+        assertEquals(antes.getNumero() + 1, depois.getNumero());
+        assertEquals(2, depois.getPontos().size());
+        assertEquals("Ecoponto", depois.getPontos().get(2).nome);
+        assertNull(depois.buscarPorNome("Parcial"));
+        assertTrue(depois.getConexoes().isEmpty());
+    }
+
+    @Test
+    void leitoresConcorrentesVeemVersoesInteiras() throws Exception {
+        // Cada lote acrescenta um ponto e a conexão que o liga ao fim de uma cadeia, então
+        // a versão n tem n pontos e o caminho de 1 até n mede 10 * (n - 1)
+        GrafoConcorrente grafo = new GrafoConcorrente();
+        grafo.alterar(g -> g.adicionarPonto("P1"));
+        int lotes = 300;
+        AtomicBoolean terminou = new AtomicBoolean();
+        ExecutorService leitores = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<Integer>> leituras = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                EstrategiaBusca estrategia = EstrategiaBusca.values()[t % EstrategiaBusca.values().length];
+                leituras.add(leitores.submit(() -> {
+                    long ultimo = 0;
+                    int verificadas = 0;
+                    while (!terminou.get() || verificadas == 0) {
+                        VersaoGrafo v = grafo.versaoAtual();
+                        assertTrue(v.getNumero() >= ultimo, "versão voltou atrás");
+                        ultimo = v.getNumero();
+                        int n = (int) v.getNumero() - 1;
+                        assertEquals(n, v.getPontos().size());
+                        assertEquals(n - 1, v.getConexoes().size());
+                        assertNotNull(v.buscarPorNome("P" + n));
+                        ResultadoCaminho r = v.encontrarCaminho(1, n, estrategia);
+                        assertEquals(n, r.getCaminho().size());
+                        if (estrategia != EstrategiaBusca.BFS) assertEquals(10 * (n - 1), r.getDistancia());
+                        verificadas++;
+                    }
+                    return verificadas;
+                }));
+            }
+            for (int k = 2; k <= lotes; k++) {
+                int id = k;
+                grafo.alterar(g -> {
+                    g.adicionarPonto("P" + id);
+                    g.adicionarConexao(id - 1, id, 10);
+                });
+            }
+            terminou.set(true);
+            for (Future<Integer> f : leituras) assertTrue(f.get(30, TimeUnit.SECONDS) > 0);
+        } finally {
+            leitores.shutdownNow();
+        }
+        assertEquals(lotes + 1, grafo.versaoAtual().getNumero());
+    }
+}
@@ -0,0 +1,92 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Testes do HistogramaLatencia: as faixas cobrem a escala sem buracos, os percentis
+ * ficam dentro do erro relativo prometido (1/16) em relação aos valores ordenados, e
+ * registros de várias threads ao mesmo tempo não se perdem.
+ */
+class HistogramaLatenciaTest {
+
+    @Test
+    void faixasSaoContinuasECrescentes() {
+        long anterior = -1;
+        for (int i = 0; i < HistogramaLatencia.NUM_FAIXAS; i++) {
+            long limite = HistogramaLatencia.limiteSuperior(i);
+            assertTrue(limite > anterior, "faixa " + i);
+            // O primeiro valor da faixa e o último caem nela
+            assertEquals(i, HistogramaLatencia.indice(anterior + 1));
+            assertEquals(i, HistogramaLatencia.indice(limite));
+            anterior = limite;
+        }
+        assertEquals(HistogramaLatencia.NUM_FAIXAS - 1, HistogramaLatencia.indice(Long.MAX_VALUE));
+    }
+
+    @Test
+    void percentisFicamDentroDoErroRelativo() {
+        Random aleatorio = new Random(19);
+        for (int rodada = 0; rodada < 20; rodada++) {
+            HistogramaLatencia histograma = new HistogramaLatencia();
+            int n = 1 + aleatorio.nextInt(5_000);
+            long[] valores = new long[n];
+            for (int i = 0; i < n; i++) {
+                // Escala logarítmica: de nanossegundos a segundos
+                valores[i] = (long) Math.pow(10, aleatorio.nextDouble() * 9);
+                histograma.registrar(valores[i]);
+            }
+            Arrays.sort(valores);
+            ResumoLatencia r = histograma.resumir(OperacaoGrafo.CAMINHO_DIJKSTRA);
+            assertEquals(n, r.getContagem());
+            assertEquals(valores[n - 1], r.getMaximoNanos());
+            assertEquals(Arrays.stream(valores).average().orElse(0), r.getMediaNanos(), 1e-6 * valores[n - 1]);
+            verificarPercentil(valores, 0.50, r.getP50Nanos());
+            verificarPercentil(valores, 0.90, r.getP90Nanos());
+            verificarPercentil(valores, 0.99, r.getP99Nanos());
+            verificarPercentil(valores, 0.999, r.getP999Nanos());
+        }
+    }
+
+    private static void verificarPercentil(long[] ordenados, double quantil, long obtido) {
+        long exato = ordenados[(int) Math.ceil(quantil * ordenados.length) - 1];
+        // O histograma devolve o limite superior da faixa: nunca menor, no máximo 1/16 acima
+        assertTrue(obtido >= exato, "p" + quantil + ": " + obtido + " < " + exato);
+        assertTrue(obtido <= exato + exato / 16 + 1, "p" + quantil + ": " + obtido + " >> " + exato);
+    }
+
+    @Test
+    void histogramaVazioResumeEmZeros() {
+        ResumoLatencia r = new HistogramaLatencia().resumir(OperacaoGrafo.BST_BUSCAR);
+        assertEquals(0, r.getContagem());
+        assertEquals(0, r.getP99Nanos());
+        assertEquals(0.0, r.getMediaNanos());
+    }
+
+    @Test
+    void registrosConcorrentesNaoSePerdem() throws Exception {
+        HistogramaLatencia histograma = new HistogramaLatencia();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            Future<?>[] tarefas = new Future<?>[4];
+            for (int t = 0; t < tarefas.length; t++) {
+                tarefas[t] = executor.submit(() -> {
+                    for (int i = 0; i < 50_000; i++) histograma.registrar(i % 1_000);
+                });
+            }
+            for (Future<?> f : tarefas) f.get(30, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(200_000, histograma.getContagem());
+        assertEquals(4L * 50 * (999L * 1_000 / 2), histograma.getSomaNanos());
+        assertEquals(999, histograma.getMaximoNanos());
+    }
+}
@@ -0,0 +1,103 @@
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Testes do LayoutForcas e do LayoutGrafo: o layout cobre os pontos do grafo com
+ * coordenadas finitas e aproxima os pontos ligados, o cálculo para quando a thread é
+ * interrompida, e o arquivo de layout volta igual (na precisão gravada).
+ */
+class LayoutForcasTest {
+    @TempDir
+    Path pasta;
+
+    /**
+     * Dois anéis de 'n' pontos, sem ligação entre eles.
+     */
+    private static GrafoColetaReciclaveis doisAneis(int n) {
+        GrafoColetaReciclaveis grafo = new GrafoColetaReciclaveis();
+        for (int i = 1; i <= 2 * n; i++) grafo.adicionarPonto("Ponto " + i);
+        for (int i = 0; i < n; i++) {
+            grafo.adicionarConexao(1 + i, 1 + (i + 1) % n, 10);
+            grafo.adicionarConexao(1 + n + i, 1 + n + (i + 1) % n, 10);
+        }
+        return grafo;
+    }
+
+    @Test
+    void pontosLigadosFicamMaisPertoQueOsDemais() {
+        int n = 150;
+        GrafoColetaReciclaveis grafo = doisAneis(n);
+        LayoutGrafo layout = new LayoutForcas(200, LayoutForcas.THETA_PADRAO, ForkJoinPool.commonPool())
+                .calcular(grafo, null, null);
+        assertTrue(layout.isConcluido());
+        assertEquals(grafo.getVersao(), layout.getVersao());
+        assertEquals(2 * n, layout.tamanho());
+        for (int i = 0; i < layout.tamanho(); i++) {
+            assertEquals(i + 1, layout.id(i));
+            assertTrue(Double.isFinite(layout.x(i)) && Double.isFinite(layout.y(i)), "ponto " + (i + 1));
+        }
+
+        // Comprimento médio das conexões contra a distância média entre pontos sorteados
+        double somaConexoes = 0;
+        for (Conexao c : grafo.conexoes) somaConexoes += distancia(layout, c.origem - 1, c.destino - 1);
+        double mediaConexoes = somaConexoes / grafo.conexoes.size();
+        Random aleatorio = new Random(3);
+        double somaPares = 0;
+        for (int k = 0; k < 2000; k++) {
+            somaPares += distancia(layout, aleatorio.nextInt(2 * n), aleatorio.nextInt(2 * n));
+        }
+        double mediaPares = somaPares / 2000;
+        assertTrue(mediaConexoes * 3 < mediaPares, mediaConexoes + " contra " + mediaPares);
+    }
+
+    @Test
+    void calculoInterrompidoNaoRetornaLayout() {
+        GrafoColetaReciclaveis grafo = doisAneis(20);
+        Thread.currentThread().interrupt();
+        try {
+            assertNull(new LayoutForcas().calcular(grafo, null, null));
+        } finally {
+            Thread.interrupted();
+        }
+    }
+
+    @Test
+    void arquivoDeLayoutVoltaIgual() throws IOException {
+        GrafoColetaReciclaveis grafo = doisAneis(30);
+        LayoutGrafo layout = new LayoutForcas(50, LayoutForcas.THETA_PADRAO, ForkJoinPool.commonPool())
+                .calcular(grafo, null, null);
+        String arquivo = pasta.resolve("layout.txt").toString();
+        layout.salvar(arquivo);
+        LayoutGrafo lido = LayoutGrafo.ler(arquivo);
+        assertEquals(-1, lido.getVersao());
+        assertEquals(layout.getAssinatura(), lido.getAssinatura());
+        assertEquals(layout.tamanho(), lido.tamanho());
+        for (int i = 0; i < layout.tamanho(); i++) {
+            assertEquals(layout.id(i), lido.id(i));
+            assertEquals((float) layout.x(i), (float) lido.x(i));
+            assertEquals((float) layout.y(i), (float) lido.y(i));
+        }
+
+        Path invalido = pasta.resolve("invalido.txt");
+        Files.write(invalido, "ASSINATURA;1\n1;2\n".getBytes(StandardCharsets.UTF_8));
+        assertThrows(IOException.class, () -> LayoutGrafo.ler(invalido.toString()));
+        Files.write(invalido, "1;2;3\n".getBytes(StandardCharsets.UTF_8));
+        assertThrows(IOException.class, () -> LayoutGrafo.ler(invalido.toString()));
+    }
+
+    private static double distancia(LayoutGrafo layout, int i, int j) {
+        return Math.hypot(layout.x(i) - layout.x(j), layout.y(i) - layout.y(j));
+    }
+}
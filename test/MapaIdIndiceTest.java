@@ -0,0 +1,67 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Testes do MapaIdIndice contra um HashMap: inserções, substituições e remoções
+ * aleatórias, incluindo IDs que colidem na tabela (o deslocamento para trás da
+ * remoção precisa manter as sequências de sondagem corretas).
+ */
+class MapaIdIndiceTest {
+
+    @Test
+    void operacoesAleatoriasConferemComHashMap() {
+        Random aleatorio = new Random(42);
+        for (int rodada = 0; rodada < 50; rodada++) {
+            // Capacidade inicial pequena para forçar redimensionamentos
+            MapaIdIndice mapa = new MapaIdIndice(1 + aleatorio.nextInt(8));
+            Map<Integer, Integer> referencia = new HashMap<>();
+            // Faixa estreita de IDs: muitas colisões, substituições e remoções de IDs presentes
+            int faixa = 20 + aleatorio.nextInt(500);
+            for (int op = 0; op < 5_000; op++) {
+                int id = aleatorio.nextInt(faixa) - faixa / 4; // Inclui IDs negativos
+                if (aleatorio.nextInt(3) == 0) {
+                    Integer esperado = referencia.remove(id);
+                    assertEquals(esperado == null ? -1 : esperado, mapa.remover(id), "remover " + id);
+                } else {
+                    int indice = aleatorio.nextInt(1_000_000);
+                    mapa.colocar(id, indice);
+                    referencia.put(id, indice);
+                }
+                assertEquals(referencia.size(), mapa.tamanho());
+            }
+            for (int id = -faixa; id < faixa; id++) {
+                assertEquals(referencia.getOrDefault(id, -1).intValue(), mapa.obter(id), "obter " + id);
+            }
+        }
+    }
+
+    @Test
+    void removerTodosNaOrdemInversaDeixaOMapaVazio() {
+        MapaIdIndice mapa = new MapaIdIndice(4);
+        List<Integer> ids = new ArrayList<>();
+        // Múltiplos da capacidade caem nas mesmas regiões da tabela
+        for (int i = 0; i < 1_000; i++) ids.add(i * 1024);
+        for (int i = 0; i < ids.size(); i++) mapa.colocar(ids.get(i), i);
+        for (int i = ids.size() - 1; i >= 0; i--) {
+            assertEquals(i, mapa.remover(ids.get(i)));
+            // Os que ainda estão no mapa continuam acessíveis depois de cada remoção
+            if (i > 0) assertEquals(i - 1, mapa.obter(ids.get(i - 1)));
+        }
+        assertEquals(0, mapa.tamanho());
+        for (int id : ids) assertEquals(-1, mapa.obter(id));
+    }
+
+    @Test
+    void idReservadoERejeitado() {
+        MapaIdIndice mapa = new MapaIdIndice(4);
+        assertThrows(IllegalArgumentException.class, () -> mapa.colocar(Integer.MIN_VALUE, 0));
+    }
+}
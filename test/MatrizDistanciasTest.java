@@ -0,0 +1,73 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Testes da matriz de distâncias entre todos os pares: os dois motores (Floyd-Warshall
+ * em blocos e Dijkstra paralelo) contra o Dijkstra ponto a ponto, em redes que cruzam
+ * as bordas dos blocos de 64, além do cache por versão e do limite de células.
+ */
+class MatrizDistanciasTest {
+
+    private static GrafoColetaReciclaveis redeAleatoria(Random aleatorio, int n, int m) {
+        GrafoColetaReciclaveis grafo = new GrafoColetaReciclaveis();
+        for (int i = 1; i <= n; i++) grafo.adicionarPonto("Ponto " + i);
+        for (int k = 0; k < m; k++) {
+            grafo.adicionarConexao(1 + aleatorio.nextInt(n), 1 + aleatorio.nextInt(n), aleatorio.nextInt(100));
+        }
+        return grafo;
+    }
+
+    @Test
+    void motoresConferemComODijkstraPontoAPonto() {
+        // Tamanhos abaixo, igual e acima do bloco de 64, e densidades dos dois lados do AUTOMATICO
+        int[] tamanhos = {1, 7, 64, 65, 150};
+        for (int n : tamanhos) {
+            for (int densidade : new int[]{1, 3, n / 4 + 1}) {
+                long semente = 31L * n + densidade;
+                GrafoColetaReciclaveis grafo = redeAleatoria(new Random(semente), n, n * densidade);
+                for (MotorDistancias motor : MotorDistancias.values()) {
+                    // Um grafo igual por motor: o cache é compartilhado entre os motores
+                    MatrizDistancias matriz = redeAleatoria(new Random(semente), n, n * densidade)
+                            .calcularDistanciasTodosPares(motor);
+                    assertEquals(n, matriz.tamanho());
+                    for (int i = 0; i < n; i++) {
+                        for (int j = 0; j < n; j++) {
+                            ResultadoCaminho r = grafo.encontrarCaminhoMinimo(matriz.id(i), matriz.id(j));
+                            int esperada = r == null ? MatrizDistancias.INFINITO : r.getDistancia();
+                            assertEquals(esperada, matriz.get(i, j), motor + " " + matriz.id(i) + ">" + matriz.id(j));
+                            assertEquals(r == null ? -1 : esperada, matriz.distancia(matriz.id(i), matriz.id(j)));
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    void matrizFicaEmCacheAteAProximaAlteracao() {
+        GrafoColetaReciclaveis grafo = redeAleatoria(new Random(8), 20, 40);
+        MatrizDistancias matriz = grafo.calcularDistanciasTodosPares();
+        assertSame(matriz, grafo.calcularDistanciasTodosPares(MotorDistancias.FLOYD_WARSHALL));
+        grafo.adicionarConexao(1, 2, 0);
+        MatrizDistancias nova = grafo.calcularDistanciasTodosPares();
+        assertNotSame(matriz, nova);
+        assertEquals(0, nova.distancia(1, 2));
+        assertEquals(-1, nova.distancia(1, 99));
+    }
+
+    @Test
+    void grafoAcimaDoLimiteDeCelulasEhRecusado() {
+        GrafoColetaReciclaveis grafo = new GrafoColetaReciclaveis();
+        int n = (int) Math.sqrt(GrafoColetaReciclaveis.LIMITE_MATRIZ_DENSA) + 1;
+        grafo.iniciarLote();
+        for (int i = 0; i < n; i++) grafo.adicionarPonto("Ponto " + i);
+        grafo.confirmarLote();
+        assertThrows(IllegalStateException.class, grafo::calcularDistanciasTodosPares);
+    }
+}
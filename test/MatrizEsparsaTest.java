@@ -0,0 +1,114 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Testes da MatrizEsparsa contra uma matriz densa montada célula a célula (a última
+ * ocorrência de uma célula prevalece, zeros não são guardados), e das matrizes de
+ * adjacência e incidência do grafo contra as suas definições.
+ */
+class MatrizEsparsaTest {
+
+    @Test
+    void coordenadasAleatoriasConferemComAMatrizDensa() {
+        Random aleatorio = new Random(6);
+        for (int rodada = 0; rodada < 200; rodada++) {
+            int linhas = aleatorio.nextInt(12), colunas = aleatorio.nextInt(12);
+            int nnz = linhas == 0 || colunas == 0 ? 0 : aleatorio.nextInt(3 * linhas * colunas / 2 + 1);
+            int[] i = new int[nnz], j = new int[nnz], v = new int[nnz];
+            int[][] densa = new int[linhas][colunas];
+            for (int p = 0; p < nnz; p++) {
+                i[p] = aleatorio.nextInt(linhas);
+                j[p] = aleatorio.nextInt(colunas);
+                v[p] = aleatorio.nextInt(5) - 2;
+                densa[i[p]][j[p]] = v[p];
+            }
+            MatrizEsparsa matriz = MatrizEsparsa.deCoordenadas(linhas, colunas, i, j, v, nnz);
+            verificar(matriz, densa, linhas, colunas);
+        }
+    }
+
+    private static void verificar(MatrizEsparsa matriz, int[][] densa, int linhas, int colunas) {
+        assertEquals(linhas, matriz.getLinhas());
+        assertEquals(colunas, matriz.getColunas());
+        int naoNulos = 0;
+        for (int a = 0; a < linhas; a++) {
+            for (int b = 0; b < colunas; b++) {
+                assertEquals(densa[a][b], matriz.get(a, b), a + "," + b);
+                if (densa[a][b] != 0) naoNulos++;
+            }
+        }
+        assertEquals(naoNulos, matriz.numNaoNulos());
+        for (int a = 0; a < linhas; a++) {
+            List<Integer> vistas = new ArrayList<>();
+            int linha = a;
+            matriz.percorrerLinha(a, (l, c, valor) -> {
+                assertEquals(linha, l);
+                assertEquals(densa[l][c], valor);
+                assertTrue(valor != 0);
+                vistas.add(c);
+            });
+            assertEquals(vistas.stream().sorted().distinct().toList(), vistas, "colunas crescentes");
+        }
+        int[] porColuna = new int[1];
+        for (int b = 0; b < colunas; b++) {
+            List<Integer> vistas = new ArrayList<>();
+            matriz.percorrerColuna(b, (l, c, valor) -> {
+                assertEquals(densa[l][c], valor);
+                vistas.add(l);
+                porColuna[0]++;
+            });
+            assertEquals(vistas.stream().sorted().distinct().toList(), vistas, "linhas crescentes");
+        }
+        assertEquals(naoNulos, porColuna[0]);
+        assertArrayEquals(densa, matriz.paraDensa(Long.MAX_VALUE));
+    }
+
+    @Test
+    void formaDensaRespeitaOLimite() {
+        MatrizEsparsa matriz = MatrizEsparsa.deCoordenadas(1_000, 1_000, new int[0], new int[0], new int[0], 0);
+        assertThrows(IllegalStateException.class, () -> matriz.paraDensa(999_999));
+        assertEquals(1_000, matriz.paraDensa(1_000_000).length);
+    }
+
+    @Test
+    void matrizesDoGrafoSeguemAsDefinicoes() {
+        Random aleatorio = new Random(9);
+        for (int rodada = 0; rodada < 30; rodada++) {
+            GrafoColetaReciclaveis grafo = new GrafoColetaReciclaveis();
+            int n = 1 + aleatorio.nextInt(20);
+            for (int k = 1; k <= n; k++) grafo.adicionarPonto("Ponto " + k);
+            int m = aleatorio.nextInt(3 * n);
+            for (int k = 0; k < m; k++) {
+                // Às vezes um destino desconhecido, que fica fora das matrizes
+                int destino = aleatorio.nextInt(15) == 0 ? 500 : 1 + aleatorio.nextInt(n);
+                grafo.adicionarConexao(1 + aleatorio.nextInt(n), destino, 1 + aleatorio.nextInt(100));
+            }
+            // Sem exclusões, as linhas seguem a ordem de inserção dos pontos (IDs 1..n)
+            int[][] adjacencia = new int[n][n];
+            int[][] incidencia = new int[n][m];
+            for (int k = 0; k < m; k++) {
+                Conexao c = grafo.conexoes.get(k);
+                if (c.destino > n) {
+                    incidencia[c.origem - 1][k] = 1;
+                    continue;
+                }
+                adjacencia[c.origem - 1][c.destino - 1] = c.distancia;
+                incidencia[c.origem - 1][k] = 1;
+                // Num laço, prevalece o -1
+                incidencia[c.destino - 1][k] = -1;
+            }
+            verificar(grafo.gerarMatrizAdjacenciaEsparsa(), adjacencia, n, n);
+            verificar(grafo.gerarMatrizIncidenciaEsparsa(), incidencia, n, m);
+            assertArrayEquals(adjacencia, grafo.gerarMatrizAdjacencia());
+            assertArrayEquals(incidencia, grafo.gerarMatrizIncidencia());
+        }
+    }
+}
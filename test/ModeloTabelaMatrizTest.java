@@ -0,0 +1,100 @@
+import org.junit.jupiter.api.Test;
+
+import java.awt.Point;
+import java.awt.Rectangle;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Testes das tabelas virtuais: os modelos das matrizes de adjacência, incidência e
+ * distâncias mostram os mesmos valores das matrizes densas, e a TabelaMatriz calcula
+ * a posição das colunas sem percorrê-las, inclusive com milhões de colunas.
+ */
+class ModeloTabelaMatrizTest {
+
+    private static GrafoColetaReciclaveis redeAleatoria(Random aleatorio, int n, int m) {
+        GrafoColetaReciclaveis grafo = new GrafoColetaReciclaveis();
+        for (int i = 1; i <= n; i++) grafo.adicionarPonto("Ponto " + i);
+        // Um ponto removido, para os índices densos não coincidirem com os IDs
+        grafo.excluirPonto(1 + aleatorio.nextInt(n));
+        for (int k = 0; k < m; k++) {
+            grafo.adicionarConexao(1 + aleatorio.nextInt(n), 1 + aleatorio.nextInt(n), 1 + aleatorio.nextInt(100));
+        }
+        return grafo;
+    }
+
+    @Test
+    void modelosMostramAsMatrizesDensas() {
+        Random aleatorio = new Random(25);
+        for (int rodada = 0; rodada < 10; rodada++) {
+            int n = 2 + aleatorio.nextInt(40);
+            GrafoColetaReciclaveis grafo = redeAleatoria(aleatorio, n, aleatorio.nextInt(3 * n));
+
+            int[][] adjacencia = grafo.gerarMatrizAdjacencia();
+            ModeloTabelaMatriz modelo = ModeloTabelaMatriz.adjacencia(grafo.gerarMatrizAdjacenciaEsparsa(), grafo);
+            assertEquals(adjacencia.length, modelo.getRowCount());
+            assertEquals(adjacencia.length + 1, modelo.getColumnCount());
+            assertEquals("ID \\ ID", modelo.getColumnName(0));
+            for (int i = 0; i < adjacencia.length; i++) {
+                assertEquals(grafo.idDoVertice(i), modelo.getValueAt(i, 0));
+                assertEquals(String.valueOf(grafo.idDoVertice(i)), modelo.getColumnName(i + 1));
+                for (int j = 0; j < adjacencia.length; j++) {
+                    assertEquals(adjacencia[i][j], modelo.getValueAt(i, j + 1), "adjacência " + i + "," + j);
+                }
+            }
+
+            int[][] incidencia = grafo.gerarMatrizIncidencia();
+            modelo = ModeloTabelaMatriz.incidencia(grafo.gerarMatrizIncidenciaEsparsa(), grafo);
+            assertEquals(incidencia.length, modelo.getRowCount());
+            assertEquals(grafo.conexoes.size() + 1, modelo.getColumnCount());
+            for (int j = 0; j < grafo.conexoes.size(); j++) {
+                Conexao c = grafo.conexoes.get(j);
+                assertEquals((j + 1) + " (ID" + c.origem + "->ID" + c.destino + ")", modelo.getColumnName(j + 1));
+            }
+            for (int i = 0; i < incidencia.length; i++) {
+                for (int j = 0; j < grafo.conexoes.size(); j++) {
+                    assertEquals(incidencia[i][j], modelo.getValueAt(i, j + 1), "incidência " + i + "," + j);
+                }
+            }
+
+            MatrizDistancias distancias = grafo.calcularDistanciasTodosPares();
+            modelo = ModeloTabelaMatriz.distancias(distancias);
+            for (int i = 0; i < distancias.tamanho(); i++) {
+                assertEquals(distancias.id(i), modelo.getValueAt(i, 0));
+                for (int j = 0; j < distancias.tamanho(); j++) {
+                    int d = distancias.get(i, j);
+                    Object esperado = d == MatrizDistancias.INFINITO ? "-" : d;
+                    assertEquals(esperado, modelo.getValueAt(i, j + 1), "distância " + i + "," + j);
+                }
+            }
+        }
+    }
+
+    @Test
+    void colunasTemPosicaoCalculada() {
+        // Dezenas de milhões de colunas (mais largas, juntas, que Integer.MAX_VALUE pixels):
+        // nenhuma é criada até ser pedida
+        int colunas = 60_000_000, largura = 40;
+        ModeloTabelaMatriz modelo = new ModeloTabelaMatriz(3, colunas, "canto", i -> "L" + i, j -> "C" + j,
+                (i, j) -> i + j);
+        TabelaMatriz tabela = new TabelaMatriz(modelo, largura);
+        assertEquals(colunas + 1, tabela.getColumnCount());
+        assertEquals("canto", tabela.getColumnModel().getColumn(0).getHeaderValue());
+        assertEquals("C41", tabela.getColumnModel().getColumn(42).getHeaderValue());
+        assertEquals(Integer.MAX_VALUE, tabela.getColumnModel().getTotalColumnWidth());
+
+        Rectangle rotulos = tabela.getCellRect(1, 0, true);
+        for (int coluna : new int[]{1, 2, 1000, 50_000_000}) {
+            Rectangle r = tabela.getCellRect(1, coluna, true);
+            assertEquals(largura, r.width);
+            assertEquals(rotulos.width + (coluna - 1) * largura, r.x);
+            assertEquals(tabela.getRowHeight(), r.y);
+            assertEquals(coluna, tabela.columnAtPoint(new Point(r.x + largura / 2, r.y)));
+        }
+        assertEquals(0, tabela.columnAtPoint(new Point(rotulos.width / 2, 0)));
+        // As colunas que passam do limite ficam no fim da área, sem posição negativa
+        assertEquals(Integer.MAX_VALUE, tabela.getCellRect(0, colunas, true).x);
+        assertEquals(1 + 1000, tabela.getValueAt(1, 1001));
+    }
+}
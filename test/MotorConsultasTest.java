@@ -0,0 +1,77 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Testes do MotorConsultas sobre uma rede pequena: o formato dos registros de cada
+ * tipo de consulta, o registro VAZIO, e os registros de erro tanto para consultas
+ * inválidas quanto para falhas inesperadas durante a execução.
+ */
+class MotorConsultasTest {
+    private static final Executor DIRETO = Runnable::run;
+
+    /**
+     * Rede 1 -> 2 -> 3 (10 + 20) e 1 -> 3 (50); o ponto 4 ("Galpão") fica isolado.
+     */
+    private static VersaoGrafo versao() {
+        GrafoColetaReciclaveis grafo = new GrafoColetaReciclaveis();
+        grafo.adicionarPonto("Centro");
+        grafo.adicionarPonto("Centro Norte");
+        grafo.adicionarPonto("Cidade Alta");
+        grafo.adicionarPonto("Galpão");
+        grafo.adicionarConexao(1, 2, 10);
+        grafo.adicionarConexao(2, 3, 20);
+        grafo.adicionarConexao(1, 3, 50);
+        return new VersaoGrafo(1, grafo);
+    }
+
+    private static String executar(MotorConsultas motor, long linha, String texto) {
+        return motor.executar(Consulta.interpretar(linha, texto));
+    }
+
+    @Test
+    void formataOsRegistrosDeCadaConsulta() {
+        MotorConsultas motor = new MotorConsultas(versao(), DIRETO, 1);
+        String[] caminho = executar(motor, 3, "CAMINHO;1;3").split(";");
+        assertEquals("3", caminho[0]);
+        assertEquals("CAMINHO", caminho[1]);
+        assertEquals("30", caminho[2]);
+        assertEquals("1,2,3\n", caminho[4]);
+        assertEquals("4;NOME;2;Centro Norte\n", executar(motor, 4, "NOME;centro norte"));
+        assertEquals("5;PREFIXO;1;Centro\n5;PREFIXO;2;Centro Norte\n",
+                executar(motor, 5, "PREFIXO;centro;10;ALFABETICA"));
+        assertEquals("6;GRAU;1;2\n", executar(motor, 6, "GRAU;1"));
+        assertEquals("7;DISTANCIAS;1;3;30\n7;DISTANCIAS;1;4;-\n", executar(motor, 7, "DISTANCIAS;1;3,4"));
+        assertEquals("8;CAMINHO;VAZIO\n", executar(motor, 8, "CAMINHO;1;4"));
+        assertEquals("9;APROXIMADO;4;Galpão;1\n", executar(motor, 9, "APROXIMADO;Galpxo;1"));
+    }
+
+    @Test
+    void consultaInvalidaViraRegistroDeErro() {
+        MotorConsultas motor = new MotorConsultas(versao(), DIRETO, 1);
+        assertEquals("2;ERRO;ID de origem inválido: 'x'\n", executar(motor, 2, "CAMINHO;x;3"));
+        assertEquals("3;ERRO;Ponto inexistente: 99\n", executar(motor, 3, "GRAU;99"));
+        assertTrue(executar(motor, 4, "CAMINHO;1;3;VOANDO").startsWith("4;ERRO;"));
+    }
+
+    @Test
+    void falhaInesperadaFicaNoResultadoDaPropriaConsulta() {
+        // Um executor que recusa tudo: a tabela de distâncias falha com uma exceção
+        // que não é de argumento inválido
+        Executor recusa = tarefa -> {
+            throw new RejectedExecutionException("fila cheia\nsegunda linha");
+        };
+        MotorConsultas motor = new MotorConsultas(versao(), recusa, 1);
+        String erro = executar(motor, 7, "DISTANCIAS;1;3");
+        assertTrue(erro.startsWith("7;ERRO;"), erro);
+        assertTrue(erro.contains("RejectedExecutionException"), erro);
+        // Um único registro, mesmo com a quebra de linha na mensagem
+        assertEquals(erro.length() - 1, erro.indexOf('\n'));
+        // As consultas seguintes não são afetadas
+        assertEquals("8;GRAU;3;2\n", executar(motor, 8, "GRAU;3"));
+    }
+}
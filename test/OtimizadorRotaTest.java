@@ -0,0 +1,124 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Executor;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Testes do otimizador de rotas: em instâncias pequenas a rota tem que ser uma
+ * permutação das paradas a partir do depósito, com a distância informada batendo com a
+ * soma dos trechos, nunca pior que a rota gulosa e igual ao ótimo da força bruta.
+ */
+class OtimizadorRotaTest {
+
+    @Test
+    void rotasPequenasChegamAoOtimo() {
+        Random aleatorio = new Random(16);
+        Executor naMesmaThread = Runnable::run;
+        for (int rodada = 0; rodada < 25; rodada++) {
+            int n = 20 + aleatorio.nextInt(30);
+            GrafoColetaReciclaveis grafo = redeConexa(aleatorio, n);
+            int quantidade = 1 + aleatorio.nextInt(8);
+            List<Integer> paradas = new ArrayList<>();
+            while (paradas.size() < quantidade) {
+                int id = 1 + aleatorio.nextInt(n);
+                if (!paradas.contains(id)) paradas.add(id);
+            }
+
+            ResultadoRota rota = grafo.otimizarRota(paradas, 200, naMesmaThread, 2);
+            List<Integer> ordem = rota.getParadas();
+            assertEquals(paradas.size(), ordem.size());
+            assertEquals(paradas.get(0), ordem.get(0), "a rota começa no depósito");
+            assertEquals(new HashSet<>(paradas), new HashSet<>(ordem));
+            assertTrue(rota.isViavel());
+
+            long[][] custo = custos(grafo, paradas);
+            assertEquals(custoRota(custo, paradas, ordem), rota.getDistancia());
+            assertTrue(rota.getDistancia() <= rota.getDistanciaInicial());
+            assertEquals(otimo(custo), rota.getDistancia(), "paradas " + paradas);
+        }
+    }
+
+    @Test
+    void paradaSemCaminhoTornaARotaInviavel() {
+        GrafoColetaReciclaveis grafo = new GrafoColetaReciclaveis();
+        for (int i = 1; i <= 5; i++) grafo.adicionarPonto("Ponto " + i);
+        grafo.adicionarConexao(1, 2, 10);
+        grafo.adicionarConexao(2, 3, 10);
+        grafo.adicionarConexao(3, 4, 10);
+        grafo.adicionarConexao(4, 1, 10);
+        // O ponto 5 só tem saída: não dá para chegar nele
+        grafo.adicionarConexao(5, 1, 10);
+
+        ResultadoRota rota = grafo.otimizarRota(List.of(1, 2, 3, 4), 50);
+        assertTrue(rota.isViavel());
+        assertEquals(40, rota.getDistancia());
+        assertEquals(List.of(1, 2, 3, 4), rota.getParadas());
+
+        assertFalse(grafo.otimizarRota(List.of(1, 3, 5), 50).isViavel());
+        assertNull(grafo.otimizarRota(List.of(1, 99), 50));
+        assertNull(grafo.otimizarRota(List.of(), 50));
+    }
+
+    /**
+     * Rede aleatória com um ciclo passando por todos os pontos, para que toda rota seja viável.
+     */
+    private static GrafoColetaReciclaveis redeConexa(Random aleatorio, int n) {
+        GrafoColetaReciclaveis grafo = new GrafoColetaReciclaveis();
+        for (int i = 1; i <= n; i++) grafo.adicionarPonto("Ponto " + i);
+        for (int i = 1; i <= n; i++) grafo.adicionarConexao(i, i % n + 1, 50 + aleatorio.nextInt(100));
+        for (int k = 0; k < 2 * n; k++) {
+            grafo.adicionarConexao(1 + aleatorio.nextInt(n), 1 + aleatorio.nextInt(n), 1 + aleatorio.nextInt(200));
+        }
+        return grafo;
+    }
+
+    /**
+     * Menores distâncias entre as paradas, pelo Dijkstra ponto a ponto.
+     */
+    private static long[][] custos(GrafoColetaReciclaveis grafo, List<Integer> paradas) {
+        int n = paradas.size();
+        long[][] custo = new long[n][n];
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                custo[i][j] = grafo.encontrarCaminhoMinimo(paradas.get(i), paradas.get(j)).getDistancia();
+            }
+        }
+        return custo;
+    }
+
+    private static long custoRota(long[][] custo, List<Integer> paradas, List<Integer> ordem) {
+        long total = 0;
+        for (int p = 0; p < ordem.size(); p++) {
+            int de = paradas.indexOf(ordem.get(p));
+            int para = paradas.indexOf(ordem.get((p + 1) % ordem.size()));
+            total += custo[de][para];
+        }
+        return total;
+    }
+
+    /**
+     * Menor rota pela força bruta: todas as ordens das paradas depois do depósito.
+     */
+    private static long otimo(long[][] custo) {
+        int n = custo.length;
+        return otimo(custo, 0, (1 << n) - 2, n);
+    }
+
+    private static long otimo(long[][] custo, int atual, int restantes, int n) {
+        if (restantes == 0) return custo[atual][0];
+        long melhor = Long.MAX_VALUE;
+        for (int j = 1; j < n; j++) {
+            if ((restantes & (1 << j)) == 0) continue;
+            melhor = Math.min(melhor, custo[atual][j] + otimo(custo, j, restantes & ~(1 << j), n));
+        }
+        return melhor;
+    }
+}
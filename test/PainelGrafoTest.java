@@ -0,0 +1,134 @@
+import org.junit.jupiter.api.Test;
+
+import java.awt.Graphics2D;
+import java.awt.event.MouseEvent;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Testes do PainelGrafo desenhando em imagens fora da tela: a camada em cache é
+ * refeita quando o grafo muda (o desenho fica igual ao de um painel novo), a visão
+ * volta ao original depois de ampliar, e o clique seleciona o ponto sob o cursor,
+ * mesmo depois de ampliar em torno dele.
+ */
+class PainelGrafoTest {
+    private static final int LARGURA = 600, ALTURA = 400;
+
+    /**
+     * Cria o painel com um layout fixo (os pontos em linha), para que o desenho não
+     * dependa do cálculo por forças em segundo plano.
+     */
+    private static PainelGrafo novoPainel(GrafoColetaReciclaveis grafo) {
+        PainelGrafo painel = new PainelGrafo(grafo);
+        painel.setSize(LARGURA, ALTURA);
+        painel.usarLayout(layoutEmLinha(grafo));
+        return painel;
+    }
+
+    private static LayoutGrafo layoutEmLinha(GrafoColetaReciclaveis grafo) {
+        int n = grafo.pontos.size();
+        int[] ids = new int[n];
+        double[] x = new double[n], y = new double[n];
+        List<Integer> ordem = new ArrayList<>(grafo.pontos.keySet());
+        for (int i = 0; i < n; i++) {
+            ids[i] = ordem.get(i);
+            x[i] = i;
+            y[i] = (i % 2) * 0.5;
+        }
+        int[] origens = new int[grafo.conexoes.size()], destinos = new int[origens.length];
+        int m = 0;
+        for (Conexao c : grafo.conexoes) {
+            origens[m] = ordem.indexOf(c.origem);
+            destinos[m++] = ordem.indexOf(c.destino);
+        }
+        return new LayoutGrafo(-1, LayoutForcas.assinatura(ids, origens, destinos, m), ids, x, y, 0, true);
+    }
+
+    private static int[] desenhar(PainelGrafo painel) {
+        BufferedImage imagem = new BufferedImage(LARGURA, ALTURA, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = imagem.createGraphics();
+        painel.paint(g);
+        g.dispose();
+        return imagem.getRGB(0, 0, LARGURA, ALTURA, null, 0, LARGURA);
+    }
+
+    private static GrafoColetaReciclaveis redePequena() {
+        GrafoColetaReciclaveis grafo = new GrafoColetaReciclaveis();
+        for (int i = 1; i <= 4; i++) grafo.adicionarPonto("Ponto " + i);
+        grafo.adicionarConexao(1, 2, 10);
+        grafo.adicionarConexao(2, 3, 20);
+        grafo.adicionarConexao(3, 4, 30);
+        return grafo;
+    }
+
+    @Test
+    void camadaEhRefeitaQuandoOGrafoMuda() {
+        GrafoColetaReciclaveis grafo = redePequena();
+        PainelGrafo painel = novoPainel(grafo);
+        int[] antes = desenhar(painel);
+        assertArrayEquals(antes, desenhar(painel), "repaint sem alteração");
+
+        // Mudar a distância não muda o layout, só o rótulo da conexão
+        grafo.editarConexao(1, 2, 3, 987);
+        int[] depois = desenhar(painel);
+        assertFalse(Arrays.equals(antes, depois), "a camada antiga foi reaproveitada");
+        assertArrayEquals(desenhar(novoPainel(grafo)), depois);
+    }
+
+    @Test
+    void visaoVoltaAoOriginal() {
+        PainelGrafo painel = novoPainel(redePequena());
+        int[] original = desenhar(painel);
+        painel.ampliar(3, 100, 150);
+        assertFalse(Arrays.equals(original, desenhar(painel)));
+        painel.restaurarVisao();
+        assertArrayEquals(original, desenhar(painel));
+    }
+
+    @Test
+    void cliqueSelecionaOPontoSobOCursor() {
+        GrafoColetaReciclaveis grafo = redePequena();
+        PainelGrafo painel = novoPainel(grafo);
+        List<Object> avisos = new ArrayList<>();
+        painel.addPropertyChangeListener("pontoSelecionado", e -> avisos.add(e.getNewValue()));
+        desenhar(painel);
+
+        // O layout ocupa [0, 3] x [0, 0,5] e é normalizado para [-1, 1] (escala 2/3, centro
+        // (1,5; 0,25)); o painel mostra [-1, 1] com menor lado / 2 - margem pixels por unidade
+        double escala = Math.min(LARGURA, ALTURA) / 2 - 30;
+        int x3 = (int) Math.round(LARGURA / 2.0 + (2 - 1.5) * 2 / 3 * escala);
+        int y3 = (int) Math.round(ALTURA / 2.0 + (0 - 0.25) * 2 / 3 * escala);
+        clicar(painel, x3, y3);
+        assertEquals(grafo.pontos.get(3), painel.getPontoSelecionado());
+        assertEquals(List.of(grafo.pontos.get(3)), avisos);
+
+        // Ampliar em torno do cursor mantém o ponto sob ele
+        painel.ampliar(4, x3, y3);
+        desenhar(painel);
+        clicar(painel, 5, 5);
+        assertNull(painel.getPontoSelecionado());
+        clicar(painel, x3, y3);
+        assertEquals(grafo.pontos.get(3), painel.getPontoSelecionado());
+
+        // Um ponto removido deixa de estar selecionado
+        grafo.excluirPonto(3);
+        assertNull(painel.getPontoSelecionado());
+        assertTrue(avisos.size() >= 3);
+    }
+
+    private static void clicar(PainelGrafo painel, int x, int y) {
+        long agora = System.currentTimeMillis();
+        painel.dispatchEvent(new MouseEvent(painel, MouseEvent.MOUSE_PRESSED, agora, MouseEvent.BUTTON1_DOWN_MASK,
+                x, y, 1, false, MouseEvent.BUTTON1));
+        painel.dispatchEvent(new MouseEvent(painel, MouseEvent.MOUSE_RELEASED, agora, 0,
+                x, y, 1, false, MouseEvent.BUTTON1));
+    }
+}
@@ -0,0 +1,74 @@
+import org.junit.jupiter.api.Test;
+
+import javax.management.Attribute;
+import javax.management.AttributeNotFoundException;
+import javax.management.MBeanAttributeInfo;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.ReflectionException;
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Testes do PublicadorJmx pelo servidor MBean da plataforma, como um cliente JMX o veria:
+ * valores publicados, exceções JMX para escrita e operações, e um novo registro quando
+ * um medidor aparece depois da primeira publicação.
+ */
+class PublicadorJmxTest {
+    private static final String NOME = "reciclaveis.teste:type=Metricas";
+
+    @Test
+    void publicaAsMetricasComoAtributosSomenteLeitura() throws Exception {
+        MBeanServer servidor = ManagementFactory.getPlatformMBeanServer();
+        ObjectName nome = new ObjectName(NOME);
+        MetricasGrafo metricas = new MetricasGrafo();
+        try (PublicadorJmx publicador = new PublicadorJmx(NOME)) {
+            // Antes da primeira publicação, todas as operações já existem com zero
+            assertEquals(0L, servidor.getAttribute(nome, "CAMINHO_DIJKSTRA.contagem"));
+
+            metricas.registrarDuracao(OperacaoGrafo.CAMINHO_DIJKSTRA, 1_000);
+            metricas.registrarDuracao(OperacaoGrafo.CAMINHO_DIJKSTRA, 3_000);
+            metricas.publicar(publicador);
+            assertEquals(2L, servidor.getAttribute(nome, "CAMINHO_DIJKSTRA.contagem"));
+            assertEquals(2_000.0, servidor.getAttribute(nome, "CAMINHO_DIJKSTRA.mediaNanos"));
+
+            assertThrows(AttributeNotFoundException.class, () -> servidor.getAttribute(nome, "inexistente"));
+            assertThrows(AttributeNotFoundException.class,
+                    () -> servidor.setAttribute(nome, new Attribute("CAMINHO_DIJKSTRA.contagem", 5L)));
+            assertThrows(ReflectionException.class,
+                    () -> servidor.invoke(nome, "zerar", new Object[0], new String[0]));
+        }
+        assertFalse(servidor.isRegistered(nome));
+    }
+
+    @Test
+    void novoMedidorRegistraOMBeanDeNovo() throws Exception {
+        MBeanServer servidor = ManagementFactory.getPlatformMBeanServer();
+        ObjectName nome = new ObjectName(NOME);
+        MetricasGrafo metricas = new MetricasGrafo();
+        try (PublicadorJmx publicador = new PublicadorJmx(NOME)) {
+            metricas.publicar(publicador);
+            assertFalse(atributos(servidor, nome).contains("vertices"));
+
+            metricas.definirMedidor("vertices", () -> 42);
+            metricas.publicar(publicador);
+            assertTrue(servidor.isRegistered(nome));
+            // O MBeanInfo do novo registro já descreve o medidor
+            assertTrue(atributos(servidor, nome).contains("vertices"));
+            assertEquals(42L, servidor.getAttribute(nome, "vertices"));
+        }
+        assertFalse(servidor.isRegistered(nome));
+    }
+
+    private static Set<String> atributos(MBeanServer servidor, ObjectName nome) throws Exception {
+        return Arrays.stream(servidor.getMBeanInfo(nome).getAttributes())
+                .map(MBeanAttributeInfo::getName).collect(Collectors.toSet());
+    }
+}
@@ -0,0 +1,106 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Testes da quadtree de Barnes–Hut contra a soma exata das repulsões entre todos os
+ * pares: com theta = 0 o resultado tem que ser o mesmo, e com o theta usual o erro
+ * fica pequeno perto da soma das intensidades. Pontos coincidentes não geram NaN.
+ */
+class QuadtreeBarnesHutTest {
+    private static final double K2 = 2.5;
+
+    @Test
+    void thetaZeroEhExato() {
+        Random aleatorio = new Random(23);
+        for (int rodada = 0; rodada < 20; rodada++) {
+            int n = 1 + aleatorio.nextInt(300);
+            double[][] p = pontosAleatorios(aleatorio, n);
+            QuadtreeBarnesHut arvore = new QuadtreeBarnesHut(p[0], p[1], n);
+            int[] pilha = new int[arvore.profundidadeMaxima()];
+            double[] forca = new double[2];
+            for (int i = 0; i < n; i++) {
+                arvore.repulsao(i, p[0][i], p[1][i], K2, 0, pilha, forca);
+                double[] exata = forcaExata(p, n, i);
+                double escala = 1e-9 * Math.max(1, exata[2]);
+                assertEquals(exata[0], forca[0], escala, "X do ponto " + i);
+                assertEquals(exata[1], forca[1], escala, "Y do ponto " + i);
+            }
+        }
+    }
+
+    @Test
+    void aproximacaoFicaPertoDaSomaExata() {
+        Random aleatorio = new Random(24);
+        for (int rodada = 0; rodada < 10; rodada++) {
+            int n = 500 + aleatorio.nextInt(1500);
+            double[][] p = pontosAleatorios(aleatorio, n);
+            QuadtreeBarnesHut arvore = new QuadtreeBarnesHut(p[0], p[1], n);
+            int[] pilha = new int[arvore.profundidadeMaxima()];
+            double[] forca = new double[2];
+            for (int i = 0; i < n; i += 7) {
+                arvore.repulsao(i, p[0][i], p[1][i], K2, 0.7, pilha, forca);
+                double[] exata = forcaExata(p, n, i);
+                double erro = Math.hypot(forca[0] - exata[0], forca[1] - exata[1]);
+                assertTrue(erro <= 0.05 * exata[2], "ponto " + i + ": erro " + erro + " de " + exata[2]);
+            }
+        }
+    }
+
+    @Test
+    void pontosCoincidentesTemForcaFinita() {
+        int n = 50;
+        double[] x = new double[n], y = new double[n];
+        for (int i = 0; i < n; i++) {
+            // Metade em um mesmo lugar, metade em outro
+            x[i] = i < n / 2 ? 1 : 5;
+            y[i] = i < n / 2 ? 1 : 5;
+        }
+        QuadtreeBarnesHut arvore = new QuadtreeBarnesHut(x, y, n);
+        int[] pilha = new int[arvore.profundidadeMaxima()];
+        double[] forca = new double[2];
+        for (int i = 0; i < n; i++) {
+            arvore.repulsao(i, x[i], y[i], K2, 0.7, pilha, forca);
+            assertTrue(Double.isFinite(forca[0]) && Double.isFinite(forca[1]), "ponto " + i);
+        }
+        // O grupo distante empurra cada ponto para longe dele
+        arvore.repulsao(0, x[0], y[0], K2, 0.7, pilha, forca);
+        assertTrue(forca[0] < 0 || forca[1] < 0);
+    }
+
+    /**
+     * Pontos espalhados em aglomerados de tamanhos variados, como em uma cidade.
+     */
+    private static double[][] pontosAleatorios(Random aleatorio, int n) {
+        double[] x = new double[n], y = new double[n];
+        double cx = 0, cy = 0;
+        for (int i = 0; i < n; i++) {
+            if (i % 50 == 0) {
+                cx = aleatorio.nextDouble() * 1000;
+                cy = aleatorio.nextDouble() * 1000;
+            }
+            x[i] = cx + aleatorio.nextGaussian() * 20;
+            y[i] = cy + aleatorio.nextGaussian() * 20;
+        }
+        return new double[][]{x, y};
+    }
+
+    /**
+     * @return A força exata sobre o ponto i (X e Y) e a soma das intensidades das parcelas.
+     */
+    private static double[] forcaExata(double[][] p, int n, int i) {
+        double fx = 0, fy = 0, soma = 0;
+        for (int j = 0; j < n; j++) {
+            if (j == i) continue;
+            double dx = p[0][i] - p[0][j], dy = p[1][i] - p[1][j];
+            double d2 = dx * dx + dy * dy;
+            fx += dx * K2 / d2;
+            fy += dy * K2 / d2;
+            soma += K2 / Math.sqrt(d2);
+        }
+        return new double[]{fx, fy, soma};
+    }
+}
@@ -0,0 +1,134 @@
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.StringJoiner;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Testes do ServicoConsultas por HTTP, com o cliente do JDK: o JSON de cada recurso,
+ * os status de erro (400, 404, 405, 413), o lote com erros por elemento e a leitura
+ * das versões publicadas pelo GrafoConcorrente.
+ */
+class ServicoConsultasTest {
+    private ServicoConsultas servico;
+    private HttpClient cliente;
+    private String base;
+
+    @BeforeEach
+    void iniciar() throws IOException {
+        GrafoColetaReciclaveis grafo = new GrafoColetaReciclaveis();
+        grafo.adicionarPonto("Centro");
+        grafo.adicionarPonto("Centro Norte");
+        grafo.adicionarPonto("Cidade Alta");
+        grafo.adicionarConexao(1, 2, 10);
+        grafo.adicionarConexao(2, 3, 20);
+        grafo.adicionarConexao(1, 3, 50);
+        servico = new ServicoConsultas(grafo);
+        base = "http://127.0.0.1:" + servico.iniciar(0).getPort();
+        cliente = HttpClient.newHttpClient();
+    }
+
+    @AfterEach
+    void parar() {
+        servico.close();
+    }
+
+    private HttpResponse<String> get(String caminho) throws Exception {
+        return cliente.send(HttpRequest.newBuilder(URI.create(base + caminho)).build(),
+                HttpResponse.BodyHandlers.ofString(StandardCharsets.UTF_8));
+    }
+
+    private HttpResponse<String> lote(String corpo) throws Exception {
+        HttpRequest requisicao = HttpRequest.newBuilder(URI.create(base + "/lote"))
+                .POST(HttpRequest.BodyPublishers.ofString(corpo, StandardCharsets.UTF_8)).build();
+        return cliente.send(requisicao, HttpResponse.BodyHandlers.ofString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void respondeOsRecursosEmJson() throws Exception {
+        HttpResponse<String> caminho = get("/caminho?origem=1&destino=3&estrategia=a_estrela");
+        assertEquals(200, caminho.statusCode());
+        assertTrue(caminho.body().startsWith("{\"origem\":1,\"destino\":3,\"estrategia\":\"A_ESTRELA\",\"encontrado\":true,\"distancia\":30,"),
+                caminho.body());
+        assertTrue(caminho.body().endsWith("\"caminho\":[1,2,3]}"), caminho.body());
+
+        // IDs repetidos aparecem uma vez; de 3 não há caminho até 1
+        assertEquals("{\"origens\":[1,3],\"destinos\":[3,1],\"distancias\":[[30,0],[0,null]]}",
+                get("/distancias?origens=1,3,1&destinos=3,1").body());
+        assertEquals("{\"encontrado\":true,\"ponto\":{\"id\":2,\"nome\":\"Centro Norte\"}}",
+                get("/nome?nome=" + URLEncoder.encode("centro norte", StandardCharsets.UTF_8)).body());
+        assertEquals("{\"prefixo\":\"Ce\",\"ordem\":\"ALFABETICA\",\"pontos\":[{\"id\":1,\"nome\":\"Centro\"}]}",
+                get("/prefixo?prefixo=Ce&limite=1&ordem=ALFABETICA").body());
+        assertTrue(get("/estatisticas").body().contains("\"conexoes\":3,\"distanciaTotal\":80"));
+    }
+
+    @Test
+    void errosTemStatusEMensagemEmJson() throws Exception {
+        HttpResponse<String> invalido = get("/caminho?origem=x&destino=3");
+        assertEquals(400, invalido.statusCode());
+        assertEquals("{\"status\":400,\"erro\":\"Parâmetro 'origem' inválido: 'x'\"}", invalido.body());
+        assertEquals(400, get("/prefixo").statusCode());
+        assertEquals(404, get("/rota").statusCode());
+        assertEquals(405, cliente.send(HttpRequest.newBuilder(URI.create(base + "/caminho"))
+                .POST(HttpRequest.BodyPublishers.noBody()).build(), HttpResponse.BodyHandlers.discarding()).statusCode());
+        assertEquals(405, get("/lote").statusCode());
+    }
+
+    @Test
+    void tabelaGrandeDemaisResponde413() throws Exception {
+        // 1001 x 1000 origens e destinos distintos passam do limite de células
+        HttpResponse<String> grande = get("/distancias?origens=" + sequencia(1, 1001) + "&destinos=" + sequencia(5_000, 1000));
+        assertEquals(413, grande.statusCode());
+        assertTrue(grande.body().contains(String.valueOf(ServicoConsultas.MAXIMO_CELULAS)), grande.body());
+        // Repetidos não contam: 1000 x 1000 distintos cabem no limite
+        HttpResponse<String> repetidos = get("/distancias?origens=" + sequencia(1, 1000) + ",1,2&destinos=" + sequencia(5_000, 1000));
+        assertEquals(200, repetidos.statusCode());
+    }
+
+    private static String sequencia(int inicio, int quantidade) {
+        StringJoiner ids = new StringJoiner(",");
+        for (int i = 0; i < quantidade; i++) ids.add(String.valueOf(inicio + i));
+        return ids.toString();
+    }
+
+    @Test
+    void loteRespondeNaOrdemComErrosPorElemento() throws Exception {
+        HttpResponse<String> resposta = lote("/caminho?origem=1&destino=2\n\n/nada\n/caminho?origem=y&destino=2\n"
+                + "/distancias?origens=" + sequencia(1, 1001) + "&destinos=" + sequencia(5_000, 1000) + "\n/estatisticas\n");
+        assertEquals(200, resposta.statusCode());
+        String corpo = resposta.body();
+        assertTrue(corpo.startsWith("[{\"origem\":1,\"destino\":2,"), corpo);
+        int nada = corpo.indexOf("{\"status\":404,");
+        int invalido = corpo.indexOf("{\"status\":400,");
+        int grande = corpo.indexOf("{\"status\":413,");
+        int estatisticas = corpo.indexOf("{\"versao\":1,");
+        assertTrue(0 < nada && nada < invalido && invalido < grande && grande < estatisticas, corpo);
+        assertTrue(corpo.endsWith("}]"), corpo);
+    }
+
+    @Test
+    void loteGrandeDemaisResponde413() throws Exception {
+        StringBuilder corpo = new StringBuilder();
+        for (int i = 0; i <= ServicoConsultas.MAXIMO_LOTE; i++) corpo.append("/estatisticas\n");
+        assertEquals(413, lote(corpo.toString()).statusCode());
+    }
+
+    @Test
+    void requisicoesSeguintesVeemAVersaoPublicada() throws Exception {
+        assertTrue(get("/caminho?origem=3&destino=1").body().contains("\"encontrado\":false"));
+        servico.getGrafo().alterar(g -> g.adicionarConexao(3, 1, 5));
+        HttpResponse<String> caminho = get("/caminho?origem=3&destino=1");
+        assertTrue(caminho.body().contains("\"distancia\":5,"), caminho.body());
+        assertTrue(get("/estatisticas").body().startsWith("{\"versao\":2,"));
+    }
+}
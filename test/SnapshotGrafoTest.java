@@ -0,0 +1,167 @@
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Testes do snapshot binário: um grafo gravado e lido de volta tem que ter os mesmos
+ * pontos, conexões (inclusive as pendentes), sucessores, distâncias, BST e Trie; e um
+ * snapshot de arquivos de texto alterados ou corrompido é recusado.
+ */
+class SnapshotGrafoTest {
+
+    @TempDir
+    Path pasta;
+
+    @Test
+    void gravarELerDepoisDeAlteracoesDevolveOMesmoGrafo() throws IOException {
+        Random aleatorio = new Random(8);
+        GrafoColetaReciclaveis grafo = new GrafoColetaReciclaveis();
+        for (int i = 0; i < 200; i++) grafo.adicionarPonto("Ponto " + aleatorio.nextInt(120));
+        for (int k = 0; k < 600; k++) {
+            grafo.adicionarConexao(1 + aleatorio.nextInt(200), 1 + aleatorio.nextInt(200), 1 + aleatorio.nextInt(500));
+        }
+        grafo.calcularGraus();
+        // Alterações incrementais: vértices trocados de índice, folgas nos segmentos, homônimos
+        for (int i = 0; i < 40; i++) grafo.excluirPonto(1 + aleatorio.nextInt(200));
+        for (int i = 0; i < 20; i++) grafo.editarPonto(1 + aleatorio.nextInt(200), "Renomeado " + i % 5);
+        for (int k = 0; k < 30; k++) grafo.excluirConexao(aleatorio.nextInt(grafo.conexoes.size()));
+        // Conexões pendentes (destino desconhecido) também vão para o snapshot
+        grafo.adicionarConexao(3, 5_000, 10);
+        grafo.adicionarConexao(5_001, 4, 20);
+
+        String arquivo = pasta.resolve("grafo.snap").toString();
+        grafo.salvarSnapshot(arquivo);
+        GrafoColetaReciclaveis lido = new GrafoColetaReciclaveis();
+        assertTrue(lido.carregarSnapshot(arquivo, null, null));
+        verificarIguais(grafo, lido, aleatorio);
+
+        // O grafo lido continua alterável, e a segunda geração do snapshot também confere
+        lido.excluirPonto(lido.getIdsDosVertices().get(0));
+        lido.adicionarPonto("Novo");
+        String segundo = pasta.resolve("segundo.snap").toString();
+        lido.salvarSnapshot(segundo);
+        GrafoColetaReciclaveis relido = new GrafoColetaReciclaveis();
+        assertTrue(relido.carregarSnapshot(segundo, null, null));
+        verificarIguais(lido, relido, aleatorio);
+    }
+
+    @Test
+    void leituraEmJanelasPequenasDevolveOMesmoConteudo() throws IOException {
+        Random aleatorio = new Random(21);
+        GrafoColetaReciclaveis grafo = new GrafoColetaReciclaveis();
+        for (int i = 0; i < 300; i++) grafo.adicionarPonto("Ecoponto " + aleatorio.nextInt(400) + " Ñandu");
+        for (int k = 0; k < 900; k++) {
+            grafo.adicionarConexao(1 + aleatorio.nextInt(300), 1 + aleatorio.nextInt(300), 1 + aleatorio.nextInt(900));
+        }
+        grafo.adicionarConexao(7, 9_999, 3);
+        String arquivo = pasta.resolve("janelas.snap").toString();
+        grafo.salvarSnapshot(arquivo);
+
+        // Janelas de tamanhos ímpares: inteiros, longs e caracteres ficam divididos entre duas janelas
+        SnapshotGrafo.Conteudo inteiro = SnapshotGrafo.ler(arquivo, null, null);
+        for (int janela : new int[]{7, 64, 1_001}) {
+            SnapshotGrafo.Conteudo emJanelas = SnapshotGrafo.ler(arquivo, null, null, janela);
+            assertNotNull(emJanelas, "janela " + janela);
+            assertEquals(new ArrayList<>(inteiro.pontos.keySet()), new ArrayList<>(emJanelas.pontos.keySet()));
+            inteiro.pontos.forEach((id, p) -> assertEquals(p.nome, emJanelas.pontos.get(id).nome));
+            assertEquals(multiconjunto(inteiro.conexoes), multiconjunto(emJanelas.conexoes));
+            assertEquals(inteiro.arestasPendentes, emJanelas.arestasPendentes);
+            verificarMesmaBST(inteiro.bst.raiz, emJanelas.bst.raiz);
+            assertEquals(inteiro.trie.contarNos(), emJanelas.trie.contarNos());
+            assertEquals(ids(inteiro.trie.buscarPorPrefixo("eco")), ids(emJanelas.trie.buscarPorPrefixo("eco")));
+        }
+    }
+
+    @Test
+    void snapshotDeArquivosAlteradosOuCorrompidoERecusado() throws IOException {
+        Path pontos = pasta.resolve("pontos.txt");
+        Path conexoes = pasta.resolve("conexoes.txt");
+        Files.write(pontos, List.of("1;Ecoponto A", "2;Ecoponto B", "3;Centro"), StandardCharsets.UTF_8);
+        Files.write(conexoes, List.of("1;2;100", "2;3;50", "3;1;75"), StandardCharsets.UTF_8);
+        String arquivo = pasta.resolve("grafo.snap").toString();
+
+        // A primeira carga lê os textos e grava o snapshot; a segunda usa o snapshot
+        GrafoColetaReciclaveis grafo = new GrafoColetaReciclaveis();
+        assertFalse(grafo.carregarArquivos(arquivo, pontos.toString(), conexoes.toString()).isEmpty());
+        GrafoColetaReciclaveis doSnapshot = new GrafoColetaReciclaveis();
+        assertTrue(doSnapshot.carregarArquivos(arquivo, pontos.toString(), conexoes.toString()).isEmpty());
+        verificarIguais(grafo, doSnapshot, new Random(1));
+
+        // Arquivo de conexões alterado: o snapshot deixa de valer
+        Files.write(conexoes, List.of("1;2;100", "2;3;50", "3;1;75", "1;3;500"), StandardCharsets.UTF_8);
+        assertFalse(new GrafoColetaReciclaveis().carregarSnapshot(arquivo, pontos.toString(), conexoes.toString()));
+
+        // Um byte trocado no meio do snapshot é detectado pelo CRC
+        grafo.salvarSnapshot(arquivo);
+        byte[] bytes = Files.readAllBytes(Path.of(arquivo));
+        bytes[bytes.length / 2] ^= 0x5A;
+        Files.write(Path.of(arquivo), bytes);
+        GrafoColetaReciclaveis corrompido = new GrafoColetaReciclaveis();
+        assertFalse(corrompido.carregarSnapshot(arquivo, null, null));
+        assertTrue(corrompido.pontos.isEmpty());
+    }
+
+    /**
+     * Compara os dois grafos: pontos, ordem dos índices densos, conexões, sucessores,
+     * distâncias de pares aleatórios, BST (estrutura e alturas) e Trie (buscas por prefixo).
+     */
+    private static void verificarIguais(GrafoColetaReciclaveis esperado, GrafoColetaReciclaveis atual, Random aleatorio) {
+        assertEquals(esperado.pontos.size(), atual.pontos.size());
+        esperado.pontos.forEach((id, p) -> assertEquals(p.nome, atual.pontos.get(id).nome, "ponto " + id));
+        assertEquals(esperado.getIdsDosVertices(), atual.getIdsDosVertices());
+        assertEquals(multiconjunto(esperado.conexoes), multiconjunto(atual.conexoes));
+        for (int k = 0; k < atual.conexoes.size(); k++) assertEquals(k, atual.conexoes.get(k).posicao, "posição");
+        for (int id : esperado.pontos.keySet()) {
+            assertEquals(multiconjunto(esperado.getListaSucessores().getOrDefault(id, List.of())),
+                    multiconjunto(atual.getListaSucessores().getOrDefault(id, List.of())), "sucessores de " + id);
+        }
+
+        List<Integer> ids = new ArrayList<>(esperado.pontos.keySet());
+        for (int i = 0; i < 50 && !ids.isEmpty(); i++) {
+            int o = ids.get(aleatorio.nextInt(ids.size())), d = ids.get(aleatorio.nextInt(ids.size()));
+            ResultadoCaminho a = esperado.encontrarCaminhoMinimo(o, d), b = atual.encontrarCaminhoMinimo(o, d);
+            assertEquals(a == null ? -1 : a.getDistancia(), b == null ? -1 : b.getDistancia(), o + "->" + d);
+        }
+
+        assertEquals(esperado.bst.tamanho(), atual.bst.tamanho());
+        verificarMesmaBST(esperado.bst.raiz, atual.bst.raiz);
+        assertEquals(esperado.trie.contarNos(), atual.trie.contarNos());
+        for (String prefixo : List.of("", "p", "ponto 1", "RENOMEADO", "c", "ecoponto", "x")) {
+            assertEquals(ids(esperado.trie.buscarPorPrefixo(prefixo)), ids(atual.trie.buscarPorPrefixo(prefixo)), prefixo);
+        }
+        // Os índices lidos apontam para os pontos do próprio grafo lido
+        for (PontoColeta p : atual.trie.buscarPorPrefixo("")) assertSame(atual.pontos.get(p.id), p);
+    }
+
+    private static void verificarMesmaBST(NoBST a, NoBST b) {
+        assertEquals(a == null, b == null);
+        if (a == null) return;
+        assertEquals(a.ponto.id, b.ponto.id);
+        assertEquals(a.altura, b.altura);
+        verificarMesmaBST(a.esquerda, b.esquerda);
+        verificarMesmaBST(a.direita, b.direita);
+    }
+
+    private static List<String> multiconjunto(List<Conexao> conexoes) {
+        return conexoes.stream().map(c -> c.origem + ">" + c.destino + ":" + c.distancia).sorted()
+                .collect(Collectors.toList());
+    }
+
+    private static List<Integer> ids(List<PontoColeta> pontos) {
+        return pontos.stream().map(p -> p.id).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,89 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Testes da tabela muitos-para-muitos contra o Dijkstra ponto a ponto, com mais
+ * origens que destinos e o contrário (buscas para frente e para trás), IDs repetidos
+ * e desconhecidos, e com as buscas em paralelo ou na thread que chama.
+ */
+class TabelaDistanciasTest {
+
+    private static GrafoColetaReciclaveis redeAleatoria(Random aleatorio, int n, int m) {
+        GrafoColetaReciclaveis grafo = new GrafoColetaReciclaveis();
+        for (int i = 1; i <= n; i++) grafo.adicionarPonto("Ponto " + i);
+        for (int k = 0; k < m; k++) {
+            grafo.adicionarConexao(1 + aleatorio.nextInt(n), 1 + aleatorio.nextInt(n), aleatorio.nextInt(100));
+        }
+        return grafo;
+    }
+
+    /**
+     * Sorteia 'quantidade' IDs entre 1 e n + 2 (os dois últimos não existem), com repetições.
+     */
+    private static List<Integer> idsAleatorios(Random aleatorio, int n, int quantidade) {
+        List<Integer> ids = new ArrayList<>(quantidade);
+        for (int k = 0; k < quantidade; k++) ids.add(1 + aleatorio.nextInt(n + 2));
+        return ids;
+    }
+
+    @Test
+    void tabelaConfereComODijkstraPontoAPonto() {
+        Random aleatorio = new Random(15);
+        Executor naMesmaThread = Runnable::run;
+        for (int rodada = 0; rodada < 30; rodada++) {
+            int n = 2 + aleatorio.nextInt(120);
+            GrafoColetaReciclaveis grafo = redeAleatoria(aleatorio, n, n * (1 + aleatorio.nextInt(4)));
+            // Alterna qual lado é menor, para usar as buscas pelas arestas de saída e de entrada
+            int menor = 1 + aleatorio.nextInt(5), maior = 1 + aleatorio.nextInt(40);
+            boolean maisOrigens = rodada % 2 == 0;
+            List<Integer> origens = idsAleatorios(aleatorio, n, maisOrigens ? maior : menor);
+            List<Integer> destinos = idsAleatorios(aleatorio, n, maisOrigens ? menor : maior);
+
+            TabelaDistancias tabela = rodada % 3 == 0
+                    ? grafo.calcularDistancias(origens, destinos, naMesmaThread)
+                    : grafo.calcularDistancias(origens, destinos, ForkJoinPool.commonPool());
+
+            // Linhas e colunas seguem a primeira ocorrência de cada ID
+            List<Integer> linhas = new ArrayList<>(new LinkedHashSet<>(origens));
+            List<Integer> colunas = new ArrayList<>(new LinkedHashSet<>(destinos));
+            assertEquals(linhas.size(), tabela.numOrigens());
+            assertEquals(colunas.size(), tabela.numDestinos());
+            for (int i = 0; i < linhas.size(); i++) {
+                assertEquals((int) linhas.get(i), tabela.origem(i));
+                for (int j = 0; j < colunas.size(); j++) {
+                    assertEquals((int) colunas.get(j), tabela.destino(j));
+                    ResultadoCaminho r = grafo.encontrarCaminhoMinimo(linhas.get(i), colunas.get(j));
+                    int esperada = r == null ? TabelaDistancias.INFINITO : r.getDistancia();
+                    String par = linhas.get(i) + ">" + colunas.get(j);
+                    assertEquals(esperada, tabela.get(i, j), par);
+                    assertEquals(r == null ? -1 : esperada, tabela.distancia(linhas.get(i), colunas.get(j)), par);
+                }
+            }
+            // Cada busca assenta no máximo todos os vértices, uma por ponto do lado menor
+            long buscas = Math.min(linhas.size(), colunas.size());
+            assertTrue(tabela.getVerticesAssentados() <= buscas * n);
+        }
+    }
+
+    @Test
+    void idsForaDaTabelaNaoTemDistancia() {
+        GrafoColetaReciclaveis grafo = redeAleatoria(new Random(2), 10, 30);
+        TabelaDistancias tabela = grafo.calcularDistancias(List.of(1, 2), List.of(3));
+        assertEquals(-1, tabela.distancia(3, 3));
+        assertEquals(-1, tabela.distancia(1, 1));
+
+        TabelaDistancias vazia = grafo.calcularDistancias(List.of(), List.of(1, 2, 3));
+        assertEquals(0, vazia.numOrigens());
+        assertEquals(3, vazia.numDestinos());
+        assertEquals(0, vazia.getVerticesAssentados());
+    }
+}